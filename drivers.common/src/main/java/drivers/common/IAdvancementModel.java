@@ -5,6 +5,8 @@ import common.map.fixtures.mobile.IWorker;
 
 import common.map.fixtures.mobile.worker.ISkill;
 
+import java.util.List;
+
 /**
  * An interface for methods needed for worker advancement. Implementations of
  * other driver-model interfaces are expected to also satisfy this interface as
@@ -57,6 +59,37 @@ public interface IAdvancementModel extends IDriverModel {
 	boolean addHoursToSkill(IWorker worker, String jobName, String skillName, int hours,
 		int contextValue);
 
+	/**
+	 * An addition of hours to a Skill in a Job in a worker, as in {@link #addHoursToSkill}.
+	 *
+	 * @param worker The worker to advance, matched by ID, name, and race
+	 * @param jobName The name of the Job the Skill is in
+	 * @param skillName The name of the Skill to add hours to
+	 * @param hours How many hours to add
+	 * @param contextValue A random number between 0 and 99
+	 */
+	record SkillHours(IWorker worker, String jobName, String skillName, int hours, int contextValue) {
+	}
+
+	/**
+	 * Add hours to Skills in many workers at once. The result is the same
+	 * as calling {@link #addHoursToSkill} for each update in turn, but
+	 * implementations should find the matching workers in each map in one
+	 * pass rather than one search per update. Returns true if a matching
+	 * worker was found in at least one map for at least one update, false
+	 * otherwise.
+	 */
+	default boolean addHoursToSkills(final List<SkillHours> updates) {
+		boolean any = false;
+		for (final SkillHours update : updates) {
+			if (addHoursToSkill(update.worker(), update.jobName(), update.skillName(), update.hours(),
+					update.contextValue())) {
+				any = true;
+			}
+		}
+		return any;
+	}
+
 	/**
 	 * Add hours to a Skill to the specified Job in all workers in the
 	 * given unit in all maps. (If a worker is in a different unit in some
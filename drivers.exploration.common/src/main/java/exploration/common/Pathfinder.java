@@ -15,4 +15,12 @@ public /* sealed */ interface Pathfinder {
 	 * FIXME: Should we specify Long instead of Integer?
 	 */
 	Pair<Integer, Iterable<Point>> getTravelDistance(Point start, Point end);
+
+	/**
+	 * The shortest-path distances, avoiding obstacles, in MP, from the given
+	 * point to every point on the map, computed in one sweep rather than one
+	 * search per destination. Implementations may cache these per starting
+	 * point.
+	 */
+	TravelDistanceField getTravelDistances(Point start);
 }
@@ -10,15 +10,21 @@ import java.util.Set;
 import java.util.Map;
 import java.util.HashSet;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.ArrayList;
 import java.util.List;
 import common.map.IMapNG;
 import common.map.Direction;
 import common.map.Point;
 import common.map.fixtures.terrain.Forest;
+import common.perf.PathfinderEvent;
 import java.util.function.Predicate;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PriorityQueue;
 
 /* package */ class PathfinderImpl implements Pathfinder {
 	public PathfinderImpl(final IMapNG map) {
@@ -27,10 +33,55 @@ import java.util.Optional;
 		size = dims.rows() * dims.columns();
 		LovelaceLogger.debug("Map has %d tiles", size);
 		tentativeDistances = new HashMap<>(size);
+		fieldsRevision = map.getRevision();
 	}
 	private final IMapNG map;
 	private final Map<SimplePair<Point>, Integer> tentativeDistances;
 	private final int size;
+
+	/**
+	 * The most distance fields to keep at once; each holds a distance for
+	 * every tile in the map.
+	 */
+	private static final int MAX_DISTANCE_FIELDS = 8;
+
+	/**
+	 * Distances from recently used starting points to everywhere, as
+	 * computed by {@link #getTravelDistances}, least recently used first.
+	 */
+	private final Map<Point, TravelDistanceField> distanceFields = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * The {@link IMapNG#getRevision revision} of the map when the fields in
+	 * {@link #distanceFields} were computed; if the map has changed since,
+	 * they are discarded.
+	 */
+	private int fieldsRevision;
+
+	/**
+	 * The number of fixtures in the map, for {@link PathfinderEvent}s, or
+	 * negative if not yet counted.
+	 */
+	private long fixtureCount = -1;
+
+	/**
+	 * The {@link IMapNG#getRevision revision} of the map when {@link
+	 * #fixtureCount} was counted.
+	 */
+	private int fixtureCountRevision;
+
+	/**
+	 * The number of fixtures in the map, counted again only if the map has
+	 * changed since it was last counted.
+	 */
+	private long countFixtures() {
+		if (fixtureCount < 0 || fixtureCountRevision != map.getRevision()) {
+			fixtureCount = map.streamAllFixtures().count();
+			fixtureCountRevision = map.getRevision();
+		}
+		return fixtureCount;
+	}
+
 	private static Predicate<Map.Entry<SimplePair<Point>, Integer>> forUs(final Point base, final Set<Point> unvisited) {
 		return entry -> entry.getKey().getFirst().equals(base) &&
 			unvisited.contains(entry.getKey().getSecond());
@@ -87,6 +138,14 @@ import java.util.Optional;
 	 */
 	@Override
 	public Pair<Integer, Iterable<Point>> getTravelDistance(final Point start, final Point end) {
+		final PathfinderEvent event = new PathfinderEvent(start, end);
+		event.begin();
+		final Pair<Integer, Iterable<Point>> retval = computeTravelDistance(start, end);
+		event.commitFor(map, this::countFixtures);
+		return retval;
+	}
+
+	private Pair<Integer, Iterable<Point>> computeTravelDistance(final Point start, final Point end) {
 		final Set<Point> unvisited = new HashSet<>(size);
 		for (final Point point : map.getLocations()) {
 			unvisited.add(point);
@@ -175,4 +234,101 @@ import java.util.Optional;
 		return Pair.with(Optional.ofNullable(tentativeDistances.get(SimplePair.of(start, end)))
 			.orElse(Integer.MAX_VALUE - 1), Collections.emptyList());
 	}
+
+	/**
+	 * The shortest-path distances, avoiding obstacles, in MP, from the given
+	 * point to every point on the map, using Dijkstra's algorithm over tile
+	 * indices with a priority queue, and the same movement costs as {@link
+	 * #getTravelDistance}.
+	 */
+	@Override
+	public TravelDistanceField getTravelDistances(final Point start) {
+		if (map.getRevision() != fieldsRevision) {
+			distanceFields.clear();
+			fieldsRevision = map.getRevision();
+		}
+		final @Nullable TravelDistanceField cached = distanceFields.get(start);
+		if (cached != null) {
+			return cached;
+		}
+		final PathfinderEvent event = new PathfinderEvent(start);
+		event.begin();
+		final TravelDistanceField retval = computeTravelDistances(start);
+		event.commitFor(map, this::countFixtures);
+		distanceFields.put(start, retval);
+		if (distanceFields.size() > MAX_DISTANCE_FIELDS) {
+			final Iterator<Point> eldest = distanceFields.keySet().iterator();
+			eldest.next();
+			eldest.remove();
+		}
+		return retval;
+	}
+
+	/**
+	 * The cost of moving from one point to a neighboring one.
+	 */
+	private int movementCost(final Point current, final Point neighbor) {
+		return SimpleMovementModel.movementCost(map.getBaseTerrain(neighbor),
+			map.getFixtures(neighbor).stream().anyMatch(Forest.class::isInstance),
+			map.isMountainous(neighbor),
+			SimpleMovementModel.riversSpeedTravel(getDirection(current, neighbor),
+				map.getRivers(current), map.getRivers(neighbor)),
+			map.getFixtures(neighbor));
+	}
+
+	/**
+	 * A priority-queue entry for the given tile at the given distance,
+	 * ordered by distance and then index.
+	 */
+	private static long queueEntry(final int distance, final int index) {
+		return ((long) distance << 32) | index;
+	}
+
+	private TravelDistanceField computeTravelDistances(final Point start) {
+		final MapDimensions dims = map.getDimensions();
+		final int columns = dims.columns();
+		final int[] distances = new int[size];
+		Arrays.fill(distances, TravelDistanceField.UNREACHABLE);
+		final BitSet settled = new BitSet(size);
+		final PriorityQueue<Long> queue = new PriorityQueue<>();
+		if (dims.contains(start)) {
+			final int index = start.row() * columns + start.column();
+			distances[index] = 0;
+			queue.add(queueEntry(0, index));
+		} else {
+			// Moving from off the map onto it, as getTravelDistance() allows.
+			for (final Point neighbor : new SurroundingPointIterable(start, dims, 1)) {
+				if (dims.contains(neighbor)) {
+					final int index = neighbor.row() * columns + neighbor.column();
+					final int distance = movementCost(start, neighbor);
+					if (distance < distances[index]) {
+						distances[index] = distance;
+						queue.add(queueEntry(distance, index));
+					}
+				}
+			}
+		}
+		while (!queue.isEmpty()) {
+			final long entry = queue.remove();
+			final int index = (int) entry;
+			if (settled.get(index)) {
+				continue;
+			}
+			settled.set(index);
+			final int currentDistance = distances[index];
+			final Point current = new Point(index / columns, index % columns);
+			for (final Point neighbor : new SurroundingPointIterable(current, dims, 1)) {
+				final int neighborIndex = neighbor.row() * columns + neighbor.column();
+				if (settled.get(neighborIndex)) {
+					continue;
+				}
+				final int tentativeDistance = clampAdd(currentDistance, movementCost(current, neighbor));
+				if (tentativeDistance < distances[neighborIndex]) {
+					distances[neighborIndex] = tentativeDistance;
+					queue.add(queueEntry(tentativeDistance, neighborIndex));
+				}
+			}
+		}
+		return new TravelDistanceField(start, dims, distances);
+	}
 }
@@ -0,0 +1,70 @@
+package exploration.common;
+
+import java.util.Comparator;
+
+import common.map.MapDimensions;
+import common.map.Point;
+
+/**
+ * The shortest-path distances, avoiding obstacles, in MP, from one point to
+ * every point on a map, as computed in one sweep by {@link
+ * Pathfinder#getTravelDistances}. The distance to any point is what {@link
+ * Pathfinder#getTravelDistance} would report for that point.
+ */
+public final class TravelDistanceField {
+	/**
+	 * The distance reported for points that cannot be reached at all.
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE - 1;
+
+	private final Point origin;
+
+	private final MapDimensions dimensions;
+
+	/**
+	 * The distance to each point, by its index in the map (row times the
+	 * number of columns, plus column).
+	 */
+	private final int[] distances;
+
+	/* package */ TravelDistanceField(final Point origin, final MapDimensions dimensions, final int[] distances) {
+		this.origin = origin;
+		this.dimensions = dimensions;
+		this.distances = distances;
+	}
+
+	/**
+	 * The point distances are measured from.
+	 */
+	public Point getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * The distance, in MP, from the origin to the given point, or {@link
+	 * #UNREACHABLE} if it cannot be reached.
+	 */
+	public int getDistance(final Point destination) {
+		if (origin.equals(destination)) {
+			return 0;
+		} else if (dimensions.contains(destination)) {
+			return distances[destination.row() * dimensions.columns() + destination.column()];
+		} else {
+			return UNREACHABLE;
+		}
+	}
+
+	/**
+	 * Whether the given point can be reached from the origin.
+	 */
+	public boolean isReachable(final Point destination) {
+		return getDistance(destination) < UNREACHABLE;
+	}
+
+	/**
+	 * A comparator to sort points nearest to the origin first, by travel distance.
+	 */
+	public Comparator<Point> comparator() {
+		return Comparator.comparingInt(this::getDistance);
+	}
+}
@@ -0,0 +1,175 @@
+package exploration.common;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.Nullable;
+
+import common.DistanceComparator;
+import common.map.IMapNG;
+import common.map.MapDimensions;
+import common.map.Point;
+import common.map.TileType;
+
+/**
+ * A search for the nearest "obviously reachable" unexplored tiles: those
+ * with no known terrain that can be reached from the starting point across
+ * explored non-ocean tiles without ever moving closer to the start.
+ *
+ * This is a breadth-first search over tiles identified by their index in the
+ * map (row times the number of columns, plus column), rather than by {@link
+ * Point}, with neighbors (wrapping around the edges of the map) computed
+ * directly rather than by {@link SurroundingPointIterable}. What it needs to
+ * know of the map's terrain is copied when it is constructed, so later
+ * changes to the map are not reflected, but searches from many starting
+ * points (as for all of a player's units) can run in parallel.
+ */
+public final class UnexploredTileFinder {
+	/**
+	 * The state of a tile whose terrain is unknown, where searches stop.
+	 */
+	private static final byte UNEXPLORED = 0;
+
+	/**
+	 * The state of an ocean tile, beyond which searches don't go.
+	 */
+	private static final byte OCEAN = 1;
+
+	/**
+	 * The state of any other tile, through which searches continue.
+	 */
+	private static final byte PASSABLE = 2;
+
+	private final MapDimensions dimensions;
+
+	/**
+	 * The state of each tile, by index.
+	 */
+	private final byte[] tiles;
+
+	public UnexploredTileFinder(final IMapNG map) {
+		dimensions = map.getDimensions();
+		tiles = new byte[dimensions.rows() * dimensions.columns()];
+		for (int row = 0; row < dimensions.rows(); row++) {
+			for (int column = 0; column < dimensions.columns(); column++) {
+				final TileType terrain = map.getBaseTerrain(new Point(row, column));
+				final byte state;
+				if (terrain == null) {
+					state = UNEXPLORED;
+				} else if (TileType.Ocean == terrain) {
+					state = OCEAN;
+				} else {
+					state = PASSABLE;
+				}
+				tiles[row * dimensions.columns() + column] = state;
+			}
+		}
+	}
+
+	/**
+	 * Wrap a row or column index that may be one past either edge of the map.
+	 */
+	private static int wrap(final int index, final int size) {
+		if (index < 0) {
+			return size + index;
+		} else {
+			return index % size;
+		}
+	}
+
+	/**
+	 * The square of the distance between two points as computed by {@link
+	 * MapDimensions#distance}, which is what decides whether the search may
+	 * move from one tile to another. (We compare squares to avoid taking
+	 * square roots; as the square root is monotonic, this changes nothing.)
+	 */
+	private int squaredDistance(final int baseRow, final int baseColumn, final int row, final int column) {
+		final int rawRowDiff = baseRow - row;
+		final int rawColumnDiff = baseColumn - column;
+		final int rowDiff = (rawRowDiff < dimensions.rows() / 2) ? rawRowDiff : dimensions.rows() - rawRowDiff;
+		final int columnDiff = (rawColumnDiff < dimensions.columns() / 2) ? rawColumnDiff :
+			dimensions.columns() - rawColumnDiff;
+		return rowDiff * rowDiff + columnDiff * columnDiff;
+	}
+
+	/**
+	 * The unexplored tiles reachable from the given point, in the order the
+	 * search reaches them.
+	 */
+	private List<Point> reachable(final Point base) {
+		if (!dimensions.contains(base)) {
+			final List<Point> retval = new ArrayList<>();
+			retval.add(base);
+			return retval;
+		}
+		final int rows = dimensions.rows();
+		final int columns = dimensions.columns();
+		// Each tile is enqueued at most once, so the queue needs no more room than this.
+		final int[] queue = new int[tiles.length];
+		final BitSet visited = new BitSet(tiles.length);
+		final List<Point> retval = new ArrayList<>();
+		int head = 0;
+		int tail = 0;
+		final int start = base.row() * columns + base.column();
+		queue[tail++] = start;
+		visited.set(start);
+		while (head < tail) {
+			final int current = queue[head++];
+			final int row = current / columns;
+			final int column = current % columns;
+			if (tiles[current] == UNEXPLORED) {
+				retval.add(new Point(row, column));
+			} else if (tiles[current] == PASSABLE) {
+				final int currentDistance = squaredDistance(base.row(), base.column(), row, column);
+				for (int rowOffset = -1; rowOffset <= 1; rowOffset++) {
+					final int neighborRow = wrap(row + rowOffset, rows);
+					for (int columnOffset = -1; columnOffset <= 1; columnOffset++) {
+						final int neighborColumn = wrap(column + columnOffset, columns);
+						final int neighbor = neighborRow * columns + neighborColumn;
+						if (!visited.get(neighbor) && squaredDistance(base.row(), base.column(),
+								neighborRow, neighborColumn) >= currentDistance) {
+							visited.set(neighbor);
+							queue[tail++] = neighbor;
+						}
+					}
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * The nearest obviously-reachable unexplored tile to the given point, or
+	 * null if there is none. Of those equally near, the first the search
+	 * reaches is chosen.
+	 */
+	public @Nullable Point findNearest(final Point base) {
+		return reachable(base).stream().min(new DistanceComparator(base, dimensions)).orElse(null);
+	}
+
+	/**
+	 * The (up to) given number of nearest obviously-reachable unexplored
+	 * tiles to the given point, nearest first.
+	 */
+	public List<Point> findNearest(final Point base, final int count) {
+		final List<Point> retval = reachable(base);
+		// List.sort() is stable, so ties stay in the order the search found them.
+		retval.sort(new DistanceComparator(base, dimensions));
+		return Collections.unmodifiableList(retval.subList(0, Math.min(count, retval.size())));
+	}
+
+	/**
+	 * The (up to) given number of nearest obviously-reachable unexplored
+	 * tiles to each of the given points, searching from each in parallel.
+	 */
+	public Map<Point, List<Point>> findNearest(final Collection<Point> bases, final int count) {
+		return bases.parallelStream().distinct()
+			.collect(Collectors.toMap(Function.identity(), base -> findNearest(base, count)));
+	}
+}
@@ -0,0 +1,151 @@
+package exploration.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileType;
+import common.map.fixtures.terrain.Forest;
+
+/**
+ * Tests that the distances {@link Pathfinder#getTravelDistances} finds in one
+ * sweep are those {@link Pathfinder#getTravelDistance} finds for each
+ * destination.
+ */
+public class TravelDistanceFieldTest {
+	private static final TileType[] TERRAIN = { TileType.Plains, TileType.Steppe, TileType.Desert,
+		TileType.Jungle, TileType.Swamp, TileType.Tundra, TileType.Ocean };
+
+	/**
+	 * Create a map of the given size with random terrain, forests,
+	 * mountains, and rivers, with the given percentage of tiles unexplored.
+	 */
+	private static IMutableMapNG createMap(final Random random, final int rows, final int columns,
+	                                       final int unexplored) {
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(rows, columns, 2),
+			new PlayerCollection(), 0);
+		int id = 1;
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				final Point point = new Point(row, column);
+				if (random.nextInt(100) < unexplored) {
+					continue;
+				}
+				retval.setBaseTerrain(point, TERRAIN[random.nextInt(TERRAIN.length)]);
+				if (random.nextInt(4) == 0) {
+					retval.setMountainous(point, true);
+				}
+				if (random.nextInt(4) == 0) {
+					retval.addFixture(point, new Forest("oak", random.nextBoolean(), id++));
+				}
+				if (random.nextInt(3) == 0) {
+					retval.addRivers(point, River.values()[random.nextInt(River.values().length)]);
+				}
+			}
+		}
+		return retval;
+	}
+
+	private static Stream<Arguments> maps() {
+		return Stream.of(Arguments.of(1, 1, 0), Arguments.of(2, 3, 10), Arguments.of(5, 5, 0),
+			Arguments.of(6, 9, 5), Arguments.of(8, 7, 20));
+	}
+
+	/**
+	 * Test that the distance to every point, from every point, is what the
+	 * pairwise search reports.
+	 */
+	@ParameterizedTest
+	@MethodSource("maps")
+	public void testMatchesPairwise(final int rows, final int columns, final int unexplored) {
+		final IMapNG map = createMap(new Random(rows * 1000 + columns), rows, columns, unexplored);
+		final Pathfinder fields = new PathfinderImpl(map);
+		for (final Point start : map.getLocations()) {
+			// The pairwise search caches estimates per start; a fresh one
+			// per start keeps this test from taking quadratically longer.
+			final Pathfinder pairwise = new PathfinderImpl(map);
+			final TravelDistanceField field = fields.getTravelDistances(start);
+			assertEquals(start, field.getOrigin(), "Field is from the requested point");
+			assertSame(field, fields.getTravelDistances(start), "Field is cached");
+			for (final Point end : map.getLocations()) {
+				assertEquals(pairwise.getTravelDistance(start, end).getValue0(), field.getDistance(end),
+					String.format("Distance from %s to %s", start, end));
+			}
+		}
+	}
+
+	/**
+	 * Test that distances from a point off the map, which the pairwise
+	 * search allows, also match.
+	 */
+	@ParameterizedTest
+	@MethodSource("maps")
+	public void testOffMapStart(final int rows, final int columns, final int unexplored) {
+		final IMapNG map = createMap(new Random(rows * 1000 + columns), rows, columns, unexplored);
+		final Point start = new Point(-1, -1);
+		final TravelDistanceField field = new PathfinderImpl(map).getTravelDistances(start);
+		final Pathfinder pairwise = new PathfinderImpl(map);
+		assertEquals(0, field.getDistance(start), "No distance to the start");
+		for (final Point end : map.getLocations()) {
+			assertEquals(pairwise.getTravelDistance(start, end).getValue0(), field.getDistance(end),
+				String.format("Distance from %s to %s", start, end));
+		}
+	}
+
+	/**
+	 * Test that cached fields are discarded when the map changes.
+	 */
+	@Test
+	public void testCacheDiscardedOnChange() {
+		final IMutableMapNG map = createMap(new Random(44), 6, 6, 0);
+		final Pathfinder pathfinder = new PathfinderImpl(map);
+		final Point start = new Point(0, 0);
+		final Point end = new Point(5, 5);
+		final TravelDistanceField before = pathfinder.getTravelDistances(start);
+		for (int i = 1; i < 5; i++) {
+			map.setBaseTerrain(new Point(i, i), TileType.Ocean);
+			map.setMountainous(new Point(i, i - 1), true);
+		}
+		final TravelDistanceField after = pathfinder.getTravelDistances(start);
+		assertNotSame(before, after, "Field is recomputed after the map changes");
+		assertEquals(new PathfinderImpl(map).getTravelDistance(start, end).getValue0(), after.getDistance(end),
+			"Recomputed field reflects the change");
+		assertSame(after, pathfinder.getTravelDistances(start), "Field is cached again");
+	}
+
+	/**
+	 * Test that only a bounded number of fields are kept, discarding the
+	 * least recently used first.
+	 */
+	@Test
+	public void testCacheBounded() {
+		final IMapNG map = createMap(new Random(44), 6, 6, 0);
+		final Pathfinder pathfinder = new PathfinderImpl(map);
+		final Point first = new Point(0, 0);
+		final Point second = new Point(0, 1);
+		final TravelDistanceField firstField = pathfinder.getTravelDistances(first);
+		final TravelDistanceField secondField = pathfinder.getTravelDistances(second);
+		for (int column = 0; column < 6; column++) {
+			assertSame(firstField, pathfinder.getTravelDistances(first), "Recently used field is kept");
+			pathfinder.getTravelDistances(new Point(1, column));
+		}
+		pathfinder.getTravelDistances(new Point(2, 0));
+		assertNotSame(secondField, pathfinder.getTravelDistances(second),
+			"Least recently used field is discarded");
+	}
+}
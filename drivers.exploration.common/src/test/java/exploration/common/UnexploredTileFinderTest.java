@@ -0,0 +1,147 @@
+package exploration.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import common.DistanceComparator;
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensions;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.TileType;
+
+/**
+ * Tests that {@link UnexploredTileFinder} finds the same tiles as the search
+ * it replaced.
+ */
+public class UnexploredTileFinderTest {
+	/**
+	 * The search {@link UnexploredTileFinder} replaced, from the query CLI.
+	 */
+	private static @Nullable Point oldFindUnexplored(final IMapNG map, final Point base) {
+		final Deque<Point> queue = new LinkedList<>();
+		queue.addLast(base);
+		final MapDimensions dimensions = map.getDimensions();
+		final Set<Point> considered = new HashSet<>();
+		final List<Point> retval = new ArrayList<>();
+		while (!queue.isEmpty()) {
+			final Point current = queue.removeFirst();
+			final TileType currentTerrain = map.getBaseTerrain(current);
+			if (considered.contains(current)) {
+				continue;
+			} else if (currentTerrain == null) {
+				retval.add(current);
+			} else {
+				if (TileType.Ocean != currentTerrain) {
+					final double baseDistance = dimensions.distance(base, current);
+					for (final Point neighbor : new SurroundingPointIterable(current,
+							dimensions, 1)) {
+						if (dimensions.distance(base, neighbor) >= baseDistance) {
+							queue.addLast(neighbor);
+						}
+					}
+				}
+			}
+			considered.add(current);
+		}
+		return retval.stream().min(new DistanceComparator(base, dimensions)).orElse(null);
+	}
+
+	/**
+	 * Create a map of the given size, with the given percentages of tiles
+	 * unexplored and ocean and the rest plains.
+	 */
+	private static IMapNG createMap(final Random random, final int rows, final int columns,
+	                                final int unexplored, final int ocean) {
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(rows, columns, 2),
+			new PlayerCollection(), 0);
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				final int roll = random.nextInt(100);
+				if (roll < unexplored) {
+					continue;
+				} else if (roll < unexplored + ocean) {
+					retval.setBaseTerrain(new Point(row, column), TileType.Ocean);
+				} else {
+					retval.setBaseTerrain(new Point(row, column), TileType.Plains);
+				}
+			}
+		}
+		return retval;
+	}
+
+	private static Stream<Arguments> maps() {
+		return Stream.of(Arguments.of(1, 1, 0, 0), Arguments.of(2, 3, 10, 10), Arguments.of(20, 30, 2, 20),
+			Arguments.of(41, 37, 1, 5), Arguments.of(40, 40, 0, 10), Arguments.of(25, 25, 30, 30));
+	}
+
+	/**
+	 * Test that the nearest unexplored tile found is the one the old search
+	 * found, from every starting point.
+	 */
+	@ParameterizedTest
+	@MethodSource("maps")
+	public void testMatchesOldSearch(final int rows, final int columns, final int unexplored, final int ocean) {
+		final IMapNG map = createMap(new Random(rows * 1000 + columns), rows, columns, unexplored, ocean);
+		final UnexploredTileFinder finder = new UnexploredTileFinder(map);
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				final Point base = new Point(row, column);
+				final Point expected = oldFindUnexplored(map, base);
+				assertEquals(expected, finder.findNearest(base), "Nearest unexplored tile to " + base);
+				final List<Point> nearest = finder.findNearest(base, 1);
+				assertEquals((expected == null) ? List.of() : List.of(expected), nearest,
+					"Nearest one unexplored tile to " + base);
+			}
+		}
+	}
+
+	/**
+	 * Test that searching from many points at once gives the same results as
+	 * searching from each in turn, each list nearest first.
+	 */
+	@ParameterizedTest
+	@MethodSource("maps")
+	public void testBatch(final int rows, final int columns, final int unexplored, final int ocean) {
+		final IMapNG map = createMap(new Random(rows * 1000 + columns), rows, columns, unexplored, ocean);
+		final UnexploredTileFinder finder = new UnexploredTileFinder(map);
+		final Random random = new Random(40);
+		final List<Point> bases = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			bases.add(new Point(random.nextInt(rows), random.nextInt(columns)));
+		}
+		final Map<Point, List<Point>> results = finder.findNearest(bases, 5);
+		assertEquals(new HashSet<>(bases), results.keySet(), "A result for each starting point");
+		for (final Point base : bases) {
+			final List<Point> nearest = results.get(base);
+			assertEquals(finder.findNearest(base, 5), nearest, "Batch result for " + base);
+			assertTrue(nearest.size() <= 5, "No more than requested");
+			final DistanceComparator comparator = new DistanceComparator(base, map.getDimensions());
+			for (int i = 1; i < nearest.size(); i++) {
+				assertTrue(comparator.compare(nearest.get(i - 1), nearest.get(i)) <= 0,
+					"Nearest first from " + base);
+			}
+			if (!nearest.isEmpty()) {
+				assertEquals(finder.findNearest(base), nearest.get(0), "Nearest is first from " + base);
+			}
+		}
+	}
+}
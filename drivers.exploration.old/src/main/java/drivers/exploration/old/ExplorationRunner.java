@@ -9,7 +9,9 @@ import java.util.HashMap;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import lovelace.util.ThrowingConsumer;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -29,6 +31,7 @@ import java.nio.file.Paths;
 import java.nio.file.Files;
 import java.nio.file.DirectoryStream;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.FileTime;
 import java.nio.charset.StandardCharsets;
 
 import java.util.stream.StreamSupport;
@@ -48,6 +51,39 @@ import java.util.stream.Collectors;
 public final class ExplorationRunner {
 	private final Map<String, EncounterTable> tables = new HashMap<>();
 
+	/**
+	 * The tables loaded from a directory, the templates compiled from
+	 * their results, and the files the directory held, with their
+	 * modification times, when they were loaded.
+	 */
+	private record LoadedDirectory(Map<Path, FileTime> files, Map<String, EncounterTable> tables,
+	                               Map<String, ResultTemplate> templates) {}
+
+	/**
+	 * Tables already loaded from directories, by the normalized absolute
+	 * path of the directory, so that drivers that each want the same
+	 * tables do not have to parse them again. An entry is only used while
+	 * no file in the directory has been added, removed, or modified.
+	 */
+	private static final Map<Path, LoadedDirectory> LOADED_DIRECTORIES = new ConcurrentHashMap<>();
+
+	/**
+	 * A table result split around the reference (if any) to another table
+	 * it contains.
+	 *
+	 * @param before The text before the reference, or the whole result if there is no reference
+	 * @param reference The name of the referenced table, or null if none
+	 * @param after The text after the reference
+	 */
+	private record ResultTemplate(String before, @Nullable String reference, String after) {}
+
+	/**
+	 * Results that have already been split into templates. Every result a
+	 * table can return is split when the table is loaded from its file;
+	 * tables can only return a small set of results, so this stays small.
+	 */
+	private final Map<String, ResultTemplate> templates = new ConcurrentHashMap<>();
+
 	/**
 	 * Get a table by name.
 	 *
@@ -73,6 +109,21 @@ public final class ExplorationRunner {
 		return Arrays.asList(string.split("#", 3));
 	}
 
+	/**
+	 * Split a table result into a template around its reference to another table, if any.
+	 */
+	private static ResultTemplate compileTemplate(final String result) {
+		if (result.contains("#")) {
+			final List<String> broken = splitOnHash(result);
+			if (broken.size() < 2) {
+				throw new IllegalStateException(String.format("Unexpected result of split: '%s' -> %s", result, broken));
+			}
+			return new ResultTemplate(broken.get(0), broken.get(1), String.join("", broken.subList(2, broken.size())));
+		} else {
+			return new ResultTemplate(result, null, "");
+		}
+	}
+
 	/**
 	 * Consult a table, and if a result indicates recursion, perform it.
 	 * Recursion is indicated by hash-marks ({@code #}) around the
@@ -84,21 +135,16 @@ public final class ExplorationRunner {
 	                                    final boolean mountainous, final Iterable<TileFixture> fixtures, final MapDimensions mapDimensions)
 			throws MissingTableException {
 		final String result = consultTable(table, location, terrain, mountainous, fixtures, mapDimensions);
-		if (result.contains("#")) {
-			final List<String> broken = new LinkedList<>(splitOnHash(result));
-			if (broken.size() < 2) {
-				throw new IllegalStateException(String.format("Unexpected result of split: '%s' -> %s", result, broken));
-			}
-			final String before = broken.remove(0);
-			final String middle = broken.remove(0);
-			final StringBuilder builder = new StringBuilder();
-			builder.append(before);
-			builder.append(recursiveConsultTable(middle, location, terrain, mountainous,
-				fixtures, mapDimensions));
-			broken.forEach(builder::append);
-			return builder.toString();
-		} else {
+		// Only results of tables not loaded from files, or that a table
+		// does not list among its events (such as the empty string a
+		// quadrant table returns on error), are not yet compiled.
+		final ResultTemplate template = templates.computeIfAbsent(result, ExplorationRunner::compileTemplate);
+		final String reference = template.reference();
+		if (reference == null) {
 			return result;
+		} else {
+			return template.before() + recursiveConsultTable(reference, location, terrain, mountainous,
+				fixtures, mapDimensions) + template.after();
 		}
 	}
 
@@ -284,6 +330,15 @@ public final class ExplorationRunner {
 		tables.put(name, table);
 	}
 
+	/**
+	 * Split each result of the given table into a template.
+	 */
+	private void compileTemplates(final EncounterTable table) {
+		for (final String result : table.getAllEvents()) {
+			templates.computeIfAbsent(result, ExplorationRunner::compileTemplate);
+		}
+	}
+
 	/**
 	 * Load a table from a data stream into the runner.
 	 */
@@ -382,6 +437,10 @@ public final class ExplorationRunner {
 				throw new IllegalArgumentException(String.format(
 					"unknown table type '%s' in file %s", line, name));
 			}
+			final EncounterTable loaded = tables.get(name);
+			if (loaded != null) {
+				compileTemplates(loaded);
+			}
 		} else {
 			throw new IllegalArgumentException(
 				"File doesn't start by specifying which kind of table");
@@ -420,9 +479,46 @@ public final class ExplorationRunner {
 	}
 
 	/**
-	 * Load all tables in the specified path into the runner.
+	 * Load all tables in the specified path into the runner. Tables are
+	 * only parsed the first time a directory is loaded; later loads of the
+	 * same directory reuse them, unless a file in it has since been added,
+	 * removed, or modified.
 	 */
 	public void loadAllTables(final Path path) throws IOException {
+		final Path key = path.toAbsolutePath().normalize();
+		final Map<Path, FileTime> files = listFiles(path);
+		final LoadedDirectory cached = LOADED_DIRECTORIES.get(key);
+		final LoadedDirectory loaded;
+		if (cached == null || !cached.files().equals(files)) {
+			final ExplorationRunner runner = new ExplorationRunner();
+			runner.loadAllTablesUncached(path);
+			loaded = new LoadedDirectory(files, Collections.unmodifiableMap(runner.tables),
+				Collections.unmodifiableMap(runner.templates));
+			LOADED_DIRECTORIES.put(key, loaded);
+		} else {
+			loaded = cached;
+		}
+		tables.putAll(loaded.tables());
+		templates.putAll(loaded.templates());
+	}
+
+	/**
+	 * The files in a directory, with their modification times.
+	 */
+	private static Map<Path, FileTime> listFiles(final Path path) throws IOException {
+		final Map<Path, FileTime> retval = new HashMap<>();
+		try (final DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+			for (final Path child : stream) {
+				retval.put(child.getFileName(), Files.getLastModifiedTime(child));
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Load all tables in the specified path into the runner, without consulting the cache.
+	 */
+	private void loadAllTablesUncached(final Path path) throws IOException {
 		try (final DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
 			for (final Path child : stream) {
 				if (Files.isHidden(child)) { // TODO: Also exclude dotfiles on Windows?
@@ -3,12 +3,10 @@ package drivers.exploration.old;
 import lovelace.util.LovelaceLogger;
 import org.jetbrains.annotations.Nullable;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Set;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
 
 import common.map.Point;
 import common.map.TileType;
@@ -21,40 +19,54 @@ import common.map.MapDimensionsImpl;
  */
 class QuadrantTable implements EncounterTable {
 	/**
-	 * The collection of collections of results.
+	 * The quadrant layout of a map of particular dimensions, compiled to a
+	 * flat array so that lookups are simple arithmetic.
+	 *
+	 * @param rowStep How many map rows each quadrant covers
+	 * @param columnStep How many map columns each quadrant covers
+	 * @param quadrantColumns How many columns of quadrants there are
+	 * @param values The results, in row-major order by quadrant; empty if
+	 * the map is too small to hold even one quadrant
 	 */
-	private final Map<MapDimensions, Map<Point, String>> quadrants = new HashMap<>();
-
-	// TODO: static?
-	private Map<Point, String> valuesFor(final MapDimensions dimensions, final List<String> possResults,
-	                                     final int quadrantRowCount) {
-		// Instance variables passed in because we want to call this from the
-		// second constructor.
-		if (quadrants.containsKey(dimensions)) {
-			return quadrants.get(dimensions);
-		} else {
-			final Map<Point, String> retval = new HashMap<>();
-			final int columns = possResults.size() / quadrantRowCount;
-			int i = 0;
-			final int mapColumns = dimensions.columns();
-			final int mapRows = dimensions.rows();
-			final int columnRemainder = mapColumns % columns;
-			final int rowRemainder = mapRows % quadrantRowCount;
-			final int columnStep = mapColumns / columns;
-			final int rowStep = mapRows / quadrantRowCount;
-			for (int row = 0; row < (mapRows - rowRemainder); row += rowStep) {
-				for (int column = 0; column < (mapColumns - columnRemainder);
-						column += columnStep) {
-					retval.put(new Point(row, column), possResults.get(i));
-					i++;
-				}
+	private record QuadrantGrid(int rowStep, int columnStep, int quadrantColumns, String[] values) {
+		public String get(final int row, final int column) {
+			if (values.length == 0) {
+				LovelaceLogger.error("Best key not in map"); // FIXME: Throw an exception?
+				return "";
 			}
-			final Map<Point, String> temp = Collections.unmodifiableMap(retval);
-			quadrants.put(dimensions, temp);
-			return temp;
+			final int quadrantRow = Math.min(row / rowStep, values.length / quadrantColumns - 1);
+			final int quadrantColumn = Math.min(column / columnStep, quadrantColumns - 1);
+			return values[quadrantRow * quadrantColumns + quadrantColumn];
 		}
 	}
 
+	/**
+	 * The compiled quadrant layouts, by map dimensions.
+	 */
+	private final Map<MapDimensions, QuadrantGrid> quadrants = new ConcurrentHashMap<>();
+
+	/**
+	 * Compile the layout of quadrants for a map of the given dimensions.
+	 * Quadrants cover equal numbers of rows and columns, starting from the
+	 * origin; any remainder rows or columns are part of the last quadrant
+	 * in that row or column. If the map has fewer rows or columns than
+	 * there are quadrants, there are no quadrants at all.
+	 */
+	private static QuadrantGrid compile(final MapDimensions dimensions, final List<String> possResults,
+	                                    final int quadrantRowCount) {
+		final int columns = possResults.size() / quadrantRowCount;
+		if (columns == 0 || dimensions.rows() < quadrantRowCount || dimensions.columns() < columns) {
+			return new QuadrantGrid(0, 0, 0, new String[0]);
+		}
+		return new QuadrantGrid(dimensions.rows() / quadrantRowCount, dimensions.columns() / columns,
+			columns, possResults.subList(0, columns * quadrantRowCount).toArray(String[]::new));
+	}
+
+	private QuadrantGrid valuesFor(final MapDimensions dimensions) {
+		return quadrants.computeIfAbsent(dimensions,
+			dims -> compile(dims, possibleResults, quadrantRows));
+	}
+
 	/**
 	 * The items to allocate by quadrant.
 	 */
@@ -72,8 +84,7 @@ class QuadrantTable implements EncounterTable {
 
 	private QuadrantTable (final int mapRows, final int mapColumns, final int rows, final String... items) {
 		this(rows, items);
-		final MapDimensions dimensions = new MapDimensionsImpl(mapRows, mapColumns, 2);
-		quadrants.put(dimensions, valuesFor(dimensions, possibleResults, rows));
+		valuesFor(new MapDimensionsImpl(mapRows, mapColumns, 2));
 	}
 
 	public static QuadrantTable forDimensions(final int mapRows, final int mapColumns, final int rows, final String... items) {
@@ -85,22 +96,11 @@ class QuadrantTable implements EncounterTable {
 	 * and column in a map of the specified dimensions.
 	 */
 	public String getQuadrantValue(final int row, final int column, final MapDimensions mapDimensions) {
-		final Map<Point, String> resultsMap = valuesFor(mapDimensions, possibleResults,
-			quadrantRows);
-		Point bestKey = Point.INVALID_POINT;
-		for (final Point key : resultsMap.keySet().stream()
-				.sorted(Comparator.reverseOrder()).toList()) {
-			if (key.row() <= row && key.row() > bestKey.row() &&
-					key.column() <= column && key.column() > bestKey.column()) {
-				bestKey = key;
-			}
-		}
-		if (resultsMap.containsKey(bestKey)) {
-			return resultsMap.get(bestKey);
-		} else {
+		if (row < 0 || column < 0) {
 			LovelaceLogger.error("Best key not in map"); // FIXME: Throw an exception?
 			return "";
 		}
+		return valuesFor(mapDimensions).get(row, column);
 	}
 
 	@Override
@@ -17,7 +17,15 @@ import java.util.Set;
  * An {@link EncounterTable} where the event is selected at random.
  */
 class RandomTable implements EncounterTable {
-	private final List<Pair<Integer, String>> table;
+	/**
+	 * The lowest threshold of any of the table's entries.
+	 */
+	private final int lowestThreshold;
+
+	/**
+	 * The results of the table's entries, in ascending order of threshold.
+	 */
+	private final String[] results;
 
 	@SafeVarargs
 	public RandomTable(final Pair<Integer, String>... items) {
@@ -25,15 +33,23 @@ class RandomTable implements EncounterTable {
 			throw new IllegalArgumentException("Need at least one item");
 		}
 		// FIXME: Double-check that this put the low numbers first
-		table = Stream.of(items).sorted(Comparator.comparing(Pair::getValue0)).toList();
+		final List<Pair<Integer, String>> table =
+			Stream.of(items).sorted(Comparator.comparing(Pair::getValue0)).toList();
+		lowestThreshold = table.get(0).getValue0();
+		results = table.stream().map(Pair::getValue1).toArray(String[]::new);
 	}
 
 	/**
 	 * Get the first item in the table whose numeric value is above the given value.
 	 */
 	private String lowestMatch(final int val) {
-		return table.stream().filter(p -> val >= p.getValue0()).findFirst()
-			.map(Pair::getValue1).orElseThrow(() -> new IllegalStateException("None matched"));
+		// Because the entries are sorted, the first whose threshold the
+		// value meets is the first entry, if the value meets any.
+		if (val >= lowestThreshold) {
+			return results[0];
+		} else {
+			throw new IllegalStateException("None matched");
+		}
 	}
 
 	@Override
@@ -44,11 +60,11 @@ class RandomTable implements EncounterTable {
 
 	@Override
 	public Set<String> getAllEvents() {
-		return table.stream().map(Pair::getValue1).collect(Collectors.toSet());
+		return Stream.of(results).collect(Collectors.toSet());
 	}
 
 	@Override
 	public String toString() {
-		return String.format("RandomTable of %d items", table.size());
+		return String.format("RandomTable of %d items", results.length);
 	}
 }
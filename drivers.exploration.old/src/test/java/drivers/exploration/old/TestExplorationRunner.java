@@ -3,12 +3,16 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import common.map.Point;
 import common.map.TileType;
@@ -196,6 +200,9 @@ public class TestExplorationRunner {
 		assertEquals("six", runner.consultTable(table, pointTwo, TileType.Tundra, false,
 				Collections.emptyList(), new MapDimensionsImpl(35, 32, 2)),
 			"quadrant table can use alternate dimensions");
+		assertEquals("", runner.consultTable(table, point, TileType.Tundra, false,
+				Collections.emptyList(), new MapDimensionsImpl(1, 1, 2)),
+			"quadrant table on a map smaller than its quadrants has no result");
 		assertThrows(IllegalArgumentException.class,
 			() -> runner.loadTableFromDataStream(
 				new LinkedList<>(Collections.singletonList("quadrant")).iterator(),
@@ -279,6 +286,33 @@ public class TestExplorationRunner {
 			false, Collections.emptyList(), mockDimensions), "one");
 	}
 
+	/**
+	 * Test that loading a directory of tables again picks up files that
+	 * have been changed or added since it was first loaded.
+	 */
+	@Test
+	public void testReloadChangedDirectory(@TempDir final Path directory)
+			throws MissingTableException, IOException {
+		final Path file = directory.resolve("changing");
+		Files.writeString(file, "constant\none\n");
+		final ExplorationRunner first = new ExplorationRunner();
+		first.loadAllTables(directory);
+		assertEquals("one", first.consultTable("changing", Point.INVALID_POINT, TileType.Plains,
+			false, Collections.emptyList(), mockDimensions), "table loaded from directory");
+		Files.writeString(file, "constant\ntwo\n");
+		Files.setLastModifiedTime(file, FileTime.from(Files.getLastModifiedTime(file).toInstant()
+			.plusSeconds(10)));
+		Files.writeString(directory.resolve("added"), "constant\nthree\n");
+		final ExplorationRunner second = new ExplorationRunner();
+		second.loadAllTables(directory);
+		assertEquals("two", second.consultTable("changing", Point.INVALID_POINT, TileType.Plains,
+			false, Collections.emptyList(), mockDimensions), "changed table is reloaded");
+		assertEquals("three", second.consultTable("added", Point.INVALID_POINT, TileType.Plains,
+			false, Collections.emptyList(), mockDimensions), "added table is loaded");
+		assertEquals("one", first.consultTable("changing", Point.INVALID_POINT, TileType.Plains,
+			false, Collections.emptyList(), mockDimensions), "already-loaded runner is unaffected");
+	}
+
 	/**
 	 * Test that the table-loading code correctly rejects invalid input.
 	 */
@@ -1,5 +1,7 @@
 package drivers.generators;
 
+import java.util.Random;
+
 import common.map.IMapNG;
 import common.map.Point;
 
@@ -12,6 +14,10 @@ import common.idreg.IDRegistrar;
 /* package */ interface MapPopulator {
 	/**
 	 * Whether a point is suitable for the kind of fixture we're creating.
+	 *
+	 * This is called for every point, in parallel, before anything is
+	 * created, so it must not modify the map, and must not depend on
+	 * anything {@link #create} might change at other points.
 	 */
 	boolean isSuitable(IMapNG map, Point location);
 
@@ -21,7 +27,9 @@ import common.idreg.IDRegistrar;
 	double getChance();
 
 	/**
-	 * Add a fixture of the kind we're creating at the given location.
+	 * Add a fixture of the kind we're creating at the given location. Any
+	 * random choices should be drawn from the given source, which is
+	 * seeded so that a populating pass can be reproduced.
 	 */
-	void create(Point location, IPopulatorDriverModel model, IDRegistrar idf);
+	void create(Point location, IPopulatorDriverModel model, IDRegistrar idf, Random random);
 }
@@ -3,21 +3,32 @@ package drivers.generators;
 import common.idreg.IDFactoryFiller;
 import common.idreg.IDRegistrar;
 
+import common.map.IMapNG;
 import drivers.common.CLIDriver;
+import drivers.common.DriverFailedException;
 import drivers.common.SPOptions;
 
 import drivers.common.cli.ICLIHelper;
 
 import lovelace.util.SingletonRandom;
 
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import common.map.Point;
 import java.util.stream.Collectors;
-import java.util.Collections;
+import java.util.stream.IntStream;
 
 /**
  * A driver to add some kind of fixture to suitable tiles throughout the map.
  * Customize the {@link #populator} field before each use.
+ *
+ * A populating pass first plans, in parallel, which tiles are suitable and
+ * which of them get a new fixture, and then creates those fixtures one at a
+ * time in map order. With the "--seed" option the pass is reproducible: the
+ * same seed gives the same map no matter how many threads do the planning.
  */
 // TODO: Write GUI equivalent of Map Populator Driver
 public class MapPopulatorDriver implements CLIDriver {
@@ -47,34 +58,96 @@ public class MapPopulatorDriver implements CLIDriver {
 	 */
 	private final MapPopulator populator = new SampleMapPopulator();
 
-	private int suitableCount = 0;
+	/**
+	 * How many tiles, in map order, are planned together using one stream
+	 * of random numbers. This is fixed, rather than depending on the number
+	 * of threads, so that the plan doesn't either.
+	 */
+	private static final int CHUNK_SIZE = 256;
+
+	/**
+	 * How many tiles a populating pass found suitable, and how many of them
+	 * it changed.
+	 */
+	/* package */ record Counts(int suitable, int changed) {}
 
-	private int changedCount = 0;
+	/**
+	 * The plan for one chunk of tiles: how many were suitable, and the
+	 * tiles to create fixtures on, each with the seed for its creation.
+	 */
+	private record ChunkPlan(int suitable, List<Pair<Point, Long>> creations) {}
 
 	/**
-	 * Populate the map. You shouldn't need to customize this.
+	 * Decide which tiles in the given chunk to add fixtures to. This only
+	 * reads the map, so chunks can be planned in parallel.
 	 */
-	private void populate(final IPopulatorDriverModel model) {
-		final IDRegistrar idf = IDFactoryFiller.createIDFactory(model.getMap());
-		final List<Point> locations = model.getMap().streamLocations().collect(Collectors.toList());
-		Collections.shuffle(locations);
-		for (final Point location : locations) {
-			if (populator.isSuitable(model.getMap(), location)) {
-				suitableCount++;
-				if (SingletonRandom.SINGLETON_RANDOM.nextDouble() < populator.getChance()) {
-					changedCount++;
-					populator.create(location, model, idf);
+	private static ChunkPlan planChunk(final IMapNG map, final MapPopulator populator,
+	                                   final List<Point> chunk, final long seed) {
+		final Random random = new Random(seed);
+		int suitable = 0;
+		final List<Pair<Point, Long>> creations = new ArrayList<>();
+		for (final Point location : chunk) {
+			if (populator.isSuitable(map, location)) {
+				suitable++;
+				if (random.nextDouble() < populator.getChance()) {
+					creations.add(Pair.with(location, random.nextLong()));
 				}
 			}
 		}
+		return new ChunkPlan(suitable, creations);
+	}
+
+	/**
+	 * Populate the map. You shouldn't need to customize this.
+	 *
+	 * Each chunk of tiles is planned using its own stream of random
+	 * numbers, seeded from the given seed in order, and then the fixtures
+	 * are created, and given IDs, in map order.
+	 */
+	/* package */ static Counts populate(final IPopulatorDriverModel model, final MapPopulator populator,
+	                                     final long seed) {
+		final IMapNG map = model.getMap();
+		final IDRegistrar idf = IDFactoryFiller.createIDFactory(map);
+		final List<Point> locations = map.streamLocations().collect(Collectors.toList());
+		final int chunkCount = (locations.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		final Random seeds = new Random(seed);
+		final long[] chunkSeeds = new long[chunkCount];
+		for (int i = 0; i < chunkCount; i++) {
+			chunkSeeds[i] = seeds.nextLong();
+		}
+		final List<ChunkPlan> plans = IntStream.range(0, chunkCount).parallel()
+			.mapToObj(i -> planChunk(map, populator,
+				locations.subList(i * CHUNK_SIZE, Math.min((i + 1) * CHUNK_SIZE, locations.size())),
+				chunkSeeds[i]))
+			.collect(Collectors.toList());
+		int suitable = 0;
+		int changed = 0;
+		for (final ChunkPlan plan : plans) {
+			suitable += plan.suitable();
+			for (final Pair<Point, Long> creation : plan.creations()) {
+				changed++;
+				populator.create(creation.getValue0(), model, idf, new Random(creation.getValue1()));
+			}
+		}
+		return new Counts(suitable, changed);
 	}
 
 	@Override
-	public void startDriver() {
-		populate(model);
+	public void startDriver() throws DriverFailedException {
+		final long seed;
+		if (options.hasOption("--seed")) {
+			try {
+				seed = Long.parseLong(options.getArgument("--seed"));
+			} catch (final NumberFormatException except) {
+				throw new DriverFailedException(except, "Seed must be numeric");
+			}
+		} else {
+			seed = SingletonRandom.SINGLETON_RANDOM.nextLong();
+		}
+		final Counts counts = populate(model, populator, seed);
 		cli.println(String.format("%d/%d suitable locations were changed", // TODO: add printf() to ICLIHelper
-			changedCount, suitableCount));
-		if (changedCount > 0) {
+			counts.changed(), counts.suitable()));
+		if (counts.changed() > 0) {
 			model.setMapModified(true);
 		}
 	}
@@ -23,7 +23,7 @@ public class MapPopulatorFactory implements ModelDriverFactory {
 	private static final IDriverUsage USAGE = new DriverUsage(false, "populate-map", ParamCount.One,
 		"Add missing fixtures to a map",
 		"Add specified kinds of fixtures to suitable points throughout a map", true, false,
-		"--current-turn=NN");
+		"--current-turn=NN", "--seed=NN");
 
 	@Override
 	public IDriverUsage getUsage() {
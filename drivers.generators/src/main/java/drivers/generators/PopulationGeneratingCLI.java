@@ -10,6 +10,7 @@ import drivers.common.cli.ICLIHelper;
 import common.map.Point;
 import common.map.HasExtent;
 import common.map.IMapNG;
+import common.map.TileFixture;
 
 import common.map.fixtures.mobile.Animal;
 
@@ -29,19 +30,32 @@ import java.math.BigDecimal;
 
 import lovelace.util.SingletonRandom;
 
+import java.util.function.Function;
 import java.util.function.Predicate;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Objects;
+import java.util.Set;
 
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.math.RoundingMode;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * A driver to let the user generate animal and shrub populations, meadow and
  * grove sizes, and forest acreages.
+ *
+ * The fixtures to generate values for are found in one pass over the main
+ * map, and the values generated are all applied, to every map, at the end.
  */
 public class PopulationGeneratingCLI implements CLIDriver {
 	/**
@@ -78,18 +92,150 @@ public class PopulationGeneratingCLI implements CLIDriver {
 
 	private final IMapNG map;
 
+	/**
+	 * Animal populations to generate, by whether they are talking and then
+	 * kind: for each tile with a population of that kind, its location and
+	 * the first animal of that kind there. (We assume there is at most one
+	 * population of each kind of animal per tile.)
+	 */
+	private final Map<Pair<Boolean, String>, List<Pair<Point, Animal>>> animals = new HashMap<>();
+
+	/**
+	 * The kinds of animals to generate populations of. This is a {@link
+	 * HashSet}, filled in map order, so the user is asked about the kinds
+	 * in the same order as when they were collected with {@link
+	 * java.util.stream.Collectors#toSet}.
+	 */
+	private final Set<String> animalKinds = new HashSet<>();
+
+	/**
+	 * Grove and orchard populations to generate, by kind, in the order the
+	 * kinds appear in the map.
+	 */
+	private final Map<String, List<Pair<Point, Grove>>> groves = new LinkedHashMap<>();
+
+	/**
+	 * Shrub populations to generate, by kind, in the order the kinds appear in the map.
+	 */
+	private final Map<String, List<Pair<Point, Shrub>>> shrubs = new LinkedHashMap<>();
+
+	/**
+	 * Fields and meadows whose extents should be generated.
+	 */
+	private final List<Pair<Point, Meadow>> meadows = new ArrayList<>();
+
+	/**
+	 * Tiles with forests whose extents should be generated.
+	 */
+	private final List<Point> forestLocations = new ArrayList<>();
+
+	/**
+	 * The kinds of forest on each forested tile.
+	 */
+	private final Map<Point, Set<String>> forestKinds = new HashMap<>();
+
+	/**
+	 * The changes to make to fixtures in all the maps, by location and then
+	 * the fixture's ID; see {@link PopulationGeneratingModel#replaceFixtures}.
+	 */
+	private final Map<Point, Map<Integer, Function<TileFixture, @Nullable TileFixture>>> changes =
+		new HashMap<>();
+
+	/**
+	 * The new versions of fixtures in the main map that will be changed, so
+	 * that later phases can take account of what earlier ones generated.
+	 */
+	private final Map<TileFixture, TileFixture> generated = new IdentityHashMap<>();
+
+	/**
+	 * Find, in one pass over the main map, all the fixtures whose
+	 * populations or extents are to be generated.
+	 */
+	private void indexMap() {
+		for (final Point location : map.getLocations()) {
+			final Map<Pair<Boolean, String>, Animal> firstAnimals = new LinkedHashMap<>();
+			final Set<Pair<Boolean, String>> unpopulatedAnimals = new HashSet<>();
+			final Map<String, Grove> firstGroves = new LinkedHashMap<>();
+			final Set<String> unpopulatedGroves = new HashSet<>();
+			final Map<String, Shrub> firstShrubs = new LinkedHashMap<>();
+			final Set<String> unpopulatedShrubs = new HashSet<>();
+			boolean unsizedForest = false;
+			for (final TileFixture fixture : map.getFixtures(location)) {
+				if (fixture instanceof Animal a) {
+					final Pair<Boolean, String> key = Pair.with(a.isTalking(), a.getKind());
+					firstAnimals.putIfAbsent(key, a);
+					if (a.getPopulation() <= 0) {
+						unpopulatedAnimals.add(key);
+						animalKinds.add(a.getKind());
+					}
+				} else if (fixture instanceof Grove g) {
+					groves.computeIfAbsent(g.getKind(), k -> new ArrayList<>());
+					firstGroves.putIfAbsent(g.getKind(), g);
+					if (g.getPopulation() <= 0) {
+						unpopulatedGroves.add(g.getKind());
+					}
+				} else if (fixture instanceof Shrub sh) {
+					shrubs.computeIfAbsent(sh.getKind(), k -> new ArrayList<>());
+					firstShrubs.putIfAbsent(sh.getKind(), sh);
+					if (sh.getPopulation() <= 0) {
+						unpopulatedShrubs.add(sh.getKind());
+					}
+				} else if (fixture instanceof Meadow m) {
+					if (m.getAcres().doubleValue() < 0.0) {
+						meadows.add(Pair.with(location, m));
+					}
+				} else if (fixture instanceof Forest f) {
+					forestKinds.computeIfAbsent(location, l -> new HashSet<>()).add(f.getKind());
+					unsizedForest = unsizedForest || f.getAcres().doubleValue() <= 0.0;
+				}
+			}
+			for (final Map.Entry<Pair<Boolean, String>, Animal> entry : firstAnimals.entrySet()) {
+				if (unpopulatedAnimals.contains(entry.getKey())) {
+					animals.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+						.add(Pair.with(location, entry.getValue()));
+				}
+			}
+			for (final Map.Entry<String, Grove> entry : firstGroves.entrySet()) {
+				if (unpopulatedGroves.contains(entry.getKey())) {
+					groves.get(entry.getKey()).add(Pair.with(location, entry.getValue()));
+				}
+			}
+			for (final Map.Entry<String, Shrub> entry : firstShrubs.entrySet()) {
+				if (unpopulatedShrubs.contains(entry.getKey())) {
+					shrubs.get(entry.getKey()).add(Pair.with(location, entry.getValue()));
+				}
+			}
+			if (unsizedForest) {
+				forestLocations.add(location);
+			}
+		}
+	}
+
+	/**
+	 * Record that the given fixture in the main map is to be replaced by
+	 * the given fixture, and that its counterparts in the other maps are to
+	 * be changed by the given function.
+	 */
+	private void change(final Point location, final TileFixture original, final TileFixture replacement,
+	                    final Function<TileFixture, @Nullable TileFixture> change) {
+		changes.computeIfAbsent(location, l -> new HashMap<>()).put(original.getId(), change);
+		generated.put(original, replacement);
+	}
+
+	/**
+	 * The fixtures on the given tile of the main map, as they will be once
+	 * the changes generated so far are applied.
+	 */
+	private Stream<TileFixture> currentFixtures(final Point location) {
+		return map.getFixtures(location).stream().map(f -> generated.getOrDefault(f, f));
+	}
+
 	/**
 	 * Generate {@link Animal} populations.
 	 */
 	private void generateAnimalPopulations(final boolean talking, final String kind) {
-		// We assume there is at most one population of each kind of animal per tile.
-		final List<Point> locations = map.streamLocations()
-			.filter(l -> map.getFixtures(l).stream()
-				.filter(Animal.class::isInstance).map(Animal.class::cast)
-				.filter(a -> a.isTalking() == talking)
-				.filter(a -> kind.equals(a.getKind()))
-				.anyMatch(a -> a.getPopulation() <= 0))
-			.collect(Collectors.toList());
+		final List<Pair<Point, Animal>> locations =
+			new ArrayList<>(animals.getOrDefault(Pair.with(talking, kind), Collections.emptyList()));
 		if (locations.isEmpty()) {
 			return;
 		}
@@ -102,7 +248,7 @@ public class PopulationGeneratingCLI implements CLIDriver {
 		int remainingTotal = total;
 		int remainingCount = count;
 		final Random rng = SingletonRandom.SINGLETON_RANDOM;
-		for (final Point location : locations) {
+		for (final Pair<Point, Animal> entry : locations) {
 			final int temp = (remainingCount * 2) + 2;
 			if (remainingTotal <= temp) {
 				cli.println(String.format(
@@ -121,27 +267,22 @@ public class PopulationGeneratingCLI implements CLIDriver {
 				nextPopulation =
 					rng.nextInt(remainingTotal - (remainingCount * 2) - 2) + 2;
 			}
-			if (model.setAnimalPopulation(location, talking, kind, nextPopulation)) {
-				remainingCount--;
-				remainingTotal -= nextPopulation;
-			} // TODO: else log a warning
+			change(entry.getValue0(), entry.getValue1(), entry.getValue1().reduced(nextPopulation),
+				f -> (f instanceof Animal a && a.isTalking() == talking && kind.equals(a.getKind())) ?
+					a.reduced(nextPopulation) : null);
+			remainingCount--;
+			remainingTotal -= nextPopulation;
 		}
 	}
 
 	/**
 	 * Generate {@link Grove grove and orchard} populations.
 	 */
-	private void generateGroveCounts(final String kind) {
-		// We assume there is at most one grove or orchard of each kind per tile.
-		final List<Point> locations = map.streamLocations()
-			.filter(l -> map.getFixtures(l).stream()
-				.filter(Grove.class::isInstance).map(Grove.class::cast)
-				.filter(g -> kind.equals(g.getKind()))
-				.anyMatch(g -> g.getPopulation() <= 0))
-			.collect(Collectors.toList());
-		if (locations.isEmpty()) {
+	private void generateGroveCounts(final String kind, final List<Pair<Point, Grove>> entries) {
+		if (entries.isEmpty()) {
 			return;
 		}
+		final List<Pair<Point, Grove>> locations = new ArrayList<>(entries);
 		Collections.shuffle(locations);
 		final int count = locations.size();
 		final int total = Optional.ofNullable(cli.inputNumber(String.format(
@@ -150,7 +291,7 @@ public class PopulationGeneratingCLI implements CLIDriver {
 		int remainingTotal = total;
 		int remainingCount = count;
 		final Random rng = SingletonRandom.SINGLETON_RANDOM;
-		for (final Point location : locations) {
+		for (final Pair<Point, Grove> entry : locations) {
 			if (remainingTotal < remainingCount) {
 				cli.println(String.format("With %d groups left, there is only %s left",
 					remainingCount, remainingTotal)); // TODO: adjust instead?
@@ -158,27 +299,21 @@ public class PopulationGeneratingCLI implements CLIDriver {
 			}
 			final int nextPopulation = (remainingCount == 1) ? remainingTotal :
 				rng.nextInt(remainingTotal-remainingCount - 1) + 1;
-			if (model.setGrovePopulation(location, kind, nextPopulation)) {
-				remainingCount--;
-				remainingTotal -= nextPopulation;
-			} // TODO: else log a warning
+			change(entry.getValue0(), entry.getValue1(), entry.getValue1().reduced(nextPopulation),
+				f -> (f instanceof Grove g && kind.equals(g.getKind())) ? g.reduced(nextPopulation) : null);
+			remainingCount--;
+			remainingTotal -= nextPopulation;
 		}
 	}
 
 	/**
 	 * Generate {@link Shrub} populations.
 	 */
-	private void generateShrubCounts(final String kind) {
-		// We assume there is at most one population of each kind of shrub per tile.
-		final List<Point> locations = map.streamLocations()
-			.filter(l -> map.getFixtures(l).stream()
-				.filter(Shrub.class::isInstance).map(Shrub.class::cast)
-				.filter(s -> kind.equals(s.getKind()))
-				.anyMatch(s -> s.getPopulation() <= 0))
-			.collect(Collectors.toList());
-		if (locations.isEmpty()) {
+	private void generateShrubCounts(final String kind, final List<Pair<Point, Shrub>> entries) {
+		if (entries.isEmpty()) {
 			return;
 		}
+		final List<Pair<Point, Shrub>> locations = new ArrayList<>(entries);
 		Collections.shuffle(locations);
 		final int count = locations.size();
 		final int total = Optional.ofNullable(cli.inputNumber(String.format(
@@ -187,7 +322,7 @@ public class PopulationGeneratingCLI implements CLIDriver {
 		int remainingTotal = total;
 		int remainingCount = count;
 		final Random rng = SingletonRandom.SINGLETON_RANDOM;
-		for (final Point location : locations) {
+		for (final Pair<Point, Shrub> entry : locations) {
 			if (remainingTotal < remainingCount) {
 				cli.println(String.format("With %d groups left, there is only %s left",
 					remainingCount, remainingTotal)); // TODO: adjust instead?
@@ -195,10 +330,10 @@ public class PopulationGeneratingCLI implements CLIDriver {
 			}
 			final int nextPopulation = (remainingCount == 1) ? remainingTotal :
 				rng.nextInt(remainingTotal-remainingCount - 1) + 1;
-			if (model.setShrubPopulation(location, kind, nextPopulation)) {
-				remainingCount--;
-				remainingTotal -= nextPopulation;
-			}
+			change(entry.getValue0(), entry.getValue1(), entry.getValue1().reduced(nextPopulation),
+				f -> (f instanceof Shrub sh && kind.equals(sh.getKind())) ? sh.reduced(nextPopulation) : null);
+			remainingCount--;
+			remainingTotal -= nextPopulation;
 		}
 	}
 
@@ -206,19 +341,19 @@ public class PopulationGeneratingCLI implements CLIDriver {
 	 * Generate {@link Meadow field and meadow} acreages.
 	 */
 	private void generateFieldExtents() {
-		final List<Pair<Point, Meadow>> entries = map.streamLocations()
-			.flatMap(l -> map.getFixtures(l).stream()
-				.filter(Meadow.class::isInstance).map(Meadow.class::cast)
-				.filter(m -> m.getAcres().doubleValue() < 0.0)
-				.map(f -> Pair.with(l, f)))
-			.collect(Collectors.toList());
+		final List<Pair<Point, Meadow>> entries = new ArrayList<>(meadows);
 		Collections.shuffle(entries);
 		final Random rng = SingletonRandom.SINGLETON_RANDOM;
 		for (final Pair<Point, Meadow> entry : entries) {
 			final Point loc = entry.getValue0();
 			final Meadow field = entry.getValue1();
 			final double acres = rng.nextDouble() * 5.5 + 0.5;
-			model.setFieldExtent(loc, field, acres);
+			final Meadow replacement = new Meadow(field.getKind(), field.isField(),
+				field.isCultivated(), field.getId(), field.getStatus(), acres);
+			change(loc, field, replacement,
+				f -> (f instanceof Meadow m && field.getKind().equals(m.getKind()) &&
+						field.isField() == m.isField() && field.isCultivated() == m.isCultivated() &&
+						field.getStatus() == m.getStatus()) ? replacement : null);
 		}
 	}
 
@@ -226,8 +361,7 @@ public class PopulationGeneratingCLI implements CLIDriver {
 	 * Whether any of the fixtures on the given tile are forests of the given kind.
 	 */
 	private Predicate<Point> hasForests(final String kind) {
-		return (point) -> map.getFixtures(point).stream().filter(Forest.class::isInstance)
-			.map(Forest.class::cast).anyMatch(f -> kind.equals(f.getKind()));
+		return (point) -> forestKinds.getOrDefault(point, Collections.emptySet()).contains(kind);
 	}
 
 	/**
@@ -251,15 +385,21 @@ public class PopulationGeneratingCLI implements CLIDriver {
 	/**
 	 * Generate {@link Forest} acreages.
 	 */
+	/**
+	 * Set the extent of the given forest, in all maps where it is known.
+	 */
+	private void setForestExtent(final Point location, final Forest forest, final Number acres) {
+		final Forest replacement = new Forest(forest.getKind(), forest.isRows(), forest.getId(), acres);
+		change(location, forest, replacement,
+			f -> (f instanceof Forest local && forest.getKind().equals(local.getKind()) &&
+					forest.isRows() == local.isRows()) ? replacement : null);
+	}
+
 	private void generateForestExtents() {
-		final List<Point> locations = map.streamLocations()
-			.filter(l -> map.getFixtures(l).stream()
-				.filter(Forest.class::isInstance).map(Forest.class::cast)
-				.anyMatch(f -> f.getAcres().doubleValue() <= 0.0))
-			.collect(Collectors.toList());
+		final List<Point> locations = new ArrayList<>(forestLocations);
 		Collections.shuffle(locations);
 		for (final Point location : locations) {
-			final Forest primaryForest = map.getFixtures(location).stream()
+			final Forest primaryForest = currentFixtures(location)
 				.filter(Forest.class::isInstance).map(Forest.class::cast)
 				.findFirst().orElseThrow(
 					() -> new IllegalStateException("Not found despite double-checking"));
@@ -267,7 +407,7 @@ public class PopulationGeneratingCLI implements CLIDriver {
 			if (primaryForest.getAcres().doubleValue() > 0.0) {
 				cli.println(String.format("First forest at %s had acreage set already.",
 					location));
-				reserved = map.getFixtures(location).stream()
+				reserved = currentFixtures(location)
 					.filter(Forest.class::isInstance).map(Forest.class::cast)
 					.map(Forest::getAcres).filter(n -> n.doubleValue() > 0.0)
 					.map(n -> {// FIXME: Use lovelace.util.Decimalize
@@ -278,12 +418,12 @@ public class PopulationGeneratingCLI implements CLIDriver {
 						}
 					}).reduce(reserved, BigDecimal::add);
 			}
-			final List<Forest> otherForests = map.getFixtures(location).stream()
+			final List<Forest> otherForests = currentFixtures(location)
 				.filter(Forest.class::isInstance).map(Forest.class::cast)
 				.filter(f -> !Objects.equals(f, primaryForest))
 				.filter(f -> f.getAcres().doubleValue() <= 0.0).toList();
 			final int adjacentCount = countAdjacentForests(location, primaryForest.getKind());
-			for (final ITownFixture town : map.getFixtures(location).stream()
+			for (final ITownFixture town : currentFixtures(location)
 					.filter(ITownFixture.class::isInstance).map(ITownFixture.class::cast).toList()) {
 				reserved = switch (town.getTownSize()) { // TODO: Pull the reserved.add() to outside the expression
 					case Small -> reserved.add(new BigDecimal(15));
@@ -291,11 +431,11 @@ public class PopulationGeneratingCLI implements CLIDriver {
 					case Large -> reserved.add(new BigDecimal(80));
 				};
 			}
-			reserved = reserved.add(new BigDecimal(map.getFixtures(location).stream()
+			reserved = reserved.add(new BigDecimal(currentFixtures(location)
 				.filter(Grove.class::isInstance).map(Grove.class::cast)
 				.mapToInt(Grove::getPopulation).filter(p -> p > 0).sum())
 				.divide(new BigDecimal(500)));
-			reserved = map.getFixtures(location).stream().filter(HasExtent.class::isInstance)
+			reserved = currentFixtures(location).filter(HasExtent.class::isInstance)
 				.filter(f -> !(f instanceof Forest)) // already counted above
 				.map(HasExtent.class::cast).map(HasExtent::getAcres)
 				.filter(n -> n.doubleValue() > 0.0).map(n -> {// FIXME: lovelace.util.Decimalize
@@ -321,7 +461,7 @@ public class PopulationGeneratingCLI implements CLIDriver {
 					acreage = fullTile.subtract(reserved)
 						.multiply(new BigDecimal(2).divide(new BigDecimal(5)));
 				}
-				model.setForestExtent(location, primaryForest, acreage);
+				setForestExtent(location, primaryForest, acreage);
 			} else {
 				final BigDecimal acreage;
 				if (adjacentCount > 4) {
@@ -331,10 +471,10 @@ public class PopulationGeneratingCLI implements CLIDriver {
 					acreage = fullTile.subtract(reserved)
 						.multiply(new BigDecimal(2).divide(new BigDecimal(5)));
 				}
-				model.setForestExtent(location, primaryForest, acreage);
+				setForestExtent(location, primaryForest, acreage);
 				reserved = reserved.add(acreage);
 				for (final Forest forest : otherForests) {
-					model.setForestExtent(location, forest,
+					setForestExtent(location, forest,
 						perForestAcreage(reserved, otherForests.size()));
 				}
 			}
@@ -343,22 +483,16 @@ public class PopulationGeneratingCLI implements CLIDriver {
 
 	@Override
 	public void startDriver() {
-		for (final String kind : map.streamAllFixtures()
-				.filter(Animal.class::isInstance).map(Animal.class::cast)
-				.filter(a -> a.getPopulation() <= 0).map(Animal::getKind)
-				.collect(Collectors.toSet())) {
+		indexMap();
+		for (final String kind : animalKinds) {
 			generateAnimalPopulations(true, kind);
 			generateAnimalPopulations(false, kind);
 		}
-		// TODO: filter these to only those without un-counted instances?
-		map.streamAllFixtures()
-			.filter(Grove.class::isInstance).map(Grove.class::cast)
-			.map(Grove::getKind).distinct().forEach(this::generateGroveCounts);
-		map.streamAllFixtures()
-			.filter(Shrub.class::isInstance).map(Shrub.class::cast)
-			.map(Shrub::getKind).distinct().forEach(this::generateShrubCounts);
+		groves.forEach(this::generateGroveCounts);
+		shrubs.forEach(this::generateShrubCounts);
 		generateFieldExtents();
 		generateForestExtents();
+		model.replaceFixtures(changes);
 		model.setMapModified(true);
 	}
 }
@@ -9,19 +9,13 @@ import common.map.IMapNG;
 import common.map.IMutableMapNG;
 import common.map.Player;
 import common.map.Point;
+import common.map.TileFixture;
 
-import common.map.fixtures.mobile.Animal;
 import common.map.fixtures.mobile.IMutableUnit;
 import common.map.fixtures.mobile.IMutableWorker;
 import common.map.fixtures.mobile.IUnit;
 import common.map.fixtures.mobile.IWorker;
 
-import common.map.fixtures.terrain.Forest;
-
-import common.map.fixtures.resources.Grove;
-import common.map.fixtures.resources.Meadow;
-import common.map.fixtures.resources.Shrub;
-
 import common.map.fixtures.towns.AbstractTown;
 import common.map.fixtures.towns.CommunityStats;
 import common.map.fixtures.towns.IFortress;
@@ -32,6 +26,9 @@ import common.map.fixtures.mobile.worker.IJob;
 import common.map.fixtures.mobile.worker.IMutableJob;
 import common.map.fixtures.mobile.worker.Job;
 
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.HashMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.HashSet;
@@ -39,6 +36,9 @@ import java.util.Collections;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.stream.Collectors;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
 
 public class PopulationGeneratingModel extends SimpleMultiMapModel { // TODO: Extract interface
 	/**
@@ -64,120 +64,33 @@ public class PopulationGeneratingModel extends SimpleMultiMapModel { // TODO: Ex
 	}
 
 	/**
-	 * Set the population of "kind" animals (talking or not per
-	 * "talking") at "location" to "population". Returns
-	 * true if a population was in fact set (i.e. if there was a matching
-	 * object there in any of the maps), false otherwise.
-	 */
-	public boolean setAnimalPopulation(final Point location, final boolean talking, final String kind, final int population) {
-		boolean retval = false;
-		for (final IMutableMapNG map : getRestrictedAllMaps()) { // TODO: Should submaps really all get this information?
-			final Optional<Animal> animal = map.getFixtures(location).stream()
-				.filter(Animal.class::isInstance).map(Animal.class::cast)
-				.filter(a -> a.isTalking() == talking)
-				.filter(a -> kind.equals(a.getKind()))
-				.findAny(); // TODO: Only match those without an existing population?
-			if (animal.isPresent()) {
-				final Animal replacement = animal.get().reduced(population);
-				map.replace(location, animal.get(), replacement);
-				retval = true;
-			}
-		}
-		return retval;
-	}
-
-	/**
-	 * Set the population of "kind" trees (in a grove or orchard) at
-	 * "location" to "population". Returns true if a population
-	 * was in fact set (i.e. if there was a matching grove or orchard there
-	 * in any of the maps), false otherwise.
-	 */
-	public boolean setGrovePopulation(final Point location, final String kind, final int population) {
-		boolean retval = false;
-		for (final IMutableMapNG map : getRestrictedAllMaps()) { // TODO: Should submaps really all get this information?
-			final Optional<Grove> grove = map.getFixtures(location).stream()
-				.filter(Grove.class::isInstance).map(Grove.class::cast)
-				.filter(g -> kind.equals(g.getKind()))
-				.findAny(); // TODO: Only match those without an existing population?
-			if (grove.isPresent()) {
-				final Grove replacement = grove.get().reduced(population);
-				map.replace(location, grove.get(), replacement);
-				retval = true;
-			}
-		}
-		return retval;
-	}
-
-	/**
-	 * Set the population of "kind" shrubs at "location" to
-	 * "population".  Returns true if a population was in fact set
-	 * (i.e. there were in fact matching shrubs there in any of the maps),
-	 * false otherwise.
-	 */
-	public boolean setShrubPopulation(final Point location, final String kind, final int population) {
-		boolean retval = false;
-		for (final IMutableMapNG map : getRestrictedAllMaps()) { // TODO: Should submaps really all get this information?
-			final Optional<Shrub> shrub = map.getFixtures(location).stream()
-				.filter(Shrub.class::isInstance).map(Shrub.class::cast)
-				.filter(s -> kind.equals(s.getKind()))
-				.findAny(); // TODO: Only match without an existing count?
-			if (shrub.isPresent()) {
-				final Shrub replacement = shrub.get().reduced(population);
-				map.replace(location, shrub.get(), replacement);
-				retval = true;
-			}
-		}
-		return retval;
-	}
-
-	/**
-	 * Set the extent of the given field or meadow at
-	 * "location" to "acres" in maps where that field or meadow is
-	 * known. Returns true if any of the maps had it at that location, false otherwise.
-	 */
-	public boolean setFieldExtent(final Point location, final Meadow field, final double acres) {
-		boolean retval = false;
-		for (final IMutableMapNG map : getRestrictedAllMaps()) { // TODO: Should submaps really all get this information?
-			final Optional<Meadow> existing = map.getFixtures(location).stream()
-				.filter(Meadow.class::isInstance).map(Meadow.class::cast)
-				.filter(m -> field.getKind().equals(m.getKind()))
-				.filter(m -> field.isField() == m.isField())
-				.filter(m -> field.isCultivated() == m.isCultivated())
-				.filter(m -> field.getStatus() == m.getStatus())
-				.filter(m -> field.getId() == m.getId())
-				.findAny(); // TODO: only match without an existing extent?
-			if (existing.isPresent()) {
-				final Meadow replacement = new Meadow(field.getKind(), field.isField(),
-					field.isCultivated(), field.getId(), field.getStatus(), acres);
-				map.replace(location, existing.get(), replacement);
-				retval = true;
-			}
-		}
-		return retval;
-	}
-
-	/**
-	 * Set the extent of the given forest at "location" to
-	 * "acres" in maps where that forest is known. Returns true if
-	 * any of the maps had it at that location, false otherwise.
+	 * Replace fixtures in every map where they are known. The changes are
+	 * given by location and then by the ID of the fixture to change; in
+	 * each map, the first fixture at that location with that ID is replaced
+	 * by the result of applying the change to it, unless that is null (as
+	 * when the fixture there turns out not to be the one meant). Each tile
+	 * with changes is examined once per map.
 	 */
-	public boolean setForestExtent(final Point location, final Forest forest, final Number acres) {
-		boolean retval = false;
+	public void replaceFixtures(final Map<Point, Map<Integer, Function<TileFixture, @Nullable TileFixture>>> changes) {
 		for (final IMutableMapNG map : getRestrictedAllMaps()) { // TODO: Should submaps really all get this information?
-			final Optional<Forest> existing = map.getFixtures(location).stream()
-				.filter(Forest.class::isInstance).map(Forest.class::cast)
-				.filter(f -> forest.getKind().equals(f.getKind()))
-				.filter(f -> forest.isRows() == f.isRows())
-				.filter(f -> forest.getId() == f.getId())
-				.findAny();
-			if (existing.isPresent()) {
-				final Forest replacement = new Forest(forest.getKind(), forest.isRows(),
-					forest.getId(), acres);
-				getRestrictedMap().replace(location, existing.get(), replacement);
-				retval = true;
+			for (final Map.Entry<Point, Map<Integer, Function<TileFixture, @Nullable TileFixture>>> entry :
+					changes.entrySet()) {
+				final Point location = entry.getKey();
+				final Map<Integer, Function<TileFixture, @Nullable TileFixture>> remaining =
+					new HashMap<>(entry.getValue());
+				for (final TileFixture fixture : new ArrayList<>(map.getFixtures(location))) {
+					final Function<TileFixture, @Nullable TileFixture> change = remaining.get(fixture.getId());
+					if (change == null) {
+						continue;
+					}
+					final TileFixture replacement = change.apply(fixture);
+					if (replacement != null) {
+						map.replace(location, fixture, replacement);
+						remaining.remove(fixture.getId());
+					}
+				}
 			}
 		}
-		return retval;
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package drivers.generators;
 
+import java.util.Random;
+
 import common.map.IMapNG;
 import common.map.Point;
 import common.map.TileType;
@@ -31,7 +33,8 @@ import common.map.fixtures.mobile.AnimalImpl;
 	}
 
 	@Override
-	public void create(final Point location, final IPopulatorDriverModel model, final IDRegistrar idf) {
+	public void create(final Point location, final IPopulatorDriverModel model, final IDRegistrar idf,
+	                   final Random random) {
 		model.addFixture(location, new AnimalImpl("hare", false, "wild", idf.createID()));
 	}
 }
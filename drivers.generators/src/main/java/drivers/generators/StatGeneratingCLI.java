@@ -49,8 +49,8 @@ import drivers.common.cli.ICLIHelper;
 import org.javatuples.Pair;
 import org.javatuples.Triplet;
 
-import exploration.common.Pathfinder;
 import exploration.common.PathfinderFactory;
+import exploration.common.TravelDistanceField;
 
 import java.util.Optional;
 import java.util.stream.StreamSupport;
@@ -502,9 +502,10 @@ import common.map.fixtures.towns.Village;
 				hqLoc = point;
 			}
 		}
-		final Pathfinder pather = PathfinderFactory.pathfinder(model.getMap());
+		final TravelDistanceField distances =
+			PathfinderFactory.pathfinder(model.getMap()).getTravelDistances(hqLoc);
 		final Function<Point, Pair<Integer, Double>> travelDistance =
-			(dest) -> Pair.with(pather.getTravelDistance(hqLoc, dest).getValue0(),
+			(dest) -> Pair.with(distances.getDistance(dest),
 				model.getMapDimensions().distance(hqLoc, dest));
 		final List<Triplet<Integer, Double, Village>> villages = model.getMap().streamLocations()
 				.flatMap(l -> model.getMap().getFixtures(l).stream()
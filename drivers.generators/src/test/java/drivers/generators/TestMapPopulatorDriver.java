@@ -0,0 +1,92 @@
+package drivers.generators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import common.idreg.IDRegistrar;
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.TileType;
+import common.map.fixtures.mobile.AnimalImpl;
+
+/**
+ * Tests that populating a map with {@link MapPopulatorDriver} is reproducible.
+ */
+public final class TestMapPopulatorDriver {
+	/**
+	 * A populator that adds herds of random size to plains, so that its
+	 * random choices show up in the map.
+	 */
+	private static final class HerdPopulator implements MapPopulator {
+		@Override
+		public boolean isSuitable(final IMapNG map, final Point location) {
+			return TileType.Plains == map.getBaseTerrain(location);
+		}
+
+		@Override
+		public double getChance() {
+			return 0.3;
+		}
+
+		@Override
+		public void create(final Point location, final IPopulatorDriverModel model, final IDRegistrar idf,
+		                   final Random random) {
+			model.addFixture(location, new AnimalImpl("horse", false, "wild", idf.createID(), -1,
+				random.nextInt(20) + 1));
+		}
+	}
+
+	private static IMutableMapNG createMap() {
+		final Random random = new Random(45);
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(40, 50, 2), new PlayerCollection(), 0);
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, random.nextBoolean() ? TileType.Plains : TileType.Ocean);
+		}
+		return retval;
+	}
+
+	/**
+	 * Populate a fresh copy of the test map with the given seed, planning
+	 * with the given number of threads.
+	 */
+	private static IMapNG populate(final long seed, final int threads)
+			throws InterruptedException, ExecutionException {
+		final IPopulatorDriverModel model = new PopulatorDriverModel(createMap());
+		final ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			final MapPopulatorDriver.Counts counts =
+				pool.submit(() -> MapPopulatorDriver.populate(model, new HerdPopulator(), seed)).get();
+			assertTrue(counts.changed() > 0, "Something was added");
+			assertTrue(counts.changed() < counts.suitable(), "Not every suitable tile was changed");
+			assertEquals(counts.changed(), model.getMap().streamAllFixtures().count(),
+				"One fixture added per changed tile");
+		} finally {
+			pool.shutdown();
+		}
+		return model.getMap();
+	}
+
+	/**
+	 * Test that the same seed gives the same map whether planning uses one
+	 * thread or many.
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = { 2, 4, 7 })
+	public void testSameSeedSameMap(final int threads) throws InterruptedException, ExecutionException {
+		final IMapNG expected = populate(12, 1);
+		assertEquals(expected, populate(12, threads), "Same seed gives same map");
+		assertNotEquals(expected, populate(13, threads), "Different seed gives different map");
+	}
+}
@@ -0,0 +1,161 @@
+package drivers.generators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.Test;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.mobile.Animal;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.resources.FieldStatus;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.towns.Town;
+import common.map.fixtures.towns.TownSize;
+import common.map.fixtures.towns.TownStatus;
+import drivers.common.cli.CLIHelper;
+
+/**
+ * Tests that {@link PopulationGeneratingCLI} generates populations and
+ * extents for everything that lacks them, in every map.
+ */
+public final class TestPopulationGeneratingCLI {
+	private static final String TOTAL = "500";
+
+	private static IMutableMapNG createMap() {
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(12, 12, 2), new PlayerCollection(), 0);
+		int id = 1;
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TileType.Plains);
+			final int index = point.row() * 12 + point.column();
+			if (index % 3 == 0) {
+				retval.addFixture(point, new AnimalImpl("deer", false, "wild", id++, -1, -1));
+			}
+			if (index % 17 == 0) {
+				retval.addFixture(point, new AnimalImpl("deer", true, "wild", id++, -1, -1));
+			}
+			if (index % 5 == 0) {
+				retval.addFixture(point, new Grove(false, false, "oak", id++));
+			}
+			if (index % 7 == 0) {
+				retval.addFixture(point, new Shrub("hazel", id++));
+			}
+			if (index % 11 == 0) {
+				retval.addFixture(point, new Meadow("grass", index % 2 == 0, false, id++, FieldStatus.Growing));
+			}
+			// Forests in a block, so some have forested neighbors.
+			if (point.row() < 4 && point.column() < 4) {
+				retval.addFixture(point, new Forest("maple", false, id++));
+			}
+		}
+		// An isolated forest, and an isolated forest with a town.
+		retval.addFixture(new Point(8, 8), new Forest("pine", false, id++));
+		retval.addFixture(new Point(8, 5), new Forest("pine", false, id++));
+		retval.addFixture(new Point(8, 5), new Town(TownStatus.Active, TownSize.Small, 10, "town", id++,
+			new PlayerImpl(1, "player")));
+		return retval;
+	}
+
+	private static <Type> int totalPopulation(final IMapNG map, final Class<Type> type,
+	                                          final Predicate<Type> filter,
+	                                          final ToIntFunction<Type> population) {
+		return map.streamAllFixtures().filter(type::isInstance).map(type::cast).filter(filter)
+			.mapToInt(population).sum();
+	}
+
+	private static Forest forestAt(final IMapNG map, final Point location) {
+		return map.getFixtures(location).stream().filter(Forest.class::isInstance).map(Forest.class::cast)
+			.findFirst().orElseThrow();
+	}
+
+	@Test
+	public void testGeneration() {
+		final IMutableMapNG main = createMap();
+		final IMutableMapNG sub = createMap();
+		assertEquals(main, sub, "Maps start out equal");
+		final PopulationGeneratingModel model = new PopulationGeneratingModel(main);
+		model.addSubordinateMap(sub);
+		final StringBuilder ostream = new StringBuilder();
+		new PopulationGeneratingCLI(new CLIHelper(new LinkedList<>(Collections.nCopies(10, TOTAL))::pollFirst,
+			ostream::append), model).startDriver();
+		for (final IMapNG map : model.getAllMaps()) {
+			assertEquals(500, totalPopulation(map, Animal.class, a -> !a.isTalking(), Animal::getPopulation),
+				"Wild deer population");
+			assertEquals(500, totalPopulation(map, Animal.class, Animal::isTalking, Animal::getPopulation),
+				"Talking deer population");
+			assertEquals(500, totalPopulation(map, Grove.class, g -> true, Grove::getPopulation),
+				"Grove population");
+			assertEquals(500, totalPopulation(map, Shrub.class, s -> true, Shrub::getPopulation),
+				"Shrub population");
+			for (final TileFixture fixture : map.streamAllFixtures().toList()) {
+				if (fixture instanceof Animal a) {
+					assertTrue(a.getPopulation() > 0, "Every animal population set");
+				} else if (fixture instanceof Grove g) {
+					assertTrue(g.getPopulation() > 0, "Every grove population set");
+				} else if (fixture instanceof Shrub s) {
+					assertTrue(s.getPopulation() > 0, "Every shrub population set");
+				} else if (fixture instanceof Meadow m) {
+					assertTrue(m.getAcres().doubleValue() >= 0.5 && m.getAcres().doubleValue() <= 6.0,
+						"Every meadow extent set");
+				} else if (fixture instanceof Forest f) {
+					assertTrue(f.getAcres().doubleValue() > 0.0, "Every forest extent set");
+				}
+			}
+			assertEquals(64.0, forestAt(map, new Point(8, 8)).getAcres().doubleValue(), 0.001,
+				"Isolated forest gets two-fifths of the tile");
+			assertEquals(58.0, forestAt(map, new Point(8, 5)).getAcres().doubleValue(), 0.001,
+				"Forest with town gets two-fifths of what the town leaves");
+		}
+		assertEquals(main, sub, "Same changes made in both maps");
+	}
+
+	/**
+	 * Test that the user is asked about animal kinds in the order the
+	 * driver has always used, that of collecting the kinds in the map into
+	 * a {@link Collectors#toSet set}.
+	 */
+	@Test
+	public void testAnimalPromptOrder() {
+		final IMutableMapNG map = new SPMapNG(new MapDimensionsImpl(4, 4, 2), new PlayerCollection(), 0);
+		final String[] kinds = { "wolf", "deer", "bear", "elk", "boar", "hare", "lynx", "fox", "owl", "badger",
+			"otter", "beaver", "moose", "bison", "mink", "stoat" };
+		int id = 1;
+		for (final Point point : map.getLocations()) {
+			map.setBaseTerrain(point, TileType.Plains);
+			map.addFixture(point, new AnimalImpl(kinds[point.row() * 4 + point.column()], false, "wild", id++,
+				-1, -1));
+		}
+		final List<String> expected = map.streamAllFixtures().filter(Animal.class::isInstance)
+			.map(Animal.class::cast).map(Animal::getKind).collect(Collectors.toSet()).stream()
+			.collect(Collectors.toList());
+		final StringBuilder ostream = new StringBuilder();
+		new PopulationGeneratingCLI(new CLIHelper(new LinkedList<>(Collections.nCopies(kinds.length, TOTAL))::pollFirst,
+			ostream::append), new PopulationGeneratingModel(map)).startDriver();
+		final Matcher matcher = Pattern.compile("There are \\d+ groups of (\\S+) in the world").matcher(ostream);
+		final List<String> asked = new LinkedList<>();
+		while (matcher.find()) {
+			asked.add(matcher.group(1));
+		}
+		assertEquals(expected, asked, "Animal kinds asked about in set order");
+	}
+}
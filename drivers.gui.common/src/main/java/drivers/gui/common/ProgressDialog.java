@@ -0,0 +1,98 @@
+package drivers.gui.common;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Frame;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+
+import lovelace.util.BorderedPanel;
+import lovelace.util.ListenedButton;
+
+/**
+ * A modal dialog to show the progress of a long-running background task,
+ * such as reading or writing a map, with a button to cancel it. Closing the
+ * dialog also cancels the task. Because the dialog is modal, the user cannot
+ * change the map while the task is running.
+ *
+ * The task should poll {@link #isCancelled} and stop when it returns true;
+ * when the task is done (however it ended), call {@link #finish} on the EDT.
+ */
+public final class ProgressDialog extends SPDialog {
+	private static final long serialVersionUID = 1L;
+
+	private final JProgressBar progressBar = new JProgressBar(0, 1000);
+
+	private final JLabel label;
+
+	private final ListenedButton cancelButton;
+
+	private volatile boolean cancelled = false;
+
+	private boolean finished = false;
+
+	public ProgressDialog(final @Nullable Frame parentFrame, final String title, final String message) {
+		super(parentFrame, title);
+		setModal(true);
+		label = new JLabel(message);
+		cancelButton = new ListenedButton("Cancel", this::cancel);
+		progressBar.setIndeterminate(true);
+		progressBar.setStringPainted(false);
+		final BorderedPanel panel = BorderedPanel.verticalPanel(label, progressBar, cancelButton);
+		panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		setContentPane(panel);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(final WindowEvent event) {
+				if (!finished) {
+					cancel();
+				}
+			}
+		});
+		pack();
+		setLocationRelativeTo(parentFrame);
+	}
+
+	/**
+	 * Ask the task to stop.
+	 */
+	public void cancel() {
+		cancelled = true;
+		cancelButton.setEnabled(false);
+		label.setText("Cancelling ...");
+	}
+
+	/**
+	 * Whether the user has asked the task to stop. Safe to call from any thread.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Update the progress shown. Must be called on the EDT.
+	 *
+	 * @param done How much of the task is done
+	 * @param total The size of the whole task, or a nonpositive number if that is not known
+	 * @param description A description of the progress, shown as the progress bar's text
+	 */
+	public void setProgress(final long done, final long total, final String description) {
+		if (total > 0) {
+			progressBar.setIndeterminate(false);
+			progressBar.setValue((int) Math.min(1000L, done * 1000L / total));
+		}
+		progressBar.setString(description);
+		progressBar.setStringPainted(true);
+	}
+
+	/**
+	 * Note that the task is done, and close the dialog. Must be called on the EDT.
+	 */
+	public void finish() {
+		finished = true;
+		dispose();
+	}
+}
@@ -22,7 +22,7 @@ import java.io.File;
  */
 public class SPFileChooser extends FileChooser {
 	private static final FileFilter MAP_EXTENSIONS_FILTER = new FileNameExtensionFilter(
-		"Strategic Primer world map files", "map", "xml", "db");
+		"Strategic Primer world map files", "map", "xml", "db", "spsnap");
 
 	/**
 	 * A factory method for {@link JFileChooser} (or AWT {@link
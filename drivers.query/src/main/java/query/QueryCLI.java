@@ -19,12 +19,8 @@ import common.map.MapDimensions;
 import common.map.Point;
 import common.map.IMapNG;
 
-import java.util.Set;
-import java.util.LinkedList;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.HashSet;
-import java.util.Deque;
+import java.util.stream.Stream;
 
 import drivers.common.IDriverModel;
 import drivers.common.ReadOnlyDriver;
@@ -39,14 +35,17 @@ import drivers.common.cli.AppletChooser;
 
 import common.map.fixtures.terrain.Forest;
 
+import common.map.fixtures.mobile.IUnit;
 import common.map.fixtures.mobile.IWorker;
 
 import exploration.common.SurroundingPointIterable;
 import exploration.common.PathfinderFactory;
 import exploration.common.Pathfinder;
+import exploration.common.UnexploredTileFinder;
 
 import common.DistanceComparator;
 
+import common.map.fixtures.towns.IFortress;
 import common.map.fixtures.towns.ITownFixture;
 import common.map.fixtures.towns.TownStatus;
 import common.map.fixtures.towns.Village;
@@ -101,6 +100,7 @@ public class QueryCLI implements ReadOnlyDriver {
 		this.model = model;
 		map = model.getMap();
 		pather = PathfinderFactory.pathfinder(map);
+		unexploredFinder = new UnexploredTileFinder(map);
 		appletChooser = new AppletChooser<>(cli,
 			new SimpleApplet(() -> fortressInfo(cli.inputPoint("Location of fortress?")),
 				"Show what a player automatically knows about a fortress's tile.",
@@ -113,12 +113,17 @@ public class QueryCLI implements ReadOnlyDriver {
 				"Count how many workers belong to a player", "count"),
 			new SimpleApplet(this::findUnexploredCommand,
 				"Find the nearest unexplored tile not behind water.", "unexplored"),
+			new SimpleApplet(this::findUnexploredForUnitsCommand,
+				"Find the nearest unexplored tiles not behind water for each of your units.",
+				"unexplored-units"),
 			new SimpleApplet(this::tradeCommand, "Suggest possible trading partners.", "trade"),
 			new SimpleApplet(this::findVillagesWithExpertise, "Find villages with a skill", "village-skill"));
 	}
 
 	private final Pathfinder pather;
 
+	private final UnexploredTileFinder unexploredFinder;
+
 	/**
 	 * Count the workers belonging to a player.
 	 */
@@ -210,38 +215,6 @@ public class QueryCLI implements ReadOnlyDriver {
 		}
 	}
 
-	/**
-	 * Find the nearest obviously-reachable unexplored location.
-	 */
-	private @Nullable Point findUnexplored(final Point base) {
-		final Deque<Point> queue = new LinkedList<>();
-		queue.addLast(base);
-		final MapDimensions dimensions = map.getDimensions();
-		final Set<Point> considered = new HashSet<>();
-		final List<Point> retval = new ArrayList<>();
-		while (!queue.isEmpty()) {
-			final Point current = queue.removeFirst();
-			final TileType currentTerrain = map.getBaseTerrain(current);
-			if (considered.contains(current)) {
-				continue;
-			} else if (currentTerrain == null) {
-				retval.add(current);
-			} else {
-				if (TileType.Ocean != currentTerrain) {
-					final double baseDistance = distance(base, current, dimensions);
-					for (final Point neighbor : new SurroundingPointIterable(current,
-							dimensions, 1)) {
-						if (distance(base, neighbor, dimensions) >= baseDistance) {
-							queue.addLast(neighbor);
-						}
-					}
-				}
-			}
-			considered.add(current);
-		}
-		return retval.stream().min(new DistanceComparator(base, dimensions)).orElse(null);
-	}
-
 	/**
 	 * Print a list of active towns within the given distance of the given
 	 * base that produce any resources, and what resources they produce.
@@ -301,7 +274,7 @@ public class QueryCLI implements ReadOnlyDriver {
 	private void findUnexploredCommand() {
 		final Point base = cli.inputPoint("Starting point? ");
 		if (base != null) {
-			final Point unexplored = findUnexplored(base);
+			final Point unexplored = unexploredFinder.findNearest(base);
 			if (unexplored == null) {
 				cli.println("No unexplored tiles found.");
 			} else {
@@ -312,6 +285,53 @@ public class QueryCLI implements ReadOnlyDriver {
 		}
 	}
 
+	/**
+	 * Stream the given fixture, or, if it is a fortress, its contents.
+	 */
+	private static Stream<? extends IFixture> unflattenFortresses(final IFixture fixture) {
+		if (fixture instanceof IFortress fort) {
+			return fort.stream();
+		} else {
+			return Stream.of(fixture);
+		}
+	}
+
+	/**
+	 * For each of the current player's units, report the given number of
+	 * nearest obviously-reachable unexplored tiles, searching from all of
+	 * their locations at once.
+	 */
+	private void findUnexploredForUnitsCommand() {
+		final Integer count = cli.inputNumber("How many tiles for each unit? ");
+		if (count == null || count <= 0) {
+			return;
+		}
+		final Player player = map.getCurrentPlayer();
+		final List<Pair<Point, IUnit>> units = map.streamLocations()
+			.flatMap(l -> map.getFixtures(l).stream().flatMap(QueryCLI::unflattenFortresses)
+				.filter(IUnit.class::isInstance).map(IUnit.class::cast)
+				.filter(u -> player.equals(u.owner())).map(u -> Pair.with(l, u)))
+			.toList();
+		if (units.isEmpty()) {
+			cli.println("You have no units in the map.");
+			return;
+		}
+		final Map<Point, List<Point>> results = unexploredFinder.findNearest(
+			units.stream().map(Pair::getValue0).toList(), count);
+		for (final Pair<Point, IUnit> pair : units) {
+			final Point base = pair.getValue0();
+			final List<Point> unexplored = results.get(base);
+			cli.println(String.format("%s at %s:", pair.getValue1().getName(), base));
+			if (unexplored.isEmpty()) {
+				cli.println("- No unexplored tiles found.");
+			}
+			for (final Point point : unexplored) {
+				cli.println(String.format("- %s, %s tiles away", point,
+					ONE_PLACE_FORMAT.format(distance(base, point, map.getDimensions()))));
+			}
+		}
+	}
+
 	private void tradeCommand() {
 		final Point location = cli.inputPoint("Base location? ");
 		if (location != null) {
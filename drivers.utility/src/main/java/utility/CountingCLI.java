@@ -1,14 +1,9 @@
 package utility;
 
 import common.map.IFixture;
-import common.map.fixtures.FixtureIterable;
-import common.map.fixtures.IResourcePile;
-import common.map.fixtures.Implement;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
-import org.eclipse.jdt.annotation.Nullable;
 import org.javatuples.Pair;
 import java.util.Comparator;
 import drivers.common.IDriverModel;
@@ -20,51 +15,16 @@ import drivers.common.cli.ICLIHelper;
 
 import common.map.IMapNG;
 import common.map.TileType;
-import common.map.River;
 import common.map.TileFixture;
 
 import lovelace.util.IntAccumulator;
 import lovelace.util.DecimalAccumulator;
-import lovelace.util.EnumCounter;
 
 import java.math.BigDecimal;
 
-import common.map.fixtures.terrain.Forest;
-import common.map.fixtures.terrain.Hill;
-import common.map.fixtures.terrain.Oasis;
-
 import java.util.function.Function;
-import java.util.function.Predicate;
 
 import java.util.List;
-import java.util.Collection;
-import java.util.stream.Collectors;
-
-import common.map.fixtures.Ground;
-
-import common.map.fixtures.resources.StoneDeposit;
-import common.map.fixtures.resources.MineralVein;
-import common.map.fixtures.resources.Mine;
-import common.map.fixtures.resources.CacheFixture;
-import common.map.fixtures.resources.Meadow;
-import common.map.fixtures.resources.Grove;
-import common.map.fixtures.resources.Shrub;
-
-import common.map.fixtures.explorable.AdventureFixture;
-import common.map.fixtures.explorable.Portal;
-import common.map.fixtures.explorable.Battlefield;
-import common.map.fixtures.explorable.Cave;
-
-import common.map.fixtures.towns.IFortress;
-import common.map.fixtures.towns.AbstractTown;
-import common.map.fixtures.towns.TownStatus;
-import common.map.fixtures.towns.Village;
-
-import common.map.fixtures.mobile.IUnit;
-import common.map.fixtures.mobile.IWorker;
-import common.map.fixtures.mobile.Immortal;
-import common.map.fixtures.mobile.Animal;
-import common.map.fixtures.mobile.AnimalTracks;
 
 /**
  * An app to report statistics on the contents of the map.
@@ -141,34 +101,29 @@ import common.map.fixtures.mobile.AnimalTracks;
 		}
 	}
 
-	private static <Type> MappedCounter<Type, String, Integer>
-			simpleCounter(final Function<Type, String> keyExtractor) {
-		return new MappedCounter<>(keyExtractor, t -> 1, IntAccumulator::new, 0);
-	}
-
-	private <Type> void countSimply(final Class<Type> cls, final Collection<?> stream, final String title,
-	                                final Function<Type, String> extractor) {
-		final MappedCounter<Type, String, Integer> counter = simpleCounter(extractor);
-		stream.stream().filter(cls::isInstance).map(cls::cast).forEach(counter::add);
-		printSummary(counter, title);
+	/**
+	 * A counter with the given totals, added in the order given, so that
+	 * ties are listed as they would be if each fixture had been added to it
+	 * one at a time.
+	 */
+	private static MappedCounter<Void, String, Integer> counter(final MapStatistics.Tally tally) {
+		final MappedCounter<Void, String, Integer> retval = new MappedCounter<>(v -> "", v -> 0,
+			IntAccumulator::new, 0);
+		tally.forEach(retval::addDirectly);
+		return retval;
 	}
 
-	private static <Type> Predicate<Object> exclude(final Class<Type> cls) {
-		return obj -> !cls.isInstance(obj);
+	private static MappedCounter<Void, String, BigDecimal> counter(final MapStatistics.DecimalTally tally) {
+		final MappedCounter<Void, String, BigDecimal> retval = new MappedCounter<>(v -> "",
+			v -> BigDecimal.ZERO, DecimalAccumulator::new, BigDecimal.ZERO);
+		tally.forEach(retval::addDirectly);
+		return retval;
 	}
 
 	private static String reportForestTotal(final BigDecimal total) {
 		return String.format("There are %s acres of forest, including:", total);
 	}
 
-	private static boolean hasLake(final Collection<River> iter) {
-		return iter.contains(River.Lake);
-	}
-
-	private static boolean withNonLake(final Collection<River> iter) {
-		return iter.stream().anyMatch(r -> River.Lake != r);
-	}
-
 	private static String countOfKind(final Pair<String, ? extends Number> pair) {
 		final String key = pair.getValue0();
 		final Number item = pair.getValue1();
@@ -187,206 +142,82 @@ import common.map.fixtures.mobile.AnimalTracks;
 		return String.format("  - %s %s", entry.getValue1(), entry.getValue0());
 	}
 
-	private static String townSummary(final AbstractTown t) {
-		return String.format("%s %s %s", t.getStatus(), t.getTownSize(), t.getKind());
-	}
-
-	private static <T> Predicate<T> negate(final Predicate<T> pred) {
-		return t -> !pred.test(t);
-	}
-
-	private static Predicate<IFixture> notA(final Class<? extends IFixture> cls) {
-		return negate(cls::isInstance);
-	}
-
-	private static BigDecimal decimalize(final Number number) {
-		if (number instanceof Integer || number instanceof Long
-				|| number instanceof Short || number instanceof Byte) {
-			return BigDecimal.valueOf(number.longValue());
-		} else if (number instanceof BigDecimal d) {
-			return d;
-		} else {
-			return BigDecimal.valueOf(number.doubleValue());
-		}
-	}
-
-	private static Stream<?> flatten(final @Nullable Object item) {
-		// Note that workers are counted separately, so while we include their equipment and mounts we don't include them.
-		if (item instanceof IWorker w) {
-			return Stream.concat(Stream.concat(StreamSupport.stream(w.spliterator(), false),
-						w.getEquipment().stream()), Stream.of(w.getMount()))
-					.filter(Objects::nonNull);
-		} else if (item instanceof Iterable) { // TODO: FixtureIterable?
-			return Stream.concat(StreamSupport.stream(((Iterable<?>) item).spliterator(), false).flatMap(CountingCLI::flatten),
-					Stream.of(item));
-		} else {
-			return Stream.ofNullable(item); // TODO: Why is it @Nullable?
-		}
-	}
-
-	private static String resourcePileKeyExtractor(final IResourcePile pile) {
-		if (pile.getContents().contains(pile.getQuantity().units()) ||
-				    pile.getQuantity().units().contains(pile.getContents())) {
-			return pile.getContents();
-		} else {
-			return pile.getQuantity().units() + " " + pile.getContents();
-		}
-	}
-
 	@Override
-	public void startDriver() { // TODO: Reduce duplication
+	public void startDriver() {
 		final IMapNG map = model.getMap();
 		cli.println(String.format("There are %d tiles in all.",
 			map.getDimensions().rows() * map.getDimensions().columns()));
-		final EnumCounter<TileType> tileTypeCounts = new EnumCounter<>();
-		tileTypeCounts.countMany(map.streamLocations()
-			.map(map::getBaseTerrain).filter(Objects::nonNull).toArray(TileType[]::new));
+		final MapStatistics stats = MapStatistics.of(map);
 		cli.println();
-		tileTypeCounts.streamAllCounts()
-				.sorted(Comparator.comparing(Pair::getValue1,
-						Comparator.reverseOrder()))
-				.map(entry -> String.format("- %d are %s", entry.getValue1(), entry.getValue0()))
+		Stream.of(TileType.values()).filter(t -> stats.getTerrainCount(t) > 0)
+				.sorted(Comparator.comparingInt(stats::getTerrainCount).reversed())
+				.map(t -> String.format("- %d are %s", stats.getTerrainCount(t), t))
 				.forEach(cli::println);
 		cli.println();
-		final List<IFixture> allFixtures = map.streamAllFixtures().flatMap(CountingCLI::flatten)
-				.filter(IFixture.class::isInstance).map(IFixture.class::cast).collect(Collectors.toList());
-		final MappedCounter<Forest, String, BigDecimal> forests = new MappedCounter<>(Forest::getKind,
-			f -> decimalize(f.getAcres()), DecimalAccumulator::new, BigDecimal.ZERO);
-		allFixtures.stream().filter(Forest.class::isInstance).map(Forest.class::cast)
-			.forEach(forests::add);
-		printSummary(forests,
+		printSummary(counter(stats.getForests()),
 			CountingCLI::reportForestTotal, CountingCLI::countOfKind);
 
 		cli.println("Terrain fixtures:");
 		cli.println();
-		final List<Collection<TileFixture>> separateTiles = map.streamLocations().map(map::getFixtures).toList();
-		cli.println(String.format("- %d hilly tiles",
-			separateTiles.stream().filter(c -> c.stream().anyMatch(Hill.class::isInstance))
-				.count()));
-		cli.println(String.format("- %d mountainous tiles", map.streamLocations()
-				.filter(map::isMountainous).count()));
-		cli.println(String.format("- %d at least partly forested tiles",
-			separateTiles.stream().filter(c -> c.stream().anyMatch(Forest.class::isInstance))
-				.count()));
-		cli.println(String.format("- %d oases", separateTiles.stream()
-			.filter(c -> c.stream().anyMatch(Oasis.class::isInstance)).count()));
-		final List<Collection<River>> tilesRivers = map.streamLocations().map(map::getRivers).toList();
-		cli.println(String.format("- %d lakes",
-			tilesRivers.stream().filter(CountingCLI::hasLake).count()));
-		cli.println(String.format("- %d tiles with rivers", tilesRivers.stream()
-			.filter(CountingCLI::withNonLake).count()));
+		cli.println(String.format("- %d hilly tiles", stats.getHillyTiles()));
+		cli.println(String.format("- %d mountainous tiles", stats.getMountainousTiles()));
+		cli.println(String.format("- %d at least partly forested tiles", stats.getForestedTiles()));
+		cli.println(String.format("- %d oases", stats.getOasisTiles()));
+		cli.println(String.format("- %d lakes", stats.getLakes()));
+		cli.println(String.format("- %d tiles with rivers", stats.getRiverTiles()));
 		// TODO: Count tiles with roads of each type
 		cli.println();
 
-		final MappedCounter<Ground, String, Integer> ground = simpleCounter(Ground::getKind);
-		allFixtures.stream().filter(Ground.class::isInstance).map(Ground.class::cast)
-			.forEach(ground::add);
-		printSummary(ground,
+		printSummary(counter(stats.getGround()),
 			"Ground (bedrock) (counting exposed/not separately):",
 			CountingCLI::countTilesWithKind, 0);
 
-		countSimply(StoneDeposit.class, allFixtures, "Stone deposits:", StoneDeposit::getKind);
-		countSimply(MineralVein.class, allFixtures, "Mineral veins:", MineralVein::getKind);
-		countSimply(Mine.class, allFixtures, "Mines:", Mine::getKind);
-
-		final MappedCounter<CacheFixture, String, Integer> caches = simpleCounter(CacheFixture::getKind);
-		allFixtures.stream().filter(CacheFixture.class::isInstance).map(CacheFixture.class::cast)
-			.forEach(caches::add);
-		printSummary(caches, "Caches:", CountingCLI::countOfKind, 0);
-
-		final MappedCounter<AdventureFixture, String, Integer> adventures =
-			simpleCounter(AdventureFixture::getBriefDescription);
-		allFixtures.stream().filter(AdventureFixture.class::isInstance)
-			.map(AdventureFixture.class::cast).forEach(adventures::add);
-		adventures.addDirectly("Portal to another world", (int) separateTiles.stream()
-			.filter(c -> c.stream().anyMatch(Portal.class::isInstance)).count());
-		adventures.addDirectly("Ancient battlefield", (int) allFixtures.stream()
-			.filter(Battlefield.class::isInstance).count());
-		adventures.addDirectly("Cave system", (int) allFixtures.stream()
-			.filter(Cave.class::isInstance).count());
+		printSummary(counter(stats.getStoneDeposits()), "Stone deposits:");
+		printSummary(counter(stats.getMineralVeins()), "Mineral veins:");
+		printSummary(counter(stats.getMines()), "Mines:");
+		printSummary(counter(stats.getCaches()), "Caches:", CountingCLI::countOfKind, 0);
+
+		final MappedCounter<Void, String, Integer> adventures = counter(stats.getAdventures());
+		adventures.addDirectly("Portal to another world", stats.getPortalTiles());
+		adventures.addDirectly("Ancient battlefield", stats.getBattlefields());
+		adventures.addDirectly("Cave system", stats.getCaves());
 		printSummary(adventures, "Adventure Hooks and Portals:", CountingCLI::kindColonCount, 0);
 
 		// TODO: We'd like to count active towns' populations.
 		cli.println("Active Communities:");
 		cli.println();
-		cli.println(String.format("- %d fortresses",
-			allFixtures.stream().filter(IFortress.class::isInstance).count()));
+		cli.println(String.format("- %d fortresses", stats.getFortresses()));
 		cli.println(String.format("- %d active towns, cities, or fortifications of any size",
-			allFixtures.stream().filter(AbstractTown.class::isInstance)
-				.map(AbstractTown.class::cast)
-				.filter(t -> TownStatus.Active == t.getStatus()).count()));
-
-		final MappedCounter<Village, String, Integer> villages = simpleCounter(Village::getRace);
-		allFixtures.stream().filter(Village.class::isInstance).map(Village.class::cast)
-			.forEach(villages::add);
-		printSummary(villages, "- Villages, grouped by race:", CountingCLI::countSpaceKind, 0);
-
-		final MappedCounter<AbstractTown, String, Integer> inactiveTowns = simpleCounter(
-			CountingCLI::townSummary);
-		allFixtures.stream().filter(AbstractTown.class::isInstance).map(AbstractTown.class::cast)
-			.filter(t -> TownStatus.Active != t.getStatus()).forEach(inactiveTowns::add);
-		printSummary(inactiveTowns, "Inactive Communities:");
-
-		final MappedCounter<IUnit, String, Integer> independentUnits =
-			simpleCounter(IUnit::getName);
-		allFixtures.stream().filter(IUnit.class::isInstance).map(IUnit.class::cast)
-			.filter(u -> u.owner().isIndependent()).forEach(independentUnits::add);
-		printSummary(independentUnits, "Independent Units:");
-
-		final MappedCounter<IWorker, String, Integer> workers = simpleCounter(IWorker::getRace);
-		allFixtures.stream().filter(IUnit.class::isInstance).map(IUnit.class::cast)
-			.flatMap(FixtureIterable::stream)
-			.filter(IWorker.class::isInstance).map(IWorker.class::cast).forEach(workers::add);
-		allFixtures.stream().filter(IFortress.class::isInstance).map(IFortress.class::cast)
-			.flatMap(FixtureIterable::stream)
-			.filter(IUnit.class::isInstance).map(IUnit.class::cast)
-			.flatMap(FixtureIterable::stream)
-			.filter(IWorker.class::isInstance).map(IWorker.class::cast).forEach(workers::add);
+			stats.getActiveTowns()));
+		printSummary(counter(stats.getVillages()), "- Villages, grouped by race:",
+			CountingCLI::countSpaceKind, 0);
+		printSummary(counter(stats.getInactiveTowns()), "Inactive Communities:");
+		printSummary(counter(stats.getIndependentUnits()), "Independent Units:");
+
+		final MappedCounter<Void, String, Integer> workers = counter(stats.getUnitWorkers());
+		stats.getFortressWorkers().forEach(workers::addDirectly);
 		printSummary(workers, "Worker Races:");
 
-		countSimply(Immortal.class, allFixtures, "Immortals:", Immortal::getShortDescription);
-		countSimply(Meadow.class, allFixtures, "Fields and Meadows:", Meadow::getKind);
-		countSimply(Grove.class, allFixtures, "Groves and Orchards:", Grove::getKind);
-		countSimply(Shrub.class, allFixtures, "Shrubs:", Shrub::getKind);
-
-		final MappedCounter<Animal, String, Integer> animals =
-			new MappedCounter<>(Animal::getKind, Animal::getPopulation, IntAccumulator::new, 0);
-		allFixtures.stream().filter(Animal.class::isInstance).map(Animal.class::cast)
-			.filter(a -> !a.isTalking()).forEach(animals::add);
-		animals.addDirectly("various talking animals", (int) allFixtures.stream()
-			.filter(Animal.class::isInstance).map(Animal.class::cast).filter(Animal::isTalking)
-			.count());
-		printSummary(animals, "Animals");
-
-		final MappedCounter<Implement, String, Integer> equipment = new MappedCounter<>(Implement::getKind,
-				Implement::getPopulation, IntAccumulator::new, 0);
-		allFixtures.stream().filter(Implement.class::isInstance).map(Implement.class::cast).forEach(equipment::add);
+		printSummary(counter(stats.getImmortals()), "Immortals:");
+		printSummary(counter(stats.getMeadows()), "Fields and Meadows:");
+		printSummary(counter(stats.getGroves()), "Groves and Orchards:");
+		printSummary(counter(stats.getShrubs()), "Shrubs:");
 
-		final Map<String, List<IResourcePile>> groupedResources = allFixtures.stream().filter(IResourcePile.class::isInstance)
-				.map(IResourcePile.class::cast).collect(Collectors.groupingBy(IResourcePile::getKind));
+		final MappedCounter<Void, String, Integer> animals = counter(stats.getAnimals());
+		animals.addDirectly("various talking animals", stats.getTalkingAnimals());
+		printSummary(animals, "Animals");
 
+		// Grouped as Collectors.groupingBy() would, so kinds are listed in the same order.
+		final Map<String, MapStatistics.DecimalTally> groupedResources = new HashMap<>();
+		stats.getResources().forEach(groupedResources::put);
 		if (!groupedResources.isEmpty()) {
 			cli.println("Resources:");
-			for (final Map.Entry<String, List<IResourcePile>> entry : groupedResources.entrySet()) {
-				final MappedCounter<IResourcePile, String, BigDecimal> counter = new MappedCounter<>(
-						CountingCLI::resourcePileKeyExtractor, r -> decimalize(r.getQuantity().number()),
-						DecimalAccumulator::new, BigDecimal.ZERO);
-				entry.getValue().forEach(counter::add);
-				printSummary(counter, entry.getKey(), 1);
+			for (final Map.Entry<String, MapStatistics.DecimalTally> entry : groupedResources.entrySet()) {
+				printSummary(counter(entry.getValue()), entry.getKey(), 1);
 			}
 		}
 
-		final List<IFixture> remaining = allFixtures.stream().filter(notA(Animal.class))
-			.filter(notA(Shrub.class)).filter(notA(Grove.class)).filter(notA(Meadow.class))
-			.filter(notA(Immortal.class)).filter(notA(IFortress.class)).filter(notA(IUnit.class))
-			.filter(notA(AbstractTown.class)).filter(notA(Village.class))
-			.filter(notA(Portal.class)).filter(notA(AdventureFixture.class))
-			.filter(notA(CacheFixture.class)).filter(notA(Mine.class))
-			.filter(notA(MineralVein.class)).filter(notA(StoneDeposit.class))
-			.filter(notA(Ground.class)).filter(notA(Forest.class)).filter(notA(Hill.class))
-			.filter(notA(Oasis.class)).filter(notA(AnimalTracks.class)).filter(notA(Cave.class))
-			.filter(notA(Battlefield.class)).filter(notA(Implement.class)).filter(notA(IResourcePile.class)).toList();
-
+		final List<IFixture> remaining = stats.getRemaining();
 		if (!remaining.isEmpty()) {
 			cli.println();
 			cli.println("Remaining fixtures:");
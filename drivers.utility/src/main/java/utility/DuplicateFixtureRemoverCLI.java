@@ -2,7 +2,7 @@ package utility;
 
 import java.util.Collection;
 import java.util.stream.Stream;
-import lovelace.util.Decimalize;
+import lovelace.util.FixedDecimal;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
@@ -13,7 +13,6 @@ import org.javatuples.Pair;
 import java.util.function.Consumer;
 import java.nio.file.Path;
 import common.map.HasKind;
-import java.math.BigDecimal;
 
 import common.map.IFixture;
 import common.map.HasPopulation;
@@ -38,7 +37,6 @@ import common.map.fixtures.resources.Shrub;
 import drivers.common.cli.ICLIHelper;
 
 import drivers.common.CLIDriver;
-import drivers.common.EmptyOptions;
 import drivers.common.SPOptions;
 
 import common.map.fixtures.terrain.Forest;
@@ -46,7 +44,8 @@ import common.map.fixtures.terrain.Forest;
 /**
  * A driver to remove duplicate hills, forests, etc. from the map (to reduce
  * the size it takes up on disk and the memory and CPU it takes to deal with
- * it).
+ * it). With the "--batch" option, it removes all duplicates without asking;
+ * adding the "--coalesce" option, it also combines all like resources.
  */
 public class DuplicateFixtureRemoverCLI implements CLIDriver {
 	private static String memberKind(final @Nullable IFixture member) {
@@ -108,13 +107,14 @@ public class DuplicateFixtureRemoverCLI implements CLIDriver {
 		final IResourcePile top = list[0];
 		final IMutableResourcePile combined = new ResourcePileImpl(top.getId(), top.getKind(),
 			top.getContents(), new Quantity(Stream.of(list).map(IResourcePile::getQuantity)
-				.map(Quantity::number).map(Decimalize::decimalize)
-				.reduce(BigDecimal.ZERO, BigDecimal::add), top.getQuantity().units()));
+				.map(Quantity::number).map(FixedDecimal::of)
+				.reduce(FixedDecimal.ZERO, FixedDecimal::add).toBigDecimal(), top.getQuantity().units()));
 		combined.setCreated(top.getCreated());
 		return combined;
 	}
 
 	private final ICLIHelper cli;
+	private final SPOptions options;
 	private final UtilityDriverModel model;
 	@Override
 	public UtilityDriverModel getModel() {
@@ -123,11 +123,13 @@ public class DuplicateFixtureRemoverCLI implements CLIDriver {
 
 	@Override
 	public SPOptions getOptions() {
-		return EmptyOptions.EMPTY_OPTIONS;
+		return options;
 	}
 
-	public DuplicateFixtureRemoverCLI(final ICLIHelper cli, final UtilityDriverModel model) {
+	public DuplicateFixtureRemoverCLI(final ICLIHelper cli, final SPOptions options,
+	                                  final UtilityDriverModel model) {
 		this.cli = cli;
+		this.options = options;
 		this.model = model;
 	}
 
@@ -178,9 +180,9 @@ public class DuplicateFixtureRemoverCLI implements CLIDriver {
 	}
 
 	/**
-	 * Offer to combine like resources in a unit or fortress.
+	 * The handlers for combining each kind of like resources.
 	 */
-	private void coalesceResources(final Point location) {
+	private static Map<Class<? extends IFixture>, CoalescedHolder<? extends IFixture, ?>> coalescingHandlers() {
 		final Map<Class<? extends IFixture>, CoalescedHolder<? extends IFixture, ?>> mapping =
 			new HashMap<>();
 		mapping.put(IResourcePile.class, new CoalescedHolder<>(IResourcePile.class,
@@ -208,9 +210,15 @@ public class DuplicateFixtureRemoverCLI implements CLIDriver {
 				DuplicateFixtureRemoverCLI::combineExtents));
 		mapping.put(Shrub.class, new CoalescedHolder<>(Shrub.class, Shrub[]::new,
 				Shrub::getKind, DuplicateFixtureRemoverCLI::combinePopulations));
+		return mapping;
+	}
 
+	/**
+	 * Offer to combine like resources in a unit or fortress.
+	 */
+	private void coalesceResources(final Point location) {
 		for (final Quartet<Runnable, String, String, Collection<? extends IFixture>> q :
-				model.conditionallyCoalesceResources(location, mapping)) {
+				model.conditionallyCoalesceResources(location, coalescingHandlers())) {
 			final Runnable callback = q.getValue0();
 			final String context = q.getValue1();
 			final String plural = q.getValue2();
@@ -228,12 +236,36 @@ public class DuplicateFixtureRemoverCLI implements CLIDriver {
 		}
 	}
 
+	/**
+	 * Remove all duplicate fixtures, and if the "--coalesce" option was
+	 * given combine all like resources, in every map, without asking.
+	 */
+	private void removeAllDuplicates() {
+		final int removed = model.removeAllDuplicates();
+		if (options.hasOption("--coalesce")) {
+			int combined = 0;
+			for (final Point location : model.getMap().getLocations()) {
+				for (final Quartet<Runnable, String, String, Collection<? extends IFixture>> q :
+						model.conditionallyCoalesceResources(location, coalescingHandlers())) {
+					q.getValue0().run();
+					combined++;
+				}
+			}
+			cli.println(String.format("Removed %d duplicate fixtures and combined %d groups of resources.",
+				removed, combined));
+		} else {
+			cli.println(String.format("Removed %d duplicate fixtures.", removed));
+		}
+	}
+
 	/**
 	 * Run the driver
 	 */
 	@Override
 	public void startDriver() {
-		if (model.getSubordinateMaps().iterator().hasNext()) {
+		if (options.hasOption("--batch")) {
+			removeAllDuplicates();
+		} else if (model.getSubordinateMaps().iterator().hasNext()) {
 			for (final IMapNG map : model.getAllMaps()) {
 				removeDuplicateFixtures(map);
 				model.setMapModified(map, true);
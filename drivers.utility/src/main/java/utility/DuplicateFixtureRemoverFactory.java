@@ -25,7 +25,7 @@ public class DuplicateFixtureRemoverFactory implements ModelDriverFactory {
 	private static final IDriverUsage USAGE = new DriverUsage(false, "remove-duplicates",
 		ParamCount.AtLeastOne, "Remove duplicate fixtures",
 		"Remove duplicate fixtures (identical except ID# and on the same tile) from a map.",
-		true, false, "--current-turn=NN");
+		true, false, "--current-turn=NN", "--batch", "--coalesce");
 
 	@Override
 	public IDriverUsage getUsage() {
@@ -35,7 +35,7 @@ public class DuplicateFixtureRemoverFactory implements ModelDriverFactory {
 	@Override
 	public ModelDriver createDriver(final ICLIHelper cli, final SPOptions options, final IDriverModel model) {
 		if (model instanceof UtilityDriverModel udm) {
-			return new DuplicateFixtureRemoverCLI(cli, udm);
+			return new DuplicateFixtureRemoverCLI(cli, options, udm);
 		} else {
 			return createDriver(cli, options, new UtilityDriverModel(model));
 		}
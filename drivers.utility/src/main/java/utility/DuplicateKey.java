@@ -0,0 +1,134 @@
+package utility;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import common.map.IFixture;
+import common.map.fixtures.Ground;
+import common.map.fixtures.IResourcePile;
+import common.map.fixtures.Implement;
+import common.map.fixtures.explorable.AdventureFixture;
+import common.map.fixtures.explorable.Battlefield;
+import common.map.fixtures.explorable.Cave;
+import common.map.fixtures.explorable.Portal;
+import common.map.fixtures.mobile.Animal;
+import common.map.fixtures.mobile.Centaur;
+import common.map.fixtures.mobile.Dragon;
+import common.map.fixtures.mobile.Fairy;
+import common.map.fixtures.mobile.Giant;
+import common.map.fixtures.mobile.IUnit;
+import common.map.fixtures.mobile.ImmortalAnimal;
+import common.map.fixtures.mobile.ProxyFor;
+import common.map.fixtures.mobile.SimpleImmortal;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.Mine;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.resources.StoneDeposit;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
+import common.map.fixtures.towns.AbstractTown;
+import common.map.fixtures.towns.IFortress;
+import common.map.fixtures.towns.Village;
+
+/**
+ * A key for finding fixtures that may be {@link IFixture#equalsIgnoringID
+ * equal ignoring ID} by hashing: the type whose {@link
+ * IFixture#equalsIgnoringID} applies, and those of the fields it compares
+ * that are simple to compare by {@link Object#equals}. If one fixture is
+ * equal to another ignoring ID, their keys are equal; the converse does not
+ * hold, so fixtures with equal keys must still be compared.
+ *
+ * Fixtures whose equality is not so simple have no key, and must be compared
+ * with every other fixture.
+ */
+/* package */ final class DuplicateKey {
+	private DuplicateKey() {
+	}
+
+	private static List<Object> key(final Class<?> type, final Object... fields) {
+		final Object[] retval = Arrays.copyOf(fields, fields.length + 1);
+		retval[fields.length] = type;
+		return Arrays.asList(retval);
+	}
+
+	/**
+	 * The key for the given fixture, or null if it has none.
+	 *
+	 * Each case here must match the type checked by the corresponding
+	 * {@link IFixture#equalsIgnoringID} implementation, or else some other
+	 * fixture that it could be equal to might get a different key.
+	 */
+	public static @Nullable Object of(final IFixture fixture) {
+		if (fixture instanceof ProxyFor) {
+			return null;
+		} else if (fixture instanceof Ground g) {
+			return key(Ground.class, g.getKind(), g.isExposed());
+		} else if (fixture instanceof IResourcePile rp) {
+			// Quantity.hashCode() isn't consistent with its equals(), so only the units.
+			return key(IResourcePile.class, rp.getKind(), rp.getContents(), rp.getQuantity().units(),
+				rp.getCreated());
+		} else if (fixture instanceof Implement i) {
+			return key(Implement.class, i.getKind(), i.getCount());
+		} else if (fixture instanceof AdventureFixture a) {
+			return key(AdventureFixture.class, a.getBriefDescription(), a.getFullDescription());
+		} else if (fixture instanceof Battlefield) {
+			return key(Battlefield.class);
+		} else if (fixture instanceof Cave) {
+			return key(Cave.class);
+		} else if (fixture instanceof Portal p) {
+			return key(Portal.class, p.getDestinationWorld(), p.getDestinationCoordinates());
+		} else if (fixture instanceof Animal a) {
+			return key(Animal.class, a.getKind(), a.isTalking(), a.getStatus(), a.getBorn(),
+				a.getPopulation());
+		} else if (fixture instanceof Centaur c) {
+			return key(Centaur.class, c.getKind());
+		} else if (fixture instanceof Dragon d) {
+			return key(Dragon.class, d.getKind());
+		} else if (fixture instanceof Fairy f) {
+			return key(Fairy.class, f.getKind());
+		} else if (fixture instanceof Giant g) {
+			return key(Giant.class, g.getKind());
+		} else if (fixture instanceof ImmortalAnimal i) {
+			return key(ImmortalAnimal.class, i.getKind());
+		} else if (fixture instanceof SimpleImmortal s) {
+			return key(SimpleImmortal.class, s.getKind());
+		} else if (fixture instanceof IUnit u) {
+			return key(IUnit.class, u.owner().getPlayerId(), u.getKind(), u.getName());
+		} else if (fixture instanceof CacheFixture c) {
+			return key(CacheFixture.class, c.getKind(), c.getContents());
+		} else if (fixture instanceof Grove g) {
+			return key(Grove.class, g.getKind(), g.isOrchard(), g.isCultivated(), g.getPopulation());
+		} else if (fixture instanceof Meadow m) {
+			// Acreage is compared numerically, so isn't part of the key.
+			return key(Meadow.class, m.getKind(), m.isField(), m.getStatus(), m.isCultivated());
+		} else if (fixture instanceof Mine m) {
+			return key(Mine.class, m.getKind(), m.getStatus());
+		} else if (fixture instanceof MineralVein v) {
+			return key(MineralVein.class, v.getKind(), v.isExposed());
+		} else if (fixture instanceof Shrub s) {
+			return key(Shrub.class, s.getKind(), s.getPopulation());
+		} else if (fixture instanceof StoneDeposit s) {
+			return key(StoneDeposit.class, s.getStone());
+		} else if (fixture instanceof Forest f) {
+			return key(Forest.class, f.getKind(), f.isRows());
+		} else if (fixture instanceof Hill) {
+			return key(Hill.class);
+		} else if (fixture instanceof Oasis) {
+			return key(Oasis.class);
+		} else if (fixture instanceof AbstractTown t) {
+			return key(AbstractTown.class, t.getTownSize(), t.getName(), t.getStatus());
+		} else if (fixture instanceof Village v) {
+			return key(Village.class, v.getName(), v.getStatus());
+		} else if (fixture instanceof IFortress f) {
+			return key(IFortress.class, f.getName(), f.owner().getPlayerId());
+		} else {
+			return null;
+		}
+	}
+}
@@ -1,19 +1,20 @@
 package utility;
 
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.function.Predicate;
 import common.map.Player;
-import common.map.HasOwner;
-import common.map.Point;
 import common.map.IMapNG;
 
-import common.map.fixtures.towns.ITownFixture;
-
+import drivers.common.DriverFailedException;
 import drivers.common.SPOptions;
 import drivers.common.CLIDriver;
 
+import lovelace.util.SingletonRandom;
+
 /**
  * A driver to update a player's map to include a certain minimum distance around allied villages.
+ * With the "--seed" option, which fixtures are noticed is reproducible.
  *
  * FIXME: Write GUI for map-expanding driver
  */
@@ -36,24 +37,24 @@ public class ExpansionDriver implements CLIDriver {
 		return model;
 	}
 
-	private static Predicate<Point> containsSwornVillage(final IMapNG map, final Player currentPlayer) {
-		return (point) -> map.getFixtures(point).stream().filter(ITownFixture.class::isInstance)
-			.map(ITownFixture.class::cast).map(HasOwner::owner)
-			.anyMatch(currentPlayer::equals);
-	}
-
 	private static <T> Predicate<T> not(final Predicate<T> pred) {
 		return t -> !pred.test(t);
 	}
 
 	@Override
-	public void startDriver() {
-		for (final Player player : model.streamSubordinateMaps()
-				.map(IMapNG::getCurrentPlayer).filter(not(Player::isIndependent)).collect(Collectors.toSet())) {
-			for (final Point point : model.getMap().streamLocations()
-					.filter(containsSwornVillage(model.getMap(), player)).toList()) {
-				model.expandAroundPoint(point, player);
+	public void startDriver() throws DriverFailedException {
+		final Random seeds;
+		if (options.hasOption("--seed")) {
+			try {
+				seeds = new Random(Long.parseLong(options.getArgument("--seed")));
+			} catch (final NumberFormatException except) {
+				throw new DriverFailedException(except, "Seed must be numeric");
 			}
+		} else {
+			seeds = SingletonRandom.SINGLETON_RANDOM;
 		}
+		model.expandAroundSwornVillages(model.streamSubordinateMaps()
+			.map(IMapNG::getCurrentPlayer).filter(not(Player::isIndependent)).collect(Collectors.toSet()),
+			seeds);
 	}
 }
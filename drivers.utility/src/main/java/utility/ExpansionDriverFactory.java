@@ -24,7 +24,7 @@ public class ExpansionDriverFactory implements ModelDriverFactory {
 	private static final IDriverUsage USAGE = new DriverUsage(false, "expand", ParamCount.AtLeastTwo,
 		"Expand a player's map.",
 		"Ensure a player's map covers all terrain allied villages can see.", true,
-		false, "--current-turn=NN");
+		false, "--current-turn=NN", "--seed=NN");
 
 	@Override
 	public IDriverUsage getUsage() {
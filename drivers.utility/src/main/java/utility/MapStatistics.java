@@ -0,0 +1,563 @@
+package utility;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jetbrains.annotations.Nullable;
+
+import common.map.IFixture;
+import common.map.IMapNG;
+import common.map.Point;
+import common.map.River;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.Ground;
+import common.map.fixtures.IResourcePile;
+import common.map.fixtures.Implement;
+import common.map.fixtures.explorable.AdventureFixture;
+import common.map.fixtures.explorable.Battlefield;
+import common.map.fixtures.explorable.Cave;
+import common.map.fixtures.explorable.Portal;
+import common.map.fixtures.mobile.Animal;
+import common.map.fixtures.mobile.AnimalTracks;
+import common.map.fixtures.mobile.IUnit;
+import common.map.fixtures.mobile.IWorker;
+import common.map.fixtures.mobile.Immortal;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.Mine;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.resources.StoneDeposit;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
+import common.map.fixtures.towns.AbstractTown;
+import common.map.fixtures.towns.IFortress;
+import common.map.fixtures.towns.TownStatus;
+import common.map.fixtures.towns.Village;
+
+import lovelace.util.FixedDecimal;
+
+/**
+ * The statistics {@link CountingCLI} reports on a map, gathered in one pass
+ * over its tiles. Each tile's fixtures (and everything they contain) are
+ * visited once and sent to the accumulators for their types; the pass can
+ * be split across threads, each filling its own instance, which are then
+ * {@link #merge merged} in map order. Counts are kept as primitives, and
+ * only acreage and resource quantities are summed as exact decimals.
+ *
+ * Every keyed total also remembers the order its keys were first seen in, so
+ * that a report built from it lists ties in the same order as one built by
+ * counting the flattened fixtures one at a time.
+ */
+/* package */ final class MapStatistics {
+	/**
+	 * Integer totals by key, in the order keys were first seen.
+	 */
+	/* package */ static final class Tally {
+		private final Map<String, int[]> totals = new LinkedHashMap<>();
+
+		/* package */ void add(final String key, final int addend) {
+			totals.computeIfAbsent(key, k -> new int[1])[0] += addend;
+		}
+
+		/* package */ void merge(final Tally other) {
+			for (final Map.Entry<String, int[]> entry : other.totals.entrySet()) {
+				add(entry.getKey(), entry.getValue()[0]);
+			}
+		}
+
+		/**
+		 * Pass each key and its total to the given consumer, in the order keys were first seen.
+		 */
+		/* package */ void forEach(final BiConsumer<String, Integer> action) {
+			for (final Map.Entry<String, int[]> entry : totals.entrySet()) {
+				action.accept(entry.getKey(), entry.getValue()[0]);
+			}
+		}
+	}
+
+	/**
+	 * Exact decimal totals by key, in the order keys were first seen.
+	 */
+	/* package */ static final class DecimalTally {
+		private final Map<String, FixedDecimal> totals = new LinkedHashMap<>();
+
+		/* package */ void add(final String key, final FixedDecimal addend) {
+			totals.merge(key, addend, FixedDecimal::add);
+		}
+
+		/* package */ void merge(final DecimalTally other) {
+			for (final Map.Entry<String, FixedDecimal> entry : other.totals.entrySet()) {
+				add(entry.getKey(), entry.getValue());
+			}
+		}
+
+		/**
+		 * Pass each key and its total to the given consumer, in the order keys were first seen.
+		 */
+		/* package */ void forEach(final BiConsumer<String, BigDecimal> action) {
+			for (final Map.Entry<String, FixedDecimal> entry : totals.entrySet()) {
+				action.accept(entry.getKey(), entry.getValue().toBigDecimal());
+			}
+		}
+	}
+
+	/**
+	 * Gather statistics on the given map, visiting its tiles in parallel.
+	 */
+	public static MapStatistics of(final IMapNG map) {
+		return map.streamLocations().toList().parallelStream().collect(MapStatistics::new,
+			(stats, location) -> stats.visitTile(map, location), MapStatistics::merge);
+	}
+
+	/**
+	 * The number of tiles of each terrain type, by ordinal.
+	 */
+	private final int[] terrain = new int[TileType.values().length];
+
+	private int hillyTiles = 0;
+	private int mountainousTiles = 0;
+	private int forestedTiles = 0;
+	private int oasisTiles = 0;
+	private int portalTiles = 0;
+	private int lakes = 0;
+	private int riverTiles = 0;
+
+	private final DecimalTally forests = new DecimalTally();
+	private final Tally ground = new Tally();
+	private final Tally stoneDeposits = new Tally();
+	private final Tally mineralVeins = new Tally();
+	private final Tally mines = new Tally();
+	private final Tally caches = new Tally();
+	private final Tally adventures = new Tally();
+	private int battlefields = 0;
+	private int caves = 0;
+
+	private int fortresses = 0;
+	private int activeTowns = 0;
+	private final Tally villages = new Tally();
+	private final Tally inactiveTowns = new Tally();
+	private final Tally independentUnits = new Tally();
+
+	/**
+	 * Workers' races, counting workers in every unit.
+	 */
+	private final Tally unitWorkers = new Tally();
+
+	/**
+	 * Workers' races, counting workers in units in fortresses. (These are
+	 * also counted in {@link #unitWorkers}; the report has always counted
+	 * them twice.)
+	 */
+	private final Tally fortressWorkers = new Tally();
+
+	private final Tally immortals = new Tally();
+	private final Tally meadows = new Tally();
+	private final Tally groves = new Tally();
+	private final Tally shrubs = new Tally();
+	private final Tally animals = new Tally();
+	private int talkingAnimals = 0;
+
+	/**
+	 * Resource quantities, grouped by kind and then by contents and units.
+	 */
+	private final Map<String, DecimalTally> resources = new LinkedHashMap<>();
+
+	/**
+	 * Fixtures not counted under any other heading, in map order.
+	 */
+	private final List<IFixture> remaining = new ArrayList<>();
+
+	/**
+	 * A fixture and everything it contains, except that workers are
+	 * counted separately, so while we include their equipment and mounts
+	 * we don't include them.
+	 */
+	private static Stream<?> flatten(final @Nullable Object item) {
+		if (item instanceof IWorker w) {
+			return Stream.concat(Stream.concat(StreamSupport.stream(w.spliterator(), false),
+						w.getEquipment().stream()), Stream.of(w.getMount()))
+					.filter(Objects::nonNull);
+		} else if (item instanceof Iterable) { // TODO: FixtureIterable?
+			return Stream.concat(StreamSupport.stream(((Iterable<?>) item).spliterator(), false)
+					.flatMap(MapStatistics::flatten), Stream.of(item));
+		} else {
+			return Stream.ofNullable(item);
+		}
+	}
+
+	private static String resourcePileKeyExtractor(final IResourcePile pile) {
+		if (pile.getContents().contains(pile.getQuantity().units()) ||
+				    pile.getQuantity().units().contains(pile.getContents())) {
+			return pile.getContents();
+		} else {
+			return pile.getQuantity().units() + " " + pile.getContents();
+		}
+	}
+
+	private static String townSummary(final AbstractTown t) {
+		return String.format("%s %s %s", t.getStatus(), t.getTownSize(), t.getKind());
+	}
+
+	private static void countWorkers(final Iterable<?> unit, final Tally tally) {
+		for (final Object member : unit) {
+			if (member instanceof IWorker w) {
+				tally.add(w.getRace(), 1);
+			}
+		}
+	}
+
+	private void visitTile(final IMapNG map, final Point location) {
+		final @Nullable TileType type = map.getBaseTerrain(location);
+		if (type != null) {
+			terrain[type.ordinal()]++;
+		}
+		if (map.isMountainous(location)) {
+			mountainousTiles++;
+		}
+		final Collection<River> rivers = map.getRivers(location);
+		if (rivers.contains(River.Lake)) {
+			lakes++;
+		}
+		if (rivers.stream().anyMatch(r -> River.Lake != r)) {
+			riverTiles++;
+		}
+		boolean hilly = false;
+		boolean forested = false;
+		boolean oasis = false;
+		boolean portal = false;
+		for (final TileFixture fixture : map.getFixtures(location)) {
+			hilly |= fixture instanceof Hill;
+			forested |= fixture instanceof Forest;
+			oasis |= fixture instanceof Oasis;
+			portal |= fixture instanceof Portal;
+			flatten(fixture).filter(IFixture.class::isInstance).map(IFixture.class::cast)
+				.forEach(this::visitFixture);
+		}
+		if (hilly) {
+			hillyTiles++;
+		}
+		if (forested) {
+			forestedTiles++;
+		}
+		if (oasis) {
+			oasisTiles++;
+		}
+		if (portal) {
+			portalTiles++;
+		}
+	}
+
+	/**
+	 * Count a fixture under every heading it belongs under, or else as a
+	 * remaining fixture.
+	 */
+	private void visitFixture(final IFixture fixture) {
+		boolean counted = true;
+		if (fixture instanceof Forest f) {
+			forests.add(f.getKind(), FixedDecimal.of(f.getAcres()));
+		} else if (fixture instanceof Ground g) {
+			ground.add(g.getKind(), 1);
+		} else if (fixture instanceof StoneDeposit s) {
+			stoneDeposits.add(s.getKind(), 1);
+		} else if (fixture instanceof MineralVein v) {
+			mineralVeins.add(v.getKind(), 1);
+		} else if (fixture instanceof Mine m) {
+			mines.add(m.getKind(), 1);
+		} else if (fixture instanceof CacheFixture c) {
+			caches.add(c.getKind(), 1);
+		} else if (fixture instanceof AdventureFixture a) {
+			adventures.add(a.getBriefDescription(), 1);
+		} else if (fixture instanceof Battlefield) {
+			battlefields++;
+		} else if (fixture instanceof Cave) {
+			caves++;
+		} else if (fixture instanceof Meadow m) {
+			meadows.add(m.getKind(), 1);
+		} else if (fixture instanceof Grove g) {
+			groves.add(g.getKind(), 1);
+		} else if (fixture instanceof Shrub s) {
+			shrubs.add(s.getKind(), 1);
+		} else if (fixture instanceof IResourcePile r) {
+			resources.computeIfAbsent(r.getKind(), k -> new DecimalTally())
+				.add(resourcePileKeyExtractor(r), FixedDecimal.of(r.getQuantity().number()));
+		} else if (!(fixture instanceof Portal || fixture instanceof Hill || fixture instanceof Oasis ||
+				fixture instanceof AnimalTracks || fixture instanceof Implement)) {
+			counted = false;
+		}
+		// The types below are not exclusive of each other, so each is checked separately.
+		if (fixture instanceof IFortress fortress) {
+			counted = true;
+			fortresses++;
+			for (final Object member : fortress) {
+				if (member instanceof IUnit unit) {
+					countWorkers(unit, fortressWorkers);
+				}
+			}
+		}
+		if (fixture instanceof AbstractTown t) {
+			counted = true;
+			if (TownStatus.Active == t.getStatus()) {
+				activeTowns++;
+			} else {
+				inactiveTowns.add(townSummary(t), 1);
+			}
+		}
+		if (fixture instanceof Village v) {
+			counted = true;
+			villages.add(v.getRace(), 1);
+		}
+		if (fixture instanceof IUnit u) {
+			counted = true;
+			if (u.owner().isIndependent()) {
+				independentUnits.add(u.getName(), 1);
+			}
+			countWorkers(u, unitWorkers);
+		}
+		if (fixture instanceof Immortal i) {
+			counted = true;
+			immortals.add(i.getShortDescription(), 1);
+		}
+		if (fixture instanceof Animal a) {
+			counted = true;
+			if (a.isTalking()) {
+				talkingAnimals++;
+			} else {
+				animals.add(a.getKind(), a.getPopulation());
+			}
+		}
+		if (!counted) {
+			remaining.add(fixture);
+		}
+	}
+
+	/**
+	 * Add the statistics from the given instance, which covers tiles that
+	 * come after this one's in map order, to this one.
+	 */
+	private void merge(final MapStatistics other) {
+		for (int i = 0; i < terrain.length; i++) {
+			terrain[i] += other.terrain[i];
+		}
+		hillyTiles += other.hillyTiles;
+		mountainousTiles += other.mountainousTiles;
+		forestedTiles += other.forestedTiles;
+		oasisTiles += other.oasisTiles;
+		portalTiles += other.portalTiles;
+		lakes += other.lakes;
+		riverTiles += other.riverTiles;
+		forests.merge(other.forests);
+		ground.merge(other.ground);
+		stoneDeposits.merge(other.stoneDeposits);
+		mineralVeins.merge(other.mineralVeins);
+		mines.merge(other.mines);
+		caches.merge(other.caches);
+		adventures.merge(other.adventures);
+		battlefields += other.battlefields;
+		caves += other.caves;
+		fortresses += other.fortresses;
+		activeTowns += other.activeTowns;
+		villages.merge(other.villages);
+		inactiveTowns.merge(other.inactiveTowns);
+		independentUnits.merge(other.independentUnits);
+		unitWorkers.merge(other.unitWorkers);
+		fortressWorkers.merge(other.fortressWorkers);
+		immortals.merge(other.immortals);
+		meadows.merge(other.meadows);
+		groves.merge(other.groves);
+		shrubs.merge(other.shrubs);
+		animals.merge(other.animals);
+		talkingAnimals += other.talkingAnimals;
+		for (final Map.Entry<String, DecimalTally> entry : other.resources.entrySet()) {
+			resources.computeIfAbsent(entry.getKey(), k -> new DecimalTally()).merge(entry.getValue());
+		}
+		remaining.addAll(other.remaining);
+	}
+
+	/**
+	 * The number of tiles with the given base terrain.
+	 */
+	public int getTerrainCount(final TileType type) {
+		return terrain[type.ordinal()];
+	}
+
+	public int getHillyTiles() {
+		return hillyTiles;
+	}
+
+	public int getMountainousTiles() {
+		return mountainousTiles;
+	}
+
+	public int getForestedTiles() {
+		return forestedTiles;
+	}
+
+	public int getOasisTiles() {
+		return oasisTiles;
+	}
+
+	/**
+	 * The number of tiles with a portal; each counts as one adventure.
+	 */
+	public int getPortalTiles() {
+		return portalTiles;
+	}
+
+	public int getLakes() {
+		return lakes;
+	}
+
+	/**
+	 * The number of tiles with rivers other than lakes.
+	 */
+	public int getRiverTiles() {
+		return riverTiles;
+	}
+
+	/**
+	 * Acres of forest, by kind.
+	 */
+	public DecimalTally getForests() {
+		return forests;
+	}
+
+	public Tally getGround() {
+		return ground;
+	}
+
+	public Tally getStoneDeposits() {
+		return stoneDeposits;
+	}
+
+	public Tally getMineralVeins() {
+		return mineralVeins;
+	}
+
+	public Tally getMines() {
+		return mines;
+	}
+
+	public Tally getCaches() {
+		return caches;
+	}
+
+	/**
+	 * Adventure hooks, by brief description.
+	 */
+	public Tally getAdventures() {
+		return adventures;
+	}
+
+	public int getBattlefields() {
+		return battlefields;
+	}
+
+	public int getCaves() {
+		return caves;
+	}
+
+	public int getFortresses() {
+		return fortresses;
+	}
+
+	/**
+	 * The number of active towns, cities, and fortifications of any size.
+	 */
+	public int getActiveTowns() {
+		return activeTowns;
+	}
+
+	/**
+	 * Villages, by race.
+	 */
+	public Tally getVillages() {
+		return villages;
+	}
+
+	/**
+	 * Towns that are not active, by status, size, and kind.
+	 */
+	public Tally getInactiveTowns() {
+		return inactiveTowns;
+	}
+
+	/**
+	 * Units owned by the independent player, by name.
+	 */
+	public Tally getIndependentUnits() {
+		return independentUnits;
+	}
+
+	/**
+	 * Workers in units, by race.
+	 */
+	public Tally getUnitWorkers() {
+		return unitWorkers;
+	}
+
+	/**
+	 * Workers in units in fortresses, by race.
+	 */
+	public Tally getFortressWorkers() {
+		return fortressWorkers;
+	}
+
+	/**
+	 * Immortals, by short description.
+	 */
+	public Tally getImmortals() {
+		return immortals;
+	}
+
+	public Tally getMeadows() {
+		return meadows;
+	}
+
+	public Tally getGroves() {
+		return groves;
+	}
+
+	public Tally getShrubs() {
+		return shrubs;
+	}
+
+	/**
+	 * The total population of non-talking animals, by kind.
+	 */
+	public Tally getAnimals() {
+		return animals;
+	}
+
+	/**
+	 * The number of talking animals (of whatever population).
+	 */
+	public int getTalkingAnimals() {
+		return talkingAnimals;
+	}
+
+	/**
+	 * Resource quantities, grouped by kind and then by contents and units.
+	 */
+	public Map<String, DecimalTally> getResources() {
+		return resources;
+	}
+
+	/**
+	 * Fixtures not counted under any other heading, in map order.
+	 */
+	public List<IFixture> getRemaining() {
+		return remaining;
+	}
+}
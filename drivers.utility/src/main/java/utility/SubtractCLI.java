@@ -28,6 +28,6 @@ public class SubtractCLI implements CLIDriver {
 
 	@Override
 	public void startDriver() {
-		model.getMap().getLocations().forEach(model::subtractAtPoint);
+		model.subtractAll();
 	}
 }
@@ -16,8 +16,13 @@ import common.map.fixtures.FixtureIterable;
 import common.map.fixtures.UnitMember;
 import common.map.fixtures.FortressMember;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 import java.util.function.Consumer;
+import org.javatuples.Pair;
 import org.javatuples.Quartet;
 import java.nio.file.Path;
 import java.util.Map;
@@ -106,42 +111,152 @@ public class UtilityDriverModel extends SimpleMultiMapModel {
 		}
 	}
 
+	/**
+	 * Whether duplicates of the given fixture should not be removed (or
+	 * looked for): units still being worked on, caches, and anything with a
+	 * population or an extent, which should be combined instead.
+	 */
+	private static boolean isExemptFromDeduplication(final TileFixture fixture) {
+		if (fixture instanceof IUnit u && u.getKind().contains("TODO")) {
+			return true;
+		} else if (fixture instanceof CacheFixture) {
+			return true;
+		} else if (fixture instanceof HasPopulation hp && hp.getPopulation() > 0) {
+			return true;
+		} else {
+			return fixture instanceof HasExtent he && he.getAcres().doubleValue() > 0.0;
+		}
+	}
+
+	/**
+	 * The indexes in either of the given ascending lists that are greater
+	 * than the given index, in ascending order.
+	 */
+	private static List<Integer> laterIndexes(final List<Integer> one, final List<Integer> two,
+	                                          final int index) {
+		final List<Integer> retval = new ArrayList<>();
+		int i = 0;
+		int j = 0;
+		while (i < one.size() || j < two.size()) {
+			final int next;
+			if (j >= two.size() || (i < one.size() && one.get(i) < two.get(j))) {
+				next = one.get(i++);
+			} else {
+				next = two.get(j++);
+			}
+			if (next > index) {
+				retval.add(next);
+			}
+		}
+		return retval;
+	}
+
 	/**
 	 * Conditionally remove duplicate fixtures. Returns a list of fixtures
 	 * that would be removed and a callback to do the removal; the initial
 	 * caller of this asks the user for approval.
+	 *
+	 * For each fixture on the tile in each map, in order, this finds the
+	 * fixtures after it in the same map that are {@link
+	 * TileFixture#equalsIgnoringID equal to it ignoring ID} (and not the
+	 * same object as any fixture before it). Rather than comparing each
+	 * fixture to every other, we only compare those with the same {@link
+	 * DuplicateKey}, and those without a key.
 	 */
 	public Iterable<Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture, Iterable<? extends TileFixture>>>
 			conditionallyRemoveDuplicates(final Point location) {
 		final List<Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture, Iterable<? extends TileFixture>>>
 			duplicatesList = new ArrayList<>();
-		final List<TileFixture> checked = new ArrayList<>();
+		final Set<TileFixture> checked = Collections.newSetFromMap(new IdentityHashMap<>());
 		for (final IMutableMapNG map : getRestrictedAllMaps()) {
-			for (final TileFixture fixture : map.getFixtures(location)) {
-				checked.add(fixture);
-				if (fixture instanceof IUnit u && u.getKind().contains("TODO")) {
-					continue;
-				} else if (fixture instanceof CacheFixture) {
-					continue;
-				} else if (fixture instanceof HasPopulation hp &&
-						hp.getPopulation() > 0) {
-					continue;
-				} else if (fixture instanceof HasExtent he &&
-						he.getAcres().doubleValue() > 0.0) {
-					continue;
+			findDuplicates(map, location, checked, duplicatesList);
+		}
+		return duplicatesList;
+	}
+
+	/**
+	 * Find the duplicate fixtures at the given location in the given map,
+	 * as {@link #conditionallyRemoveDuplicates} describes, adding them to
+	 * the given list. Fixtures in the "checked" set, and those checked here
+	 * (which are added to it), are never reported as duplicates.
+	 */
+	private static void findDuplicates(final IMutableMapNG map, final Point location,
+	                                   final Set<TileFixture> checked,
+	                                   final List<Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture,
+		                                   Iterable<? extends TileFixture>>> duplicatesList) {
+		final List<TileFixture> fixtures = new ArrayList<>(map.getFixtures(location));
+		// Indexes of fixtures by key, and of those without a key, in order.
+		final Map<Object, List<Integer>> buckets = new HashMap<>();
+		final List<Integer> unkeyed = new ArrayList<>();
+		final List<@Nullable List<Integer>> bucketOf = new ArrayList<>(fixtures.size());
+		for (int i = 0; i < fixtures.size(); i++) {
+			final Object key = DuplicateKey.of(fixtures.get(i));
+			final List<Integer> bucket = (key == null) ? null :
+				buckets.computeIfAbsent(key, k -> new ArrayList<>());
+			bucketOf.add(bucket);
+			(bucket == null ? unkeyed : bucket).add(i);
+		}
+		for (int i = 0; i < fixtures.size(); i++) {
+			final TileFixture fixture = fixtures.get(i);
+			checked.add(fixture);
+			if (isExemptFromDeduplication(fixture)) {
+				continue;
+			}
+			final List<Integer> bucket = bucketOf.get(i);
+			final List<Integer> candidates;
+			if (bucket == null) {
+				candidates = IntStream.range(i + 1, fixtures.size()).boxed().toList();
+			} else {
+				candidates = laterIndexes(bucket, unkeyed, i);
+			}
+			final List<TileFixture> matching = new ArrayList<>();
+			for (final int j : candidates) {
+				final TileFixture item = fixtures.get(j);
+				if (!checked.contains(item) && fixture.equalsIgnoringID(item)) {
+					matching.add(item);
 				}
-				final List<TileFixture> matching = map.getFixtures(location).stream()
-					.filter(item -> checked.stream().noneMatch(inner -> item == inner))
-					.filter(fixture::equalsIgnoringID)
-					.collect(Collectors.toList());
-				if (!matching.isEmpty()) {
-					duplicatesList.add(Quartet.with(
-						item -> map.removeFixture(location, item),
-						map.getFilename(), fixture, matching));
+			}
+			if (!matching.isEmpty()) {
+				duplicatesList.add(Quartet.with(
+					item -> map.removeFixture(location, item),
+					map.getFilename(), fixture, matching));
+			}
+		}
+	}
+
+	/**
+	 * Remove, without asking, all duplicate fixtures in all the maps. Unlike
+	 * {@link #conditionallyRemoveDuplicates}, this looks for duplicates in
+	 * each map separately, so a fixture that is shared between maps (as
+	 * after copying) is removed from every map in which it duplicates
+	 * another. For each map, the search is done for all tiles in parallel,
+	 * and the removals afterwards. Returns the number of fixtures removed.
+	 */
+	public int removeAllDuplicates() {
+		int retval = 0;
+		for (final IMutableMapNG map : getRestrictedAllMaps()) {
+			final List<Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture,
+				Iterable<? extends TileFixture>>> found = map.streamLocations().parallel().map(location -> {
+					final List<Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture,
+						Iterable<? extends TileFixture>>> list = new ArrayList<>();
+					findDuplicates(map, location, Collections.newSetFromMap(new IdentityHashMap<>()), list);
+					return list;
+				}).flatMap(List::stream).toList();
+			final Set<TileFixture> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (final Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture,
+					Iterable<? extends TileFixture>> q : found) {
+				for (final TileFixture duplicate : q.getValue3()) {
+					// A fixture may be in more than one of this map's
+					// groups, but must only be removed once, as removal
+					// compares by equals().
+					if (removed.add(duplicate)) {
+						q.getValue0().accept(duplicate);
+					}
 				}
 			}
+			retval += removed.size();
 		}
-		return duplicatesList;
+		return retval;
 	}
 
 	private static List<Quartet<Runnable, String, String, Collection<? extends IFixture>>> coalesceImpl(
@@ -229,44 +344,102 @@ public class UtilityDriverModel extends SimpleMultiMapModel {
 	}
 
 	/**
-	 * Remove information in the main map from subordinate maps.
+	 * Remove information in the main map from the given subordinate map at
+	 * the given location, returning whether anything was removed.
+	 *
+	 * Rather than testing each of the subordinate map's fixtures here
+	 * against each of the main map's with {@link #isSubset}, we group the
+	 * main map's fixtures by ID, since a fixture is only ever a subset of (or
+	 * equal to) one with the same ID. The exceptions are fixtures without IDs
+	 * (such as animal tracks and text notes), which have negative IDs, and
+	 * which we test against every fixture.
 	 */
-	public void subtractAtPoint(final Point location) {
+	private boolean subtractAtPoint(final IMutableMapNG subMap, final Point location) {
 		final IMapNG map = getMap();
-		for (final IMutableMapNG subMap : getRestrictedSubordinateMaps()) {
-			subMap.setModified(true);
-			final TileType terrain = map.getBaseTerrain(location);
-			final TileType ours = subMap.getBaseTerrain(location);
-			if (terrain != null && ours != null && terrain == ours) {
-				subMap.setBaseTerrain(location, null);
-			}
-			subMap.removeRivers(location,
-					map.getRivers(location).toArray(River[]::new));
-			final Map<Direction, Integer> mainRoads = map.getRoads(location);
-			final Map<Direction, Integer> knownRoads = subMap.getRoads(location);
-			for (final Map.Entry<Direction, Integer> entry : knownRoads.entrySet()) {
-				final Direction direction = entry.getKey();
-				final int road = entry.getValue();
-				if (mainRoads.getOrDefault(direction, 0) >= road) {
-					subMap.setRoadLevel(location, direction, 0);
-				}
+		boolean changed = false;
+		final TileType terrain = map.getBaseTerrain(location);
+		final TileType ours = subMap.getBaseTerrain(location);
+		if (terrain != null && ours != null && terrain == ours) {
+			subMap.setBaseTerrain(location, null);
+			changed = true;
+		}
+		final Collection<River> ourRivers = subMap.getRivers(location);
+		final River[] rivers = map.getRivers(location).stream().filter(ourRivers::contains)
+			.toArray(River[]::new);
+		if (rivers.length > 0) {
+			subMap.removeRivers(location, rivers);
+			changed = true;
+		}
+		final Map<Direction, Integer> mainRoads = map.getRoads(location);
+		final Map<Direction, Integer> knownRoads = subMap.getRoads(location);
+		for (final Map.Entry<Direction, Integer> entry : knownRoads.entrySet()) {
+			final Direction direction = entry.getKey();
+			final int road = entry.getValue();
+			if (mainRoads.getOrDefault(direction, 0) >= road) {
+				subMap.setRoadLevel(location, direction, 0);
+				changed = true;
 			}
-			if (map.isMountainous(location)) {
-				subMap.setMountainous(location, false);
+		}
+		if (map.isMountainous(location) && subMap.isMountainous(location)) {
+			subMap.setMountainous(location, false);
+			changed = true;
+		}
+		if (subMap.getFixtures(location).isEmpty()) {
+			return changed;
+		}
+		final Map<Integer, List<TileFixture>> byId = new HashMap<>();
+		final List<TileFixture> withoutId = new ArrayList<>();
+		for (final TileFixture item : map.getFixtures(location)) {
+			if (item.getId() < 0) {
+				withoutId.add(item);
+			} else {
+				byId.computeIfAbsent(item.getId(), k -> new ArrayList<>()).add(item);
 			}
-			final List<TileFixture> toRemove = new ArrayList<>();
-			for (final TileFixture fixture : subMap.getFixtures(location)) {
-				if (map.getFixtures(location).stream()
-						.anyMatch(item -> isSubset(item, fixture))) {
-					toRemove.add(fixture);
-				}
+		}
+		final List<TileFixture> toRemove = new ArrayList<>();
+		for (final TileFixture fixture : subMap.getFixtures(location)) {
+			if (byId.getOrDefault(fixture.getId(), Collections.emptyList()).stream()
+						.anyMatch(item -> isSubset(item, fixture)) ||
+					withoutId.stream().anyMatch(item -> isSubset(item, fixture))) {
+				toRemove.add(fixture);
 			}
-			for (final TileFixture fixture : toRemove) {
-				subMap.removeFixture(location, fixture);
+		}
+		for (final TileFixture fixture : toRemove) {
+			subMap.removeFixture(location, fixture);
+		}
+		return changed || !toRemove.isEmpty();
+	}
+
+	/**
+	 * Remove information in the main map from subordinate maps.
+	 */
+	public void subtractAtPoint(final Point location) {
+		for (final IMutableMapNG subMap : getRestrictedSubordinateMaps()) {
+			if (subtractAtPoint(subMap, location)) {
+				subMap.setModified(true);
 			}
 		}
 	}
 
+	/**
+	 * Remove information in the main map from subordinate maps at every
+	 * location, the same as {@link #subtractAtPoint(Point)} at each, but
+	 * processing each subordinate map in parallel, since each is written only
+	 * by its own task.
+	 */
+	public void subtractAll() {
+		final IMapNG map = getMap();
+		StreamSupport.stream(getRestrictedSubordinateMaps().spliterator(), true).forEach(subMap -> {
+				boolean changed = false;
+				for (final Point location : map.getLocations()) {
+					changed |= subtractAtPoint(subMap, location);
+				}
+				if (changed) {
+					subMap.setModified(true);
+				}
+			});
+	}
+
 	private static List<Forest> extractForests(final IMapNG map, final Point location) {
 		return map.getFixtures(location).stream().filter(Forest.class::isInstance)
 			.map(Forest.class::cast).collect(Collectors.toList());
@@ -356,43 +529,113 @@ public class UtilityDriverModel extends SimpleMultiMapModel {
 		}
 	}
 
-	public void expandAroundPoint(final Point center, final Player currentPlayer) {
+	/**
+	 * The IDs of the fixtures at the given location in the given map.
+	 */
+	private static Set<Integer> fixtureIds(final IMapNG map, final Point location) {
+		return map.getFixtures(location).stream().map(TileFixture::getId).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Whether the given map contains the given fixture at the given location,
+	 * given the IDs of the fixtures there. Only fixtures with negative
+	 * (i.e. no) IDs can be equal to fixtures with other IDs, so we only need
+	 * to search the (possibly long) list of fixtures for them or if the ID is
+	 * present.
+	 */
+	private static boolean containsFixture(final IMapNG map, final Point location, final Set<Integer> ids,
+	                                       final TileFixture fixture) {
+		if (fixture.getId() >= 0 && !ids.contains(fixture.getId())) {
+			return false;
+		} else {
+			return map.getFixtures(location).contains(fixture);
+		}
+	}
+
+	/**
+	 * Add to the given subordinate map the terrain and the fixtures that
+	 * the given player would know of around the given point, choosing those
+	 * that would only sometimes be noticed using the given seed.
+	 */
+	private void expandAroundPoint(final IMutableMapNG subMap, final Point center, final Player currentPlayer,
+	                               final long seed) {
 		final Mock mock = new Mock(currentPlayer);
 		final IMapNG map = getMap();
+		final Random rng = new Random(seed);
+
+		for (final Point neighbor : new SurroundingPointIterable(center, subMap.getDimensions())) {
+			if (subMap.getBaseTerrain(neighbor) == null) {
+				subMap.setBaseTerrain(neighbor, map.getBaseTerrain(neighbor));
+				if (map.isMountainous(neighbor)) {
+					subMap.setMountainous(neighbor, true);
+				}
+			}
+			Set<Integer> ids = fixtureIds(subMap, neighbor);
+			final List<TileFixture> possibilities = new ArrayList<>();
+			for (final TileFixture fixture : map.getFixtures(neighbor)) {
+				if (fixture instanceof CacheFixture ||
+						containsFixture(subMap, neighbor, ids, fixture)) {
+					continue;
+				} else if (SimpleMovementModel.shouldAlwaysNotice(mock, fixture)) {
+					safeAdd(subMap, currentPlayer, neighbor, fixture);
+					ids = fixtureIds(subMap, neighbor);
+				} else if (SimpleMovementModel.shouldSometimesNotice(mock,
+						Speed.Careful, fixture)) {
+					possibilities.add(fixture);
+				}
+			}
+			Collections.shuffle(possibilities, rng);
+			if (!possibilities.isEmpty()) {
+				safeAdd(subMap, currentPlayer, neighbor, possibilities.get(0));
+			}
+		}
+		subMap.setModified(true);
+	}
+
+	public void expandAroundPoint(final Point center, final Player currentPlayer) {
 		final long seed = SingletonRandom.SINGLETON_RANDOM.nextLong();
 		for (final IMutableMapNG subMap : getRestrictedSubordinateMaps()) {
-			if (!subMap.getCurrentPlayer().equals(currentPlayer)) {
-				continue;
+			if (subMap.getCurrentPlayer().equals(currentPlayer)) {
+				expandAroundPoint(subMap, center, currentPlayer, seed);
 			}
+		}
+	}
 
-			final Random rng = new Random(seed);
-
-			for (final Point neighbor : new SurroundingPointIterable(center, subMap.getDimensions())) {
-				if (subMap.getBaseTerrain(neighbor) == null) {
-					subMap.setBaseTerrain(neighbor, map.getBaseTerrain(neighbor));
-					if (map.isMountainous(neighbor)) {
-						subMap.setMountainous(neighbor, true);
-					}
-				}
-				final LinkedList<TileFixture> possibilities = new LinkedList<>();
-				for (final TileFixture fixture : map.getFixtures(neighbor)) {
-					if (fixture instanceof CacheFixture ||
-							subMap.getFixtures(neighbor).contains(fixture)) {
-						continue;
-					} else if (SimpleMovementModel.shouldAlwaysNotice(mock, fixture)) {
-						safeAdd(subMap, currentPlayer, neighbor, fixture);
-					} else if (SimpleMovementModel.shouldSometimesNotice(mock,
-							Speed.Careful, fixture)) {
-						possibilities.add(fixture);
+	/**
+	 * Expand each of the given players' maps around every location in the
+	 * main map with a town belonging to that player, drawing seeds from the
+	 * given generator. This gives the same results as calling {@link
+	 * #expandAroundPoint(Point, Player)} for each player in turn and each
+	 * such location in order with that generator in place of the shared one,
+	 * but finds the towns in one pass over the map and expands each
+	 * subordinate map in parallel, since each is written only by its own task.
+	 */
+	public void expandAroundSwornVillages(final Iterable<Player> players, final Random seedSource) {
+		final Map<Player, List<Point>> villages = new HashMap<>();
+		final IMapNG map = getMap();
+		for (final Point location : map.getLocations()) {
+			for (final TileFixture fixture : map.getFixtures(location)) {
+				if (fixture instanceof ITownFixture town) {
+					final List<Point> list = villages.computeIfAbsent(town.owner(), p -> new ArrayList<>());
+					if (list.isEmpty() || !location.equals(list.get(list.size() - 1))) {
+						list.add(location);
 					}
 				}
-				Collections.shuffle(possibilities, rng);
-				if (!possibilities.isEmpty()) {
-					final TileFixture first = possibilities.removeFirst();
-					safeAdd(subMap, currentPlayer, neighbor, first);
-				}
 			}
-			subMap.setModified(true);
 		}
+		// Seeds must be drawn in the same order as sequential expansion would.
+		final Map<Player, List<Pair<Point, Long>>> seeds = new HashMap<>();
+		for (final Player player : players) {
+			final List<Pair<Point, Long>> list = seeds.computeIfAbsent(player, p -> new ArrayList<>());
+			for (final Point point : villages.getOrDefault(player, Collections.emptyList())) {
+				list.add(Pair.with(point, seedSource.nextLong()));
+			}
+		}
+		StreamSupport.stream(getRestrictedSubordinateMaps().spliterator(), true).forEach(subMap -> {
+				final Player player = subMap.getCurrentPlayer();
+				for (final Pair<Point, Long> pair : seeds.getOrDefault(player, Collections.emptyList())) {
+					expandAroundPoint(subMap, pair.getValue0(), player, pair.getValue1());
+				}
+			});
 	}
 }
@@ -9,8 +9,12 @@ import drivers.common.SPOptions;
 import drivers.common.cli.ICLIHelper;
 
 import common.map.IMapNG;
+import common.map.MapSubsetChecker;
 import java.util.function.Consumer;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * A driver to check whether player maps are subsets of the main map.
@@ -39,13 +43,20 @@ public class SubsetCLI implements ReadOnlyDriver {
 		return string -> cli.println(String.format("In %s: %s", filename, string));
 	}
 
+	/**
+	 * Check all the subordinate maps at once, then print the results in order.
+	 */
 	@Override
 	public void startDriver() {
-		for (final IMapNG map : model.getSubordinateMaps()) {
+		final List<IMapNG> maps = StreamSupport.stream(model.getSubordinateMaps().spliterator(), false)
+			.collect(Collectors.toList());
+		final List<MapSubsetChecker.Result> results = new MapSubsetChecker(model.getMap()).checkAll(maps);
+		for (int i = 0; i < maps.size(); i++) {
+			final IMapNG map = maps.get(i);
 			final String filename = Optional.ofNullable(map.getFilename()).map(Path::toString)
 				.orElse("map without a filename");
 			cli.print(filename, "\t...\t\t");
-			if (model.getMap().isSubset(map, report(filename))) {
+			if (results.get(i).report(report(filename))) {
 				cli.println("OK");
 			} else {
 				cli.println("WARN");
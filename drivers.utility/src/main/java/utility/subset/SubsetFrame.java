@@ -20,6 +20,7 @@ import static lovelace.util.StreamingLabel.LabelTextColor;
 import common.map.MapDimensionsImpl;
 import common.map.PlayerCollection;
 import common.map.IMapNG;
+import common.map.MapSubsetChecker;
 import common.map.SPMapNG;
 import impl.xmlio.MapIOHelper;
 import common.xmlio.Warning;
@@ -68,8 +69,14 @@ import drivers.common.ISPDriver;
 
 	private IMapNG mainMap = new SPMapNG(new MapDimensionsImpl(0, 0, 2), new PlayerCollection(), -1);
 
+	/**
+	 * The subset checker for the main map, which indexes it once for all the maps we test.
+	 */
+	private MapSubsetChecker checker = new MapSubsetChecker(mainMap);
+
 	public void loadMain(final IMapNG arg) {
 		mainMap = arg;
+		checker = new MapSubsetChecker(arg);
 		printParagraph("<span style=\"color:green\">OK</span> if strict subset, " +
 					"<span style=\"color:yellow\">WARN</span> if apparently not (but " +
 					"check by hand), <span style=\"color:red\">FAIL</span> if error " +
@@ -89,7 +96,7 @@ import drivers.common.ISPDriver;
 			filename = file.toString();
 		}
 		printParagraph(String.format("Testing %s ...", filename));
-		if (mainMap.isSubset(map, new HtmlWriter(filename)::write)) {
+		if (checker.isSubset(map, new HtmlWriter(filename)::write)) {
 			printParagraph("OK", LabelTextColor.GREEN);
 		} else {
 			printParagraph("WARN", LabelTextColor.YELLOW);
@@ -119,6 +126,7 @@ import drivers.common.ISPDriver;
 			printParagraph("ERROR: I/O error reading file " + arg, LabelTextColor.RED);
 			throw new DriverFailedException(except, "I/O error loading main map " + arg);
 		}
+		checker = new MapSubsetChecker(mainMap);
 		printParagraph("<span style=\"color:green\">OK</span> if strict subset, " +
 					"<span style=\"color:yellow\">WARN</span> if apparently not (but " +
 					"check by hand), <span style=\"color:red\">FAIL</span> if error " +
@@ -0,0 +1,204 @@
+package utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.Player;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.Ground;
+import common.map.fixtures.Implement;
+import common.map.fixtures.Quantity;
+import common.map.fixtures.ResourcePileImpl;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.explorable.AdventureFixture;
+import common.map.fixtures.explorable.Battlefield;
+import common.map.fixtures.explorable.Cave;
+import common.map.fixtures.explorable.Portal;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.AnimalTracks;
+import common.map.fixtures.mobile.Centaur;
+import common.map.fixtures.mobile.Dragon;
+import common.map.fixtures.mobile.Giant;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.FieldStatus;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.Mine;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.resources.StoneDeposit;
+import common.map.fixtures.resources.StoneKind;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
+import common.map.fixtures.towns.City;
+import common.map.fixtures.towns.FortressImpl;
+import common.map.fixtures.towns.Fortification;
+import common.map.fixtures.towns.TownSize;
+import common.map.fixtures.towns.TownStatus;
+import common.map.fixtures.towns.Village;
+import drivers.common.SimpleDriverModel;
+import drivers.common.cli.CLIHelper;
+
+/**
+ * Tests that the report {@link CountingCLI} prints for a map with every kind
+ * of fixture it counts, in every context it looks in, is the one it has
+ * always printed.
+ */
+public final class TestCountingCLI {
+	private static final String[] KINDS = { "oak", "pine", "birch", "maple", "elm" };
+
+	/**
+	 * Terrain types, chosen so that no two appear on the same number of
+	 * tiles (as the order of such ties is unspecified).
+	 */
+	private static final TileType[] TERRAIN = { TileType.Plains, TileType.Plains, TileType.Plains,
+		TileType.Plains, TileType.Plains, TileType.Steppe, TileType.Steppe, TileType.Steppe,
+		TileType.Steppe, TileType.Desert, TileType.Desert, TileType.Desert, TileType.Ocean,
+		TileType.Ocean, TileType.Tundra };
+
+	private static String kind(final Random random) {
+		return KINDS[random.nextInt(KINDS.length)];
+	}
+
+	private static Number acres(final Random random) {
+		return switch (random.nextInt(4)) {
+			case 0 -> random.nextInt(40);
+			case 1 -> new BigDecimal(random.nextInt(400)).movePointLeft(1);
+			case 2 -> random.nextInt(10) + 0.25;
+			default -> -1;
+		};
+	}
+
+	private static Worker worker(final Random random, final int id) {
+		final Worker retval = new Worker("worker", KINDS[random.nextInt(3)] + " elf", id);
+		if (random.nextBoolean()) {
+			retval.addEquipment(new Implement(kind(random) + " axe", id + 1, random.nextInt(3) + 1));
+		}
+		if (random.nextInt(3) == 0) {
+			retval.setMount(new AnimalImpl("horse", false, "domesticated", id + 2, -1, 1));
+		}
+		return retval;
+	}
+
+	private static TileFixture fixture(final Random random, final Player owner, final Player independent,
+	                                   final int id) {
+		return switch (random.nextInt(27)) {
+			case 0 -> new Forest(kind(random), random.nextBoolean(), id, acres(random));
+			case 1 -> new Hill(id);
+			case 2 -> new Oasis(id);
+			case 3 -> new Ground(id, kind(random) + " rock", random.nextBoolean());
+			case 4 -> new StoneDeposit(StoneKind.values()[random.nextInt(3)], 10, id);
+			case 5 -> new MineralVein(kind(random) + " ore", random.nextBoolean(), 10, id);
+			case 6 -> new Mine(kind(random) + " ore", TownStatus.values()[random.nextInt(2)], id);
+			case 7 -> new CacheFixture(kind(random), "contents", id);
+			case 8 -> new AdventureFixture(independent, KINDS[random.nextInt(2)] + " quest", "full", id);
+			case 9 -> new Portal("world", new Point(1, 1), id);
+			case 10 -> new Battlefield(10, id);
+			case 11 -> new Cave(10, id);
+			case 12 -> {
+				final FortressImpl fortress = new FortressImpl(owner, "fortress", id);
+				final Unit unit = new Unit(owner, "kind", "unit in fortress", id + 1);
+				unit.addMember(worker(random, id + 10));
+				fortress.addMember(unit);
+				fortress.addMember(new ResourcePileImpl(id + 20, KINDS[random.nextInt(2)], "flour",
+					new Quantity(random.nextBoolean() ? random.nextInt(20) :
+						new BigDecimal(random.nextInt(200)).movePointLeft(1), "pounds")));
+				fortress.addMember(new Implement("wagon", id + 21, 1));
+				yield fortress;
+			}
+			case 13 -> new City(TownStatus.values()[random.nextInt(TownStatus.values().length)],
+				TownSize.values()[random.nextInt(3)], 10, "city", id, independent);
+			case 14 -> new Fortification(TownStatus.values()[random.nextInt(TownStatus.values().length)],
+				TownSize.values()[random.nextInt(3)], 10, "fort", id, independent);
+			case 15 -> new Village(TownStatus.Active, "village", id, independent, KINDS[random.nextInt(3)]);
+			case 16 -> {
+				final Unit unit = new Unit(random.nextBoolean() ? independent : owner, "kind",
+					KINDS[random.nextInt(3)] + " band", id);
+				unit.addMember(worker(random, id + 10));
+				unit.addMember(new ResourcePileImpl(id + 20, "food", "pounds of bread",
+					new Quantity(random.nextInt(10), "pounds")));
+				yield unit;
+			}
+			case 17 -> new Dragon(KINDS[random.nextInt(2)], id);
+			case 18 -> new Centaur(KINDS[random.nextInt(2)], id);
+			case 19 -> new Meadow(kind(random), random.nextBoolean(), true, id, FieldStatus.Growing);
+			case 20 -> new Grove(random.nextBoolean(), true, kind(random), id, random.nextInt(50));
+			case 21 -> new Shrub(kind(random), id, random.nextInt(50));
+			case 22 -> new AnimalImpl(KINDS[random.nextInt(4)] + " deer", false, "wild", id, -1,
+				random.nextInt(30));
+			case 23 -> new AnimalImpl("talking " + KINDS[random.nextInt(2)], true, "wild", id);
+			case 24 -> new AnimalTracks(kind(random));
+			case 25 -> new TextFixture("note " + id, -1);
+			default -> new Giant(KINDS[random.nextInt(2)], id);
+		};
+	}
+
+	private static IMutableMapNG createMap() {
+		final Random random = new Random(47);
+		final PlayerCollection players = new PlayerCollection();
+		final Player owner = new PlayerImpl(1, "player");
+		final Player independent = new PlayerImpl(2, "independent");
+		players.add(owner);
+		players.add(independent);
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(15, 20, 2), players, 0);
+		int id = 1;
+		for (final Point point : retval.getLocations()) {
+			if (point.column() < TERRAIN.length) {
+				retval.setBaseTerrain(point, TERRAIN[point.column()]);
+			}
+			if (random.nextInt(5) == 0) {
+				retval.setMountainous(point, true);
+			}
+			switch (random.nextInt(8)) {
+				case 0 -> retval.addRivers(point, River.Lake);
+				case 1 -> retval.addRivers(point, River.North, River.South);
+				case 2 -> retval.addRivers(point, River.Lake, River.East);
+				default -> { }
+			}
+			final int count = random.nextInt(5);
+			for (int i = 0; i < count; i++) {
+				retval.addFixture(point, fixture(random, owner, independent, id));
+				id += 100;
+			}
+		}
+		return retval;
+	}
+
+	private static String expectedReport() throws IOException {
+		try (final InputStream stream = Objects.requireNonNull(
+				TestCountingCLI.class.getResourceAsStream("/counting_report.txt"))) {
+			return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Test that the report is exactly as expected.
+	 */
+	@Test
+	public void testReport() throws IOException {
+		final StringBuilder ostream = new StringBuilder();
+		new CountingCLI(new CLIHelper(new LinkedList<String>()::pollFirst, ostream::append),
+			new SimpleDriverModel(createMap())).startDriver();
+		assertEquals(expectedReport(), ostream.toString(), "Report is as before");
+	}
+}
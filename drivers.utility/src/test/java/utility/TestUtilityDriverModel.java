@@ -1,20 +1,57 @@
 package utility;
 
+import common.map.Direction;
+import common.map.HasExtent;
+import common.map.HasPopulation;
+import common.map.IMapNG;
 import common.map.IMutableMapNG;
 import common.map.IMutablePlayerCollection;
 import common.map.MapDimensions;
 import common.map.MapDimensionsImpl;
 import common.map.MutablePlayer;
+import common.map.Player;
 import common.map.PlayerCollection;
 import common.map.PlayerImpl;
 import common.map.Point;
+import common.map.River;
 import common.map.SPMapNG;
+import common.map.SubsettableFixture;
+import common.map.TileFixture;
 import common.map.TileType;
+import common.map.fixtures.Ground;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.AnimalTracks;
+import common.map.fixtures.mobile.IUnit;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
 import common.map.fixtures.towns.TownStatus;
 import common.map.fixtures.towns.Village;
+import org.javatuples.Quartet;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import lovelace.util.SingletonRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestUtilityDriverModel {
@@ -62,4 +99,350 @@ public class TestUtilityDriverModel {
 		assertTrue(subMap.getFixtures(pointTwo).contains(villageTwo), "Updated version of village got added");
 		assertFalse(subMap.getFixtures(pointTwo).contains(villageThree), "Old version of village stuck around");
 	}
+
+	/**
+	 * The duplicate-finding algorithm {@link
+	 * UtilityDriverModel#conditionallyRemoveDuplicates} replaced, comparing
+	 * every fixture on the tile with every other, returning the file,
+	 * fixture, and matching fixtures for each group.
+	 */
+	private static List<Quartet<@Nullable Path, TileFixture, List<TileFixture>, Void>> oldDuplicates(
+			final UtilityDriverModel model, final Point location) {
+		final List<Quartet<@Nullable Path, TileFixture, List<TileFixture>, Void>> retval = new ArrayList<>();
+		final List<TileFixture> checked = new ArrayList<>();
+		for (final IMutableMapNG map : model.getRestrictedAllMaps()) {
+			for (final TileFixture fixture : map.getFixtures(location)) {
+				checked.add(fixture);
+				if (fixture instanceof IUnit u && u.getKind().contains("TODO")) {
+					continue;
+				} else if (fixture instanceof CacheFixture) {
+					continue;
+				} else if (fixture instanceof HasPopulation<?> hp &&
+						hp.getPopulation() > 0) {
+					continue;
+				} else if (fixture instanceof HasExtent<?> he &&
+						he.getAcres().doubleValue() > 0.0) {
+					continue;
+				}
+				final List<TileFixture> matching = map.getFixtures(location).stream()
+					.filter(item -> checked.stream().noneMatch(inner -> item == inner))
+					.filter(fixture::equalsIgnoringID)
+					.collect(Collectors.toList());
+				if (!matching.isEmpty()) {
+					retval.add(Quartet.with(map.getFilename(), fixture, matching, null));
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Ways of creating fixtures, given an ID, few enough that many will be
+	 * duplicates, of kinds both with and without {@link DuplicateKey keys}.
+	 */
+	private static final List<IntFunction<TileFixture>> FIXTURE_FACTORIES = List.of(
+		Hill::new, Oasis::new,
+		id -> new Forest("oak", false, id), id -> new Forest("pine", true, id),
+		id -> new Forest("oak", false, id, 5),
+		id -> new Ground(id, "granite", true), id -> new Ground(id, "granite", false),
+		id -> new AnimalImpl("deer", false, "wild", id, -1, 0),
+		id -> new AnimalImpl("deer", false, "wild", id, -1, 2),
+		id -> new TextFixture("note", 3), id -> new TextFixture("other note", -1),
+		id -> new Shrub("bush", id, 0), id -> new Shrub("bush", id, -1),
+		id -> new MineralVein("gold", true, 10, id), id -> new CacheFixture("gold", "coins", id),
+		id -> new Unit(new PlayerImpl(0, "main"), "scouts", "first", id),
+		id -> new Unit(new PlayerImpl(0, "main"), "TODO", "second", id));
+
+	/**
+	 * Create a driver model with two maps with many fixtures, including many
+	 * duplicates, on each tile, and (if "shared") some fixtures in both maps.
+	 */
+	private static UtilityDriverModel createDuplicatesModel(final Random random, final boolean shared) {
+		final MapDimensions dims = new MapDimensionsImpl(4, 4, 2);
+		final IMutableMapNG master = new SPMapNG(dims, playerCollection("main", "main"), 0);
+		final IMutableMapNG subMap = new SPMapNG(dims, playerCollection("main", "main"), 0);
+		int id = 0;
+		for (final Point point : master.getLocations()) {
+			for (final IMutableMapNG map : List.of(master, subMap)) {
+				map.setBaseTerrain(point, TileType.Plains);
+				final int count = random.nextInt(30);
+				for (int i = 0; i < count; i++) {
+					map.addFixture(point, FIXTURE_FACTORIES.get(random.nextInt(FIXTURE_FACTORIES.size()))
+						.apply(id++));
+				}
+			}
+			// Fixtures shared between maps, as after copying, must not be matched twice.
+			for (final TileFixture fixture : List.copyOf(master.getFixtures(point))) {
+				if (shared && random.nextInt(4) == 0) {
+					subMap.addFixture(point, fixture);
+				}
+			}
+		}
+		final UtilityDriverModel retval = new UtilityDriverModel(master);
+		retval.addSubordinateMap(subMap);
+		return retval;
+	}
+
+	/**
+	 * Test that finding duplicates by hashing finds exactly the same
+	 * duplicates, in the same order, as comparing every pair of fixtures.
+	 */
+	@Test
+	public void testDuplicatesMatchPairwise() {
+		final Random random = new Random(41);
+		for (int trial = 0; trial < 10; trial++) {
+			final UtilityDriverModel model = createDuplicatesModel(random, true);
+			for (final Point point : model.getMap().getLocations()) {
+				final List<Quartet<@Nullable Path, TileFixture, List<TileFixture>, Void>> expected =
+					oldDuplicates(model, point);
+				final List<Quartet<Consumer<TileFixture>, @Nullable Path, TileFixture,
+					Iterable<? extends TileFixture>>> actual =
+						StreamSupport.stream(model.conditionallyRemoveDuplicates(point).spliterator(), false)
+							.toList();
+				assertEquals(expected.size(), actual.size(), "Same number of groups at " + point);
+				for (int i = 0; i < expected.size(); i++) {
+					assertEquals(expected.get(i).getValue0(), actual.get(i).getValue1(), "Same map");
+					assertSame(expected.get(i).getValue1(), actual.get(i).getValue2(), "Same fixture");
+					final List<? extends TileFixture> matching =
+						StreamSupport.stream(actual.get(i).getValue3().spliterator(), false).toList();
+					assertEquals(expected.get(i).getValue2().size(), matching.size(), "Same matches");
+					for (int j = 0; j < matching.size(); j++) {
+						assertSame(expected.get(i).getValue2().get(j), matching.get(j), "Same match");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test that removing all duplicates at once leaves no duplicates in any
+	 * map, including where fixtures are shared between the maps.
+	 */
+	@Test
+	public void testRemoveAllDuplicates() {
+		final UtilityDriverModel model = createDuplicatesModel(new Random(4141), true);
+		final int before = model.streamAllMaps().mapToInt(m -> (int) m.streamAllFixtures().count()).sum();
+		final int removed = model.removeAllDuplicates();
+		assertTrue(removed > 0, "Test data has duplicates");
+		assertEquals(before - removed,
+			model.streamAllMaps().mapToInt(m -> (int) m.streamAllFixtures().count()).sum(),
+			"Number removed reported correctly");
+		for (final IMutableMapNG map : model.getRestrictedAllMaps()) {
+			final UtilityDriverModel single = new UtilityDriverModel(map);
+			for (final Point point : map.getLocations()) {
+				assertFalse(single.conditionallyRemoveDuplicates(point).iterator().hasNext(),
+					"No duplicates left at " + point + " in " + (map == model.getMap() ? "main" : "sub") + " map");
+			}
+		}
+	}
+
+	/**
+	 * Create a driver model with a main map with villages belonging to
+	 * several players and many other fixtures, and a subordinate map for
+	 * each of those players (two for one of them), with only terrain near
+	 * the villages.
+	 */
+	private static UtilityDriverModel createExpansionModel(final long seed) {
+		final Random random = new Random(seed);
+		final MapDimensions dims = new MapDimensionsImpl(20, 20, 2);
+		final String[] names = { "independent", "one", "two", "three" };
+		final IMutableMapNG master = new SPMapNG(dims, playerCollection("independent", names), 0);
+		int id = 0;
+		for (final Point point : master.getLocations()) {
+			master.setBaseTerrain(point, TileType.Plains);
+			master.setMountainous(point, random.nextInt(8) == 0);
+			final int count = random.nextInt(6);
+			for (int i = 0; i < count; i++) {
+				master.addFixture(point, FIXTURE_FACTORIES.get(random.nextInt(FIXTURE_FACTORIES.size()))
+					.apply(id++));
+			}
+			if (random.nextInt(15) == 0) {
+				master.addFixture(point, new Village(TownStatus.Active, "village", id++,
+					master.getPlayers().getPlayer(random.nextInt(names.length)), "human"));
+			}
+		}
+		final UtilityDriverModel retval = new UtilityDriverModel(master);
+		for (final String current : new String[] { "one", "two", "three", "one" }) {
+			final IMutableMapNG subMap = new SPMapNG(dims, playerCollection(current, names), 0);
+			retval.addSubordinateMap(subMap);
+		}
+		return retval;
+	}
+
+	/**
+	 * Test that expanding all players' maps around their villages at once
+	 * gives the same results as expanding around each village in turn with
+	 * the same seed.
+	 */
+	@Test
+	public void testExpansionMatchesSequential() {
+		final UtilityDriverModel sequential = createExpansionModel(42);
+		final UtilityDriverModel indexed = createExpansionModel(42);
+		final Set<Player> players = sequential.streamSubordinateMaps().map(IMapNG::getCurrentPlayer)
+			.collect(Collectors.toSet());
+		SingletonRandom.SINGLETON_RANDOM.setSeed(4242);
+		for (final Player player : players) {
+			for (final Point point : sequential.getMap().streamLocations()
+					.filter(l -> sequential.getMap().getFixtures(l).stream()
+						.filter(Village.class::isInstance).map(Village.class::cast)
+						.anyMatch(v -> player.equals(v.owner()))).toList()) {
+				sequential.expandAroundPoint(point, player);
+			}
+		}
+		indexed.expandAroundSwornVillages(players, new Random(4242));
+		final List<IMapNG> expected = sequential.streamSubordinateMaps().toList();
+		final List<IMapNG> actual = indexed.streamSubordinateMaps().toList();
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).streamAllFixtures().findAny().isPresent(), "Test expands the map");
+			assertEquals(expected.get(i), actual.get(i), "Expanded map matches");
+			for (final Point point : expected.get(i).getLocations()) {
+				assertEquals(expected.get(i).getFixtures(point).size(), actual.get(i).getFixtures(point).size(),
+					"Same number of fixtures at " + point);
+			}
+		}
+	}
+
+	/**
+	 * The subtraction algorithm {@link UtilityDriverModel#subtractAll}
+	 * replaced, comparing each subordinate-map fixture with every main-map
+	 * fixture on the tile.
+	 */
+	private static void oldSubtractAtPoint(final UtilityDriverModel model, final Point location) {
+		final IMapNG map = model.getMap();
+		for (final IMutableMapNG subMap : model.getRestrictedSubordinateMaps()) {
+			subMap.setModified(true);
+			final TileType terrain = map.getBaseTerrain(location);
+			final TileType ours = subMap.getBaseTerrain(location);
+			if (terrain != null && ours != null && terrain == ours) {
+				subMap.setBaseTerrain(location, null);
+			}
+			subMap.removeRivers(location,
+					map.getRivers(location).toArray(River[]::new));
+			final Map<Direction, Integer> mainRoads = map.getRoads(location);
+			final Map<Direction, Integer> knownRoads = subMap.getRoads(location);
+			for (final Map.Entry<Direction, Integer> entry : knownRoads.entrySet()) {
+				final Direction direction = entry.getKey();
+				final int road = entry.getValue();
+				if (mainRoads.getOrDefault(direction, 0) >= road) {
+					subMap.setRoadLevel(location, direction, 0);
+				}
+			}
+			if (map.isMountainous(location)) {
+				subMap.setMountainous(location, false);
+			}
+			final List<TileFixture> toRemove = new ArrayList<>();
+			for (final TileFixture fixture : subMap.getFixtures(location)) {
+				if (map.getFixtures(location).stream()
+						.anyMatch(item -> (item instanceof SubsettableFixture sf) ?
+							sf.isSubset(fixture, TestUtilityDriverModel::noop) : item.equals(fixture))) {
+					toRemove.add(fixture);
+				}
+			}
+			for (final TileFixture fixture : toRemove) {
+				subMap.removeFixture(location, fixture);
+			}
+		}
+	}
+
+	private static void randomizeTile(final Random random, final IMutableMapNG map, final Point point) {
+		final TileType[] types = { TileType.Plains, TileType.Steppe, TileType.Desert };
+		if (random.nextBoolean()) {
+			map.setBaseTerrain(point, types[random.nextInt(types.length)]);
+		}
+		map.setMountainous(point, random.nextInt(4) == 0);
+		for (final River river : River.values()) {
+			if (random.nextInt(5) == 0) {
+				map.addRivers(point, river);
+			}
+		}
+		for (final Direction direction : Direction.values()) {
+			if (random.nextInt(6) == 0) {
+				map.setRoadLevel(point, direction, random.nextInt(3) + 1);
+			}
+		}
+	}
+
+	/**
+	 * Create a driver model with a main map and subordinate maps that share
+	 * some terrain, rivers, roads, and fixtures (some of them reduced, such
+	 * as smaller forests) with it, and a last subordinate map with nothing
+	 * to subtract.
+	 */
+	private static UtilityDriverModel createSubtractionModel(final long seed) {
+		final Random random = new Random(seed);
+		final MapDimensions dims = new MapDimensionsImpl(8, 8, 2);
+		final IMutableMapNG master = new SPMapNG(dims, playerCollection("main", "main"), 0);
+		final List<IMutableMapNG> subMaps = List.of(new SPMapNG(dims, playerCollection("main", "main"), 0),
+			new SPMapNG(dims, playerCollection("main", "main"), 0));
+		final IMutableMapNG unrelated = new SPMapNG(dims, playerCollection("main", "main"), 0);
+		int id = 0;
+		for (final Point point : master.getLocations()) {
+			randomizeTile(random, master, point);
+			for (final IMutableMapNG subMap : subMaps) {
+				randomizeTile(random, subMap, point);
+			}
+			final int count = random.nextInt(8);
+			for (int i = 0; i < count; i++) {
+				final int current = id++;
+				final int acres = random.nextInt(10) + 1;
+				master.addFixture(point, new Forest("oak", false, current, acres));
+				for (final IMutableMapNG subMap : subMaps) {
+					switch (random.nextInt(4)) {
+						case 0 -> subMap.addFixture(point, new Forest("oak", false, current, acres));
+						case 1 -> subMap.addFixture(point, new Forest("oak", false, current, acres - 1));
+						case 2 -> subMap.addFixture(point, new Forest("oak", false, current, acres + 1));
+						default -> subMap.addFixture(point, new Hill(current));
+					}
+				}
+			}
+			if (random.nextBoolean()) {
+				master.addFixture(point, new AnimalTracks("deer"));
+			}
+			if (random.nextBoolean()) {
+				master.addFixture(point, new TextFixture("note", 1));
+			}
+			for (final IMutableMapNG subMap : subMaps) {
+				subMap.addFixture(point, new AnimalTracks(random.nextBoolean() ? "deer" : "wolf"));
+				subMap.addFixture(point, new TextFixture(random.nextBoolean() ? "note" : "other", 1));
+				subMap.addFixture(point, new Oasis(1000 + id++));
+			}
+			unrelated.addFixture(point, new Oasis(1000 + id++));
+		}
+		final UtilityDriverModel retval = new UtilityDriverModel(master);
+		for (final IMutableMapNG subMap : subMaps) {
+			subMap.setModified(false);
+			retval.addSubordinateMap(subMap);
+		}
+		unrelated.setModified(false);
+		retval.addSubordinateMap(unrelated);
+		return retval;
+	}
+
+	/**
+	 * Test that subtracting the main map from all subordinate maps at once
+	 * gives the same maps as the one-tile-at-a-time, all-pairs algorithm,
+	 * and only marks changed maps as modified.
+	 */
+	@Test
+	public void testSubtractMatchesPairwise() {
+		final UtilityDriverModel expected = createSubtractionModel(43);
+		final UtilityDriverModel actual = createSubtractionModel(43);
+		for (final Point point : expected.getMap().getLocations()) {
+			oldSubtractAtPoint(expected, point);
+		}
+		actual.subtractAll();
+		final List<IMapNG> expectedMaps = expected.streamSubordinateMaps().toList();
+		final List<IMapNG> actualMaps = actual.streamSubordinateMaps().toList();
+		for (int i = 0; i < expectedMaps.size(); i++) {
+			assertEquals(expectedMaps.get(i), actualMaps.get(i), "Subtracted map matches");
+			for (final Point point : expectedMaps.get(i).getLocations()) {
+				assertEquals(expectedMaps.get(i).getFixtures(point).size(),
+					actualMaps.get(i).getFixtures(point).size(), "Same number of fixtures at " + point);
+				assertEquals(expectedMaps.get(i).getRivers(point), actualMaps.get(i).getRivers(point),
+					"Same rivers at " + point);
+			}
+		}
+		assertTrue(actualMaps.get(0).isModified(), "Changed map marked modified");
+		assertFalse(actualMaps.get(actualMaps.size() - 1).isModified(), "Unchanged map not marked modified");
+	}
 }
@@ -3,22 +3,25 @@ package lovelace.util;
 import java.math.BigDecimal;
 
 /**
- * An implementation of {@link Accumulator} for arbitrary-precision decimal numbers.
+ * An implementation of {@link Accumulator} for arbitrary-precision decimal
+ * numbers. The running total is kept as a {@link FixedDecimal}, so adding
+ * numbers that fit in its fixed-point representation doesn't allocate a new
+ * {@link BigDecimal} each time.
  */
 public class DecimalAccumulator implements Accumulator<BigDecimal> {
-	private BigDecimal count;
+	private FixedDecimal count;
 
 	public DecimalAccumulator(final BigDecimal count) {
-		this.count = count;
+		this.count = FixedDecimal.valueOf(count);
 	}
 
 	@Override
 	public void add(final BigDecimal addend) {
-		count = count.add(addend);
+		count = count.add(FixedDecimal.valueOf(addend));
 	}
 
 	@Override
 	public BigDecimal getSum() {
-		return count;
+		return count.toBigDecimal();
 	}
 }
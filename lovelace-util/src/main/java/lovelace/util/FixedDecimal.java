@@ -0,0 +1,345 @@
+package lovelace.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable decimal number, represented (when it fits) as a <code>long</code>
+ * "unscaled value" and an <code>int</code> scale, the value being the unscaled
+ * value times ten to the power of the negation of the scale. Arithmetic
+ * follows the rules of {@link BigDecimal}, giving exactly the same value
+ * <em>and scale</em> that the corresponding {@link BigDecimal} operation
+ * would, but without allocating a {@link BigDecimal} (or {@link BigInteger})
+ * for intermediate results; only if a result does not fit in a <code>long</code>
+ * do we fall back to {@link BigDecimal} arithmetic.
+ */
+public final class FixedDecimal extends Number implements Comparable<FixedDecimal> {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Powers of ten that fit in a <code>long</code>.
+	 */
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1L;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	public static final FixedDecimal ZERO = new FixedDecimal(0, 0, null);
+
+	/**
+	 * The unscaled value, if {@link #big} is null.
+	 */
+	private final long unscaled;
+
+	/**
+	 * The scale, if {@link #big} is null.
+	 */
+	private final int scale;
+
+	/**
+	 * The value, if its unscaled value does not fit in a <code>long</code>; null otherwise.
+	 */
+	private final @Nullable BigDecimal big;
+
+	private FixedDecimal(final long unscaled, final int scale, final @Nullable BigDecimal big) {
+		this.unscaled = unscaled;
+		this.scale = scale;
+		this.big = big;
+	}
+
+	/**
+	 * The given integer, with a scale of zero.
+	 */
+	public static FixedDecimal valueOf(final long number) {
+		return (number == 0) ? ZERO : new FixedDecimal(number, 0, null);
+	}
+
+	/**
+	 * The given unscaled value times ten to the power of the negation of the given scale.
+	 */
+	public static FixedDecimal valueOf(final long unscaledValue, final int scale) {
+		return new FixedDecimal(unscaledValue, scale, null);
+	}
+
+	/**
+	 * The same value, and scale, as the given {@link BigDecimal}.
+	 */
+	public static FixedDecimal valueOf(final BigDecimal number) {
+		if (number.scale() == 0 && number.precision() < POWERS_OF_TEN.length) {
+			// Avoids allocating the unscaled value in the common case of an integer.
+			return valueOf(number.longValue());
+		}
+		final BigInteger unscaledValue = number.unscaledValue();
+		if (unscaledValue.bitLength() < Long.SIZE) {
+			return new FixedDecimal(unscaledValue.longValue(), number.scale(), null);
+		} else {
+			return new FixedDecimal(0, 0, number);
+		}
+	}
+
+	/**
+	 * Convert any number to this type, with the same value and scale that
+	 * {@link Decimalize#decimalize} would give.
+	 */
+	public static FixedDecimal of(final Number number) {
+		if (number instanceof FixedDecimal d) {
+			return d;
+		} else if (number instanceof Integer || number instanceof Long ||
+				number instanceof Short || number instanceof Byte) {
+			return valueOf(number.longValue());
+		} else {
+			return valueOf(Decimalize.decimalize(number));
+		}
+	}
+
+	/**
+	 * Whether this number's value is held in {@link #big}.
+	 */
+	private boolean isBig() {
+		return big != null;
+	}
+
+	/**
+	 * The same value and scale, as a {@link BigDecimal}.
+	 */
+	public BigDecimal toBigDecimal() {
+		final BigDecimal local = big;
+		return (local == null) ? BigDecimal.valueOf(unscaled, scale) : local;
+	}
+
+	/**
+	 * The scale: the number of digits after the decimal point, as in {@link BigDecimal#scale}.
+	 */
+	public int scale() {
+		final BigDecimal local = big;
+		return (local == null) ? scale : local.scale();
+	}
+
+	/**
+	 * -1, 0, or 1 as this number is negative, zero, or positive.
+	 */
+	public int signum() {
+		final BigDecimal local = big;
+		return (local == null) ? Long.signum(unscaled) : local.signum();
+	}
+
+	/**
+	 * The given unscaled value, rescaled upward by the given number of
+	 * digits, or {@link Long#MIN_VALUE} (which we never use as an unscaled
+	 * value in that case) if that would overflow.
+	 */
+	private static long upscale(final long value, final int digits) {
+		if (digits == 0) {
+			return value;
+		} else if (digits < 0 || digits >= POWERS_OF_TEN.length || value == Long.MIN_VALUE) {
+			return Long.MIN_VALUE;
+		}
+		final long power = POWERS_OF_TEN[digits];
+		final long high = Math.multiplyHigh(value, power);
+		final long low = value * power;
+		if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+			return low;
+		} else {
+			return Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * The sum of this and the given number, as {@link BigDecimal#add} would compute it.
+	 */
+	public FixedDecimal add(final FixedDecimal addend) {
+		if (!isBig() && !addend.isBig()) {
+			final int resultScale = Math.max(scale, addend.scale);
+			final long one = upscale(unscaled, resultScale - scale);
+			final long two = upscale(addend.unscaled, resultScale - addend.scale);
+			if (one != Long.MIN_VALUE && two != Long.MIN_VALUE) {
+				final long sum = one + two;
+				if (((one ^ sum) & (two ^ sum)) >= 0 && sum != Long.MIN_VALUE) {
+					return new FixedDecimal(sum, resultScale, null);
+				}
+			}
+		}
+		return valueOf(toBigDecimal().add(addend.toBigDecimal()));
+	}
+
+	/**
+	 * The negation of this number, with the same scale.
+	 */
+	public FixedDecimal negate() {
+		if (!isBig() && unscaled != Long.MIN_VALUE) {
+			return new FixedDecimal(-unscaled, scale, null);
+		} else {
+			return valueOf(toBigDecimal().negate());
+		}
+	}
+
+	/**
+	 * The difference between this and the given number, as {@link BigDecimal#subtract} would compute it.
+	 */
+	public FixedDecimal subtract(final FixedDecimal subtrahend) {
+		if (!isBig() && !subtrahend.isBig() && subtrahend.unscaled != Long.MIN_VALUE) {
+			return add(subtrahend.negate());
+		} else {
+			return valueOf(toBigDecimal().subtract(subtrahend.toBigDecimal()));
+		}
+	}
+
+	/**
+	 * The product of this and the given number, as {@link BigDecimal#multiply} would compute it.
+	 */
+	public FixedDecimal multiply(final FixedDecimal multiplicand) {
+		if (!isBig() && !multiplicand.isBig()) {
+			final long high = Math.multiplyHigh(unscaled, multiplicand.unscaled);
+			final long low = unscaled * multiplicand.unscaled;
+			final long resultScale = (long) scale + multiplicand.scale;
+			if (((high == 0 && low >= 0) || (high == -1 && low < 0)) && low != Long.MIN_VALUE &&
+					resultScale == (int) resultScale) {
+				return new FixedDecimal(low, (int) resultScale, null);
+			}
+		}
+		return valueOf(toBigDecimal().multiply(multiplicand.toBigDecimal()));
+	}
+
+	/**
+	 * This number divided by the given number, rounded to this number's
+	 * scale using the given rounding mode, as {@link BigDecimal#divide(BigDecimal,
+	 * RoundingMode)} would compute it.
+	 *
+	 * @throws ArithmeticException if the divisor is zero, or if the rounding
+	 * mode is {@link RoundingMode#UNNECESSARY} but rounding is necessary
+	 */
+	public FixedDecimal divide(final FixedDecimal divisor, final RoundingMode mode) {
+		if (!isBig() && !divisor.isBig() && divisor.unscaled != 0 &&
+				divisor.unscaled != Long.MIN_VALUE) {
+			// this / divisor at this.scale is (unscaled * 10^divisor.scale) / divisor.unscaled
+			final long dividend;
+			final long denominator;
+			if (divisor.scale >= 0) {
+				dividend = upscale(unscaled, divisor.scale);
+				denominator = divisor.unscaled;
+			} else {
+				dividend = unscaled;
+				denominator = upscale(divisor.unscaled, -divisor.scale);
+			}
+			if (dividend != Long.MIN_VALUE && denominator != Long.MIN_VALUE) {
+				final long quotient = dividend / denominator;
+				final long remainder = dividend % denominator;
+				if (remainder == 0) {
+					return new FixedDecimal(quotient, scale, null);
+				}
+				final int sign = Long.signum(dividend) * Long.signum(denominator);
+				final long absRemainder = Math.abs(remainder);
+				final int half = Long.compare(absRemainder, Math.abs(denominator) - absRemainder);
+				final boolean increment = switch (mode) {
+					case UP -> true;
+					case DOWN -> false;
+					case CEILING -> sign > 0;
+					case FLOOR -> sign < 0;
+					case HALF_UP -> half >= 0;
+					case HALF_DOWN -> half > 0;
+					case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+					case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+				};
+				return new FixedDecimal(increment ? quotient + sign : quotient, scale, null);
+			}
+		}
+		return valueOf(toBigDecimal().divide(divisor.toBigDecimal(), mode));
+	}
+
+	/**
+	 * The lesser of this and the given number, or this if they are numerically equal.
+	 */
+	public FixedDecimal min(final FixedDecimal other) {
+		return (compareTo(other) <= 0) ? this : other;
+	}
+
+	/**
+	 * The greater of this and the given number, or this if they are numerically equal.
+	 */
+	public FixedDecimal max(final FixedDecimal other) {
+		return (compareTo(other) >= 0) ? this : other;
+	}
+
+	/**
+	 * Compare numerically, ignoring scale, as {@link BigDecimal#compareTo} does.
+	 */
+	@Override
+	public int compareTo(final FixedDecimal other) {
+		if (!isBig() && !other.isBig()) {
+			if (scale == other.scale) {
+				return Long.compare(unscaled, other.unscaled);
+			}
+			final int resultScale = Math.max(scale, other.scale);
+			final long one = upscale(unscaled, resultScale - scale);
+			final long two = upscale(other.unscaled, resultScale - other.scale);
+			if (one != Long.MIN_VALUE && two != Long.MIN_VALUE) {
+				return Long.compare(one, two);
+			}
+		}
+		return toBigDecimal().compareTo(other.toBigDecimal());
+	}
+
+	/**
+	 * Equal, as with {@link BigDecimal#equals}, only if both value and scale are equal.
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (obj instanceof FixedDecimal other) {
+			final BigDecimal local = big;
+			if (local == null) {
+				return other.big == null && unscaled == other.unscaled && scale == other.scale;
+			} else {
+				return local.equals(other.big);
+			}
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		final BigDecimal local = big;
+		return (local == null) ? 31 * Long.hashCode(unscaled) + scale : local.hashCode();
+	}
+
+	/**
+	 * The same representation as {@link BigDecimal#toString}.
+	 */
+	@Override
+	public String toString() {
+		if (!isBig() && scale == 0) {
+			return Long.toString(unscaled);
+		} else {
+			return toBigDecimal().toString();
+		}
+	}
+
+	@Override
+	public int intValue() {
+		return (!isBig() && scale == 0) ? (int) unscaled : toBigDecimal().intValue();
+	}
+
+	@Override
+	public long longValue() {
+		return (!isBig() && scale == 0) ? unscaled : toBigDecimal().longValue();
+	}
+
+	@Override
+	public float floatValue() {
+		return toBigDecimal().floatValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return toBigDecimal().doubleValue();
+	}
+}
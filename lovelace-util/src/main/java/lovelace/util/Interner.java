@@ -0,0 +1,13 @@
+package lovelace.util;
+
+/**
+ * A pool of canonical instances of immutable values, so that many equal
+ * values read from different places can share one object.
+ */
+public interface Interner<Type> {
+	/**
+	 * Return the canonical instance equal to the given value, making the
+	 * given value canonical if there was none.
+	 */
+	Type intern(Type value);
+}
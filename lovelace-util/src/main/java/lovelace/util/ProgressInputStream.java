@@ -0,0 +1,77 @@
+package lovelace.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * A stream wrapper that counts the bytes read through it, and reports the
+ * running total to a listener after each read.
+ *
+ * The listener may throw an unchecked exception (such as {@link
+ * java.util.concurrent.CancellationException}) to abort the read.
+ */
+public class ProgressInputStream extends FilterInputStream {
+	private final LongConsumer listener;
+	private long count = 0L;
+	private long mark = 0L;
+
+	/**
+	 * @param wrapped The stream to read from
+	 * @param listener What to tell the number of bytes read so far
+	 */
+	public ProgressInputStream(final InputStream wrapped, final LongConsumer listener) {
+		super(wrapped);
+		this.listener = listener;
+	}
+
+	/**
+	 * How many bytes have been read so far.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	private void advance(final long bytes) {
+		if (bytes > 0) {
+			count += bytes;
+			listener.accept(count);
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		final int retval = super.read();
+		if (retval >= 0) {
+			advance(1);
+		}
+		return retval;
+	}
+
+	@Override
+	public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+		final int retval = super.read(buffer, offset, length);
+		advance(retval);
+		return retval;
+	}
+
+	@Override
+	public long skip(final long bytes) throws IOException {
+		final long retval = super.skip(bytes);
+		advance(retval);
+		return retval;
+	}
+
+	@Override
+	public synchronized void mark(final int readLimit) {
+		super.mark(readLimit);
+		mark = count;
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		super.reset();
+		count = mark;
+	}
+}
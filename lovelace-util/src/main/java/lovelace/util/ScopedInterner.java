@@ -0,0 +1,32 @@
+package lovelace.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An {@link Interner} for use by one thread for the length of one task (such
+ * as reading a file), in front of a longer-lived, shared interner: it holds
+ * its canonical instances strongly and without synchronization, asking the
+ * shared interner only the first time it sees each distinct value.
+ */
+public final class ScopedInterner<Type> implements Interner<Type> {
+	private final Interner<Type> parent;
+
+	private final Map<Type, Type> pool = new HashMap<>();
+
+	public ScopedInterner(final Interner<Type> parent) {
+		this.parent = parent;
+	}
+
+	@Override
+	public Type intern(final Type value) {
+		final Type existing = pool.get(value);
+		if (existing != null) {
+			return existing;
+		}
+		// Key the pool by the canonical instance, so we don't keep the duplicate alive.
+		final Type retval = parent.intern(value);
+		pool.put(retval, retval);
+		return retval;
+	}
+}
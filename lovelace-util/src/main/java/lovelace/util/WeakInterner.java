@@ -0,0 +1,32 @@
+package lovelace.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An {@link Interner} that can be shared by any number of threads and holds
+ * its canonical instances only weakly, so a value is kept only as long as
+ * something else refers to it. This is meant to last as long as the
+ * application does, letting values read at different times share instances.
+ */
+public final class WeakInterner<Type> implements Interner<Type> {
+	/**
+	 * The pool. Each value maps to a reference to the canonical instance,
+	 * since a value that held its own key strongly would never be collected.
+	 */
+	private final Map<Type, WeakReference<Type>> pool = new WeakHashMap<>();
+
+	@Override
+	public synchronized Type intern(final Type value) {
+		final WeakReference<Type> existing = pool.get(value);
+		if (existing != null) {
+			final Type retval = existing.get();
+			if (retval != null) {
+				return retval;
+			}
+		}
+		pool.put(value, new WeakReference<>(value));
+		return value;
+	}
+}
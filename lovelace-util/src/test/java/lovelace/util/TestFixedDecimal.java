@@ -0,0 +1,113 @@
+package lovelace.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Property tests that {@link FixedDecimal} arithmetic gives exactly the value
+ * and scale that {@link BigDecimal} arithmetic does.
+ */
+public final class TestFixedDecimal {
+	private static final int TRIALS = 50_000;
+
+	/**
+	 * A random number: usually a "resource-sized" one, but sometimes one
+	 * near or beyond the limits of a <code>long</code>.
+	 */
+	private static BigDecimal randomDecimal(final Random random) {
+		final BigInteger unscaled = switch (random.nextInt(8)) {
+			case 0 -> BigInteger.valueOf(random.nextLong());
+			case 1 -> BigInteger.valueOf(random.nextBoolean() ? Long.MAX_VALUE - random.nextInt(3) :
+				Long.MIN_VALUE + random.nextInt(3));
+			case 2 -> new BigInteger(80, random).subtract(BigInteger.ONE.shiftLeft(79));
+			case 3 -> BigInteger.ZERO;
+			default -> BigInteger.valueOf(random.nextInt(2_000_001) - 1_000_000);
+		};
+		final int scale = (random.nextInt(10) == 0) ? random.nextInt(40) - 20 : random.nextInt(6);
+		return new BigDecimal(unscaled, scale);
+	}
+
+	private static void assertSame(final BigDecimal expected, final FixedDecimal actual, final String message) {
+		assertEquals(expected, actual.toBigDecimal(), message);
+		assertEquals(expected.toString(), actual.toString(), message);
+		assertEquals(expected.scale(), actual.scale(), message);
+		assertEquals(FixedDecimal.valueOf(expected), actual, message);
+	}
+
+	/**
+	 * Test addition, subtraction, multiplication, comparison, and min and max.
+	 */
+	@Test
+	public void testArithmetic() {
+		final Random random = new Random(36);
+		for (int i = 0; i < TRIALS; i++) {
+			final BigDecimal one = randomDecimal(random);
+			final BigDecimal two = randomDecimal(random);
+			final FixedDecimal fixedOne = FixedDecimal.valueOf(one);
+			final FixedDecimal fixedTwo = FixedDecimal.valueOf(two);
+			final String message = one + " and " + two;
+			assertSame(one, fixedOne, message);
+			assertSame(one.add(two), fixedOne.add(fixedTwo), "Sum of " + message);
+			assertSame(one.subtract(two), fixedOne.subtract(fixedTwo), "Difference of " + message);
+			assertSame(one.multiply(two), fixedOne.multiply(fixedTwo), "Product of " + message);
+			assertSame(one.negate(), fixedOne.negate(), "Negation of " + one);
+			assertEquals(Integer.signum(one.compareTo(two)), Integer.signum(fixedOne.compareTo(fixedTwo)),
+				"Comparison of " + message);
+			assertSame(one.min(two), fixedOne.min(fixedTwo), "Minimum of " + message);
+			assertSame(one.max(two), fixedOne.max(fixedTwo), "Maximum of " + message);
+			assertEquals(one.signum(), fixedOne.signum(), "Sign of " + one);
+			assertEquals(one.doubleValue(), fixedOne.doubleValue(), "Double value of " + one);
+			assertEquals(one.longValue(), fixedOne.longValue(), "Long value of " + one);
+		}
+	}
+
+	/**
+	 * Test division with every rounding mode.
+	 */
+	@Test
+	public void testDivision() {
+		final Random random = new Random(3636);
+		for (int i = 0; i < TRIALS; i++) {
+			final BigDecimal one = randomDecimal(random);
+			final BigDecimal two = (random.nextBoolean()) ? randomDecimal(random) :
+				BigDecimal.valueOf(random.nextInt(199) - 99, random.nextInt(3));
+			final FixedDecimal fixedOne = FixedDecimal.valueOf(one);
+			final FixedDecimal fixedTwo = FixedDecimal.valueOf(two);
+			for (final RoundingMode mode : RoundingMode.values()) {
+				final String message = one + " / " + two + " rounding " + mode;
+				final BigDecimal expected;
+				try {
+					expected = one.divide(two, mode);
+				} catch (final ArithmeticException except) {
+					assertThrows(ArithmeticException.class, () -> fixedOne.divide(fixedTwo, mode), message);
+					continue;
+				}
+				assertSame(expected, fixedOne.divide(fixedTwo, mode), message);
+			}
+		}
+	}
+
+	/**
+	 * Test that conversion from other numbers matches {@link Decimalize#decimalize}.
+	 */
+	@Test
+	public void testConversion() {
+		final Random random = new Random(363636);
+		for (int i = 0; i < TRIALS / 10; i++) {
+			final Number number = switch (random.nextInt(4)) {
+				case 0 -> random.nextInt();
+				case 1 -> random.nextLong();
+				case 2 -> random.nextDouble() * 1000;
+				default -> randomDecimal(random);
+			};
+			assertSame(Decimalize.decimalize(number), FixedDecimal.of(number), "Converting " + number);
+		}
+	}
+}
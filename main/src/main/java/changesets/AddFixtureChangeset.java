@@ -0,0 +1,34 @@
+package changesets;
+
+import common.map.IMutableMapNG;
+import common.map.Point;
+import common.map.TileFixture;
+
+/**
+ * A changeset that adds a fixture to a tile.
+ *
+ * @param turn The turn in which the change is made
+ * @param location Where the fixture is added
+ * @param fixture The fixture to add
+ */
+public record AddFixtureChangeset(int turn, Point location, TileFixture fixture) implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new RemoveFixtureChangeset(turn, location, fixture);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		map.addFixture(location, fixture);
+	}
+}
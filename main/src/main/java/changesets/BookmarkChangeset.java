@@ -0,0 +1,51 @@
+package changesets;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.Point;
+
+/**
+ * A changeset that adds or removes a player's bookmark on a tile.
+ *
+ * @param turn The turn in which the change is made
+ * @param location The tile to change
+ * @param playerId The ID number of the player whose bookmark it is
+ * @param wasBookmarked Whether the tile was bookmarked before the change
+ * @param bookmarked Whether the tile is bookmarked after the change
+ */
+public record BookmarkChangeset(int turn, Point location, int playerId, boolean wasBookmarked,
+		boolean bookmarked) implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new BookmarkChangeset(turn, location, playerId, bookmarked, wasBookmarked);
+	}
+
+	/**
+	 * Whether the tile was bookmarked is taken from the map, so that
+	 * undoing a change that changed nothing leaves the bookmark as it was.
+	 */
+	@Override
+	public Changeset effectiveOn(final IMapNG map) {
+		return new BookmarkChangeset(turn, location, playerId,
+			map.getAllBookmarks(location).stream().anyMatch(p -> p.getPlayerId() == playerId), bookmarked);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		if (bookmarked) {
+			map.addBookmark(location, map.getPlayers().getPlayer(playerId));
+		} else {
+			map.removeBookmark(location, map.getPlayers().getPlayer(playerId));
+		}
+	}
+}
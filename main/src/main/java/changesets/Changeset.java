@@ -1,15 +1,13 @@
 package changesets;
 
+import common.map.IMapNG;
 import common.map.IMutableMapNG;
 
 /**
  * An interface to represent a set of changes that can be made to a map (TODO:
  * or to what?).  It'll be used to represent the differences between an earlier
- * and a later map.
- *
- * TODO: Tests
- * 
- * TODO: Think of how to implement this
+ * and a later map, and to record edits so they can be undone, redone, and
+ * replayed from a {@link ChangesetJournal journal}.
  */
 public interface Changeset {
 	/**
@@ -27,6 +25,16 @@ public interface Changeset {
 	 */
 	Changeset invert();
 
+	/**
+	 * This changeset reduced to what it would actually change if applied
+	 * to the given map, so that its {@link #invert inverse} undoes only
+	 * that and nothing that was already there. By default, the changeset
+	 * itself.
+	 */
+	default Changeset effectiveOn(final IMapNG map) {
+		return this;
+	}
+
 	/**
 	 * Apply the changeset to a map.
 	 *
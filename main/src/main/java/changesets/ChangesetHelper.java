@@ -0,0 +1,58 @@
+package changesets;
+
+import common.map.IFixture;
+import common.map.IMapNG;
+import common.map.Point;
+import common.map.TileFixture;
+import common.map.fixtures.mobile.IMutableUnit;
+import common.map.fixtures.towns.IFortress;
+
+import java.util.stream.Stream;
+
+/**
+ * Helper methods for finding the targets of changesets in a map.
+ */
+/* package */ final class ChangesetHelper {
+	private ChangesetHelper() {
+	}
+
+	/**
+	 * If "fixture" is a {@link IFortress fortress}, return a stream
+	 * of its contents; otherwise, return stream containing only it. This
+	 * is intended to be used in {@link Stream#flatMap}.
+	 */
+	private static Stream<IFixture> unflattenNonFortresses(final TileFixture fixture) {
+		if (fixture instanceof IFortress f) {
+			return f.stream().map(IFixture.class::cast);
+		} else {
+			return Stream.of(fixture);
+		}
+	}
+
+	/**
+	 * Find the unit with the given ID in the map, whether on its own on a
+	 * tile or in a fortress.
+	 *
+	 * @throws IllegalArgumentException if there is no such unit
+	 */
+	public static IMutableUnit findUnit(final IMapNG map, final int id) {
+		return map.streamAllFixtures().flatMap(ChangesetHelper::unflattenNonFortresses)
+			.filter(IMutableUnit.class::isInstance).map(IMutableUnit.class::cast)
+			.filter(u -> u.getId() == id).findAny()
+			.orElseThrow(() -> new IllegalArgumentException("No unit with ID " + id));
+	}
+
+	/**
+	 * Find the fixture in the map at the given location that is equal to
+	 * the given fixture, or failing that has the same ID and type. If
+	 * there is no such fixture, returns the given fixture itself.
+	 */
+	public static TileFixture findFixture(final IMapNG map, final Point location,
+	                                      final TileFixture fixture) {
+		return map.getFixtures(location).stream().filter(fixture::equals).findAny()
+			.or(() -> map.getFixtures(location).stream()
+				.filter(f -> f.getId() == fixture.getId())
+				.filter(f -> f.getClass().equals(fixture.getClass())).findAny())
+			.orElse(fixture);
+	}
+}
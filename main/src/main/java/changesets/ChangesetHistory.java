@@ -0,0 +1,135 @@
+package changesets;
+
+import common.map.IMutableMapNG;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * An undo/redo history of the changesets applied to a map, optionally
+ * recording each change (including undoing and redoing) to a {@link
+ * ChangesetJournal journal} as it happens.
+ *
+ * TODO: Use this in the viewer's edit and save paths, once there are
+ * changesets for the edits it makes (renaming, changing kinds or owners,
+ * dismissing or sorting unit members, and so on) that none yet represent;
+ * until then a journal of its edits could not reproduce the map.
+ */
+public final class ChangesetHistory {
+	/**
+	 * The map the changesets are applied to.
+	 */
+	private final IMutableMapNG map;
+
+	/**
+	 * The journal to record changes to, if any.
+	 */
+	private final @Nullable ChangesetJournal journal;
+
+	/**
+	 * Changesets that can be undone, most recent first.
+	 */
+	private final Deque<Changeset> undoStack = new ArrayDeque<>();
+
+	/**
+	 * Changesets that have been undone and can be redone, most recently undone first.
+	 */
+	private final Deque<Changeset> redoStack = new ArrayDeque<>();
+
+	public ChangesetHistory(final IMutableMapNG map, final @Nullable ChangesetJournal journal) {
+		this.map = map;
+		this.journal = journal;
+	}
+
+	public ChangesetHistory(final IMutableMapNG map) {
+		this(map, null);
+	}
+
+	/**
+	 * Apply a changeset to the map and record it in the journal. If it
+	 * cannot be recorded, undo it, so the map never differs from what the
+	 * journal would replay.
+	 */
+	private void perform(final Changeset changeset) throws IOException {
+		changeset.apply(map);
+		if (journal != null) {
+			try {
+				journal.append(changeset);
+			} catch (final IOException except) {
+				changeset.invert().apply(map);
+				throw except;
+			}
+		}
+	}
+
+	/**
+	 * Apply a changeset to the map and make it the most recent undoable
+	 * change. This discards any changes available to be redone. Only what
+	 * the changeset {@link Changeset#effectiveOn actually changes} is kept
+	 * to be undone. If the change cannot be journaled, the map is left
+	 * unchanged.
+	 */
+	public void apply(final Changeset changeset) throws IOException {
+		final Changeset effective = changeset.effectiveOn(map);
+		perform(effective);
+		undoStack.push(effective);
+		redoStack.clear();
+	}
+
+	/**
+	 * Whether there is a change that can be undone.
+	 */
+	public boolean canUndo() {
+		return !undoStack.isEmpty();
+	}
+
+	/**
+	 * Whether there is a change that can be redone.
+	 */
+	public boolean canRedo() {
+		return !redoStack.isEmpty();
+	}
+
+	/**
+	 * Undo the most recent change.
+	 *
+	 * @throws IllegalStateException if there is nothing to undo
+	 */
+	public void undo() throws IOException {
+		if (undoStack.isEmpty()) {
+			throw new IllegalStateException("Nothing to undo");
+		}
+		final Changeset changeset = undoStack.peek();
+		perform(changeset.invert());
+		undoStack.pop();
+		redoStack.push(changeset);
+	}
+
+	/**
+	 * Redo the most recently undone change.
+	 *
+	 * @throws IllegalStateException if there is nothing to redo
+	 */
+	public void redo() throws IOException {
+		if (redoStack.isEmpty()) {
+			throw new IllegalStateException("Nothing to redo");
+		}
+		final Changeset changeset = redoStack.peek();
+		perform(changeset);
+		redoStack.pop();
+		undoStack.push(changeset);
+	}
+
+	/**
+	 * Note that the map has just been saved in full, so the journal (if
+	 * any) no longer needs the changes recorded so far. The undo and redo
+	 * history is kept.
+	 */
+	public void checkpoint() throws IOException {
+		if (journal != null) {
+			journal.truncate();
+		}
+	}
+}
@@ -0,0 +1,394 @@
+package changesets;
+
+import common.map.Direction;
+import common.map.HasMutableOwner;
+import common.map.IFixture;
+import common.map.IMutableMapNG;
+import common.map.IPlayerCollection;
+import common.map.Point;
+import common.map.River;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.FixtureIterable;
+import common.xmlio.SPFormatException;
+import common.xmlio.Warning;
+import impl.xmlio.ISPReader;
+import impl.xmlio.MapIOHelper;
+import impl.xmlio.fluidxml.SPFluidReader;
+import lovelace.util.LovelaceLogger;
+import org.jetbrains.annotations.Nullable;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An append-only log of the changesets applied to a map since it was last
+ * saved in full. Each changeset is written as one line as soon as it is
+ * recorded, so that after a crash the last full save plus the journal can be
+ * replayed to reproduce the map as it was.
+ *
+ * Each line consists of tab-separated fields, the first of which names the
+ * kind of changeset and the second of which is its turn. Free text (orders,
+ * and fixtures serialized as XML) is Base64-encoded so that it cannot contain
+ * tabs or newlines. A line that was only partly written when the program
+ * crashed has no trailing newline; it is ignored when the journal is read,
+ * and discarded when the journal is next opened for writing, so that later
+ * records do not run on from it. Each record is forced to the storage device
+ * as it is appended.
+ *
+ * The same format serves for the {@link MapDiff patches} between two versions
+ * of a map, which end with a trailer line so that a truncated patch is
+ * detected rather than partly applied.
+ */
+public final class ChangesetJournal implements Closeable {
+	/**
+	 * The reader used to deserialize fixtures.
+	 */
+	private static final ISPReader FIXTURE_READER = new SPFluidReader();
+
+	/**
+	 * The file the journal is written to.
+	 */
+	private final Path file;
+
+	/**
+	 * The channel to the journal file, through which we truncate it and
+	 * force what we have written to disk.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The stream to the journal file.
+	 */
+	private final BufferedWriter writer;
+
+	/**
+	 * Open the journal at the given path for appending, creating it if it
+	 * does not exist. If its last record was only partly written, it is
+	 * discarded.
+	 */
+	public ChangesetJournal(final Path file) throws IOException {
+		this.file = file;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+			StandardOpenOption.WRITE);
+		try {
+			final long end = endOfLastLine(channel);
+			if (end < channel.size()) {
+				LovelaceLogger.warning("Discarding partial record at end of journal %s", file);
+				channel.truncate(end);
+			}
+			channel.position(end);
+		} catch (final IOException except) {
+			channel.close();
+			throw except;
+		}
+		writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * The position just after the last newline in the file, or 0 if there is none.
+	 */
+	private static long endOfLastLine(final FileChannel channel) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long end = channel.size();
+		while (end > 0) {
+			final long start = Math.max(0, end - buffer.capacity());
+			buffer.clear().limit((int) (end - start));
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer, start + buffer.position()) < 0) {
+					throw new IOException("Journal file shrank while being read");
+				}
+			}
+			for (int i = buffer.position() - 1; i >= 0; i--) {
+				if (buffer.get(i) == '\n') {
+					return start + i + 1;
+				}
+			}
+			end = start;
+		}
+		return 0;
+	}
+
+	/**
+	 * The conventional location of the journal for the map saved at the given path.
+	 */
+	public static Path journalFor(final Path mapFile) {
+		return Paths.get(mapFile.toString() + ".journal");
+	}
+
+	/**
+	 * Record a changeset, flushing it to disk before returning.
+	 */
+	public void append(final Changeset changeset) throws IOException {
+		appendBuffered(changeset);
+		flush();
+	}
+
+	/**
+	 * Record a changeset without flushing it to disk, as when writing many
+	 * changesets at once (such as a {@link MapDiff patch}). Call {@link
+	 * #flush} after the last.
+	 */
+	public void appendBuffered(final Changeset changeset) throws IOException {
+		try {
+			writer.write(encode(changeset));
+		} catch (final XMLStreamException except) {
+			throw new IOException("Failed to serialize fixture in changeset", except);
+		}
+		writer.write('\n');
+	}
+
+	/**
+	 * Record a line that is not a changeset, such as a {@link MapDiff patch}'s
+	 * trailer, without flushing it to disk.
+	 */
+	/* package */ void appendLine(final String line) throws IOException {
+		writer.write(line);
+		writer.write('\n');
+	}
+
+	/**
+	 * Flush any changesets recorded with {@link #appendBuffered} to disk,
+	 * forcing them to the storage device so they survive a crash.
+	 */
+	public void flush() throws IOException {
+		writer.flush();
+		channel.force(false);
+	}
+
+	/**
+	 * Discard all recorded changesets, as when the map has just been saved in full.
+	 */
+	public void truncate() throws IOException {
+		writer.flush();
+		channel.truncate(0);
+		channel.force(false);
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private static String encodeText(final String text) {
+		return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String decodeText(final String text) {
+		return new String(Base64.getDecoder().decode(text), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * A fixture's XML form, as the journal records it.
+	 */
+	/* package */ static String fixtureXML(final TileFixture fixture) throws XMLStreamException, IOException {
+		final StringBuilder builder = new StringBuilder();
+		MapIOHelper.WRITER.writeSPObject(builder::append, fixture);
+		return builder.toString();
+	}
+
+	private static String encodeFixture(final TileFixture fixture) throws XMLStreamException, IOException {
+		return encodeText(fixtureXML(fixture));
+	}
+
+	/**
+	 * Deserialize a fixture, replacing the owners the reader gave it and
+	 * anything it contains with the matching players in the given collection.
+	 */
+	private static TileFixture decodeFixture(final String text, final IPlayerCollection players)
+			throws SPFormatException, XMLStreamException, IOException {
+		final TileFixture retval = FIXTURE_READER.readXML(Paths.get(""),
+			new StringReader(decodeText(text)), Warning.IGNORE);
+		fixOwners(retval, players);
+		return retval;
+	}
+
+	private static void fixOwners(final IFixture fixture, final IPlayerCollection players) {
+		if (fixture instanceof HasMutableOwner owned) {
+			owned.setOwner(players.getPlayer(owned.owner().getPlayerId()));
+		}
+		if (fixture instanceof FixtureIterable<?> iter) {
+			for (final IFixture member : iter) {
+				fixOwners(member, players);
+			}
+		}
+	}
+
+	private static String encodeRivers(final Set<River> rivers) {
+		return rivers.stream().map(River::name).sorted().collect(Collectors.joining(","));
+	}
+
+	private static Set<River> decodeRivers(final String text) {
+		if (text.isEmpty()) {
+			return Collections.emptySet();
+		} else {
+			return Stream.of(text.split(",")).map(River::valueOf)
+				.collect(Collectors.toCollection(() -> EnumSet.noneOf(River.class)));
+		}
+	}
+
+	private static String encodeTerrain(final @Nullable TileType terrain) {
+		return terrain == null ? "" : terrain.name();
+	}
+
+	private static @Nullable TileType decodeTerrain(final String text) {
+		return text.isEmpty() ? null : TileType.valueOf(text);
+	}
+
+	private static String join(final Object... fields) {
+		return Stream.of(fields).map(Object::toString).collect(Collectors.joining("\t"));
+	}
+
+	/**
+	 * Serialize a changeset to a single line (without the terminating newline).
+	 *
+	 * @throws IllegalArgumentException if the changeset is of a kind the journal does not support
+	 */
+	private static String encode(final Changeset changeset) throws XMLStreamException, IOException {
+		if (changeset instanceof AddFixtureChangeset c) {
+			return join("add", c.turn(), c.location().row(), c.location().column(),
+				encodeFixture(c.fixture()));
+		} else if (changeset instanceof RemoveFixtureChangeset c) {
+			return join("remove", c.turn(), c.location().row(), c.location().column(),
+				encodeFixture(c.fixture()));
+		} else if (changeset instanceof TerrainChangeset c) {
+			return join("terrain", c.turn(), c.location().row(), c.location().column(),
+				encodeTerrain(c.oldTerrain()), encodeTerrain(c.newTerrain()));
+		} else if (changeset instanceof RiverChangeset c) {
+			return join("rivers", c.turn(), c.location().row(), c.location().column(),
+				encodeRivers(c.added()), encodeRivers(c.removed()));
+		} else if (changeset instanceof RoadChangeset c) {
+			return join("road", c.turn(), c.location().row(), c.location().column(),
+				c.direction().name(), c.oldQuality(), c.newQuality());
+		} else if (changeset instanceof OrdersChangeset c) {
+			return join("orders", c.turn(), c.unitId(), c.ordersTurn(), encodeText(c.oldOrders()),
+				encodeText(c.newOrders()));
+		} else if (changeset instanceof MemberTransferChangeset c) {
+			return join("transfer", c.turn(), c.memberId(), c.fromUnitId(), c.toUnitId());
+		} else if (changeset instanceof MountainChangeset c) {
+			return join("mountain", c.turn(), c.location().row(), c.location().column(), c.wasMountainous(),
+				c.mountainous());
+		} else if (changeset instanceof BookmarkChangeset c) {
+			return join("bookmark", c.turn(), c.location().row(), c.location().column(), c.playerId(),
+				c.wasBookmarked(), c.bookmarked());
+		} else if (changeset instanceof TurnChangeset c) {
+			return join("turn", c.from(), c.to());
+		} else {
+			throw new IllegalArgumentException("Unsupported changeset type " +
+				changeset.getClass().getName());
+		}
+	}
+
+	/**
+	 * Deserialize a changeset from a line produced by {@link #encode}.
+	 */
+	/* package */ static Changeset decode(final String line, final IPlayerCollection players)
+			throws SPFormatException, XMLStreamException, IOException {
+		final String[] fields = line.split("\t", -1);
+		final int turn = Integer.parseInt(fields[1]);
+		switch (fields[0]) {
+		case "add":
+			return new AddFixtureChangeset(turn, parsePoint(fields), decodeFixture(fields[4], players));
+		case "remove":
+			return new RemoveFixtureChangeset(turn, parsePoint(fields), decodeFixture(fields[4], players));
+		case "terrain":
+			return new TerrainChangeset(turn, parsePoint(fields), decodeTerrain(fields[4]),
+				decodeTerrain(fields[5]));
+		case "rivers":
+			return new RiverChangeset(turn, parsePoint(fields), decodeRivers(fields[4]),
+				decodeRivers(fields[5]));
+		case "road":
+			return new RoadChangeset(turn, parsePoint(fields), Direction.valueOf(fields[4]),
+				Integer.parseInt(fields[5]), Integer.parseInt(fields[6]));
+		case "orders":
+			return new OrdersChangeset(turn, Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+				decodeText(fields[4]), decodeText(fields[5]));
+		case "transfer":
+			return new MemberTransferChangeset(turn, Integer.parseInt(fields[2]),
+				Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+		case "mountain":
+			return new MountainChangeset(turn, parsePoint(fields), Boolean.parseBoolean(fields[4]),
+				Boolean.parseBoolean(fields[5]));
+		case "bookmark":
+			return new BookmarkChangeset(turn, parsePoint(fields), Integer.parseInt(fields[4]),
+				Boolean.parseBoolean(fields[5]), Boolean.parseBoolean(fields[6]));
+		case "turn":
+			return new TurnChangeset(turn, Integer.parseInt(fields[2]));
+		default:
+			throw new IllegalArgumentException("Unknown changeset type " + fields[0]);
+		}
+	}
+
+	private static Point parsePoint(final String[] fields) {
+		return new Point(Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+	}
+
+	/**
+	 * Read all complete changesets from a journal file, in the order they
+	 * were recorded. Owners of fixtures in the changesets are resolved
+	 * against the given players.
+	 */
+	public static List<Changeset> read(final Path file, final IPlayerCollection players)
+			throws SPFormatException, XMLStreamException, IOException {
+		final List<Changeset> retval = new ArrayList<>();
+		for (final String line : readLines(file)) {
+			retval.add(decode(line, players));
+		}
+		return retval;
+	}
+
+	/**
+	 * Read all complete, non-empty lines from a journal file, in order.
+	 */
+	/* package */ static List<String> readLines(final Path file) throws IOException {
+		final String contents = Files.readString(file, StandardCharsets.UTF_8);
+		final int end = contents.lastIndexOf('\n');
+		if (end < contents.length() - 1) {
+			LovelaceLogger.warning("Ignoring incomplete final record in journal %s", file);
+		}
+		final List<String> retval = new ArrayList<>();
+		if (end < 0) {
+			return retval;
+		}
+		for (final String line : contents.substring(0, end).split("\n")) {
+			if (!line.isEmpty()) {
+				retval.add(line);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Apply all complete changesets in a journal file to a map, which
+	 * should be the map as it was last saved in full.
+	 *
+	 * @return how many changesets were applied
+	 */
+	public static int replay(final Path file, final IMutableMapNG map)
+			throws SPFormatException, XMLStreamException, IOException {
+		final List<Changeset> changesets = read(file, map.getPlayers());
+		for (final Changeset changeset : changesets) {
+			changeset.apply(map);
+		}
+		return changesets.size();
+	}
+}
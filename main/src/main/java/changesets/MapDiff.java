@@ -0,0 +1,305 @@
+package changesets;
+
+import common.map.Direction;
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.Player;
+import common.map.Point;
+import common.map.River;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.xmlio.SPFormatException;
+import impl.xmlio.MapIOHelper;
+import lovelace.util.ThrowingConsumer;
+import org.jetbrains.annotations.Nullable;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes the differences between two versions of a map (typically, the
+ * same map at the end of two successive turns) as a series of changesets
+ * that, applied in order to the older map, reproduce the newer one exactly.
+ * Written to a {@link ChangesetJournal journal} file, the changesets make a
+ * patch, one line per change, that can be written and replayed as a stream.
+ *
+ * Fixtures are compared by their XML form, not by {@link Object#equals},
+ * as equality ignores some of what is saved (such as units' orders). A
+ * changed fixture is removed and its new version added. Since added
+ * fixtures go at the end of a tile's list, where fixtures have been
+ * reordered the later ones are also removed and re-added, so that the
+ * patched tile lists them in the same order.
+ *
+ * Both maps must have the same dimensions, players (down to their names,
+ * countries, and portraits), and current player, as changesets cannot change
+ * those.
+ *
+ * A patch ends with a trailer line giving the number of changesets and a
+ * checksum of the newer map's XML form; {@link #applyPatch} refuses a patch
+ * whose trailer is missing or whose count does not match, and reports
+ * whether the result matches the checksum.
+ */
+public final class MapDiff {
+	private MapDiff() {
+	}
+
+	/**
+	 * The kind of the trailer line that ends a patch.
+	 */
+	private static final String TRAILER = "end";
+
+	/**
+	 * The differences between two maps, in the order they should be applied.
+	 *
+	 * @throws IllegalArgumentException if the maps differ in a way changesets cannot express
+	 */
+	public static List<Changeset> diff(final IMapNG older, final IMapNG newer)
+			throws XMLStreamException, IOException {
+		final List<Changeset> retval = new ArrayList<>();
+		diff(older, newer, retval::add);
+		return retval;
+	}
+
+	/**
+	 * Pass the differences between two maps, in the order they should be
+	 * applied, to the given consumer as they are found.
+	 *
+	 * @throws IllegalArgumentException if the maps differ in a way changesets cannot express
+	 */
+	public static void diff(final IMapNG older, final IMapNG newer,
+	                        final ThrowingConsumer<Changeset, IOException> sink)
+			throws XMLStreamException, IOException {
+		if (!older.getDimensions().equals(newer.getDimensions())) {
+			throw new IllegalArgumentException("Cannot diff maps of different dimensions");
+		} else if (!samePlayers(older, newer)) {
+			throw new IllegalArgumentException("Cannot diff maps with different players");
+		} else if (older.getCurrentPlayer().getPlayerId() != newer.getCurrentPlayer().getPlayerId()) {
+			throw new IllegalArgumentException("Cannot diff maps with different current players");
+		}
+		final int turn = older.getCurrentTurn();
+		final Set<Point> locations = Stream.concat(older.streamLocations(), newer.streamLocations())
+			.collect(Collectors.toCollection(LinkedHashSet::new));
+		for (final Point location : locations) {
+			diffTile(older, newer, location, turn, sink);
+		}
+		if (turn != newer.getCurrentTurn()) {
+			sink.accept(new TurnChangeset(turn, newer.getCurrentTurn()));
+		}
+	}
+
+	/**
+	 * Write the patch from one map to another to the given file, replacing
+	 * its contents. The newer map can then be reproduced from the older by
+	 * {@link #applyPatch applying} the patch to it.
+	 *
+	 * @return the number of changesets in the patch
+	 * @throws IllegalArgumentException if the maps differ in a way changesets cannot express
+	 */
+	public static int writePatch(final IMapNG older, final IMapNG newer, final Path file)
+			throws XMLStreamException, IOException {
+		final int[] count = { 0 };
+		try (final ChangesetJournal journal = new ChangesetJournal(file)) {
+			journal.truncate();
+			diff(older, newer, changeset -> {
+				journal.appendBuffered(changeset);
+				count[0]++;
+			});
+			journal.appendLine(String.join("\t", TRAILER, Integer.toString(count[0]),
+				Long.toHexString(checksum(newer))));
+			journal.flush();
+		}
+		return count[0];
+	}
+
+	/**
+	 * Apply a patch written by {@link #writePatch} to the map it was made
+	 * from, turning it into the map the patch was made to.
+	 *
+	 * @return the number of changesets applied
+	 * @throws IllegalArgumentException if the patch is missing its trailer
+	 * or has the wrong number of changesets, in which case the map is
+	 * unchanged, or if the patched map does not match the trailer's
+	 * checksum, in which case it should be discarded
+	 */
+	public static int applyPatch(final Path file, final IMutableMapNG map)
+			throws SPFormatException, XMLStreamException, IOException {
+		final List<String> lines = ChangesetJournal.readLines(file);
+		final String[] trailer = lines.isEmpty() ? new String[0] :
+			lines.get(lines.size() - 1).split("\t", -1);
+		if (trailer.length != 3 || !TRAILER.equals(trailer[0])) {
+			throw new IllegalArgumentException("Patch " + file + " is incomplete: it has no trailer");
+		}
+		final int count = lines.size() - 1;
+		if (Integer.parseInt(trailer[1]) != count) {
+			throw new IllegalArgumentException(String.format(
+				"Patch %s should have %s changes but has %d", file, trailer[1], count));
+		}
+		final List<Changeset> changesets = new ArrayList<>(count);
+		for (final String line : lines.subList(0, count)) {
+			changesets.add(ChangesetJournal.decode(line, map.getPlayers()));
+		}
+		for (final Changeset changeset : changesets) {
+			changeset.apply(map);
+		}
+		if (Long.parseUnsignedLong(trailer[2], 16) != checksum(map)) {
+			throw new IllegalArgumentException("Applying patch " + file +
+				" did not reproduce the map it was made from");
+		}
+		return count;
+	}
+
+	/**
+	 * A checksum of the map's XML form.
+	 */
+	private static long checksum(final IMapNG map) throws XMLStreamException, IOException {
+		final CRC32 crc = new CRC32();
+		try (final Writer writer = new OutputStreamWriter(
+				new CheckedOutputStream(OutputStream.nullOutputStream(), crc), StandardCharsets.UTF_8)) {
+			MapIOHelper.WRITER.writeSPObject(writer::write, map);
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Whether the two maps have the same players, with the same names,
+	 * countries, and portraits.
+	 */
+	private static boolean samePlayers(final IMapNG older, final IMapNG newer) {
+		final Map<Integer, Player> players = new HashMap<>();
+		for (final Player player : older.getPlayers()) {
+			players.put(player.getPlayerId(), player);
+		}
+		int count = 0;
+		for (final Player player : newer.getPlayers()) {
+			final @Nullable Player other = players.get(player.getPlayerId());
+			if (other == null || !player.getName().equals(other.getName()) ||
+					!Objects.equals(player.getCountry(), other.getCountry()) ||
+					!Objects.equals(player.getPortrait(), other.getPortrait())) {
+				return false;
+			}
+			count++;
+		}
+		return count == players.size();
+	}
+
+	private static Set<River> rivers(final IMapNG map, final Point location) {
+		final Set<River> retval = EnumSet.noneOf(River.class);
+		retval.addAll(map.getRivers(location));
+		return retval;
+	}
+
+	private static Set<Integer> bookmarks(final IMapNG map, final Point location) {
+		return map.getAllBookmarks(location).stream().map(Player::getPlayerId).collect(Collectors.toSet());
+	}
+
+	private static void diffTile(final IMapNG older, final IMapNG newer, final Point location, final int turn,
+	                             final ThrowingConsumer<Changeset, IOException> sink)
+			throws XMLStreamException, IOException {
+		final @Nullable TileType oldTerrain = older.getBaseTerrain(location);
+		final @Nullable TileType newTerrain = newer.getBaseTerrain(location);
+		if (oldTerrain != newTerrain) {
+			sink.accept(new TerrainChangeset(turn, location, oldTerrain, newTerrain));
+		}
+		if (older.isMountainous(location) != newer.isMountainous(location)) {
+			sink.accept(new MountainChangeset(turn, location, older.isMountainous(location),
+				newer.isMountainous(location)));
+		}
+		final Set<River> oldRivers = rivers(older, location);
+		final Set<River> newRivers = rivers(newer, location);
+		if (!oldRivers.equals(newRivers)) {
+			final Set<River> added = EnumSet.copyOf(newRivers);
+			added.removeAll(oldRivers);
+			final Set<River> removed = EnumSet.copyOf(oldRivers);
+			removed.removeAll(newRivers);
+			sink.accept(new RiverChangeset(turn, location, added, removed));
+		}
+		final Map<Direction, Integer> oldRoads = older.getRoads(location);
+		final Map<Direction, Integer> newRoads = newer.getRoads(location);
+		if (!oldRoads.equals(newRoads)) {
+			for (final Direction direction : Direction.values()) {
+				final int oldQuality = oldRoads.getOrDefault(direction, 0);
+				final int newQuality = newRoads.getOrDefault(direction, 0);
+				if (oldQuality != newQuality) {
+					sink.accept(new RoadChangeset(turn, location, direction, oldQuality, newQuality));
+				}
+			}
+		}
+		final Set<Integer> oldMarks = bookmarks(older, location);
+		final Set<Integer> newMarks = bookmarks(newer, location);
+		if (!oldMarks.equals(newMarks)) {
+			for (final int player : oldMarks) {
+				if (!newMarks.contains(player)) {
+					sink.accept(new BookmarkChangeset(turn, location, player, true, false));
+				}
+			}
+			for (final int player : newMarks) {
+				if (!oldMarks.contains(player)) {
+					sink.accept(new BookmarkChangeset(turn, location, player, false, true));
+				}
+			}
+		}
+		diffFixtures(older.getFixtures(location), newer.getFixtures(location), location, turn, sink);
+	}
+
+	/**
+	 * Emit the changesets that turn one tile's list of fixtures into
+	 * another. We keep the longest leading run of the new list that
+	 * appears, unchanged and in the same order, in the old list; remove
+	 * every other old fixture; and add the rest of the new list in order.
+	 */
+	private static void diffFixtures(final Iterable<TileFixture> oldFixtures,
+	                                 final Iterable<TileFixture> newFixtures, final Point location,
+	                                 final int turn, final ThrowingConsumer<Changeset, IOException> sink)
+			throws XMLStreamException, IOException {
+		final List<TileFixture> oldList = new ArrayList<>();
+		oldFixtures.forEach(oldList::add);
+		final List<TileFixture> newList = new ArrayList<>();
+		newFixtures.forEach(newList::add);
+		if (oldList.isEmpty() && newList.isEmpty()) {
+			return;
+		}
+		final boolean[] kept = new boolean[oldList.size()];
+		int oldIndex = 0;
+		int newIndex = 0;
+		for (; newIndex < newList.size(); newIndex++) {
+			// Fixtures with different IDs, or that are unequal, can't
+			// match, so we only serialize those that might.
+			final TileFixture fixture = newList.get(newIndex);
+			while (oldIndex < oldList.size() && oldList.get(oldIndex).getId() != fixture.getId()) {
+				oldIndex++;
+			}
+			if (oldIndex >= oldList.size() || !oldList.get(oldIndex).equals(fixture) ||
+					!ChangesetJournal.fixtureXML(oldList.get(oldIndex))
+						.equals(ChangesetJournal.fixtureXML(fixture))) {
+				break;
+			}
+			kept[oldIndex] = true;
+			oldIndex++;
+		}
+		for (int i = 0; i < oldList.size(); i++) {
+			if (!kept[i]) {
+				sink.accept(new RemoveFixtureChangeset(turn, location, oldList.get(i)));
+			}
+		}
+		for (int i = newIndex; i < newList.size(); i++) {
+			sink.accept(new AddFixtureChangeset(turn, location, newList.get(i)));
+		}
+	}
+}
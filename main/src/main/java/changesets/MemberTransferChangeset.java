@@ -0,0 +1,47 @@
+package changesets;
+
+import common.map.IMutableMapNG;
+import common.map.fixtures.UnitMember;
+import common.map.fixtures.mobile.IMutableUnit;
+
+/**
+ * A changeset that moves a member from one unit to another.
+ *
+ * @param turn The turn in which the change is made
+ * @param memberId The ID number of the unit member to move
+ * @param fromUnitId The ID number of the unit the member is moved out of
+ * @param toUnitId The ID number of the unit the member is moved into
+ */
+public record MemberTransferChangeset(int turn, int memberId, int fromUnitId, int toUnitId)
+		implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new MemberTransferChangeset(turn, memberId, toUnitId, fromUnitId);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if either unit is not in the map,
+	 * or the member is not in the unit it is to be moved from
+	 */
+	@Override
+	public void apply(final IMutableMapNG map) {
+		final IMutableUnit source = ChangesetHelper.findUnit(map, fromUnitId);
+		final IMutableUnit destination = ChangesetHelper.findUnit(map, toUnitId);
+		final UnitMember member = source.stream().filter(m -> m.getId() == memberId).findAny()
+			.orElseThrow(() -> new IllegalArgumentException(String.format(
+				"No member with ID %d in unit %d", memberId, fromUnitId)));
+		source.removeMember(member);
+		destination.addMember(member);
+		map.setModified(true);
+	}
+}
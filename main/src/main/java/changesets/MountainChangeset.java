@@ -0,0 +1,45 @@
+package changesets;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.Point;
+
+/**
+ * A changeset that makes a tile mountainous or not.
+ *
+ * @param turn The turn in which the change is made
+ * @param location The tile to change
+ * @param wasMountainous Whether the tile was mountainous before the change
+ * @param mountainous Whether the tile is mountainous after the change
+ */
+public record MountainChangeset(int turn, Point location, boolean wasMountainous, boolean mountainous)
+		implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new MountainChangeset(turn, location, mountainous, wasMountainous);
+	}
+
+	/**
+	 * Whether the tile was mountainous is taken from the map, so that
+	 * undoing a change that changed nothing leaves the tile as it was.
+	 */
+	@Override
+	public Changeset effectiveOn(final IMapNG map) {
+		return new MountainChangeset(turn, location, map.isMountainous(location), mountainous);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		map.setMountainous(location, mountainous);
+	}
+}
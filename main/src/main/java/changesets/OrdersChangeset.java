@@ -0,0 +1,36 @@
+package changesets;
+
+import common.map.IMutableMapNG;
+
+/**
+ * A changeset that changes a unit's orders for a turn.
+ *
+ * @param turn The turn in which the change is made
+ * @param unitId The ID number of the unit
+ * @param ordersTurn The turn whose orders are changed
+ * @param oldOrders The orders before the change
+ * @param newOrders The orders after the change
+ */
+public record OrdersChangeset(int turn, int unitId, int ordersTurn, String oldOrders, String newOrders)
+		implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new OrdersChangeset(turn, unitId, ordersTurn, newOrders, oldOrders);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		ChangesetHelper.findUnit(map, unitId).setOrders(ordersTurn, newOrders);
+		map.setModified(true);
+	}
+}
@@ -0,0 +1,36 @@
+package changesets;
+
+import common.map.IMutableMapNG;
+import common.map.Point;
+import common.map.TileFixture;
+
+/**
+ * A changeset that removes a fixture from a tile.
+ *
+ * @param turn The turn in which the change is made
+ * @param location Where the fixture is removed from
+ * @param fixture The fixture to remove. When applied to a map that does not
+ * contain this very object (as when replaying a journal), the equal fixture
+ * there is removed instead.
+ */
+public record RemoveFixtureChangeset(int turn, Point location, TileFixture fixture) implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new AddFixtureChangeset(turn, location, fixture);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		map.removeFixture(location, ChangesetHelper.findFixture(map, location, fixture));
+	}
+}
@@ -0,0 +1,63 @@
+package changesets;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.Point;
+import common.map.River;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A changeset that adds and/or removes rivers on a tile.
+ *
+ * @param turn The turn in which the change is made
+ * @param location The tile to change
+ * @param added The rivers to add
+ * @param removed The rivers to remove
+ */
+public record RiverChangeset(int turn, Point location, Set<River> added, Set<River> removed)
+		implements Changeset {
+	public RiverChangeset {
+		added = Set.copyOf(added);
+		removed = Set.copyOf(removed);
+	}
+
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new RiverChangeset(turn, location, removed, added);
+	}
+
+	/**
+	 * Rivers already on the tile are not "added", and rivers not on it are
+	 * not "removed", so undoing the change leaves them as they were.
+	 */
+	@Override
+	public Changeset effectiveOn(final IMapNG map) {
+		final Collection<River> present = map.getRivers(location);
+		return new RiverChangeset(turn, location,
+			added.stream().filter(r -> !present.contains(r)).collect(Collectors.toSet()),
+			removed.stream().filter(present::contains).collect(Collectors.toSet()));
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		if (!removed.isEmpty()) {
+			map.removeRivers(location, removed.toArray(River[]::new));
+		}
+		if (!added.isEmpty()) {
+			map.addRivers(location, added.toArray(River[]::new));
+		}
+	}
+}
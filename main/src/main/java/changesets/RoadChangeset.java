@@ -0,0 +1,49 @@
+package changesets;
+
+import common.map.Direction;
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.Point;
+
+/**
+ * A changeset that changes the quality of a road on a tile.
+ *
+ * @param turn The turn in which the change is made
+ * @param location The tile to change
+ * @param direction The direction of the road
+ * @param oldQuality The road's quality before the change, zero if there was no road
+ * @param newQuality The road's quality after the change, zero if the road is removed
+ */
+public record RoadChangeset(int turn, Point location, Direction direction, int oldQuality, int newQuality)
+		implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new RoadChangeset(turn, location, direction, newQuality, oldQuality);
+	}
+
+	/**
+	 * The road's quality before the change is taken from the map, rather
+	 * than trusted, so that undoing the change restores what was really
+	 * there.
+	 */
+	@Override
+	public Changeset effectiveOn(final IMapNG map) {
+		return new RoadChangeset(turn, location, direction, map.getRoads(location).getOrDefault(direction, 0),
+			newQuality);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		map.setRoadLevel(location, direction, newQuality);
+	}
+}
@@ -0,0 +1,47 @@
+package changesets;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.Point;
+import common.map.TileType;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A changeset that changes the base terrain of a tile.
+ *
+ * @param turn The turn in which the change is made
+ * @param location The tile to change
+ * @param oldTerrain The terrain there before the change, or null if unknown
+ * @param newTerrain The terrain there after the change, or null if unknown
+ */
+public record TerrainChangeset(int turn, Point location, @Nullable TileType oldTerrain,
+		@Nullable TileType newTerrain) implements Changeset {
+	@Override
+	public int getFrom() {
+		return turn;
+	}
+
+	@Override
+	public int getTo() {
+		return turn;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new TerrainChangeset(turn, location, newTerrain, oldTerrain);
+	}
+
+	/**
+	 * The terrain before the change is taken from the map, rather than
+	 * trusted, so that undoing the change restores what was really there.
+	 */
+	@Override
+	public Changeset effectiveOn(final IMapNG map) {
+		return new TerrainChangeset(turn, location, map.getBaseTerrain(location), newTerrain);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		map.setBaseTerrain(location, newTerrain);
+	}
+}
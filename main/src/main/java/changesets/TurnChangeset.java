@@ -0,0 +1,31 @@
+package changesets;
+
+import common.map.IMutableMapNG;
+
+/**
+ * A changeset that advances (or turns back) the map's current turn.
+ *
+ * @param from The current turn before the change
+ * @param to The current turn after the change
+ */
+public record TurnChangeset(int from, int to) implements Changeset {
+	@Override
+	public int getFrom() {
+		return from;
+	}
+
+	@Override
+	public int getTo() {
+		return to;
+	}
+
+	@Override
+	public Changeset invert() {
+		return new TurnChangeset(to, from);
+	}
+
+	@Override
+	public void apply(final IMutableMapNG map) {
+		map.setCurrentTurn(to);
+	}
+}
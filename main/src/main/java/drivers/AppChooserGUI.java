@@ -56,11 +56,9 @@ import lovelace.util.ListenedButton;
 		final FontRenderContext context = pen.getFontRenderContext();
 		double width = 0;
 		double height = 10;
-		final Iterable<DriverFactory> drivers = ServiceLoader.load(DriverFactory.class);
+		final List<DriverFactory> drivers = ServiceLoader.load(DriverFactory.class).stream()
+				.map(ServiceLoader.Provider::get).filter(AppChooserGUI::includeInGUIList).toList();
 		for (final DriverFactory driver : drivers) {
-			if (!includeInGUIList(driver)) {
-				continue;
-			}
 			final Rectangle2D dimensions = font.getStringBounds(driver.getUsage().getShortDescription(), context);
 			width = Double.max(width, dimensions.getWidth());
 			height += dimensions.getHeight();
@@ -77,9 +75,6 @@ import lovelace.util.ListenedButton;
 					});
 			};
 		for (final DriverFactory driver : drivers) {
-			if (!includeInGUIList(driver)) {
-				continue;
-			}
 			buttonPanel.add(new ListenedButton(driver.getUsage().getShortDescription(),
 				ignored -> buttonHandler.accept(driver)));
 		}
@@ -53,7 +53,8 @@ import org.jetbrains.annotations.Nullable;
 		// TODO: Use a multimap?
 		final Map<String, List<DriverFactory>> cache = new HashMap<>();
 		final Map<String, List<DriverFactory>> conflicts = new HashMap<>();
-		for (final DriverFactory factory : ServiceLoader.load(DriverFactory.class)) {
+		for (final DriverFactory factory : ServiceLoader.load(DriverFactory.class).stream()
+				.map(ServiceLoader.Provider::get).toList()) {
 			final String command = factory.getUsage().getInvocation();
 			if (command.startsWith("-")) {
 				LovelaceLogger.error(
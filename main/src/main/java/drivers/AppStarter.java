@@ -1,5 +1,7 @@
 package drivers;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -23,17 +25,108 @@ import drivers.common.DriverFactory;
 
 import drivers.common.cli.ICLIHelper;
 
+import common.perf.PerformanceRecorder;
+
 import lovelace.util.LovelaceLogger;
 import org.jetbrains.annotations.Nullable;
 
 /* package */ class AppStarter {
-	private final Map<String, Iterable<DriverFactory>> driverCache =
-			AppChooserState.createCache(); // TODO: Can we, and should we, inline that into here?
+	/**
+	 * The index of drivers by invocation, which lets us start the driver
+	 * the user asked for without instantiating all the others.
+	 */
+	private final Map<String, List<DriverIndex.Entry>> driverIndex;
+
+	public AppStarter() {
+		this(DriverIndex.load());
+	}
+
+	/**
+	 * @param driverIndex The index of drivers by invocation; if empty, every
+	 * driver is loaded to find the one the user asked for
+	 */
+	/* package */ AppStarter(final Map<String, List<DriverIndex.Entry>> driverIndex) {
+		this.driverIndex = driverIndex;
+	}
+
+	/**
+	 * Every registered driver, by invocation, loaded only if we need more
+	 * than the index can give us.
+	 */
+	private @Nullable Map<String, Iterable<DriverFactory>> driverCache = null;
+
+	private Map<String, Iterable<DriverFactory>> getDriverCache() {
+		Map<String, Iterable<DriverFactory>> retval = driverCache;
+		if (retval == null) {
+			retval = AppChooserState.createCache(); // TODO: Can we, and should we, inline that into here?
+			driverCache = retval;
+		}
+		return retval;
+	}
+
+	/**
+	 * The drivers registered for the given command. If the index lists the
+	 * one we would choose among them, that is the only one we instantiate;
+	 * otherwise, we fall back to loading every driver.
+	 */
+	private List<DriverFactory> driversFor(final String command, final boolean gui) {
+		final List<DriverIndex.Entry> entries = driverIndex.getOrDefault(command, Collections.emptyList());
+		final Optional<DriverIndex.Entry> entry = (entries.size() == 1) ? entries.stream().findFirst() :
+				entries.stream().filter(e -> e.graphical() == gui).findAny();
+		final @Nullable DriverFactory indexed = entry.map(DriverIndex::instantiate).orElse(null);
+		if (indexed != null) {
+			return Collections.singletonList(indexed);
+		}
+		return Optional.ofNullable(getDriverCache().get(command))
+				// TODO: Drop StreamSupport use if driverCache is changed to specify List.
+				.map(l -> StreamSupport.stream(l.spliterator(), false).collect(Collectors.toList()))
+				.orElse(Collections.emptyList());
+	}
 
 	private static boolean includeInCLIList(final DriverFactory driver) {
 		return driver.getUsage().includeInList(false);
 	}
 
+	/**
+	 * The file to record performance events to if "--jfr" is given without a filename.
+	 */
+	private static final String DEFAULT_RECORDING = "strategic-primer.jfr";
+
+	/**
+	 * Start recording our Flight Recorder events to the given file.
+	 *
+	 * @return the recording, or null if it could not be started
+	 */
+	private static @Nullable PerformanceRecorder startRecording(final String filename) {
+		try {
+			final PerformanceRecorder retval = PerformanceRecorder.start(Paths.get(filename));
+			LovelaceLogger.info("Recording performance events to %s", filename);
+			return retval;
+		} catch (final IOException | RuntimeException except) {
+			LovelaceLogger.error(except, "Failed to start recording to %s", filename);
+			return null;
+		}
+	}
+
+	/**
+	 * Stop a recording once the driver it covers has finished, writing it
+	 * to its file and logging a summary of the time spent in each phase.
+	 *
+	 * @param atExit Whether the JVM is exiting, so Flight Recorder stops
+	 * and writes the recording itself and we only wait for that
+	 */
+	private static void stopRecording(final PerformanceRecorder recorder, final boolean atExit) {
+		try {
+			final List<String> summary = atExit ? recorder.summarizeAtExit() : recorder.stop();
+			LovelaceLogger.info("Time spent by phase (recorded in %s):", recorder.getDestination());
+			for (final String line : summary) {
+				LovelaceLogger.info("%s", line);
+			}
+		} catch (final IOException | RuntimeException except) {
+			LovelaceLogger.error(except, "Failed to write or summarize recording");
+		}
+	}
+
 	public void startDriverOnArguments(final ICLIHelper cli, final SPOptions options, final String... args) throws DriverFailedException {
 		LovelaceLogger.trace("Inside AppStarter#startDriver()");
 		boolean gui = !GraphicsEnvironment.isHeadless();
@@ -46,6 +139,7 @@ import org.jetbrains.annotations.Nullable;
 		// TODO: Try to make an instance method
 		final BiConsumer<DriverFactory, SPOptions> startChosenDriver = (driver, currentOptionsTyped) -> {
 			if (driver.getUsage().isGraphical()) {
+				Main.setLookAndFeel();
 				SwingUtilities.invokeLater(() -> new DriverWrapper(driver).startCatchingErrors(cli,
 						currentOptionsTyped, others.stream().skip(1).toArray(String[]::new)));
 			} else {
@@ -95,9 +189,8 @@ import org.jetbrains.annotations.Nullable;
 		// TODO: Use appletChooser so we can support prefixes
 		final @Nullable DriverFactory currentDriver;
 		final @Nullable String command = others.stream().findFirst().orElse(null);
-		final List<DriverFactory> drivers = Optional.ofNullable(command).map(driverCache::get)
-				// TODO: Drop StreamSupport use if driverCache is changed to specify List.
-				.map(l -> StreamSupport.stream(l.spliterator(), false).collect(Collectors.toList()))
+		final boolean localGui = gui;
+		final List<DriverFactory> drivers = Optional.ofNullable(command).map(c -> driversFor(c, localGui))
 				.orElse(Collections.emptyList());
 		if (command != null && !drivers.isEmpty()) {
 			final DriverFactory first = drivers.stream().findFirst().orElse(null);
@@ -106,7 +199,6 @@ import org.jetbrains.annotations.Nullable;
 				LovelaceLogger.trace("Only one driver registered for that command");
 				currentDriver = first;
 			} else {
-				final boolean localGui = gui;
 				LovelaceLogger.trace("Multiple drivers registered; filtering by interface");
 				currentDriver = drivers.stream()
 						.filter(d -> d.getUsage().isGraphical() == localGui).findAny().orElse(null);
@@ -115,51 +207,77 @@ import org.jetbrains.annotations.Nullable;
 			LovelaceLogger.trace("No matching driver found");
 			currentDriver = null;
 		}
-		if (currentOptions.hasOption("--help")) {
-			if (currentDriver == null) {
-				LovelaceLogger.trace("No driver selected, so giving choices.");
-				System.out.println("Strategic Primer assistive programs suite");
-				System.out.println("No app specified; use one of the following invocations:");
-				System.out.println();
-				for (final DriverFactory driver : driverCache.values().stream()
-						.flatMap(l -> StreamSupport.stream(l.spliterator(), false)).collect(Collectors.toSet())) {
-					// TODO: in Java 11+ use String.lines()
-					final String[] lines = AppChooserState.usageMessage(driver.getUsage(), "true".equals(
-							options.getArgument("--verbose"))).split(System.lineSeparator());
-					final String invocationExample = lines[0].replace("Usage: ", "");
-					final String description = lines.length > 1 ? lines[1].replace(".", "") : "An unknown app";
-					System.out.printf("%s: %s%n", description, invocationExample);
+		final @Nullable PerformanceRecorder recorder;
+		if (currentOptions.hasOption("--jfr") && !currentOptions.hasOption("--help")) {
+			final String recording = currentOptions.getArgument("--jfr");
+			recorder = startRecording("true".equals(recording) ? DEFAULT_RECORDING : recording);
+		} else {
+			recorder = null;
+		}
+		// A GUI driver runs on the event thread after we return, and ends
+		// when the program exits; its recording is then written by Flight
+		// Recorder itself, and summarized by a shutdown hook.
+		final boolean startsGui = !currentOptions.hasOption("--help") &&
+				(currentDriver == null ? gui : currentDriver.getUsage().isGraphical());
+		try {
+			if (currentOptions.hasOption("--help")) {
+				if (currentDriver == null) {
+					LovelaceLogger.trace("No driver selected, so giving choices.");
+					System.out.println("Strategic Primer assistive programs suite");
+					System.out.println("No app specified; use one of the following invocations:");
+					System.out.println();
+					for (final DriverFactory driver : getDriverCache().values().stream()
+							.flatMap(l -> StreamSupport.stream(l.spliterator(), false)).collect(Collectors.toSet())) {
+						// TODO: in Java 11+ use String.lines()
+						final String[] lines = AppChooserState.usageMessage(driver.getUsage(), "true".equals(
+								options.getArgument("--verbose"))).split(System.lineSeparator());
+						final String invocationExample = lines[0].replace("Usage: ", "");
+						final String description = lines.length > 1 ? lines[1].replace(".", "") : "An unknown app";
+						System.out.printf("%s: %s%n", description, invocationExample);
+					}
+				} else {
+					final IDriverUsage currentUsage = currentDriver.getUsage();
+					LovelaceLogger.trace("Giving usage information for selected driver");
+					// TODO: Can we and should we move the usageMessage() method into this class?
+					System.out.println(AppChooserState.usageMessage(currentUsage,
+							"true".equals(options.getArgument("--verbose"))));
 				}
+			} else if (currentDriver != null) {
+				LovelaceLogger.trace("Starting chosen app.");
+				startChosenDriver.accept(currentDriver, currentOptions.copy());
 			} else {
-				final IDriverUsage currentUsage = currentDriver.getUsage();
-				LovelaceLogger.trace("Giving usage information for selected driver");
-				// TODO: Can we and should we move the usageMessage() method into this class?
-				System.out.println(AppChooserState.usageMessage(currentUsage,
-						"true".equals(options.getArgument("--verbose"))));
-			}
-		} else if (currentDriver != null) {
-			LovelaceLogger.trace("Starting chosen app.");
-			startChosenDriver.accept(currentDriver, currentOptions.copy());
-		} else {
-			LovelaceLogger.trace("Starting app-chooser.");
-			final SPOptions currentOptionsTyped = currentOptions.copy();
-			if (gui) {
+				LovelaceLogger.trace("Starting app-chooser.");
+				final SPOptions currentOptionsTyped = currentOptions.copy();
+				if (gui) {
+					Main.setLookAndFeel();
 //				try {
-				SwingUtilities.invokeLater(
-						() -> new AppChooserGUI(cli, currentOptionsTyped)
-								.startDriver(others.toArray(String[]::new)));
+					SwingUtilities.invokeLater(
+							() -> new AppChooserGUI(cli, currentOptionsTyped)
+									.startDriver(others.toArray(String[]::new)));
 //				} catch (DriverFailedException except) {
 //					LovelaceLogger.error(except, except.getMessage());
 //					SwingUtilities.invokeLater(() -> showErrorDialog(null,
 //						"Strategic Primer Assistive Programs", except.getMessage()));
 //				}
-			} else {
-				final DriverFactory chosenDriver = cli.chooseFromList(driverCache.values().stream()
-						.flatMap(i -> StreamSupport.stream(i.spliterator(), false))
-						.filter(AppStarter::includeInCLIList).collect(Collectors.toList()), "CLI apps available:", "No applications available", "App to start: ", ICLIHelper.ListChoiceBehavior.AUTO_CHOOSE_ONLY).getValue1();
-				if (chosenDriver != null) {
-					new DriverWrapper(chosenDriver).startCatchingErrors(cli, options,
-							others.toArray(String[]::new));
+				} else {
+					final DriverFactory chosenDriver = cli.chooseFromList(getDriverCache().values().stream()
+							.flatMap(i -> StreamSupport.stream(i.spliterator(), false))
+							.filter(AppStarter::includeInCLIList).collect(Collectors.toList()), "CLI apps available:", "No applications available", "App to start: ", ICLIHelper.ListChoiceBehavior.AUTO_CHOOSE_ONLY).getValue1();
+					if (chosenDriver != null) {
+						new DriverWrapper(chosenDriver).startCatchingErrors(cli, options,
+								others.toArray(String[]::new));
+					}
+				}
+			}
+		} finally {
+			if (recorder != null) {
+				if (startsGui) {
+					LovelaceLogger.info("Performance events will be written to %s when the program exits",
+						recorder.getDestination());
+					Runtime.getRuntime().addShutdownHook(new Thread(() -> stopRecording(recorder, true),
+						"Performance recording summary"));
+				} else {
+					stopRecording(recorder, false);
 				}
 			}
 		}
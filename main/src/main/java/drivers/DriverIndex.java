@@ -0,0 +1,138 @@
+package drivers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import drivers.common.DriverFactory;
+
+import lovelace.util.LovelaceLogger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of the drivers in this assembly, by invocation, so that the
+ * launcher can pick the one the user asked for without instantiating (or
+ * even initializing the classes of) every other {@link DriverFactory}.
+ *
+ * The index is a resource with one line per driver: its invocation,
+ * "gui" or "cli", and the name of its factory class, separated by tabs. It
+ * lists the drivers {@link AppChooserState#createCache} registers, and is
+ * regenerated by running {@link #main} with the path to write to; a test
+ * checks that it is up to date.
+ */
+/* package */ final class DriverIndex {
+	private DriverIndex() {
+	}
+
+	/**
+	 * The name of the index resource.
+	 */
+	/* package */ static final String RESOURCE = "/drivers/driver-index.tsv";
+
+	/**
+	 * A driver in the index.
+	 *
+	 * @param invocation The subcommand that selects the driver
+	 * @param graphical Whether the driver is graphical
+	 * @param factoryClass The fully qualified name of the driver's factory
+	 */
+	/* package */ record Entry(String invocation, boolean graphical, String factoryClass) {
+		/* package */ static Entry of(final DriverFactory factory) {
+			return new Entry(factory.getUsage().getInvocation(), factory.getUsage().isGraphical(),
+				factory.getClass().getName());
+		}
+
+		/* package */ String toLine() {
+			return String.join("\t", invocation, graphical ? "gui" : "cli", factoryClass);
+		}
+
+		/* package */ static @Nullable Entry parse(final String line) {
+			final String[] fields = line.split("\t");
+			if (fields.length != 3 || !("gui".equals(fields[1]) || "cli".equals(fields[1]))) {
+				LovelaceLogger.warning("Malformed line in driver index: %s", line);
+				return null;
+			}
+			return new Entry(fields[0], "gui".equals(fields[1]), fields[2]);
+		}
+	}
+
+	/**
+	 * The entries for the drivers in the given cache, sorted by
+	 * invocation, CLI before GUI, and then by factory class.
+	 */
+	/* package */ static List<Entry> entries(final Map<String, ? extends Iterable<DriverFactory>> cache) {
+		return cache.values().stream().flatMap(l -> StreamSupport.stream(l.spliterator(), false))
+			.map(Entry::of).sorted(Comparator.comparing(Entry::invocation)
+				.thenComparing(Entry::graphical).thenComparing(Entry::factoryClass))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Read the index, grouping entries by invocation. If there is no index
+	 * (as when running from classes that were never packaged with one),
+	 * this is empty, and callers should fall back to loading every driver.
+	 */
+	/* package */ static Map<String, List<Entry>> load() {
+		try (final @Nullable InputStream stream = DriverIndex.class.getResourceAsStream(RESOURCE)) {
+			if (stream == null) {
+				LovelaceLogger.debug("No driver index found");
+				return Collections.emptyMap();
+			}
+			try (final BufferedReader reader = new BufferedReader(
+					new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+				return reader.lines().filter(line -> !line.isBlank()).map(Entry::parse)
+					.filter(Objects::nonNull).collect(Collectors.groupingBy(Entry::invocation));
+			}
+		} catch (final IOException except) {
+			LovelaceLogger.warning(except, "I/O error reading driver index");
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * Instantiate the factory an entry names, and no other. Returns null if
+	 * it is not a registered service provider (e.g. if the index is out of
+	 * date).
+	 */
+	/* package */ static @Nullable DriverFactory instantiate(final Entry entry) {
+		return ServiceLoader.load(DriverFactory.class).stream()
+			.filter(p -> p.type().getName().equals(entry.factoryClass()))
+			.map(ServiceLoader.Provider::get).findFirst().orElse(null);
+	}
+
+	/**
+	 * Write the index for the drivers registered in this assembly to the given writer.
+	 */
+	/* package */ static void write(final Writer writer) throws IOException {
+		for (final Entry entry : entries(AppChooserState.createCache())) {
+			writer.write(entry.toLine());
+			writer.write('\n');
+		}
+	}
+
+	/**
+	 * Regenerate the index, writing it to the path given as the sole argument.
+	 */
+	public static void main(final String... args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: java drivers.DriverIndex path/to/driver-index.tsv");
+			System.exit(1);
+		}
+		try (final Writer writer = Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+			write(writer);
+		}
+	}
+}
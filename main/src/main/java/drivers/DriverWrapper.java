@@ -1,5 +1,6 @@
 package drivers;
 
+import common.perf.SPEvent;
 import common.xmlio.SPFormatException;
 import common.xmlio.Warning;
 import drivers.common.CLIDriver;
@@ -101,6 +102,7 @@ import lovelace.util.LovelaceLogger;
 	}
 
 	public void startCatchingErrors(final ICLIHelper cli, final SPOptions options, final String... args) {
+		SPEvent.setCurrentDriver(factory.getUsage().getInvocation());
 		try {
 			if (factory instanceof UtilityDriverFactory udf) {
 				checkArguments(args);
@@ -11,16 +11,20 @@ import org.jetbrains.annotations.Nullable;
 
 import drivers.gui.common.SPMenu;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 import java.io.FileNotFoundException;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 import impl.xmlio.MapIOHelper;
 import drivers.map_viewer.ViewerModel;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import drivers.gui.common.ISPWindow;
+import drivers.gui.common.ProgressDialog;
 import drivers.gui.common.SPFileChooser;
 import common.xmlio.Warning;
 import common.xmlio.SPFormatException;
@@ -41,6 +45,7 @@ import java.awt.Component;
 import java.awt.Frame;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import lovelace.util.ShowErrorDialog;
 import lovelace.util.ComponentParentStream;
 
@@ -83,6 +88,10 @@ public class IOHandler implements ActionListener {
 			} else if (answer == JOptionPane.YES_OPTION) {
 				LovelaceLogger.trace("User selected 'Yes'; invoking 'Save' menu ...");
 				actionPerformed(new ActionEvent(source, ActionEvent.ACTION_FIRST, "save"));
+				if (md.getModel().isMapModified()) {
+					LovelaceLogger.trace("Saving main map was cancelled or failed");
+					return;
+				}
 				LovelaceLogger.trace("Finished saving main map");
 			} else {
 				LovelaceLogger.trace("User said not to save main map");
@@ -105,6 +114,10 @@ public class IOHandler implements ActionListener {
 				LovelaceLogger.trace("User selected 'Yes'; invoking 'Save All' menu ...");
 				actionPerformed(new ActionEvent(source, ActionEvent.ACTION_FIRST,
 					"save all"));
+				if (mmgd.getModel().streamSubordinateMaps().anyMatch(IMapNG::isModified)) {
+					LovelaceLogger.trace("Saving subordinate maps was cancelled or failed");
+					return;
+				}
 				LovelaceLogger.trace("Finished saving");
 			} else {
 				LovelaceLogger.trace("User said not to save subordinate maps");
@@ -134,15 +147,155 @@ public class IOHandler implements ActionListener {
 		ShowErrorDialog.showErrorDialog(source, errorTitle, message);
 	}
 
-	private static Consumer<Path> loadHandlerImpl(final Consumer<IMutableMapNG> handler, final @Nullable Component source,
-	                                              final String errorTitle) {
-		return path -> {
-			try {
-				handler.accept(MapIOHelper.readMap(path, Warning.getDefaultHandler()));
-			} catch (final IOException|SPFormatException| XMLStreamException except) {
-				handleError(except, path.toString(), source, errorTitle, "reading");
+	/**
+	 * Describe a count of bytes (or characters) for a progress bar.
+	 */
+	private static String describeSize(final long count) {
+		if (count >= 1024L * 1024L) {
+			return String.format("%.1f MB", count / (1024.0 * 1024.0));
+		} else {
+			return String.format("%.1f KB", count / 1024.0);
+		}
+	}
+
+	/**
+	 * Read a map on a background thread, showing progress in a modal
+	 * dialog that allows the user to cancel, and pass it to the given
+	 * handler on the EDT. If the user cancels, the handler is not called.
+	 */
+	private static void loadInBackground(final Path path, final Consumer<IMutableMapNG> handler,
+	                                     final @Nullable Component source, final String errorTitle) {
+		final Frame parentWindow = parentFrame(source);
+		final ProgressDialog dialog = new ProgressDialog(parentWindow, errorTitle,
+			"Reading " + path.getFileName());
+		final boolean database = path.toString().endsWith(".db");
+		long size;
+		try {
+			size = database ? -1L : Files.size(path);
+		} catch (final IOException except) {
+			size = -1L;
+		}
+		final long total = size;
+		final SwingWorker<IMutableMapNG, Long> worker = new SwingWorker<>() {
+			@Override
+			protected IMutableMapNG doInBackground() throws Exception {
+				return MapIOHelper.readMap(path, Warning.getDefaultHandler(), count -> {
+						if (dialog.isCancelled()) {
+							throw new CancellationException("Reading cancelled by user");
+						}
+						publish(count);
+					});
+			}
+
+			@Override
+			protected void process(final List<Long> chunks) {
+				final long count = chunks.get(chunks.size() - 1);
+				dialog.setProgress(count, total,
+					database ? String.format("%d rows", count) : describeSize(count));
+			}
+
+			@Override
+			protected void done() {
+				dialog.finish();
+				if (isCancelled() || dialog.isCancelled()) {
+					LovelaceLogger.info("User cancelled reading %s", path);
+					return;
+				}
+				try {
+					handler.accept(get());
+				} catch (final InterruptedException except) {
+					LovelaceLogger.warning(except, "Interrupted while reading %s", path);
+				} catch (final ExecutionException except) {
+					final Throwable cause = Objects.requireNonNullElse(except.getCause(), except);
+					if (cause instanceof CancellationException) {
+						LovelaceLogger.info("User cancelled reading %s", path);
+					} else if (cause instanceof Exception ex) {
+						handleError(ex, path.toString(), source, errorTitle, "reading");
+					} else {
+						throw new IllegalStateException(cause);
+					}
+				}
+			}
+		};
+		worker.execute();
+		dialog.showWindow();
+	}
+
+	/**
+	 * Write a map on a background thread, showing progress in a modal
+	 * dialog that allows the user to cancel, and run the given action on
+	 * the EDT if it was written successfully. If the user cancels before
+	 * the file is replaced, the file on disk is left as it was; a request
+	 * that comes too late is ignored, and the action runs as usual. Because
+	 * the dialog is modal, this does not return until writing has finished
+	 * or been cancelled.
+	 */
+	private static void saveInBackground(final Path path, final IMapNG map, final Runnable onSuccess,
+	                                     final @Nullable Component source, final String errorTitle) {
+		final ProgressDialog dialog = new ProgressDialog(parentFrame(source), errorTitle,
+			"Writing " + path.getFileName());
+		final SwingWorker<Void, Long> worker = new SwingWorker<>() {
+			@Override
+			protected Void doInBackground() throws Exception {
+				MapIOHelper.writeMap(path, map, count -> {
+						if (dialog.isCancelled()) {
+							throw new CancellationException("Writing cancelled by user");
+						}
+						publish(count);
+					});
+				return null;
+			}
+
+			@Override
+			protected void process(final List<Long> chunks) {
+				final long count = chunks.get(chunks.size() - 1);
+				dialog.setProgress(count, -1L, describeSize(count));
+			}
+
+			// Whether the file was replaced depends only on how the
+			// write ended, not on whether the user asked to cancel: a
+			// request that came too late to stop it is not honored.
+			@Override
+			protected void done() {
+				dialog.finish();
+				if (isCancelled()) {
+					LovelaceLogger.info("Writing %s was cancelled", path);
+					return;
+				}
+				try {
+					get();
+					onSuccess.run();
+				} catch (final InterruptedException except) {
+					LovelaceLogger.warning(except, "Interrupted while writing %s", path);
+				} catch (final ExecutionException except) {
+					final Throwable cause = Objects.requireNonNullElse(except.getCause(), except);
+					if (cause instanceof CancellationException) {
+						LovelaceLogger.info("User cancelled writing %s", path);
+					} else if (cause instanceof Exception ex) {
+						handleError(ex, path.toString(), source, errorTitle, "writing to");
+					} else {
+						throw new IllegalStateException(cause);
+					}
+				}
 			}
 		};
+		worker.execute();
+		dialog.showWindow();
+	}
+
+	private static @Nullable Frame parentFrame(final @Nullable Component source) {
+		if (source == null) {
+			return null;
+		} else {
+			return new ComponentParentStream(source).stream()
+				.filter(Frame.class::isInstance).map(Frame.class::cast)
+				.findFirst().orElse(null);
+		}
+	}
+
+	private static Consumer<Path> loadHandlerImpl(final Consumer<IMutableMapNG> handler, final @Nullable Component source,
+	                                              final String errorTitle) {
+		return path -> loadInBackground(path, handler, source, errorTitle);
 	}
 
 	private void loadHandler(final @Nullable Component source, final String errorTitle) {
@@ -163,8 +316,7 @@ public class IOHandler implements ActionListener {
 	 */
 	private void startNewViewerWindow(final ModelDriver driver) {
 		final ViewerDriverFactory vdf =
-				StreamSupport.stream(ServiceLoader.load(ViewerDriverFactory.class).spliterator(), false)
-						.findAny().orElse(null);
+				ServiceLoader.load(ViewerDriverFactory.class).findFirst().orElse(null);
 		if (vdf == null) {
 			// FIXME: Show error dialog
 			LovelaceLogger.error("Map viewer was not included in this assembly, or service discovery failed");
@@ -184,8 +336,7 @@ public class IOHandler implements ActionListener {
 
 	private void openSecondaryInViewer(final IDriverModel model, final SPOptions options) {
 		final ViewerDriverFactory vdf =
-				StreamSupport.stream(ServiceLoader.load(ViewerDriverFactory.class).spliterator(), false)
-						.findAny().orElse(null);
+				ServiceLoader.load(ViewerDriverFactory.class).findFirst().orElse(null);
 		if (vdf == null) {
 			// FIXME: Show error dialog
 			LovelaceLogger.error("Map viewer was not included in this assembly, or service discovery failed");
@@ -237,13 +388,8 @@ public class IOHandler implements ActionListener {
 					actionPerformed(new ActionEvent(event.getSource(), event.getID(),
 							"save as", event.getWhen(), event.getModifiers()));
 				} else {
-					try {
-						MapIOHelper.writeMap(givenFile, md.getModel().getMap());
-						md.getModel().setMapModified(false);
-					} catch (final IOException | XMLStreamException except) {
-						handleError(except, givenFile.toString(), source, errorTitle,
-								"writing to");
-					}
+					saveInBackground(givenFile, md.getModel().getMap(),
+						() -> md.getModel().setMapModified(false), source, errorTitle);
 				}
 			} else {
 				LovelaceLogger.error("IOHandler asked to save in driver it can't do that for");
@@ -252,16 +398,11 @@ public class IOHandler implements ActionListener {
 
 		case "save as":
 			if (driver instanceof final ModelDriver md) {
-				SPFileChooser.save((Path) null).call(path -> {
-					try {
-							MapIOHelper.writeMap(path, md.getModel().getMap());
+				SPFileChooser.save((Path) null).call(path ->
+					saveInBackground(path, md.getModel().getMap(), () -> {
 							md.getModel().setMapFilename(path);
 							md.getModel().setMapModified(false);
-						} catch (final IOException|XMLStreamException except) {
-							handleError(except, path.toString(), source,
-								errorTitle, "writing to");
-						}
-					});
+						}, source, errorTitle));
 			} else {
 				LovelaceLogger.error("IOHandler asked to save-as in driver it can't do that for");
 			}
@@ -294,13 +435,8 @@ public class IOHandler implements ActionListener {
 					// FIXME: Doesn't MapIOHelper have a method for this?
 					final Path file = map.getFilename();
 					if (file != null) {
-						try {
-							MapIOHelper.writeMap(file, map);
-							mmgd.getModel().clearModifiedFlag(map);
-						} catch (final IOException|XMLStreamException except) {
-							handleError(except, file.toString(), source,
-								errorTitle, "writing to");
-						}
+						saveInBackground(file, map, () -> mmgd.getModel().clearModifiedFlag(map),
+							source, errorTitle);
 					}
 				}
 			} else if (driver instanceof ModelDriver) {
@@ -314,8 +450,7 @@ public class IOHandler implements ActionListener {
 		case "open in map viewer":
 			if (driver instanceof ModelDriver md) {
 				final ViewerDriverFactory vdf =
-						StreamSupport.stream(ServiceLoader.load(ViewerDriverFactory.class).spliterator(), false)
-								.findAny().orElse(null);
+						ServiceLoader.load(ViewerDriverFactory.class).findFirst().orElse(null);
 				if (vdf == null) {
 					ShowErrorDialog.showErrorDialog(null, "Strategic Primer Assistive Programs",
 							"Either the map viewer was not included in this edition of the assistive programs, or the logic to load it failed.");
@@ -5,12 +5,15 @@ import drivers.common.UtilityDriver;
 import drivers.common.SPOptions;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 
 import java.nio.file.NoSuchFileException;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -18,16 +21,14 @@ import java.util.HashMap;
 import drivers.common.cli.ICLIHelper;
 
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.xml.stream.XMLStreamException;
 import lovelace.util.LovelaceLogger;
-import lovelace.util.Range;
 import lovelace.util.ResourceInputStream;
 
 import javax.imageio.ImageIO;
 
-import lovelace.util.EnumCounter;
-
 import common.map.TileType;
 import common.map.Point;
 import common.map.IMutableMapNG;
@@ -45,7 +46,6 @@ import common.idreg.IDFactory;
 import common.map.fixtures.terrain.Forest;
 
 import exploration.common.SurroundingPointIterable;
-import org.javatuples.Pair;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -94,12 +94,178 @@ import org.jetbrains.annotations.Nullable;
 		return cli.chooseFromList((List<? extends HasName>) terrains, "Tile type represented by " + pixelString(color), "No tile types found to choose from", "Tile type:", ICLIHelper.ListChoiceBehavior.ALWAYS_PROMPT).getValue1();
 	}
 
-	private static Range customRange(final int base, final int span, final int max) {
-		if (base + span > max + 1) {
-			return new Range(base, max - 1);
+	/**
+	 * The (exclusive) end of the cell beginning at the given pixel
+	 * coordinate, given the cell size and the size of the image.
+	 */
+	private static int cellEnd(final int base, final int span, final int max) {
+		return Math.min(base + span, max);
+	}
+
+	/**
+	 * A small open-addressing table tallying the colors in one cell. The
+	 * dominant color is the most common one; ties go to the color seen
+	 * first when the cell is scanned by (map) row and then column.
+	 *
+	 * (Before the tally, the importer counted colors in a {@link
+	 * lovelace.util.EnumCounter}, so ties went to whichever color its
+	 * HashMap happened to iterate over first. Where there is no tie, the
+	 * result is the same.)
+	 */
+	private static final class ColorTally {
+		private int[] colors = new int[64];
+		private int[] counts = new int[64];
+		/**
+		 * For each color, the earliest position at which it appears in a
+		 * scan of the cell by (map) row and then column, which is the order
+		 * by which ties are broken.
+		 */
+		private int[] firstSeen = new int[64];
+		private int distinct = 0;
+
+		private static int slotFor(final int color, final int mask) {
+			final int hash = color * 0x9E3779B9;
+			return (hash ^ (hash >>> 16)) & mask;
+		}
+
+		public void clear() {
+			Arrays.fill(counts, 0);
+			distinct = 0;
+		}
+
+		private void grow() {
+			final int[] oldColors = colors;
+			final int[] oldCounts = counts;
+			final int[] oldFirstSeen = firstSeen;
+			colors = new int[oldColors.length * 2];
+			counts = new int[oldColors.length * 2];
+			firstSeen = new int[oldColors.length * 2];
+			final int mask = colors.length - 1;
+			for (int i = 0; i < oldColors.length; i++) {
+				if (oldCounts[i] != 0) {
+					int slot = slotFor(oldColors[i], mask);
+					while (counts[slot] != 0) {
+						slot = (slot + 1) & mask;
+					}
+					colors[slot] = oldColors[i];
+					counts[slot] = oldCounts[i];
+					firstSeen[slot] = oldFirstSeen[i];
+				}
+			}
+		}
+
+		public void add(final int color, final int position) {
+			if (2 * (distinct + 1) > colors.length) {
+				grow();
+			}
+			final int mask = colors.length - 1;
+			int slot = slotFor(color, mask);
+			while (counts[slot] != 0) {
+				if (colors[slot] == color) {
+					counts[slot]++;
+					firstSeen[slot] = Math.min(firstSeen[slot], position);
+					return;
+				}
+				slot = (slot + 1) & mask;
+			}
+			colors[slot] = color;
+			counts[slot] = 1;
+			firstSeen[slot] = position;
+			distinct++;
+		}
+
+		/**
+		 * The dominant color: the most common, or of those equally common
+		 * the one seen first.
+		 */
+		public int dominant() {
+			int best = -1;
+			for (int i = 0; i < colors.length; i++) {
+				if (counts[i] == 0) {
+					continue;
+				} else if (best < 0 || counts[i] > counts[best] ||
+						(counts[i] == counts[best] && firstSeen[i] < firstSeen[best])) {
+					best = i;
+				}
+			}
+			return colors[best];
+		}
+	}
+
+	/**
+	 * Read the pixels with X coordinates in the given range, as {@link
+	 * BufferedImage#getRGB(int, int)} would return them, into an array
+	 * indexed by Y coordinate and then offset from the start of the range.
+	 * For the common integer-packed image types, this copies from the
+	 * image's raster directly, rather than converting pixel by pixel.
+	 */
+	private static int[] readStrip(final BufferedImage image, final int minX, final int stripWidth) {
+		final int height = image.getHeight();
+		final int[] retval = new int[stripWidth * height];
+		final WritableRaster raster = image.getRaster();
+		final int type = image.getType();
+		if ((type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) &&
+				raster.getDataBuffer() instanceof DataBufferInt buffer && buffer.getNumBanks() == 1 &&
+				raster.getSampleModel() instanceof SinglePixelPackedSampleModel model &&
+				raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0) {
+			final int[] data = buffer.getData();
+			final int stride = model.getScanlineStride();
+			final int offset = buffer.getOffset() + minX;
+			if (type == BufferedImage.TYPE_INT_ARGB) {
+				for (int y = 0; y < height; y++) {
+					System.arraycopy(data, offset + y * stride, retval, y * stripWidth, stripWidth);
+				}
+			} else {
+				for (int y = 0; y < height; y++) {
+					final int base = offset + y * stride;
+					for (int x = 0; x < stripWidth; x++) {
+						retval[y * stripWidth + x] = 0xFF000000 | data[base + x];
+					}
+				}
+			}
 		} else {
-			return new Range(base, base + span - 1); // TODO: Implement Ceylon's ranges more fully so we can use a class where we would use the 'base:span' format in Ceylon
+			image.getRGB(minX, 0, stripWidth, height, retval, 0, stripWidth);
+		}
+		return retval;
+	}
+
+	/**
+	 * Find the dominant color in each cell of a square image divided into
+	 * cells of the given size, indexed by map row and then map column.
+	 * Rows are handled in parallel.
+	 */
+	/* package */ static int[][] dominantColors(final BufferedImage image, final int size) {
+		final int mapRows = (image.getWidth() + size - 1) / size;
+		final int[][] retval = new int[mapRows][];
+		IntStream.range(0, mapRows).parallel()
+			.forEach(mapRow -> retval[mapRow] = dominantColors(image, mapRow * size, size));
+		return retval;
+	}
+
+	/**
+	 * Find the dominant color in each cell of one row of the output map.
+	 * Like the importer always has, this treats the map's rows as the
+	 * image's X coordinates and its columns as the image's Y coordinates.
+	 */
+	private static int[] dominantColors(final BufferedImage image, final int baseRow, final int size) {
+		final int side = image.getWidth();
+		final int stripWidth = cellEnd(baseRow, size, side) - baseRow;
+		final int[] strip = readStrip(image, baseRow, stripWidth);
+		final int[] retval = new int[(side + size - 1) / size];
+		final ColorTally tally = new ColorTally();
+		for (int cell = 0; cell < retval.length; cell++) {
+			final int baseColumn = cell * size;
+			final int endColumn = cellEnd(baseColumn, size, side);
+			final int cellHeight = endColumn - baseColumn;
+			tally.clear();
+			for (int y = baseColumn; y < endColumn; y++) {
+				for (int x = 0; x < stripWidth; x++) {
+					tally.add(strip[y * stripWidth + x], x * cellHeight + (y - baseColumn));
+				}
+			}
+			retval[cell] = tally.dominant();
 		}
+		return retval;
 	}
 
 	private final IDRegistrar idf = new IDFactory();
@@ -139,47 +305,36 @@ import org.jetbrains.annotations.Nullable;
 			final int width = image.getWidth();
 			final int height = image.getHeight();
 			LovelaceLogger.debug("Image is %dx%d", width, height);
-			int baseRow = 0;
+			// The importer has always used the map's rows as the image's X
+			// coordinates, and so only ever worked on square images.
+			if (width != height) {
+				throw new DriverFailedException(new IllegalArgumentException("Image must be square"),
+					"Image must be square");
+			}
+			final int[][] dominant = dominantColors(image, size);
 			final Map<Integer, /*TileType|ImportableTerrain*/HasName> mapping =
 					new HashMap<>();
-			int mapRow = 0;
 			final Map<Point, /*TileType|ImportableTerrain*/HasName> retval =
 					new HashMap<>();
-			while (baseRow < height) {
-				int baseColumn = 0;
-				int mapColumn = 0;
-				while (baseColumn < width) {
-					final EnumCounter<Integer> counter = new EnumCounter<>();
-					for (final int row : customRange(baseRow, size, height)) {
-						for (final int column : customRange(baseColumn, size, width)) {
-							counter.countMany(image.getRGB(row, column));
-						}
-					}
-
-					final Pair<Integer, Integer> dominant = counter.streamAllCounts()
-									.max(Comparator.comparing(Pair::getValue1)).orElse(null);
-					if (dominant != null) {
-						if (mapping.containsKey(dominant.getValue0())) {
-							final HasName type = mapping.get(dominant.getValue0());
-							LovelaceLogger.debug("Type for (%d, %d) deduced to be %s",
-									mapRow, mapColumn, type);
+			for (int mapRow = 0; mapRow < dominant.length; mapRow++) {
+				for (int mapColumn = 0; mapColumn < dominant[mapRow].length; mapColumn++) {
+					final int color = dominant[mapRow][mapColumn];
+					if (mapping.containsKey(color)) {
+						final HasName type = mapping.get(color);
+						LovelaceLogger.debug("Type for (%d, %d) deduced to be %s",
+								mapRow, mapColumn, type);
+						retval.put(new Point(mapRow, mapColumn), type);
+					} else {
+						cli.print("In (", Integer.toString(mapRow),
+							", ", Integer.toString(mapColumn),
+							"): ");
+						final HasName type = askFor(color);
+						if (type != null) {
+							mapping.put(color, type);
 							retval.put(new Point(mapRow, mapColumn), type);
-						} else {
-							cli.print("In (", Integer.toString(mapRow),
-								", ", Integer.toString(mapColumn),
-								"): ");
-							final HasName type = askFor(dominant.getValue0());
-							if (type != null) {
-								mapping.put(dominant.getValue0(), type);
-								retval.put(new Point(mapRow, mapColumn), type);
-							}
 						}
 					}
-					baseColumn += size;
-					mapColumn++;
 				}
-				baseRow += size;
-				mapRow++;
 			}
 			final IMutableMapNG finalRetval = new SPMapNG(new MapDimensionsImpl(
 					retval.keySet().stream().mapToInt(Point::row).max().orElse(0) + 1,
@@ -208,6 +363,7 @@ import org.jetbrains.annotations.Nullable;
 						}
 						final String inputTForest = cli.inputString("Kind of tree for a temperate forest: ");
 						if (inputTForest == null) {
+							writeMap(arg, finalRetval);
 							return;
 						} else {
 							finalRetval.addFixture(point, new Forest(inputTForest, false,
@@ -224,6 +380,7 @@ import org.jetbrains.annotations.Nullable;
 						}
 						final String inputBForest = cli.inputString("Kind of tree for a boreal forest: ");
 						if (inputBForest == null) {
+							writeMap(arg, finalRetval);
 							return;
 						} else {
 							finalRetval.addFixture(point, new Forest(inputBForest, false, idf.createID()));
@@ -232,14 +389,18 @@ import org.jetbrains.annotations.Nullable;
 					default -> throw new IllegalStateException("Exhaustive switch wasn't");
 					}
 				}
-				try {
-					MapIOHelper.writeMap(Paths.get(arg + ".xml"), finalRetval);
-				} catch (final IOException except) {
-					throw new DriverFailedException(except, "I/O error while writing map");
-				} catch (final XMLStreamException except) {
-					throw new DriverFailedException(except, "Map writer produced invalid XML");
-				}
 			}
+			writeMap(arg, finalRetval);
+		}
+	}
+
+	private static void writeMap(final String arg, final IMapNG map) throws DriverFailedException {
+		try {
+			MapIOHelper.writeMap(Paths.get(arg + ".xml"), map);
+		} catch (final IOException except) {
+			throw new DriverFailedException(except, "I/O error while writing map");
+		} catch (final XMLStreamException except) {
+			throw new DriverFailedException(except, "Map writer produced invalid XML");
 		}
 	}
 }
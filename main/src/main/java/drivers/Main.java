@@ -22,9 +22,12 @@ import com.apple.eawt.Application;
 public final class Main {
 	private Main() {}
 
-	public static void main(final String... args) {
-		System.setProperty("com.apple.mrj.application.apple.menu.about.name", "SP Helpers");
-		System.setProperty("apple.awt.application.name", "SP Helpers");
+	/**
+	 * Set the system look-and-feel. This loads much of Swing, so we only
+	 * do it once we know we are starting a GUI, before creating any
+	 * windows; CLI apps start faster without it.
+	 */
+	/* package */ static void setLookAndFeel() {
 		try {
 			UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
 		} catch (final ClassNotFoundException|InstantiationException|IllegalAccessException|
@@ -32,6 +35,11 @@ public final class Main {
 			System.err.println("ERROR: Unexpected low-level exception while setting the Java look-and-feel.");
 			System.err.println("ERROR: Most likely something is very seriously broken in your Java installation.");
 		}
+	}
+
+	public static void main(final String... args) {
+		System.setProperty("com.apple.mrj.application.apple.menu.about.name", "SP Helpers");
+		System.setProperty("apple.awt.application.name", "SP Helpers");
 		System.setProperty("apple.laf.useScreenMenuBar", "true");
 		// TODO: While we're at it, also set up something to save *all* (our) log messages to a file as well.
 		if (Arrays.asList(args).contains("--trace")) {
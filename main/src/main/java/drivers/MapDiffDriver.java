@@ -0,0 +1,105 @@
+package drivers;
+
+import changesets.MapDiff;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.xmlio.SPFormatException;
+import common.xmlio.Warning;
+
+import drivers.common.DriverFailedException;
+import drivers.common.IncorrectUsageException;
+import drivers.common.SPOptions;
+import drivers.common.UtilityDriver;
+
+import drivers.common.cli.ICLIHelper;
+
+import impl.xmlio.MapIOHelper;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * A driver that writes the {@link MapDiff patch} from an older version of a
+ * map to a newer one, or (with --apply) replays such a patch onto the older
+ * version and writes the result as the newer. The patch file defaults to the
+ * newer map's filename with ".patch" appended. A truncated patch, or one that
+ * does not reproduce the map it was made from, is refused, and nothing is
+ * written.
+ */
+/* package */ class MapDiffDriver implements UtilityDriver {
+	public MapDiffDriver(final ICLIHelper cli, final SPOptions options) {
+		this.cli = cli;
+		this.options = options;
+	}
+
+	private final ICLIHelper cli;
+	private final SPOptions options;
+
+	@Override
+	public SPOptions getOptions() {
+		return options;
+	}
+
+	private static IMutableMapNG readMap(final Path path) throws DriverFailedException {
+		try {
+			return MapIOHelper.readMap(path, Warning.getDefaultHandler());
+		} catch (final NoSuchFileException except) {
+			throw new DriverFailedException(except, "No such file " + path);
+		} catch (final IOException except) {
+			throw new DriverFailedException(except, "I/O error reading file " + path);
+		} catch (final XMLStreamException except) {
+			throw new DriverFailedException(except, "Malformed XML in " + path);
+		} catch (final SPFormatException except) {
+			throw new DriverFailedException(except, "SP map format error in " + path);
+		}
+	}
+
+	@Override
+	public void startDriver(final String... args) throws DriverFailedException {
+		if (args.length != 2) {
+			throw new IncorrectUsageException(MapDiffFactory.USAGE);
+		}
+		final Path older = Paths.get(args[0]);
+		final Path newer = Paths.get(args[1]);
+		final Path patch;
+		if (options.hasOption("--patch")) {
+			patch = Paths.get(options.getArgument("--patch"));
+		} else {
+			patch = Paths.get(args[1] + ".patch");
+		}
+		final IMutableMapNG map = readMap(older);
+		if (options.hasOption("--apply")) {
+			try {
+				final int count = MapDiff.applyPatch(patch, map);
+				MapIOHelper.writeMap(newer, map);
+				cli.println("Applied " + count + " changes from " + patch);
+			} catch (final IllegalArgumentException except) {
+				throw new DriverFailedException(except, except.getMessage());
+			} catch (final NoSuchFileException except) {
+				throw new DriverFailedException(except, "No such file " + patch);
+			} catch (final IOException except) {
+				throw new DriverFailedException(except, "I/O error applying patch " + patch);
+			} catch (final XMLStreamException except) {
+				throw new DriverFailedException(except, "Malformed XML in patch " + patch);
+			} catch (final SPFormatException except) {
+				throw new DriverFailedException(except, "SP format error in patch " + patch);
+			}
+		} else {
+			final IMapNG newMap = readMap(newer);
+			try {
+				final int count = MapDiff.writePatch(map, newMap, patch);
+				cli.println("Wrote " + count + " changes to " + patch);
+			} catch (final IllegalArgumentException except) {
+				throw new DriverFailedException(except, except.getMessage());
+			} catch (final IOException except) {
+				throw new DriverFailedException(except, "I/O error writing patch " + patch);
+			} catch (final XMLStreamException except) {
+				throw new DriverFailedException(except, "Error serializing fixtures for patch");
+			}
+		}
+	}
+}
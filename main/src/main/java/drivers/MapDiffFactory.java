@@ -0,0 +1,36 @@
+package drivers;
+
+import drivers.common.DriverFactory;
+import drivers.common.IDriverUsage;
+import drivers.common.UtilityDriver;
+import drivers.common.SPOptions;
+import drivers.common.UtilityDriverFactory;
+import drivers.common.DriverUsage;
+import drivers.common.ParamCount;
+
+import drivers.common.cli.ICLIHelper;
+
+import com.google.auto.service.AutoService;
+
+/**
+ * A factory for a driver to write the patch between two versions of a map,
+ * or to apply such a patch.
+ */
+@AutoService(DriverFactory.class)
+public class MapDiffFactory implements UtilityDriverFactory {
+	/* package */ static final DriverUsage USAGE = new DriverUsage(false, "diff-maps", ParamCount.Two,
+		"Write or apply the patch between two maps",
+		"Write the changes from an older to a newer version of a map to a patch file, or (with --apply) " +
+			"apply such a patch to the older map to produce the newer.",
+		true, false, "older.xml", "newer.xml", "--patch=changes.patch", "--apply");
+
+	@Override
+	public IDriverUsage getUsage() {
+		return USAGE;
+	}
+
+	@Override
+	public UtilityDriver createDriver(final ICLIHelper cli, final SPOptions options) {
+		return new MapDiffDriver(cli, options);
+	}
+}
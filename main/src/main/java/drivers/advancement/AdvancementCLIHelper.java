@@ -88,6 +88,7 @@ public class AdvancementCLIHelper implements LevelGainSource {
 			}
 			final int oldLevel = skill.getLevel();
 			final int hours = Optional.ofNullable(cli.inputNumber("Hours of experience to add: ")).orElse(0);
+			final List<IAdvancementModel.SkillHours> updates = new ArrayList<>();
 			if (allowExpertMentoring) {
 				final int hoursPerHour = Optional.ofNullable(cli.inputNumber("'Hours' between hourly checks: "))
 					.orElse(0);
@@ -98,17 +99,18 @@ public class AdvancementCLIHelper implements LevelGainSource {
 					remaining = 0;
 				}
 				while (remaining > 0) {
-					model.addHoursToSkill(worker, job.getName(), skill.getName(),
+					updates.add(new IAdvancementModel.SkillHours(worker, job.getName(), skill.getName(),
 						Math.max(remaining, hoursPerHour),
-						SingletonRandom.SINGLETON_RANDOM.nextInt(100));
+						SingletonRandom.SINGLETON_RANDOM.nextInt(100)));
 					remaining -= hoursPerHour;
 				}
 			} else {
 				for (int hour = 0; hour < hours; hour++) {
-					model.addHoursToSkill(worker, job.getName(), skill.getName(), 1,
-						SingletonRandom.SINGLETON_RANDOM.nextInt(100));
+					updates.add(new IAdvancementModel.SkillHours(worker, job.getName(), skill.getName(), 1,
+						SingletonRandom.SINGLETON_RANDOM.nextInt(100)));
 				}
 			}
+			model.addHoursToSkills(updates);
 			if (skill.getLevel() != oldLevel) {
 				final String count = (skill.getLevel() - oldLevel == 1) ? "a level"
 					: (skill.getLevel() - oldLevel) + " levels";
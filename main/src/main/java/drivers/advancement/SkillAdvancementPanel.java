@@ -79,10 +79,12 @@ import drivers.common.IAdvancementModel;
 			// but workers learning or working under a more experienced mentor can get
 			// multiple "hours" per hour, and they should only check for a level with
 			// each *actual* hour.
+			final List<IAdvancementModel.SkillHours> updates = new ArrayList<>();
 			for (int hour = 0; hour < number; hour++) {
-				model.addHoursToSkill(worker, job.getName(), skill.getName(), 1,
-					SingletonRandom.SINGLETON_RANDOM.nextInt(100));
+				updates.add(new IAdvancementModel.SkillHours(worker, job.getName(), skill.getName(), 1,
+					SingletonRandom.SINGLETON_RANDOM.nextInt(100)));
 			}
+			model.addHoursToSkills(updates);
 			final int newLevel = skill.getLevel();
 			if (newLevel != level) {
 				for (final LevelGainListener listener : listeners) {
@@ -2,6 +2,9 @@ package drivers.map_viewer;
 
 import java.awt.event.ActionListener;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
 import common.map.fixtures.FixtureIterable;
 import java.util.stream.StreamSupport;
 import lovelace.util.LovelaceLogger;
@@ -26,6 +29,7 @@ import static lovelace.util.BoxPanel.BoxAxis;
 import lovelace.util.BorderedPanel;
 
 import common.map.IFixture;
+import common.map.MapDimensions;
 import common.map.HasName;
 import common.map.HasKind;
 import common.map.Player;
@@ -35,9 +39,13 @@ import common.map.PointIterable;
 import common.map.Point;
 import drivers.gui.common.SPDialog;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 /**
- * A dialog to let the user find fixtures by ID, name, or "kind".
+ * A dialog to let the user find fixtures by ID, name, or "kind". Names,
+ * kinds, and owners' names match if they contain the pattern anywhere.
+ * Candidate locations come from the model's {@link FixtureSearchIndex}, so
+ * each search doesn't have to examine every tile in the map.
  *
  * TODO: Add a "nearby" search (using {@link
  * exploration.common.SurroundingPointIterable} or a sort-by-distance
@@ -102,17 +110,21 @@ import java.util.function.Predicate;
 	private final JCheckBox caseSensitive = new JCheckBox("Case-sensitive search");
 	private final FixtureFilterList filterList = new FixtureFilterList();
 
-	// TODO: Extract a "case-insensitive search", since this currently
-	// fails if case-insensitive search is selected but the pattern
-	// contains an upper-case character. Though we lowercase the pattern
-	// before calling anything in {@link search}.
+	/**
+	 * Whether the given text contains the given pattern. The pattern is
+	 * expected to already be lower-cased if the search is not case-sensitive.
+	 */
+	/* package */ static boolean matchesText(final String pattern, final String text, final boolean caseSensitivity) {
+		final String haystack = (caseSensitivity) ? text : text.toLowerCase();
+		return haystack.contains(pattern);
+	}
+
 	/**
 	 * Whether the fixture has a name matching the given pattern.
 	 */
 	private static boolean matchesName(final String pattern, final IFixture fixture, final boolean caseSensitivity) {
 		if (fixture instanceof HasName named) {
-			final String name = (caseSensitivity) ? named.getName() : named.getName().toLowerCase();
-			return name.contains(pattern);
+			return matchesText(pattern, named.getName(), caseSensitivity);
 		} else {
 			return false;
 		}
@@ -123,8 +135,7 @@ import java.util.function.Predicate;
 	 */
 	private static boolean matchesKind(final String pattern, final IFixture fixture, final boolean caseSensitivity) {
 		if (fixture instanceof HasKind hk) {
-			final String kind = (caseSensitivity) ? hk.getKind() : hk.getKind().toLowerCase();
-			return kind.contains(pattern);
+			return matchesText(pattern, hk.getKind(), caseSensitivity);
 		} else {
 			return false;
 		}
@@ -137,10 +148,8 @@ import java.util.function.Predicate;
 	                                    final boolean caseSensitivity) {
 		if (fixture instanceof HasOwner owned) {
 			final Player owner = owned.owner();
-			final String ownerName = (caseSensitivity) ? owner.getName() :
-				owner.getName().toLowerCase();
-			if (idNum != null && (owner.getPlayerId() == idNum ||
-					ownerName.contains(pattern))) {
+			if ((idNum != null && owner.getPlayerId() == idNum) ||
+					matchesText(pattern, owner.getName(), caseSensitivity)) {
 				return true;
 			} else if ("me".equalsIgnoreCase(pattern) && owner.isCurrent()) {
 				return true;
@@ -199,6 +208,52 @@ import java.util.function.Predicate;
 		};
 	}
 
+	/**
+	 * The locations that might match the given pattern, according to the
+	 * search index, or null if the pattern contains no letters or digits and
+	 * so the index can't help.
+	 */
+	private @Nullable Set<Point> candidates(final String pattern, final @Nullable Integer idNum) {
+		if (FixtureSearchIndex.tokenize(pattern).isEmpty()) {
+			return null;
+		}
+		final FixtureSearchIndex index = model.getSearchIndex();
+		final Set<Point> retval = new HashSet<>(index.withWordsContaining(pattern));
+		if (idNum != null) {
+			retval.addAll(index.withId(idNum));
+			retval.addAll(index.ownedBy(idNum));
+		}
+		if ("me".equalsIgnoreCase(pattern)) {
+			retval.addAll(index.ownedBy(model.getMap().getPlayers().getCurrentPlayer().getPlayerId()));
+		} else if (Arrays.asList("none", "independent").contains(pattern.toLowerCase())) {
+			retval.addAll(index.independentlyOwned());
+		} else if ("bookmark".equalsIgnoreCase(pattern)) {
+			retval.addAll(model.getMap().getBookmarks());
+		}
+		return retval;
+	}
+
+	/**
+	 * How many steps a {@link PointIterable} with the given parameters,
+	 * starting from the given selection, would take before it reached the
+	 * given point; the selection itself comes last.
+	 */
+	/* package */ static ToIntFunction<Point> searchDistance(final MapDimensions dimensions, final Point selection,
+	                                                         final boolean forwards, final boolean horizontal) {
+		final int rows = dimensions.rows();
+		final int columns = dimensions.columns();
+		final int total = rows * columns;
+		final ToIntFunction<Point> linear = (horizontal) ? p -> p.row() * columns + p.column() :
+			p -> p.column() * rows + p.row();
+		final int start = linear.applyAsInt(new Point((selection.row() < 0) ? rows - 1 : selection.row(),
+			(selection.column() < 0) ? columns - 1 : selection.column()));
+		if (forwards) {
+			return p -> Math.floorMod(linear.applyAsInt(p) - start - 1, total);
+		} else {
+			return p -> Math.floorMod(start - linear.applyAsInt(p) - 1, total);
+		}
+	}
+
 	/**
 	 * Search for the current pattern. If the pattern is found (as the ID
 	 * of a fixture, or the name of a {@link HasName}, or the kind of a
@@ -222,10 +277,21 @@ import java.util.function.Predicate;
 		} catch (final NumberFormatException ignored) {
 			// ignore non-numeric patterns
 		}
-		final Point result = StreamSupport.stream(new PointIterable(model.getMapDimensions(),
-				!backwards.isSelected(), !vertically.isSelected(),
-				model.getSelection()).spliterator(), false)
-			.filter(matchesPoint(pattern, idNum, caseSensitivity)).findFirst().orElse(null);
+		final MapDimensions dimensions = model.getMapDimensions();
+		final Set<Point> candidates = candidates(pattern, idNum);
+		final Point result;
+		if (candidates == null) {
+			result = StreamSupport.stream(new PointIterable(dimensions,
+					!backwards.isSelected(), !vertically.isSelected(),
+					model.getSelection()).spliterator(), false)
+				.filter(matchesPoint(pattern, idNum, caseSensitivity)).findFirst().orElse(null);
+		} else {
+			result = candidates.stream()
+				.filter(p -> p.isValid() && p.row() < dimensions.rows() && p.column() < dimensions.columns())
+				.sorted(Comparator.comparingInt(searchDistance(dimensions, model.getSelection(),
+					!backwards.isSelected(), !vertically.isSelected())))
+				.filter(matchesPoint(pattern, idNum, caseSensitivity)).findFirst().orElse(null);
+		}
 		if (result != null) {
 			LovelaceLogger.debug("Found in point %s", result);
 			model.setSelection(result);
@@ -144,7 +144,7 @@ public class FixtureListModel implements ListModel<TileFixture>, SelectionChange
 		final TileType terrain = terrainSource.apply(newPoint);
 		if (terrain != null) {
 			cachedTerrainList = new ArrayList<>(Collections.singleton(
-					new TileTypeFixture(terrain)));
+					TileTypeFixture.of(terrain)));
 		}
 		LovelaceLogger.trace("FixtureListModel.selectedPointChanged: Accounted for base terrain");
 		final Collection<River> rivers = riversSource.apply(newPoint);
@@ -0,0 +1,252 @@
+package drivers.map_viewer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import common.map.HasKind;
+import common.map.HasName;
+import common.map.HasOwner;
+import common.map.IFixture;
+import common.map.IMapNG;
+import common.map.Player;
+import common.map.Point;
+import common.map.fixtures.FixtureIterable;
+
+/**
+ * An inverted index from the words in fixtures' names, kinds, and owners'
+ * names, and from fixture and owner IDs, to the locations of those fixtures,
+ * so the {@link FindDialog find dialog} doesn't have to examine every tile in
+ * the map on every search. Fixtures inside units and fortresses are indexed
+ * at the location of their container.
+ *
+ * Words are indexed in lower case. A pattern found anywhere in a fixture's
+ * name, kind, or owner's name has each of its own words inside one of that
+ * text's words, so looking up the locations with words containing each of
+ * the pattern's words (which scans only the distinct words, not the map)
+ * narrows a substring search without missing anything. Lookups thus return
+ * a superset of what a search would match, so callers should check each
+ * candidate.
+ *
+ * This is not thread-safe; it is meant to be used only on the event thread.
+ */
+public final class FixtureSearchIndex {
+	/**
+	 * The map being indexed.
+	 */
+	private final IMapNG map;
+
+	/**
+	 * Lower-cased words to the locations containing a fixture with that word
+	 * in its name or kind or its owner's name.
+	 */
+	private final Map<String, Set<Point>> words = new HashMap<>();
+
+	/**
+	 * Fixture IDs to their locations.
+	 */
+	private final Map<Integer, Set<Point>> ids = new HashMap<>();
+
+	/**
+	 * Player IDs to the locations of fixtures they own.
+	 */
+	private final Map<Integer, Set<Point>> owners = new HashMap<>();
+
+	/**
+	 * Locations containing a fixture owned by an independent player.
+	 */
+	private final Set<Point> independent = new HashSet<>();
+
+	/**
+	 * The words indexed for each location, so it can be reindexed.
+	 */
+	private final Map<Point, Set<String>> wordsAt = new HashMap<>();
+
+	/**
+	 * The fixture IDs indexed for each location, so it can be reindexed.
+	 */
+	private final Map<Point, Set<Integer>> idsAt = new HashMap<>();
+
+	/**
+	 * The owner IDs indexed for each location, so it can be reindexed.
+	 */
+	private final Map<Point, Set<Integer>> ownersAt = new HashMap<>();
+
+	public FixtureSearchIndex(final IMapNG map) {
+		this.map = map;
+		for (final Point location : map.getLocations()) {
+			index(location);
+		}
+	}
+
+	/**
+	 * Split the given text into lower-cased words, splitting on anything
+	 * that isn't a letter or a digit.
+	 */
+	public static List<String> tokenize(final String text) {
+		final List<String> retval = new ArrayList<>();
+		final String lower = text.toLowerCase();
+		int start = -1;
+		for (int i = 0; i < lower.length(); i++) {
+			if (Character.isLetterOrDigit(lower.charAt(i))) {
+				if (start < 0) {
+					start = i;
+				}
+			} else if (start >= 0) {
+				retval.add(lower.substring(start, i));
+				start = -1;
+			}
+		}
+		if (start >= 0) {
+			retval.add(lower.substring(start));
+		}
+		return retval;
+	}
+
+	private static <Key> void post(final Map<Key, Set<Point>> postings, final Key key, final Point location) {
+		postings.computeIfAbsent(key, k -> new HashSet<>()).add(location);
+	}
+
+	private static <Key> void unpost(final Map<Key, Set<Point>> postings, final Key key, final Point location) {
+		final Set<Point> points = postings.get(key);
+		if (points != null) {
+			points.remove(location);
+			if (points.isEmpty()) {
+				postings.remove(key);
+			}
+		}
+	}
+
+	private void collect(final IFixture fixture, final Set<String> foundWords, final Set<Integer> foundIds,
+	                     final Set<Integer> foundOwners, final Point location) {
+		foundIds.add(fixture.getId());
+		if (fixture instanceof HasName named) {
+			foundWords.addAll(tokenize(named.getName()));
+		}
+		if (fixture instanceof HasKind kinded) {
+			foundWords.addAll(tokenize(kinded.getKind()));
+		}
+		if (fixture instanceof HasOwner owned) {
+			final Player owner = owned.owner();
+			foundWords.addAll(tokenize(owner.getName()));
+			foundOwners.add(owner.getPlayerId());
+			if (owner.isIndependent()) {
+				independent.add(location);
+			}
+		}
+		if (fixture instanceof FixtureIterable<?> iter) {
+			for (final IFixture inner : iter) {
+				collect(inner, foundWords, foundIds, foundOwners, location);
+			}
+		}
+	}
+
+	private void index(final Point location) {
+		final Set<String> foundWords = new HashSet<>();
+		final Set<Integer> foundIds = new HashSet<>();
+		final Set<Integer> foundOwners = new HashSet<>();
+		for (final IFixture fixture : map.getFixtures(location)) {
+			collect(fixture, foundWords, foundIds, foundOwners, location);
+		}
+		if (!foundWords.isEmpty()) {
+			wordsAt.put(location, foundWords);
+			foundWords.forEach(word -> post(words, word, location));
+		}
+		if (!foundIds.isEmpty()) {
+			idsAt.put(location, foundIds);
+			foundIds.forEach(id -> post(ids, id, location));
+		}
+		if (!foundOwners.isEmpty()) {
+			ownersAt.put(location, foundOwners);
+			foundOwners.forEach(id -> post(owners, id, location));
+		}
+	}
+
+	private void unindex(final Point location) {
+		final Set<String> oldWords = wordsAt.remove(location);
+		if (oldWords != null) {
+			oldWords.forEach(word -> unpost(words, word, location));
+		}
+		final Set<Integer> oldIds = idsAt.remove(location);
+		if (oldIds != null) {
+			oldIds.forEach(id -> unpost(ids, id, location));
+		}
+		final Set<Integer> oldOwners = ownersAt.remove(location);
+		if (oldOwners != null) {
+			oldOwners.forEach(id -> unpost(owners, id, location));
+		}
+		independent.remove(location);
+	}
+
+	/**
+	 * Reindex the given location, after its contents have changed.
+	 */
+	public void refresh(final Point location) {
+		unindex(location);
+		index(location);
+	}
+
+	/**
+	 * Reindex every location where a fixture with the given ID was found,
+	 * after that fixture (or something inside it) has changed.
+	 */
+	public void refreshFixture(final int id) {
+		for (final Point location : new ArrayList<>(ids.getOrDefault(id, Collections.emptySet()))) {
+			refresh(location);
+		}
+	}
+
+	/**
+	 * Locations containing fixtures with, for each word in the given
+	 * pattern, a word (in name, kind, or owner's name) containing that word,
+	 * ignoring case. If the pattern contains no words, returns the empty set.
+	 */
+	public Set<Point> withWordsContaining(final String pattern) {
+		@Nullable Set<Point> retval = null;
+		for (final String part : tokenize(pattern)) {
+			final @Nullable Set<Point> previous = retval;
+			final Set<Point> matching = new HashSet<>();
+			for (final Map.Entry<String, Set<Point>> entry : words.entrySet()) {
+				if (!entry.getKey().contains(part)) {
+					continue;
+				} else if (previous == null) {
+					matching.addAll(entry.getValue());
+				} else {
+					entry.getValue().stream().filter(previous::contains).forEach(matching::add);
+				}
+			}
+			retval = matching;
+			if (retval.isEmpty()) {
+				break;
+			}
+		}
+		return (retval == null) ? Collections.emptySet() : Collections.unmodifiableSet(retval);
+	}
+
+	/**
+	 * Locations containing a fixture with the given ID.
+	 */
+	public Set<Point> withId(final int id) {
+		return Collections.unmodifiableSet(ids.getOrDefault(id, Collections.emptySet()));
+	}
+
+	/**
+	 * Locations containing a fixture owned by the player with the given ID.
+	 */
+	public Set<Point> ownedBy(final int playerId) {
+		return Collections.unmodifiableSet(owners.getOrDefault(playerId, Collections.emptySet()));
+	}
+
+	/**
+	 * Locations containing a fixture owned by an independent player.
+	 */
+	public Set<Point> independentlyOwned() {
+		return Collections.unmodifiableSet(independent);
+	}
+}
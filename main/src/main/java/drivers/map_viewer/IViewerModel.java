@@ -14,7 +14,7 @@ import drivers.common.SelectionChangeSource;
  * An interface for a model behind the map viewer, handling the selected tile and visible dimensions.
  */
 public interface IViewerModel extends SelectionChangeSource, GraphicalParamsSource,
-		IFixtureEditingModel {
+		TerrainChangeSource, IFixtureEditingModel {
 	/**
 	 * The coordinates of the currently selected tile.
 	 */
@@ -120,4 +120,10 @@ public interface IViewerModel extends SelectionChangeSource, GraphicalParamsSour
 	 * Set the map's terrain type at the given point.
 	 */
 	void setBaseTerrain(Point location, @Nullable TileType terrain);
+
+	/**
+	 * An index of the fixtures in the map for searching, built when first
+	 * requested and kept up to date as the map is changed through this model.
+	 */
+	FixtureSearchIndex getSearchIndex();
 }
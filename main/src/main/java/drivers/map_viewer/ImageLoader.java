@@ -14,6 +14,7 @@ import javax.swing.ImageIcon;
 import javax.swing.Icon;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import lovelace.util.ResourceInputStream;
 import java.awt.image.BufferedImage;
 import common.map.TileType;
@@ -72,9 +73,10 @@ public final class ImageLoader {
 	}
 
 	/**
-	 * A cache of loaded images.
+	 * A cache of loaded images. This is concurrent because the {@link
+	 * MapTileRenderer} draws from several threads at once.
 	 */
-	private static final Map<String, Image> IMAGE_CACHE = new HashMap<>();
+	private static final Map<String, Image> IMAGE_CACHE = new ConcurrentHashMap<>();
 
 	/**
 	 * Load an image from the cache, or if not in it, from file (and add it to the cache)
@@ -86,8 +88,9 @@ public final class ImageLoader {
 	 * @throws IOException If no reader could read the file (or the file does not exist)
 	 */
 	public static Image loadImage(final String file) throws IOException {
-		if (IMAGE_CACHE.containsKey(file)) {
-			return IMAGE_CACHE.get(file);
+		final Image cached = IMAGE_CACHE.get(file);
+		if (cached != null) {
+			return cached;
 		} else {
 			try (final ResourceInputStream res = new ResourceInputStream("images/" + file,
 					ImageLoader.class)) { // TODO: Change back to IOHandler once ported?
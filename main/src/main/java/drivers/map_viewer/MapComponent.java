@@ -40,6 +40,7 @@ import common.map.TileFixture;
 import common.map.MapDimensions;
 
 import common.map.fixtures.mobile.IUnit;
+import common.perf.MapPaintEvent;
 
 import java.awt.image.BufferedImage;
 
@@ -52,8 +53,14 @@ import java.awt.image.BufferedImage;
  * tiles back in every time the map was scrolled).
  */
 /* package */ final class MapComponent extends JComponent implements MapGUI, MapChangeListener,
-		SelectionChangeListener, GraphicalParamsListener {
+		SelectionChangeListener, GraphicalParamsListener, TerrainChangeListener {
 	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Below this tile size, in pixels, fixtures are too small to make out,
+	 * so if we have a {@link TerrainPyramid} we draw only terrain colors from it.
+	 */
+	private static final int MIN_DETAILED_TILE_SIZE = 10;
 	private final IViewerModel mapModel;
 	private final Predicate<TileFixture> zOrderFilter;
 	private final Iterable<FixtureMatcher> matchers;
@@ -76,6 +83,16 @@ import java.awt.image.BufferedImage;
 		this.backgroundImage = backgroundImage;
 	}
 
+	/**
+	 * The pyramid of terrain colors to draw from when zoomed far out, if it has been built.
+	 */
+	private @Nullable TerrainPyramid pyramid = null;
+
+	public void setTerrainPyramid(final @Nullable TerrainPyramid pyramid) {
+		this.pyramid = pyramid;
+		repaint();
+	}
+
 	public MapComponent(final IViewerModel model, final Predicate<TileFixture> zof,
 	                    final Iterable<FixtureMatcher> matchers) { // FIXME: Create an interface extending both Iterable and Comparator, and make FixtureFixtureTableModel, FixtureFilterListModel, etc., implement it, and take it here instead of taking Iterable and casting to Comparator
 		mapModel = model;
@@ -232,6 +249,11 @@ import java.awt.image.BufferedImage;
 		}
 	}
 
+	@Override
+	public void terrainChanged(final Point location) {
+		repaintPoint(location);
+	}
+
 	@Override
 	public void cursorPointChanged(final @Nullable Point old, final Point newCursor) {} // TODO: check visibility of cursor point here?
 
@@ -261,26 +283,61 @@ import java.awt.image.BufferedImage;
 		}
 	}
 
+	/**
+	 * Draw the given portion of the map and, if the given event is enabled,
+	 * count the tiles drawn in it and return the number of fixtures on them.
+	 */
 	// FIXME: Are these map or screen coordinates? If screen coordinates, what are they relative to?
-	private void drawMapPortion(final Graphics context, final int tileSize, final int minX, final int minY,
-	                            final int maxX, final int maxY) {
+	private long drawMapPortion(final Graphics context, final int tileSize, final int minX, final int minY,
+	                            final int maxX, final int maxY, final MapPaintEvent event) {
 		final int minRow = mapModel.getVisibleDimensions().getMinimumRow();
 		final int maxRow = mapModel.getVisibleDimensions().getMaximumRow();
 		final int minCol = mapModel.getVisibleDimensions().getMinimumColumn();
 		final int maxCol = mapModel.getVisibleDimensions().getMaximumColumn();
+		final boolean counting = event.isEnabled();
+		int tiles = 0;
+		long fixtures = 0L;
 		for (int i = minY; i <= maxY && (i + minRow) < (maxRow + 1); i++) {
 			for (int j = minX; j <= maxX && (j + minCol) < (maxCol + 1); j++) {
 				final Point location = new Point(i + minRow, j + minCol);
 				paintTile(context, tileSize, location, i, j,
 					mapModel.getSelection().equals(location));
+				if (counting) {
+					tiles++;
+					fixtures += mapModel.getMap().getFixtures(location).size();
+				}
 			}
 		}
+		event.countTiles(tiles);
+		return fixtures;
+	}
+
+	/**
+	 * Draw the visible portion of the map from the terrain pyramid, in a
+	 * single operation, instead of tile by tile, returning the number of
+	 * tiles drawn.
+	 */
+	private int drawFromPyramid(final Graphics context, final TerrainPyramid pyramid, final int tileSize) {
+		final VisibleDimensions visibleDimensions = mapModel.getVisibleDimensions();
+		pyramid.drawTiles(context, visibleDimensions.getMinimumRow(), visibleDimensions.getMinimumColumn(),
+			visibleDimensions.getMaximumRow(), visibleDimensions.getMaximumColumn(), tileSize);
+		if (isSelectionVisible()) {
+			final Point selection = mapModel.getSelection();
+			context.setColor(Color.black);
+			context.drawRect((selection.column() - visibleDimensions.getMinimumColumn()) * tileSize,
+				(selection.row() - visibleDimensions.getMinimumRow()) * tileSize, tileSize - 1,
+				tileSize - 1);
+		}
+		return visibleDimensions.getWidth() * visibleDimensions.getHeight();
 	}
 
 	@Override
 	public void paint(final Graphics pen) {
+		final MapPaintEvent event = new MapPaintEvent();
+		event.begin();
 		super.paint(pen);
 		final Graphics context = pen.create();
+		final long fixtures;
 		try {
 			context.setColor(Color.white);
 			context.fillRect(0, 0, getWidth(), getHeight());
@@ -288,18 +345,26 @@ import java.awt.image.BufferedImage;
 			final MapDimensions mapDimensions = mapModel.getMapDimensions();
 			final int tileSize = getTileSize();
 			drawBackgroundImage(context, tileSize);
-			// TODO: We used halfEven() around the division
-			// operations for rounding in Ceylon; does casting to
-			// int do the same? Do we still need the added tenth in Java?
-			drawMapPortion(context, tileSize, (int) ((bounds.getMinX() / tileSize) + 0.1),
-					(int) ((bounds.getMinY() / tileSize) + 0.1),
-				Math.min((int) ((bounds.getMaxX() / tileSize) + 1.1),
-					mapDimensions.columns()),
-				Math.min((int) ((bounds.getMaxY() / tileSize) + 1.1),
-					mapDimensions.rows()));
+			final TerrainPyramid localPyramid = pyramid;
+			if (localPyramid != null && tileSize < MIN_DETAILED_TILE_SIZE) {
+				event.countTiles(drawFromPyramid(context, localPyramid, tileSize));
+				// Fixtures aren't drawn, so don't count them.
+				fixtures = 0L;
+			} else {
+				// TODO: We used halfEven() around the division
+				// operations for rounding in Ceylon; does casting to
+				// int do the same? Do we still need the added tenth in Java?
+				fixtures = drawMapPortion(context, tileSize, (int) ((bounds.getMinX() / tileSize) + 0.1),
+						(int) ((bounds.getMinY() / tileSize) + 0.1),
+					Math.min((int) ((bounds.getMaxX() / tileSize) + 1.1),
+						mapDimensions.columns()),
+					Math.min((int) ((bounds.getMaxY() / tileSize) + 1.1),
+						mapDimensions.rows()), event);
+			}
 		} finally {
 			context.dispose();
 		}
+		event.commitFor(mapModel.getMap(), fixtures);
 	}
 
 	@Override
@@ -0,0 +1,292 @@
+package drivers.map_viewer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.imageio.ImageIO;
+
+import org.jetbrains.annotations.Nullable;
+
+import common.map.IMapNG;
+import common.map.MapDimensions;
+import common.map.Point;
+import common.map.TileFixture;
+
+import drivers.common.FixtureMatcher;
+
+import static drivers.map_viewer.TileViewSize.scaleZoom;
+
+/**
+ * A class to render a map, as the {@link MapComponent map viewer} draws it
+ * (using a {@link Ver2TileDrawHelper}), into square image tiles of a fixed
+ * size without any on-screen component, so it works in a headless
+ * environment. The tiles are written as a pyramid of PNG files, where
+ * zoom level 0 is a single tile showing the whole map and each further level
+ * doubles the resolution until the last shows it at full size, and a single
+ * downscaled overview image of the whole map.
+ *
+ * Full-size tiles are drawn in parallel, each thread with its own draw
+ * helper; lower levels are produced from them by averaging each 2x2 square of
+ * pixels, weighting each pixel's color by its opacity so that the transparent
+ * area past the edge of the map does not darken the edge. Nothing depends on the order in which threads finish, so the output
+ * for a given map and zoom level is the same from run to run.
+ */
+public final class MapTileRenderer {
+	/**
+	 * An image observer for images that, having been read by {@link
+	 * javax.imageio.ImageIO}, are always completely loaded before we draw them.
+	 */
+	private static final ImageObserver NO_OBSERVER = (img, flags, x, y, width, height) -> false;
+
+	/**
+	 * The map to render.
+	 */
+	private final IMapNG map;
+
+	/**
+	 * The size, in pixels, of each tile of the map.
+	 */
+	private final int tileSize;
+
+	/**
+	 * The size, in pixels, of each (square) image tile.
+	 */
+	private final int tilePixels;
+
+	/**
+	 * The width of the map at full size, in pixels.
+	 */
+	private final int fullWidth;
+
+	/**
+	 * The height of the map at full size, in pixels.
+	 */
+	private final int fullHeight;
+
+	/**
+	 * The zoom level of the pyramid at which the map is shown at full size.
+	 */
+	private final int maxZoom;
+
+	/**
+	 * A draw helper for each thread, since they cache which images are
+	 * missing without synchronization.
+	 */
+	private final ThreadLocal<TileDrawHelper> helpers;
+
+	/**
+	 * @param map The map to render
+	 * @param zoomLevel The zoom level, as in the map viewer
+	 * @param filter Which fixtures to draw
+	 * @param matchers The order in which to prefer fixtures to draw on top
+	 * @param tilePixels The width and height, in pixels, of each image tile; must be even
+	 */
+	public MapTileRenderer(final IMapNG map, final int zoomLevel, final Predicate<TileFixture> filter,
+	                       final Iterable<FixtureMatcher> matchers, final int tilePixels) {
+		if (tilePixels <= 0 || tilePixels % 2 != 0) {
+			throw new IllegalArgumentException("Tile size must be positive and even");
+		}
+		this.map = map;
+		this.tilePixels = tilePixels;
+		final MapDimensions dimensions = map.getDimensions();
+		tileSize = scaleZoom(zoomLevel, dimensions.version());
+		fullWidth = dimensions.columns() * tileSize;
+		fullHeight = dimensions.rows() * tileSize;
+		int zoom = 0;
+		while (((long) tilePixels << zoom) < Math.max(fullWidth, fullHeight)) {
+			zoom++;
+		}
+		maxZoom = zoom;
+		helpers = ThreadLocal.withInitial(() -> new Ver2TileDrawHelper(NO_OBSERVER, filter, matchers));
+	}
+
+	/**
+	 * The zoom level of the pyramid at which the map is shown at full size.
+	 */
+	public int getMaxZoom() {
+		return maxZoom;
+	}
+
+	/**
+	 * The size of the map, in pixels, in one dimension at the given zoom level.
+	 */
+	private int extentAt(final int full, final int zoom) {
+		final int shift = maxZoom - zoom;
+		return (int) ((full + (1L << shift) - 1) >> shift);
+	}
+
+	/**
+	 * How many tiles there are, in one dimension, at the given zoom level.
+	 */
+	private int tilesAt(final int full, final int zoom) {
+		return (extentAt(full, zoom) + tilePixels - 1) / tilePixels;
+	}
+
+	/**
+	 * Draw the full-size tile at the given tile coordinates. Tiles of the
+	 * map are drawn in the same order as the map viewer draws them, so
+	 * where one tile's border overlaps its neighbor the result is the same.
+	 * Any part of the image beyond the edge of the map is left transparent.
+	 */
+	/* package */ BufferedImage renderFullSize(final int tileColumn, final int tileRow) {
+		final BufferedImage retval = new BufferedImage(tilePixels, tilePixels, BufferedImage.TYPE_INT_ARGB);
+		final int minX = tileColumn * tilePixels;
+		final int minY = tileRow * tilePixels;
+		final Graphics2D pen = retval.createGraphics();
+		try {
+			pen.translate(-minX, -minY);
+			pen.clipRect(minX, minY, Math.min(tilePixels, fullWidth - minX),
+				Math.min(tilePixels, fullHeight - minY));
+			pen.setColor(Color.white);
+			pen.fillRect(minX, minY, tilePixels, tilePixels);
+			final MapDimensions dimensions = map.getDimensions();
+			final int firstRow = Math.max(0, minY / tileSize - 1);
+			final int lastRow = Math.min(dimensions.rows() - 1, (minY + tilePixels - 1) / tileSize);
+			final int firstColumn = Math.max(0, minX / tileSize - 1);
+			final int lastColumn = Math.min(dimensions.columns() - 1, (minX + tilePixels - 1) / tileSize);
+			final TileDrawHelper helper = helpers.get();
+			final Coordinate size = new Coordinate(tileSize, tileSize);
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					helper.drawTile(pen, map, new Point(row, column),
+						new Coordinate(column * tileSize, row * tileSize), size);
+				}
+			}
+		} finally {
+			pen.dispose();
+		}
+		return retval;
+	}
+
+	/**
+	 * The average of four (non-premultiplied) ARGB pixels. The alpha is the
+	 * mean of theirs, and each color channel the mean of theirs weighted by
+	 * their alpha, so transparent pixels do not contribute their color; if
+	 * all four are fully transparent, so is the result.
+	 */
+	/* package */ static int average(final int one, final int two, final int three, final int four) {
+		final int alphaOne = one >>> 24;
+		final int alphaTwo = two >>> 24;
+		final int alphaThree = three >>> 24;
+		final int alphaFour = four >>> 24;
+		final int alphaSum = alphaOne + alphaTwo + alphaThree + alphaFour;
+		if (alphaSum == 0) {
+			return 0;
+		}
+		int result = ((alphaSum + 2) >> 2) << 24;
+		for (int shift = 0; shift < 24; shift += 8) {
+			final int weighted = ((one >>> shift) & 0xFF) * alphaOne + ((two >>> shift) & 0xFF) * alphaTwo +
+				((three >>> shift) & 0xFF) * alphaThree + ((four >>> shift) & 0xFF) * alphaFour;
+			result |= ((weighted + alphaSum / 2) / alphaSum) << shift;
+		}
+		return result;
+	}
+
+	/**
+	 * Average each 2x2 square of pixels in the given tile into the quadrant
+	 * of the given image at the given offset.
+	 */
+	private void downsampleInto(final BufferedImage source, final int[] target, final int offsetX,
+	                            final int offsetY) {
+		final int[] pixels = source.getRGB(0, 0, tilePixels, tilePixels, null, 0, tilePixels);
+		final int half = tilePixels / 2;
+		for (int y = 0; y < half; y++) {
+			for (int x = 0; x < half; x++) {
+				final int base = 2 * y * tilePixels + 2 * x;
+				target[(offsetY + y) * tilePixels + offsetX + x] = average(pixels[base], pixels[base + 1],
+					pixels[base + tilePixels], pixels[base + tilePixels + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Where the tiles and the overview are being written.
+	 */
+	private record Output(Path directory, int overviewZoom, BufferedImage overview) {}
+
+	/**
+	 * Produce, write, and return the tile at the given position at the given
+	 * zoom level, writing all the tiles it is made from at higher zoom
+	 * levels first; or return null if it lies entirely outside the map.
+	 */
+	private @Nullable BufferedImage produce(final Output output, final int zoom, final int tileColumn,
+	                                        final int tileRow) {
+		if (tileColumn >= tilesAt(fullWidth, zoom) || tileRow >= tilesAt(fullHeight, zoom)) {
+			return null;
+		}
+		final BufferedImage retval;
+		if (zoom == maxZoom) {
+			retval = renderFullSize(tileColumn, tileRow);
+		} else {
+			final List<@Nullable BufferedImage> children = IntStream.range(0, 4).parallel()
+				.mapToObj(i -> produce(output, zoom + 1, tileColumn * 2 + (i & 1), tileRow * 2 + (i >> 1)))
+				.collect(Collectors.toList());
+			final int[] pixels = new int[tilePixels * tilePixels];
+			for (int i = 0; i < 4; i++) {
+				final BufferedImage child = children.get(i);
+				if (child != null) {
+					downsampleInto(child, pixels, (i & 1) * tilePixels / 2, (i >> 1) * tilePixels / 2);
+				}
+			}
+			retval = new BufferedImage(tilePixels, tilePixels, BufferedImage.TYPE_INT_ARGB);
+			retval.setRGB(0, 0, tilePixels, tilePixels, pixels, 0, tilePixels);
+		}
+		try {
+			final Path directory = output.directory().resolve(Integer.toString(zoom))
+				.resolve(Integer.toString(tileColumn));
+			Files.createDirectories(directory);
+			ImageIO.write(retval, "png", directory.resolve(tileRow + ".png").toFile());
+		} catch (final IOException except) {
+			throw new UncheckedIOException(except);
+		}
+		if (zoom == output.overviewZoom()) {
+			final BufferedImage overview = output.overview();
+			final int x = tileColumn * tilePixels;
+			final int y = tileRow * tilePixels;
+			final int width = Math.min(tilePixels, overview.getWidth() - x);
+			final int height = Math.min(tilePixels, overview.getHeight() - y);
+			final int[] pixels = retval.getRGB(0, 0, width, height, null, 0, width);
+			synchronized (overview) {
+				overview.setRGB(x, y, width, height, pixels, 0, width);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Write the tile pyramid, as "zoom/column/row.png" under the given
+	 * directory, and an overview image of the whole map to the given file.
+	 * The overview is the largest level of the pyramid no more than the
+	 * given number of pixels wide or high. If even level 0 is larger than
+	 * that, the overview is level 0. That level always fits in one tile, so
+	 * this can only happen when the given size is less than the tile size.
+	 */
+	public void writePyramid(final Path directory, final Path overviewFile, final int overviewSize)
+			throws IOException {
+		int overviewZoom = maxZoom;
+		while (overviewZoom > 0 && Math.max(extentAt(fullWidth, overviewZoom),
+				extentAt(fullHeight, overviewZoom)) > overviewSize) {
+			overviewZoom--;
+		}
+		final BufferedImage overview = new BufferedImage(Math.max(1, extentAt(fullWidth, overviewZoom)),
+			Math.max(1, extentAt(fullHeight, overviewZoom)), BufferedImage.TYPE_INT_ARGB);
+		try {
+			produce(new Output(directory, overviewZoom, overview), 0, 0, 0);
+		} catch (final UncheckedIOException except) {
+			throw except.getCause();
+		}
+		ImageIO.write(overview, "png", overviewFile.toFile());
+	}
+}
@@ -0,0 +1,224 @@
+package drivers.map_viewer;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingWorker;
+
+import org.jetbrains.annotations.Nullable;
+
+import lovelace.util.LovelaceLogger;
+
+import common.map.MapDimensions;
+import common.map.Point;
+
+import drivers.common.MapChangeListener;
+
+/**
+ * A small overview of the whole map, showing the terrain of every tile and
+ * the portion of the map currently visible in the main map component; clicking
+ * or dragging in it selects the tile there, which brings it into view.
+ *
+ * It is drawn from a {@link TerrainPyramid}, which is built in the
+ * background, from a {@link TerrainPyramid.Snapshot snapshot} of the map's
+ * terrain taken on the event-dispatch thread, whenever a new map is loaded,
+ * and then shared with the main map component (through the given listener)
+ * for drawing when zoomed far out.
+ */
+/* package */ final class MinimapPanel extends JComponent implements MapChangeListener,
+		GraphicalParamsListener, TerrainChangeListener {
+	private static final long serialVersionUID = 1L;
+
+	private final IViewerModel model;
+
+	/**
+	 * What to tell when the pyramid has been built or discarded.
+	 */
+	private final Consumer<@Nullable TerrainPyramid> pyramidListener;
+
+	/**
+	 * The pyramid, once built for the current map.
+	 */
+	private @Nullable TerrainPyramid pyramid = null;
+
+	/**
+	 * Tiles whose terrain has changed since the snapshot the pyramid is
+	 * being built from was taken.
+	 */
+	private final Set<Point> pendingChanges = new HashSet<>();
+
+	/**
+	 * Incremented each time we start building a pyramid, so a build for a
+	 * map that has since been replaced can be discarded.
+	 */
+	private int generation = 0;
+
+	/**
+	 * The task building the pyramid, if one is running.
+	 */
+	private @Nullable SwingWorker<TerrainPyramid, Void> builder = null;
+
+	public MinimapPanel(final IViewerModel model, final Consumer<@Nullable TerrainPyramid> pyramidListener) {
+		this.model = model;
+		this.pyramidListener = pyramidListener;
+		setPreferredSize(new Dimension(200, 200));
+		setMinimumSize(new Dimension(100, 100));
+		final MouseAdapter mouseListener = new MouseAdapter() {
+				@Override
+				public void mousePressed(final MouseEvent event) {
+					selectAt(event.getX(), event.getY());
+				}
+
+				@Override
+				public void mouseDragged(final MouseEvent event) {
+					selectAt(event.getX(), event.getY());
+				}
+			};
+		addMouseListener(mouseListener);
+		addMouseMotionListener(mouseListener);
+		rebuild();
+	}
+
+	/**
+	 * Discard the current pyramid and start building one for the current
+	 * map, from a snapshot of its terrain taken now, on the event-dispatch
+	 * thread, so that the build doesn't read the map while it may be changed.
+	 */
+	private void rebuild() {
+		pyramid = null;
+		pendingChanges.clear();
+		pyramidListener.accept(null);
+		generation++;
+		final SwingWorker<TerrainPyramid, Void> previous = builder;
+		if (previous != null) {
+			previous.cancel(false);
+		}
+		final int current = generation;
+		final TerrainPyramid.Snapshot snapshot = new TerrainPyramid.Snapshot(model.getMap());
+		final SwingWorker<TerrainPyramid, Void> worker = new SwingWorker<>() {
+			@Override
+			protected TerrainPyramid doInBackground() {
+				return new TerrainPyramid(snapshot);
+			}
+
+			@Override
+			protected void done() {
+				if (isCancelled() || current != generation) {
+					return;
+				}
+				builder = null;
+				try {
+					pyramidBuilt(get());
+				} catch (final InterruptedException except) {
+					LovelaceLogger.warning(except, "Interrupted while building minimap");
+				} catch (final ExecutionException except) {
+					LovelaceLogger.error(Objects.requireNonNullElse(except.getCause(), except),
+						"Failed to build minimap");
+				}
+			}
+		};
+		builder = worker;
+		worker.execute();
+	}
+
+	/**
+	 * Once a pyramid has been built for the current map, apply any changes
+	 * made since its snapshot was taken and start using it.
+	 */
+	private void pyramidBuilt(final TerrainPyramid built) {
+		for (final Point point : pendingChanges) {
+			built.updateCell(model.getMap(), point);
+		}
+		pendingChanges.clear();
+		pyramid = built;
+		pyramidListener.accept(built);
+		repaint();
+	}
+
+	/**
+	 * The scale, in pixels per tile, at which the whole map fits in the panel.
+	 */
+	private double getScale() {
+		final MapDimensions dimensions = model.getMapDimensions();
+		return Math.min((double) getWidth() / Math.max(1, dimensions.columns()),
+			(double) getHeight() / Math.max(1, dimensions.rows()));
+	}
+
+	private void selectAt(final int x, final int y) {
+		final MapDimensions dimensions = model.getMapDimensions();
+		final double scale = getScale();
+		if (scale <= 0) {
+			return;
+		}
+		final Point point = new Point((int) (y / scale), (int) (x / scale));
+		if (dimensions.contains(point)) {
+			model.setSelection(point);
+		}
+	}
+
+	@Override
+	protected void paintComponent(final Graphics pen) {
+		super.paintComponent(pen);
+		final Graphics2D context = (Graphics2D) pen.create();
+		try {
+			context.setColor(getBackground());
+			context.fillRect(0, 0, getWidth(), getHeight());
+			final MapDimensions dimensions = model.getMapDimensions();
+			final double scale = getScale();
+			final int width = (int) (dimensions.columns() * scale);
+			final int height = (int) (dimensions.rows() * scale);
+			final TerrainPyramid local = pyramid;
+			if (local == null || width <= 0 || height <= 0) {
+				return;
+			}
+			local.drawScaled(context, width, height);
+			final VisibleDimensions visible = model.getVisibleDimensions();
+			context.setColor(Color.red);
+			context.drawRect((int) (visible.getMinimumColumn() * scale),
+				(int) (visible.getMinimumRow() * scale),
+				Math.max(1, (int) (visible.getWidth() * scale) - 1),
+				Math.max(1, (int) (visible.getHeight() * scale) - 1));
+		} finally {
+			context.dispose();
+		}
+	}
+
+	@Override
+	public void terrainChanged(final Point location) {
+		final TerrainPyramid local = pyramid;
+		if (local == null) {
+			pendingChanges.add(location);
+		} else {
+			local.updateCell(model.getMap(), location);
+			repaint();
+		}
+	}
+
+	@Override
+	public void mapChanged() {
+		rebuild();
+		repaint();
+	}
+
+	@Override
+	public void mapMetadataChanged() {}
+
+	@Override
+	public void dimensionsChanged(final VisibleDimensions oldDimensions, final VisibleDimensions newDimensions) {
+		repaint();
+	}
+
+	@Override
+	public void tileSizeChanged(final int oldSize, final int newSize) {}
+}
@@ -0,0 +1,16 @@
+package drivers.map_viewer;
+
+import java.util.EventListener;
+
+import common.map.Point;
+
+/**
+ * An interface for objects that want to know when the base terrain (or
+ * whether it is mountainous) of a tile of the map changes.
+ */
+public interface TerrainChangeListener extends EventListener {
+	/**
+	 * Handle a change in the terrain at the given location.
+	 */
+	void terrainChanged(Point location);
+}
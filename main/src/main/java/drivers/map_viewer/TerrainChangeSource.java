@@ -0,0 +1,16 @@
+package drivers.map_viewer;
+
+/**
+ * An interface for objects that tell listeners when the terrain of a tile changes.
+ */
+public interface TerrainChangeSource {
+	/**
+	 * Add a listener.
+	 */
+	void addTerrainChangeListener(TerrainChangeListener listener);
+
+	/**
+	 * Remove a listener.
+	 */
+	void removeTerrainChangeListener(TerrainChangeListener listener);
+}
@@ -0,0 +1,257 @@
+package drivers.map_viewer;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import common.map.IMapNG;
+import common.map.MapDimensions;
+import common.map.Point;
+import common.map.TileType;
+
+import static drivers.map_viewer.ImageLoader.ColorHelper;
+
+/**
+ * A multi-resolution "pyramid" of images of the map's terrain: level 0 has
+ * one pixel, in the {@link ColorHelper terrain color}, per tile of the map,
+ * and each further level is half the width and height of the one before,
+ * each pixel the average of the (up to) four beneath it, until the last is a
+ * single pixel. Drawing the map from this is far faster than drawing each
+ * tile when tiles are too small on screen to show their fixtures anyway.
+ *
+ * Building a pyramid for a large map takes a while, so callers should take
+ * a {@link Snapshot} of the map's terrain on the event-dispatch thread,
+ * build the pyramid from that off it, and then apply any changes made in
+ * the meantime. Once built, the pyramid should only be used (and updated,
+ * one tile at a time, with {@link #updateCell}) on that thread.
+ */
+/* package */ final class TerrainPyramid {
+	/**
+	 * The color we use for tiles with no (or unsupported) terrain, the same
+	 * as the map viewer's background.
+	 */
+	private static final int NO_TERRAIN = Color.white.getRGB();
+
+	/**
+	 * The color of every tile of a map, copied from the map so that a
+	 * pyramid can be built from it without reading the map, which may be
+	 * changed on the event-dispatch thread in the meantime.
+	 */
+	/* package */ static final class Snapshot {
+		/**
+		 * The dimensions of the map.
+		 */
+		private final MapDimensions dimensions;
+
+		/**
+		 * The color of each terrain type, by ordinal, in this map's version.
+		 */
+		private final int[] terrainColors;
+
+		/**
+		 * The color of each tile, in row-major order.
+		 */
+		private final int[] pixels;
+
+		public Snapshot(final IMapNG map) {
+			dimensions = map.getDimensions();
+			final TileType[] types = TileType.values();
+			terrainColors = new int[types.length];
+			for (final TileType type : types) {
+				// Avoid ColorHelper.get() logging errors for every tile of an unsupported type.
+				final Color color = (ColorHelper.supportsType(dimensions.version(), type)) ?
+					ColorHelper.get(dimensions.version(), type) : null;
+				terrainColors[type.ordinal()] = (color == null) ? NO_TERRAIN : color.getRGB();
+			}
+			final int width = Math.max(1, dimensions.columns());
+			pixels = new int[width * Math.max(1, dimensions.rows())];
+			for (int row = 0; row < dimensions.rows(); row++) {
+				for (int column = 0; column < dimensions.columns(); column++) {
+					pixels[row * width + column] = colorAt(terrainColors, map, new Point(row, column));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The dimensions of the map.
+	 */
+	private final MapDimensions dimensions;
+
+	/**
+	 * The color of each terrain type, by ordinal, in this map's version.
+	 */
+	private final int[] terrainColors;
+
+	/**
+	 * The images, from full resolution (level 0) to a single pixel.
+	 */
+	private final List<BufferedImage> levels;
+
+	/**
+	 * Build a pyramid directly from the map, which must not be changed while this runs.
+	 */
+	public TerrainPyramid(final IMapNG map) {
+		this(new Snapshot(map));
+	}
+
+	/**
+	 * Build a pyramid from a snapshot of the map's terrain.
+	 */
+	public TerrainPyramid(final Snapshot snapshot) {
+		dimensions = snapshot.dimensions;
+		terrainColors = snapshot.terrainColors;
+		int width = Math.max(1, dimensions.columns());
+		int height = Math.max(1, dimensions.rows());
+		int[] pixels = snapshot.pixels;
+		final List<BufferedImage> temp = new ArrayList<>();
+		temp.add(toImage(pixels, width, height));
+		while (width > 1 || height > 1) {
+			final int childWidth = width;
+			final int childHeight = height;
+			final int[] children = pixels;
+			width = (width + 1) / 2;
+			height = (height + 1) / 2;
+			pixels = new int[width * height];
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					pixels[y * width + x] = average(children, childWidth, childHeight, x, y);
+				}
+			}
+			temp.add(toImage(pixels, width, height));
+		}
+		levels = Collections.unmodifiableList(temp);
+	}
+
+	private static BufferedImage toImage(final int[] pixels, final int width, final int height) {
+		final BufferedImage retval = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		retval.setRGB(0, 0, width, height, pixels, 0, width);
+		return retval;
+	}
+
+	/**
+	 * The color to show for the given tile, given the colors of the terrain
+	 * types: orange (as for background
+	 * mountains in the main map) if it is mountainous, otherwise its terrain color.
+	 */
+	private static int colorAt(final int[] terrainColors, final IMapNG map, final Point point) {
+		if (map.isMountainous(point)) {
+			return ColorHelper.MOUNTAIN_COLOR.getRGB();
+		}
+		final TileType terrain = map.getBaseTerrain(point);
+		return (terrain == null) ? NO_TERRAIN : terrainColors[terrain.ordinal()];
+	}
+
+	/**
+	 * The average of the pixels in the given (row-major) array of the given
+	 * dimensions that lie beneath the given pixel of the next level up.
+	 */
+	private static int average(final int[] children, final int width, final int height, final int x,
+	                           final int y) {
+		int red = 0;
+		int green = 0;
+		int blue = 0;
+		int count = 0;
+		for (int childY = 2 * y; childY < Math.min(height, 2 * y + 2); childY++) {
+			for (int childX = 2 * x; childX < Math.min(width, 2 * x + 2); childX++) {
+				final int pixel = children[childY * width + childX];
+				red += (pixel >> 16) & 0xFF;
+				green += (pixel >> 8) & 0xFF;
+				blue += pixel & 0xFF;
+				count++;
+			}
+		}
+		final int half = count / 2;
+		return 0xFF000000 | (((red + half) / count) << 16) | (((green + half) / count) << 8) |
+			((blue + half) / count);
+	}
+
+	/**
+	 * How many levels the pyramid has.
+	 */
+	public int getLevelCount() {
+		return levels.size();
+	}
+
+	/**
+	 * The image at the given level, where level 0 has one pixel per tile.
+	 */
+	public BufferedImage getLevel(final int level) {
+		return levels.get(level);
+	}
+
+	/**
+	 * Update the pyramid after the terrain at the given location changed,
+	 * recomputing only the one pixel above it at each level.
+	 */
+	public void updateCell(final IMapNG map, final Point point) {
+		if (!dimensions.contains(point)) {
+			return;
+		}
+		int x = point.column();
+		int y = point.row();
+		BufferedImage child = levels.get(0);
+		child.setRGB(x, y, colorAt(terrainColors, map, point));
+		for (final BufferedImage level : levels.subList(1, levels.size())) {
+			x /= 2;
+			y /= 2;
+			final int childWidth = child.getWidth();
+			final int childHeight = child.getHeight();
+			final int blockWidth = Math.min(2, childWidth - 2 * x);
+			final int blockHeight = Math.min(2, childHeight - 2 * y);
+			final int[] block = child.getRGB(2 * x, 2 * y, blockWidth, blockHeight, null, 0, blockWidth);
+			level.setRGB(x, y, average(block, blockWidth, blockHeight, 0, 0));
+			child = level;
+		}
+	}
+
+	/**
+	 * Draw the given rows and columns of the map, each tile filled with its
+	 * terrain color as a square of the given size, with the first tile's
+	 * top-left corner at the origin. Rows and columns outside the map are
+	 * left alone.
+	 */
+	public void drawTiles(final Graphics pen, final int minRow, final int minColumn, final int maxRow,
+	                      final int maxColumn, final int tileSize) {
+		final int firstRow = Math.max(minRow, 0);
+		final int firstColumn = Math.max(minColumn, 0);
+		final int lastRow = Math.min(maxRow, dimensions.rows() - 1);
+		final int lastColumn = Math.min(maxColumn, dimensions.columns() - 1);
+		if (lastRow < firstRow || lastColumn < firstColumn) {
+			return;
+		}
+		final int x = (firstColumn - minColumn) * tileSize;
+		final int y = (firstRow - minRow) * tileSize;
+		pen.drawImage(levels.get(0), x, y, x + (lastColumn - firstColumn + 1) * tileSize,
+			y + (lastRow - firstRow + 1) * tileSize, firstColumn, firstRow, lastColumn + 1, lastRow + 1,
+			null);
+	}
+
+	/**
+	 * Draw the whole map scaled to the given size, from the smallest level
+	 * that is at least that size (so only a little scaling is needed).
+	 */
+	public void drawScaled(final Graphics2D pen, final int width, final int height) {
+		BufferedImage source = levels.get(0);
+		for (final BufferedImage level : levels.subList(1, levels.size())) {
+			if (level.getWidth() < width || level.getHeight() < height) {
+				break;
+			}
+			source = level;
+		}
+		final Graphics2D context = (Graphics2D) pen.create();
+		try {
+			context.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			context.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			context.dispose();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package drivers.map_viewer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.jetbrains.annotations.Nullable;
+
+import lovelace.util.LovelaceLogger;
+
+import common.map.IMapNG;
+
+import drivers.common.DriverFailedException;
+import drivers.common.IDriverModel;
+import drivers.common.IMultiMapModel;
+import drivers.common.ReadOnlyDriver;
+import drivers.common.SPOptions;
+
+/**
+ * A driver to render the map, as the map viewer shows it, to a pyramid of
+ * PNG image tiles and an overview image, without a GUI.
+ */
+public class TileExportCLI implements ReadOnlyDriver {
+	/**
+	 * The default width and height of each image tile, in pixels.
+	 */
+	private static final int DEFAULT_TILE_SIZE = 256;
+
+	/**
+	 * The default maximum width and height of the overview image, in pixels.
+	 */
+	private static final int DEFAULT_OVERVIEW_SIZE = 1024;
+
+	public TileExportCLI(final SPOptions options, final IDriverModel model) {
+		this.options = options;
+		this.model = model;
+	}
+
+	private final SPOptions options;
+	private final IDriverModel model;
+
+	@Override
+	public SPOptions getOptions() {
+		return options;
+	}
+
+	@Override
+	public IDriverModel getModel() {
+		return model;
+	}
+
+	/**
+	 * The numeric value of the given option, or the given default if it was not given.
+	 */
+	private int intOption(final String option, final int defaultValue) throws DriverFailedException {
+		if (options.hasOption(option)) {
+			try {
+				return Integer.parseInt(options.getArgument(option));
+			} catch (final NumberFormatException except) {
+				throw new DriverFailedException(except, option + " argument must be numeric");
+			}
+		} else {
+			return defaultValue;
+		}
+	}
+
+	private void exportMap(final @Nullable Path filename, final IMapNG map) throws DriverFailedException {
+		final Path base;
+		if (options.hasOption("--out")) {
+			base = Paths.get(options.getArgument("--out"));
+		} else if (filename == null) {
+			LovelaceLogger.error("Asked to export tiles from map with no filename");
+			return;
+		} else {
+			base = filename.resolveSibling(filename.getFileName().toString() + ".tiles");
+		}
+		final FixtureFilterTableModel matchers = new FixtureFilterTableModel();
+		final MapTileRenderer renderer;
+		try {
+			renderer = new MapTileRenderer(map, intOption("--zoom", ViewerModel.DEFAULT_ZOOM_LEVEL),
+				matchers::shouldDisplay, matchers, intOption("--tile-size", DEFAULT_TILE_SIZE));
+		} catch (final IllegalArgumentException except) {
+			throw new DriverFailedException(except, "Invalid zoom level or tile size");
+		}
+		LovelaceLogger.debug("Writing zoom levels 0 through %d to %s", renderer.getMaxZoom(), base);
+		try {
+			Files.createDirectories(base);
+			renderer.writePyramid(base, base.resolve("overview.png"),
+				intOption("--overview-size", DEFAULT_OVERVIEW_SIZE));
+		} catch (final IOException except) {
+			throw new DriverFailedException(except, "I/O error while writing image tiles");
+		}
+	}
+
+	@Override
+	public void startDriver() throws DriverFailedException {
+		if (model instanceof IMultiMapModel mmm) {
+			if (options.hasOption("--out") && mmm.streamSubordinateMaps().findAny().isPresent()) {
+				throw new DriverFailedException(new IllegalArgumentException("--out with multiple maps"),
+					"--out cannot be used with more than one map");
+			}
+			for (final IMapNG map : mmm.getAllMaps()) {
+				exportMap(map.getFilename(), map);
+			}
+		} else {
+			exportMap(model.getMap().getFilename(), model.getMap());
+		}
+	}
+}
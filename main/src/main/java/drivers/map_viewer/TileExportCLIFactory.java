@@ -0,0 +1,47 @@
+package drivers.map_viewer;
+
+import java.io.File;
+
+import drivers.common.IDriverModel;
+import drivers.common.ParamCount;
+import drivers.common.IDriverUsage;
+import drivers.common.SPOptions;
+import drivers.common.DriverUsage;
+import drivers.common.ModelDriverFactory;
+import drivers.common.DriverFactory;
+import drivers.common.ModelDriver;
+import drivers.common.SimpleMultiMapModel;
+
+import drivers.common.cli.ICLIHelper;
+
+import common.map.IMutableMapNG;
+
+import com.google.auto.service.AutoService;
+
+/**
+ * A factory for a driver to render the map to a pyramid of image tiles.
+ */
+@AutoService(DriverFactory.class)
+public class TileExportCLIFactory implements ModelDriverFactory {
+	private static final IDriverUsage USAGE = new DriverUsage(false, "export-tiles",
+		ParamCount.AtLeastOne, "Map Image Exporter",
+		"Render the map, as the map viewer shows it, to PNG image tiles and an overview image",
+		true, false, "filename.xml", "filename.xml",
+		('\\' == File.separatorChar) ? "--out=C:\\path\\to\\directory" : "--out=/path/to/directory",
+		"--zoom=NN", "--tile-size=NN", "--overview-size=NN");
+
+	@Override
+	public IDriverUsage getUsage() {
+		return USAGE;
+	}
+
+	@Override
+	public ModelDriver createDriver(final ICLIHelper cli, final SPOptions options, final IDriverModel model) {
+		return new TileExportCLI(options, model);
+	}
+
+	@Override
+	public IDriverModel createModel(final IMutableMapNG map) {
+		return new SimpleMultiMapModel(map);
+	}
+}
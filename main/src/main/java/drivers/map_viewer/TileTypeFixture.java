@@ -1,5 +1,9 @@
 package drivers.map_viewer;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
 import common.map.TileType;
 import common.map.FakeFixture;
 import lovelace.util.LovelaceLogger;
@@ -9,7 +13,25 @@ import lovelace.util.LovelaceLogger;
  * copied via drag-and-drop like a fixture.
  */
 /* package */ record TileTypeFixture(TileType tileType) implements FakeFixture {
+	/**
+	 * The single instance for each tile type, since this is immutable.
+	 */
+	private static final Map<TileType, TileTypeFixture> INSTANCES;
+
+	static {
+		final Map<TileType, TileTypeFixture> temp = new EnumMap<>(TileType.class);
+		for (final TileType type : TileType.values()) {
+			temp.put(type, new TileTypeFixture(type));
+		}
+		INSTANCES = Collections.unmodifiableMap(temp);
+	}
 
+	/**
+	 * The (shared) fixture representing the given tile type.
+	 */
+	public static TileTypeFixture of(final TileType tileType) {
+		return INSTANCES.get(tileType);
+	}
 
 	/**
 	 * Clone the object.
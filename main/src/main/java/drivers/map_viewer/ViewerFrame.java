@@ -84,6 +84,12 @@ public final class ViewerFrame extends SPFrame implements MapGUI {
 		mapModel.addGraphicalParamsListener(mapPanel);
 		mapModel.addMapChangeListener(mapPanel);
 		mapModel.addSelectionChangeListener(mapPanel);
+		mapModel.addTerrainChangeListener(mapPanel);
+
+		final MinimapPanel minimap = new MinimapPanel(mapModel, mapPanel::setTerrainPyramid);
+		mapModel.addGraphicalParamsListener(minimap);
+		mapModel.addMapChangeListener(minimap);
+		mapModel.addTerrainChangeListener(minimap);
 
 		final DetailPanel detailPane = new DetailPanel(mapModel.getMapDimensions().version(), mapModel,
 			tableModel);
@@ -91,7 +97,7 @@ public final class ViewerFrame extends SPFrame implements MapGUI {
 		mapModel.addSelectionChangeListener(detailPane);
 
 		setContentPane(verticalSplit(horizontalSplit(new MapScrollPanel(mapModel, mapPanel),
-			createFilterPanel(), 0.95), detailPane, 0.9));
+			verticalSplit(minimap, createFilterPanel(), 0.3), 0.95), detailPane, 0.9));
 		setPreferredSize(new Dimension(800, 600));
 		setSize(800, 600);
 		setMinimumSize(new Dimension(800, 600));
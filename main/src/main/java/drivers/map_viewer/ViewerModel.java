@@ -102,6 +102,11 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 	 */
 	private final List<GraphicalParamsListener> gpListeners = new ArrayList<>();
 
+	/**
+	 * The list of terrain-change listeners.
+	 */
+	private final List<TerrainChangeListener> terrainListeners = new ArrayList<>();
+
 	/**
 	 * The object to handle notifying selection-change listeners.
 	 */
@@ -117,6 +122,47 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 	 */
 	private int _zoomLevel = DEFAULT_ZOOM_LEVEL;
 
+	/**
+	 * The index of the map's fixtures for searching, if it has been built.
+	 */
+	private @Nullable FixtureSearchIndex searchIndex = null;
+
+	/**
+	 * The index of the map's fixtures for searching, building it if necessary.
+	 */
+	@Override
+	public FixtureSearchIndex getSearchIndex() {
+		final FixtureSearchIndex temp = searchIndex;
+		if (temp == null) {
+			final FixtureSearchIndex retval = new FixtureSearchIndex(getMap());
+			searchIndex = retval;
+			return retval;
+		} else {
+			return temp;
+		}
+	}
+
+	/**
+	 * Reindex the given location, if the search index has been built.
+	 */
+	private void refreshIndex(final Point location) {
+		final FixtureSearchIndex temp = searchIndex;
+		if (temp != null) {
+			temp.refresh(location);
+		}
+	}
+
+	/**
+	 * Reindex the locations containing the given fixture, if the search
+	 * index has been built.
+	 */
+	private void refreshIndex(final IFixture fixture) {
+		final FixtureSearchIndex temp = searchIndex;
+		if (temp != null) {
+			temp.refreshFixture(fixture.getId());
+		}
+	}
+
 	/**
 	 * The current zoom level.
 	 */
@@ -363,6 +409,25 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 		gpListeners.remove(listener);
 	}
 
+	@Override
+	public void addTerrainChangeListener(final TerrainChangeListener listener) {
+		terrainListeners.add(listener);
+	}
+
+	@Override
+	public void removeTerrainChangeListener(final TerrainChangeListener listener) {
+		terrainListeners.remove(listener);
+	}
+
+	/**
+	 * Tell listeners that the terrain at the given location changed.
+	 */
+	private void fireTerrainChanged(final Point location) {
+		for (final TerrainChangeListener listener : terrainListeners) {
+			listener.terrainChanged(location);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "ViewerModel for " + Optional.ofNullable(getMap().getFilename())
@@ -375,6 +440,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 	 */
 	@Override
 	public void setMap(final IMutableMapNG newMap) {
+		searchIndex = null;
 		super.setMap(newMap);
 		clearSelection();
 		visDimensions = new VisibleDimensions(0, newMap.getDimensions().rows() - 1, 0,
@@ -389,6 +455,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 	public void setMountainous(final Point location, final boolean mountainous) {
 		getRestrictedMap().setMountainous(location, mountainous);
 		setMapModified(true); // TODO: Only set the flag if this was a change?
+		fireTerrainChanged(location);
 	}
 
 	/**
@@ -397,6 +464,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 	@Override
 	public void addFixture(final Point location, final TileFixture fixture) {
 		getRestrictedMap().addFixture(location, fixture);
+		refreshIndex(location);
 		setMapModified(true); // TODO: If addFixture() returns Boolean, only set this flag if this was a change?
 	}
 
@@ -408,6 +476,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 		for (final TileFixture fixture : getMap().getFixtures(location).stream().filter(condition).toList()) { // TODO: try to avoid collector step (forEach(lambda))
 			getRestrictedMap().removeFixture(location, fixture);
 		}
+		refreshIndex(location);
 		setMapModified(true); // TODO: Only set the flag if this was a change?
 	}
 
@@ -454,6 +523,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 	public void setBaseTerrain(final Point location, final @Nullable TileType terrain) {
 		getRestrictedMap().setBaseTerrain(location, terrain);
 		setMapModified(true); // TODO: Only set the flag if this was a change?
+		fireTerrainChanged(location);
 	}
 
 	/**
@@ -480,6 +550,8 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 		if (matchingOld != null && matchingMember != null && matchingNew != null) {
 			matchingOld.removeMember(matchingMember);
 			matchingNew.addMember(matchingMember);
+			refreshIndex(matchingOld);
+			refreshIndex(matchingNew);
 			getRestrictedMap().setModified(true);
 		}
 	}
@@ -521,6 +593,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				LovelaceLogger.trace("Matching unit meets preconditions");
 				if (getMap().getFixtures(location).contains(fixture)) {
 					getRestrictedMap().removeFixture(location, fixture);
+					refreshIndex(location);
 					LovelaceLogger.trace("Finished removing matching unit from map");
 					return true;
 				} else {
@@ -529,6 +602,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 							.map(IMutableFortress.class::cast).toList()) {
 						if (fort.stream().anyMatch(fixture::equals)) {
 							fort.removeMember(fixture);
+							refreshIndex(location);
 							getRestrictedMap().setModified(true);
 							LovelaceLogger.trace(
 									"Finished removing matching unit from map");
@@ -564,6 +638,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 			.filter(u -> u.getId() == unit.getId()).findAny().orElse(null);
 		if (matching != null) {
 			matching.addMember(member.copy(IFixture.CopyBehavior.KEEP));
+			refreshIndex(matching);
 			getRestrictedMap().setModified(true);
 		}
 	}
@@ -581,6 +656,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				.findAny().orElse(null);
 			if (matching instanceof HasMutableName hmn) {
 				hmn.setName(newName);
+				refreshIndex(matching);
 				getRestrictedMap().setModified(true);
 				return true;
 			} else {
@@ -605,6 +681,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				return false;
 			} else {
 				matching.setName(newName);
+				refreshIndex(um);
 				getRestrictedMap().setModified(true);
 				return true;
 			}
@@ -628,6 +705,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				.findAny().orElse(null);
 			if (matching instanceof HasMutableKind hmk) {
 				hmk.setKind(newKind);
+				refreshIndex(matching);
 				getRestrictedMap().setModified(true);
 				return true;
 			} else {
@@ -654,6 +732,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				return false;
 			} else {
 				matching.setKind(newKind);
+				refreshIndex(um);
 				getRestrictedMap().setModified(true);
 				return true;
 			}
@@ -673,6 +752,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				.findAny().orElse(null);
 			if (matching != null) {
 				unit.removeMember(matching);
+				refreshIndex(unit);
 				dismissedMembers.add(member);
 				getRestrictedMap().setModified(true);
 				break; // TODO: Why not just return?
@@ -693,6 +773,7 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				.filter(u -> getMap().getPlayers().getCurrentPlayer().equals(u.owner())).toList()) {
 			if (unit.stream().anyMatch(existing::equals)) { // TODO: look beyond equals() for matching-in-existing?
 				unit.addMember(sibling.copy(IFixture.CopyBehavior.KEEP));
+				refreshIndex(unit);
 				getRestrictedMap().setModified(true);
 				return true;
 			}
@@ -717,6 +798,9 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 				getRestrictedMap().addPlayer(newOwner);
 			}
 			matching.setOwner(getMap().getPlayers().getPlayer(newOwner.getPlayerId()));
+			if (matching instanceof IFixture fixture) {
+				refreshIndex(fixture);
+			}
 			getRestrictedMap().setModified(true);
 			return true;
 		}
@@ -759,5 +843,6 @@ public class ViewerModel extends SimpleDriverModel implements IViewerModel {
 			}
 		}
 		getRestrictedMap().addFixture(hqLoc, unit);
+		refreshIndex(hqLoc);
 	}
 }
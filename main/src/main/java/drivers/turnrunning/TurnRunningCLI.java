@@ -30,7 +30,6 @@ import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import org.javatuples.Pair;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,7 +41,7 @@ import org.jetbrains.annotations.Nullable;
 		idf = IDFactoryFiller.createIDFactory(model.streamAllMaps().toArray(IMapNG[]::new));
 		advancementCLI = new AdvancementCLIHelper(model, cli);
 		appletChooser = new AppletChooser<>(cli,
-				StreamSupport.stream(ServiceLoader.load(TurnAppletFactory.class).spliterator(), false)
+				ServiceLoader.load(TurnAppletFactory.class).stream().map(ServiceLoader.Provider::get)
 						.map(factory -> factory.create(model, cli, idf)).toArray(TurnApplet[]::new));
 		consumptionApplet = new ConsumptionApplet(model, cli);
 		spoilageApplet = new SpoilageApplet(model, cli);
@@ -31,16 +31,20 @@ import common.map.fixtures.towns.IMutableFortress;
 import drivers.common.IDriverModel;
 import exploration.common.ExplorationModel;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import lovelace.util.FixedDecimal;
 import lovelace.util.LovelaceLogger;
 import org.jetbrains.annotations.Nullable;
 
-import static lovelace.util.Decimalize.decimalize;
-
 public class TurnRunningModel extends ExplorationModel implements ITurnRunningModel {
 	/**
 	 * If "fixture" is a {@link IFortress fortress}, return a stream
@@ -68,6 +72,30 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 		}
 	}
 
+	/**
+	 * The (mutable) workers in units in the given map, including units in
+	 * fortresses, by ID. Each list is in the order a search of the map
+	 * would find them, so the first match in it is the one such a search
+	 * would return.
+	 */
+	private static Map<Integer, List<IMutableWorker>> workersById(final IMutableMapNG map) {
+		return map.streamAllFixtures().flatMap(TurnRunningModel::unflattenNonFortresses)
+			.filter(IUnit.class::isInstance).map(IUnit.class::cast).flatMap(FixtureIterable::stream)
+			.filter(IMutableWorker.class::isInstance).map(IMutableWorker.class::cast)
+			.collect(Collectors.groupingBy(IWorker::getId));
+	}
+
+	/**
+	 * The worker in the given {@link #workersById index} with the same ID,
+	 * race, and name as the given worker, if any.
+	 */
+	private static @Nullable IMutableWorker matchingWorker(final Map<Integer, List<IMutableWorker>> index,
+	                                                       final IWorker worker) {
+		return index.getOrDefault(worker.getId(), Collections.emptyList()).stream()
+			.filter(w -> w.getRace().equals(worker.getRace()))
+			.filter(w -> w.getName().equals(worker.getName())).findFirst().orElse(null);
+	}
+
 	public TurnRunningModel(final IMutableMapNG map) {
 		super(map);
 	}
@@ -240,24 +268,33 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 							.filter(w -> w.getRace().equals(worker.getRace())).filter(w -> w.getName().equals(worker.getName()))
 							.filter(w -> w.getId() == worker.getId()).findAny().orElse(null);
 			if (matching != null) {
-				final IMutableJob job = StreamSupport.stream(matching.spliterator(), false)
-						.filter(IMutableJob.class::isInstance).map(IMutableJob.class::cast)
-						.filter(j -> j.getName().equals(jobName)).findAny().orElse(null);
-				if (job == null) {
-					map.setModified(true);
-					final Job newJob = new Job(jobName, 0);
-					newJob.addSkill(new Skill(skillName, 0, 0));
-					matching.addJob(newJob);
-				} else if (StreamSupport.stream(job.spliterator(), false).map(ISkill::getName).noneMatch(skillName::equals)) {
-					map.setModified(true);
-					job.addSkill(new Skill(skillName, 0, 0));
-				}
+				addSkill(map, matching, jobName, skillName);
 				any = true;
 			}
 		}
 		return any;
 	}
 
+	/**
+	 * Add a skill, without any hours in it, to the given worker from the
+	 * given map, as in {@link #addSkillToWorker}.
+	 */
+	private static void addSkill(final IMutableMapNG map, final IMutableWorker matching, final String jobName,
+	                             final String skillName) {
+		final IMutableJob job = StreamSupport.stream(matching.spliterator(), false)
+				.filter(IMutableJob.class::isInstance).map(IMutableJob.class::cast)
+				.filter(j -> j.getName().equals(jobName)).findAny().orElse(null);
+		if (job == null) {
+			map.setModified(true);
+			final Job newJob = new Job(jobName, 0);
+			newJob.addSkill(new Skill(skillName, 0, 0));
+			matching.addJob(newJob);
+		} else if (StreamSupport.stream(job.spliterator(), false).map(ISkill::getName).noneMatch(skillName::equals)) {
+			map.setModified(true);
+			job.addSkill(new Skill(skillName, 0, 0));
+		}
+	}
+
 	/**
 	 * Add a skill, without any hours in it, to all workers in the
 	 * specified Job in all maps. Returns true if at least one matching
@@ -269,10 +306,19 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 	 */
 	@Override
 	public boolean addSkillToAllWorkers(final IUnit unit, final String jobName, final String skillName) {
+		final List<IWorker> workers = unit.stream().filter(IWorker.class::isInstance).map(IWorker.class::cast).toList();
+		if (workers.isEmpty()) {
+			return false;
+		}
 		boolean any = false;
-		for (final IWorker worker : unit.stream().filter(IWorker.class::isInstance).map(IWorker.class::cast).toList()) {
-			if (addSkillToWorker(worker, jobName, skillName)) {
-				any = true;
+		for (final IMutableMapNG map : getRestrictedAllMaps()) {
+			final Map<Integer, List<IMutableWorker>> index = workersById(map);
+			for (final IWorker worker : workers) {
+				final IMutableWorker matching = matchingWorker(index, worker);
+				if (matching != null) {
+					addSkill(map, matching, jobName, skillName);
+					any = true;
+				}
 			}
 		}
 		return any;
@@ -295,15 +341,14 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 	@Override
 	public boolean addHoursToSkillInAll(final IUnit unit, final String jobName, final String skillName,
 			final int hours, final int contextValue) {
-		boolean any = false;
+		final List<SkillHours> updates = new ArrayList<>();
 		final Random rng = new Random(contextValue);
 		for (final UnitMember member : unit) {
-			if (member instanceof IWorker w && addHoursToSkill(w, jobName, skillName, hours,
-					rng.nextInt(100))) {
-				any = true;
+			if (member instanceof IWorker w) {
+				updates.add(new SkillHours(w, jobName, skillName, hours, rng.nextInt(100)));
 			}
 		}
-		return any;
+		return addHoursToSkills(updates);
 	}
 
 	/**
@@ -330,32 +375,68 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 			if (matching != null) {
 				map.setModified(true);
 				any = true;
-				final IMutableJob job;
-				final IMutableJob temp = StreamSupport.stream(matching.spliterator(), false)
-						.filter(IMutableJob.class::isInstance).map(IMutableJob.class::cast)
-						.filter(j -> jobName.equals(j.getName())).findAny().orElse(null);
-				if (temp == null) {
-					job = new Job(jobName, 0);
-					matching.addJob(job); // FIXME: addJob() is documented to not guarantee to reuse the object
-				} else {
-					job = temp;
-				}
-				final IMutableSkill skill;
-				final IMutableSkill tSkill = StreamSupport.stream(job.spliterator(), false)
-					.filter(IMutableSkill.class::isInstance).map(IMutableSkill.class::cast)
-					.filter(s -> skillName.equals(s.getName())).findAny().orElse(null);
-				if (tSkill == null) {
-					skill = new Skill(skillName, 0, 0);
-					job.addSkill(skill); // FIXME: IIRC addSkill() is documented to not guarantee to reuse the object
-				} else {
-					skill = tSkill;
+				addHours(matching, jobName, skillName, hours, contextValue);
+			}
+		}
+		return any;
+	}
+
+	/**
+	 * Add hours to Skills in many workers at once, as if by calling {@link
+	 * #addHoursToSkill} for each update in turn. Rather than searching
+	 * each map for the worker once per update, we index each map's workers
+	 * by ID in one pass, then apply all the updates from the index.
+	 */
+	@Override
+	public boolean addHoursToSkills(final List<SkillHours> updates) {
+		if (updates.isEmpty()) {
+			return false;
+		}
+		boolean any = false;
+		for (final IMutableMapNG map : getRestrictedAllMaps()) {
+			final Map<Integer, List<IMutableWorker>> index = workersById(map);
+			for (final SkillHours update : updates) {
+				final IMutableWorker matching = matchingWorker(index, update.worker());
+				if (matching != null) {
+					map.setModified(true);
+					any = true;
+					addHours(matching, update.jobName(), update.skillName(), update.hours(),
+						update.contextValue());
 				}
-				skill.addHours(hours, contextValue);
 			}
 		}
 		return any;
 	}
 
+	/**
+	 * Add hours to a Skill in a Job in the given worker, adding the Job
+	 * and Skill first if necessary, as in {@link #addHoursToSkill}.
+	 */
+	private static void addHours(final IMutableWorker matching, final String jobName, final String skillName,
+	                             final int hours, final int contextValue) {
+		final IMutableJob job;
+		final IMutableJob temp = StreamSupport.stream(matching.spliterator(), false)
+				.filter(IMutableJob.class::isInstance).map(IMutableJob.class::cast)
+				.filter(j -> jobName.equals(j.getName())).findAny().orElse(null);
+		if (temp == null) {
+			job = new Job(jobName, 0);
+			matching.addJob(job); // FIXME: addJob() is documented to not guarantee to reuse the object
+		} else {
+			job = temp;
+		}
+		final IMutableSkill skill;
+		final IMutableSkill tSkill = StreamSupport.stream(job.spliterator(), false)
+			.filter(IMutableSkill.class::isInstance).map(IMutableSkill.class::cast)
+			.filter(s -> skillName.equals(s.getName())).findAny().orElse(null);
+		if (tSkill == null) {
+			skill = new Skill(skillName, 0, 0);
+			job.addSkill(skill); // FIXME: IIRC addSkill() is documented to not guarantee to reuse the object
+		} else {
+			skill = tSkill;
+		}
+		skill.addHours(hours, contextValue);
+	}
+
 	/**
 	 * Replace one skill, "delenda" with another, "replacement",
 	 * in the specified job in the specified worker in all maps. Unlike
@@ -406,6 +487,7 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 	 */
 	@Override
 	public boolean reduceResourceBy(final IResourcePile resource, final BigDecimal amount, final Player owner) {
+		final FixedDecimal reduction = FixedDecimal.valueOf(amount);
 		boolean any = false;
 		for (final IMutableMapNG map : getRestrictedAllMaps()) {
 			for (final FixtureIterable<?> container : map.streamAllFixtures()
@@ -420,8 +502,8 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 					if (resource.isSubset(item, x -> {}) || // TODO: is that the right way around?
 							    (resource.getKind().equals(item.getKind()) &&
 									     resource.getContents().equals(item.getContents()) && resource.getId() == item.getId())) {
-						final BigDecimal qty = decimalize(item.getQuantity().number());
-						if (qty.compareTo(amount) <= 0) {
+						final FixedDecimal qty = FixedDecimal.of(item.getQuantity().number());
+						if (qty.compareTo(reduction) <= 0) {
 							if (container instanceof IMutableUnit unit) {
 								unit.removeMember(item);
 							} else if (container instanceof IMutableFortress fort) {
@@ -431,7 +513,7 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 									"Unexpected fixture container type");
 							}
 						} else {
-							item.setQuantity(new Quantity(qty.subtract(amount),
+							item.setQuantity(new Quantity(qty.subtract(reduction).toBigDecimal(),
 								resource.getQuantity().units()));
 						}
 						map.setModified(true);
@@ -686,6 +768,7 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 	 */
 	@Override
 	public boolean transferResource(final IResourcePile from, final IUnit to, final BigDecimal quantity, final IntSupplier idFactory) {
+		final FixedDecimal amount = FixedDecimal.valueOf(quantity);
 		boolean any = false;
 		final IntSupplier id = new GenerateOnce(idFactory);
 
@@ -712,7 +795,8 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 					.filter(u -> u.getId() == to.getId()).findAny().orElse(null);
 				if (matching != null && destination != null) {
 					map.setModified(true);
-					if (quantity.doubleValue() >= matching.getQuantity().number().doubleValue()) {
+					final FixedDecimal available = FixedDecimal.of(matching.getQuantity().number());
+					if (amount.compareTo(available) >= 0) {
 						if (container instanceof IMutableFortress fort) { // TODO: Combine with other block when a supertype is added for this method
 							fort.removeMember(matching);
 						} else if (container instanceof IMutableUnit unit) {
@@ -726,8 +810,8 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 							matching.getKind(), matching.getContents(),
 							new Quantity(quantity, matching.getQuantity().units()));
 						split.setCreated(matching.getCreated());
-						matching.setQuantity(new Quantity(decimalize(matching.getQuantity()
-							.number()).subtract(quantity), matching.getQuantity().units()));
+						matching.setQuantity(new Quantity(available.subtract(amount).toBigDecimal(),
+							matching.getQuantity().units()));
 					}
 					any = true;
 					break;
@@ -748,6 +832,7 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 	 */
 	@Override
 	public boolean transferResource(final IResourcePile from, final IFortress to, final BigDecimal quantity, final IntSupplier idFactory) {
+		final FixedDecimal amount = FixedDecimal.valueOf(quantity);
 		boolean any = false;
 		final IntSupplier id = new GenerateOnce(idFactory);
 
@@ -773,7 +858,8 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 					.filter(f -> f.getId() == to.getId()).findAny().orElse(null);
 				if (matching != null && destination != null) {
 					map.setModified(true);
-					if (quantity.doubleValue() >= matching.getQuantity().number().doubleValue()) {
+					final FixedDecimal available = FixedDecimal.of(matching.getQuantity().number());
+					if (amount.compareTo(available) >= 0) {
 						if (container instanceof IMutableFortress fort) { // TODO: Combine with other block when a supertype is added for this method
 							fort.removeMember(matching);
 						} else if (container instanceof IMutableUnit unit) {
@@ -787,8 +873,8 @@ public class TurnRunningModel extends ExplorationModel implements ITurnRunningMo
 							matching.getKind(), matching.getContents(),
 							new Quantity(quantity, matching.getQuantity().units()));
 						split.setCreated(matching.getCreated());
-						matching.setQuantity(new Quantity(decimalize(matching.getQuantity()
-							.number()).subtract(quantity), matching.getQuantity().units()));
+						matching.setQuantity(new Quantity(available.subtract(amount).toBigDecimal(),
+							matching.getQuantity().units()));
 					}
 					any = true;
 					break;
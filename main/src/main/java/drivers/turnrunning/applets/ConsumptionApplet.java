@@ -9,11 +9,10 @@ import common.map.fixtures.IResourcePile;
 
 import java.math.BigDecimal;
 
-import static lovelace.util.Decimalize.decimalize;
-
 import drivers.turnrunning.ITurnRunningModel;
 import java.util.Collections;
 import java.util.List;
+import lovelace.util.FixedDecimal;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -80,7 +79,7 @@ public class ConsumptionApplet extends AbstractTurnApplet {
 			return null;
 		}
 		final long workers = localUnit.stream().filter(IWorker.class::isInstance).count();
-		BigDecimal remainingConsumption = new BigDecimal(4 * workers);
+		FixedDecimal remainingConsumption = FixedDecimal.valueOf(4 * workers);
 		while (remainingConsumption.signum() > 0) { // TODO: extract loop body as a function?
 			cli.println(String.format("%.1f pounds of consumption unaccounted-for",
 				remainingConsumption.doubleValue()));
@@ -90,16 +89,15 @@ public class ConsumptionApplet extends AbstractTurnApplet {
 			if (food == null) {
 				return null;
 			}
-			if (food.getQuantity().number().doubleValue() <= remainingConsumption.doubleValue()) {
+			final FixedDecimal available = FixedDecimal.of(food.getQuantity().number());
+			if (available.compareTo(remainingConsumption) <= 0) {
 				final Boolean resp = cli.inputBooleanInSeries(String.format("Consume all of the %s?",
 					food.getContents()), "consume-all-of");
 				if (resp == null) {
 					return null;
 				} else if (resp) {
-					model.reduceResourceBy(food, decimalize(food.getQuantity().number()),
-						localUnit.owner());
-					remainingConsumption = remainingConsumption.subtract(
-						decimalize(food.getQuantity().number()));
+					model.reduceResourceBy(food, available.toBigDecimal(), localUnit.owner());
+					remainingConsumption = remainingConsumption.subtract(available);
 					continue;
 				} else { // TODO: extract this as a function?
 					final BigDecimal amountToConsume = cli.inputDecimal(String.format(
@@ -107,9 +105,8 @@ public class ConsumptionApplet extends AbstractTurnApplet {
 					if (amountToConsume == null) {
 						return null;
 					}
-					final BigDecimal minuend = amountToConsume.min(decimalize(
-						food.getQuantity().number()));
-					model.reduceResourceBy(food, minuend, localUnit.owner());
+					final FixedDecimal minuend = FixedDecimal.valueOf(amountToConsume).min(available);
+					model.reduceResourceBy(food, minuend.toBigDecimal(), localUnit.owner());
 					remainingConsumption = remainingConsumption.subtract(minuend);
 					continue;
 				}
@@ -119,20 +116,22 @@ public class ConsumptionApplet extends AbstractTurnApplet {
 			if (resp == null) {
 				return null;
 			} else if (resp) {
-				model.reduceResourceBy(food, remainingConsumption, localUnit.owner());
-				remainingConsumption = decimalize(0);
+				model.reduceResourceBy(food, remainingConsumption.toBigDecimal(), localUnit.owner());
+				remainingConsumption = FixedDecimal.ZERO;
 			} else { // TODO: extract this as a function?
 				final BigDecimal amountToConsume = cli.inputDecimal(String.format(
 					"How many pounds of the %s to consume:", food.getContents()));
 				if (amountToConsume == null) {
 					return null;
-				} else if (amountToConsume.compareTo(remainingConsumption) > 0) {
-					model.reduceResourceBy(food, remainingConsumption, localUnit.owner());
-					remainingConsumption = decimalize(0);
+				}
+				final FixedDecimal amount = FixedDecimal.valueOf(amountToConsume);
+				if (amount.compareTo(remainingConsumption) > 0) {
+					model.reduceResourceBy(food, remainingConsumption.toBigDecimal(), localUnit.owner());
+					remainingConsumption = FixedDecimal.ZERO;
 					continue;
 				} else {
 					model.reduceResourceBy(food, amountToConsume, localUnit.owner());
-					remainingConsumption = remainingConsumption.subtract(amountToConsume);
+					remainingConsumption = remainingConsumption.subtract(amount);
 					continue;
 				}
 			}
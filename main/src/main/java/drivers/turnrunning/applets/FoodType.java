@@ -8,7 +8,7 @@ import static lovelace.util.Decimalize.decimalize;
 
 import common.map.fixtures.IResourcePile;
 import common.map.fixtures.Quantity;
-import java.util.Comparator;
+import lovelace.util.FixedDecimal;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -72,6 +72,13 @@ import org.jetbrains.annotations.Nullable;
 		return minimumSpoilage;
 	}
 
+	/**
+	 * {@link #fractionSpoilingDaily} and {@link #minimumSpoilage} in
+	 * fixed-point form, so computing spoilage doesn't convert them each time.
+	 */
+	private final @Nullable FixedDecimal fixedFractionSpoilingDaily;
+	private final @Nullable FixedDecimal fixedMinimumSpoilage;
+
 	private final String string;
 
 	@Override
@@ -89,6 +96,8 @@ import org.jetbrains.annotations.Nullable;
 		this.keepsForFrozen = keepsForFrozen;
 		fractionSpoilingDaily = fracSpoilingDaily;
 		minimumSpoilage = minSpoilage;
+		fixedFractionSpoilingDaily = Optional.ofNullable(fracSpoilingDaily).map(FixedDecimal::valueOf).orElse(null);
+		fixedMinimumSpoilage = Optional.ofNullable(minSpoilage).map(FixedDecimal::valueOf).orElse(null);
 		string = str;
 	}
 
@@ -134,9 +143,15 @@ import org.jetbrains.annotations.Nullable;
 	}
 
 	public @Nullable BigDecimal amountSpoiling(final Quantity qty, final ICLIHelper cli) {
-		final BigDecimal amt = decimalize(qty.number());
-		final BigDecimal fractional = Optional.ofNullable(fractionSpoilingDaily).map(amt::multiply).orElse(null);
-		return Stream.of(fractional, minimumSpoilage).filter(Objects::nonNull)
-				.max(Comparator.naturalOrder()).orElseGet(() -> cli.inputDecimal("How many pounds spoil?"));
+		final FixedDecimal fraction = fixedFractionSpoilingDaily;
+		final FixedDecimal minimum = fixedMinimumSpoilage;
+		if (fraction != null) {
+			final FixedDecimal fractional = FixedDecimal.of(qty.number()).multiply(fraction);
+			return ((minimum == null) ? fractional : fractional.max(minimum)).toBigDecimal();
+		} else if (minimum != null) {
+			return minimum.toBigDecimal();
+		} else {
+			return cli.inputDecimal("How many pounds spoil?");
+		}
 	}
 }
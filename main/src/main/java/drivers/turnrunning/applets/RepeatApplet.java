@@ -8,7 +8,6 @@ import either.Either;
 import java.util.Collections;
 import java.util.List;
 import java.util.ServiceLoader;
-import java.util.stream.StreamSupport;
 import org.jetbrains.annotations.Nullable;
 
 /* package */class RepeatApplet implements TurnApplet {
@@ -17,8 +16,8 @@ import org.jetbrains.annotations.Nullable;
 		this.cli = cli;
 		this.idf = idf;
 		appletChooser = new AppletChooser<>(cli,
-				StreamSupport.stream(ServiceLoader.load(TurnAppletFactory.class).spliterator(), false)
-						.filter(RepeatApplet::isNotRepeat).map(this::getApplet).toArray(TurnApplet[]::new));
+				ServiceLoader.load(TurnAppletFactory.class).stream().filter(RepeatApplet::isNotRepeat)
+						.map(ServiceLoader.Provider::get).map(this::getApplet).toArray(TurnApplet[]::new));
 	}
 
 	private final ITurnRunningModel model;
@@ -37,8 +36,8 @@ import org.jetbrains.annotations.Nullable;
 		return "Run multiple commands for a single unit";
 	}
 
-	private static boolean isNotRepeat(final TurnAppletFactory factory) {
-		return !(factory instanceof RepeatAppletFactory);
+	private static boolean isNotRepeat(final ServiceLoader.Provider<TurnAppletFactory> provider) {
+		return !RepeatAppletFactory.class.isAssignableFrom(provider.type());
 	}
 
 	private TurnApplet getApplet(final TurnAppletFactory factory) {
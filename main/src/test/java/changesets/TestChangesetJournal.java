@@ -0,0 +1,262 @@
+package changesets;
+
+import common.map.Direction;
+import common.map.IFixture;
+import common.map.IMutableMapNG;
+import common.map.IMutablePlayerCollection;
+import common.map.MapDimensionsImpl;
+import common.map.Player;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileType;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.towns.TownStatus;
+import common.map.fixtures.towns.Village;
+import common.xmlio.SPFormatException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the {@link ChangesetHistory undo/redo history} and the {@link ChangesetJournal journal}.
+ */
+public class TestChangesetJournal {
+	private static IMutableMapNG createMap() {
+		final IMutablePlayerCollection players = new PlayerCollection();
+		players.add(new PlayerImpl(1, "main"));
+		players.add(new PlayerImpl(2, "second"));
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(4, 4, 2), players, 3);
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TileType.Plains);
+		}
+		final Player owner = players.getPlayer(1);
+		final Unit first = new Unit(owner, "kind", "first", 10);
+		first.addMember(new Worker("worker", "human", 11));
+		first.setOrders(3, "Explore");
+		retval.addFixture(new Point(1, 1), first);
+		retval.addFixture(new Point(2, 2), new Unit(owner, "kind", "second", 12));
+		retval.addFixture(new Point(0, 0), new TextFixture("note", 2));
+		return retval;
+	}
+
+	/**
+	 * Apply one of each kind of changeset through the given history.
+	 */
+	private static void makeChanges(final IMutableMapNG map, final ChangesetHistory history)
+			throws IOException {
+		final Player owner = map.getPlayers().getPlayer(2);
+		history.apply(new AddFixtureChangeset(3, new Point(3, 3),
+			new Village(TownStatus.Active, "village", 20, owner, "elf")));
+		history.apply(new RemoveFixtureChangeset(3, new Point(0, 0),
+			map.getFixtures(new Point(0, 0)).iterator().next()));
+		history.apply(new TerrainChangeset(3, new Point(1, 2), TileType.Plains, TileType.Desert));
+		history.apply(new RiverChangeset(3, new Point(2, 1), EnumSet.of(River.North, River.Lake),
+			Set.of()));
+		history.apply(new RiverChangeset(3, new Point(2, 1), Set.of(), EnumSet.of(River.Lake)));
+		history.apply(new RoadChangeset(3, new Point(2, 1), Direction.North, 0, 4));
+		history.apply(new OrdersChangeset(3, 10, 3, "Explore", "Explore\tthe\nnorth"));
+		history.apply(new MemberTransferChangeset(3, 11, 10, 12));
+		history.apply(new MountainChangeset(3, new Point(3, 0), false, true));
+		history.apply(new BookmarkChangeset(3, new Point(3, 0), 2, false, true));
+	}
+
+	/**
+	 * Test that replaying the journal onto the original map reproduces the edited map.
+	 */
+	@Test
+	public void testReplay(@TempDir final Path directory)
+			throws IOException, SPFormatException, XMLStreamException {
+		final IMutableMapNG map = createMap();
+		final IMutableMapNG saved = createMap();
+		final Path file = ChangesetJournal.journalFor(directory.resolve("map.xml"));
+		try (final ChangesetJournal journal = new ChangesetJournal(file)) {
+			makeChanges(map, new ChangesetHistory(map, journal));
+		}
+		assertNotEquals(saved, map, "Changes made a difference");
+		assertEquals(10, ChangesetJournal.replay(file, saved), "All changes were replayed");
+		assertEquals(map, saved, "Replaying the journal reproduces the map");
+	}
+
+	/**
+	 * Test that an incompletely-written final record is ignored.
+	 */
+	@Test
+	public void testTruncatedRecord(@TempDir final Path directory)
+			throws IOException, SPFormatException, XMLStreamException {
+		final IMutableMapNG map = createMap();
+		final Path file = directory.resolve("map.xml.journal");
+		try (final ChangesetJournal journal = new ChangesetJournal(file)) {
+			new ChangesetHistory(map, journal).apply(
+				new TerrainChangeset(3, new Point(0, 1), TileType.Plains, TileType.Jungle));
+		}
+		Files.writeString(file, "terrain\t3\t0\t2\tPla", StandardCharsets.UTF_8,
+			StandardOpenOption.APPEND);
+		final IMutableMapNG saved = createMap();
+		assertEquals(1, ChangesetJournal.replay(file, saved), "Only the complete record is replayed");
+		assertEquals(map, saved, "Partial record is ignored");
+	}
+
+	/**
+	 * Test that reopening a journal whose final record is incomplete
+	 * discards that record, so records appended afterwards are replayed.
+	 */
+	@Test
+	public void testAppendAfterTruncatedRecord(@TempDir final Path directory)
+			throws IOException, SPFormatException, XMLStreamException {
+		final IMutableMapNG map = createMap();
+		final Path file = directory.resolve("map.xml.journal");
+		try (final ChangesetJournal journal = new ChangesetJournal(file)) {
+			new ChangesetHistory(map, journal).apply(
+				new TerrainChangeset(3, new Point(0, 1), TileType.Plains, TileType.Jungle));
+		}
+		Files.writeString(file, "terrain\t3\t0\t2\tPla", StandardCharsets.UTF_8,
+			StandardOpenOption.APPEND);
+		try (final ChangesetJournal journal = new ChangesetJournal(file)) {
+			new ChangesetHistory(map, journal).apply(
+				new TerrainChangeset(3, new Point(0, 2), TileType.Plains, TileType.Tundra));
+		}
+		final IMutableMapNG saved = createMap();
+		assertEquals(2, ChangesetJournal.replay(file, saved), "Both complete records are replayed");
+		assertEquals(map, saved, "Record appended after reopening is not lost");
+	}
+
+	/**
+	 * Test that a change that cannot be journaled is not left applied to the map.
+	 */
+	@Test
+	public void testFailedRecordRollsBack(@TempDir final Path directory) throws IOException {
+		final IMutableMapNG map = createMap();
+		final ChangesetJournal journal = new ChangesetJournal(directory.resolve("map.xml.journal"));
+		final ChangesetHistory history = new ChangesetHistory(map, journal);
+		journal.close();
+		assertThrows(IOException.class, () -> history.apply(
+			new TerrainChangeset(3, new Point(0, 1), TileType.Plains, TileType.Jungle)),
+			"Writing to a closed journal fails");
+		assertEquals(createMap(), map, "Change that was not journaled was rolled back");
+		assertFalse(history.canUndo(), "Change that was not journaled cannot be undone");
+	}
+
+	/**
+	 * Test that undoing the addition of a river that was already present leaves it in place.
+	 */
+	@Test
+	public void testUndoExistingRiver() throws IOException {
+		final IMutableMapNG map = createMap();
+		final Point point = new Point(2, 1);
+		map.addRivers(point, River.North);
+		final ChangesetHistory history = new ChangesetHistory(map);
+		history.apply(new RiverChangeset(3, point, EnumSet.of(River.North, River.Lake), Set.of()));
+		history.undo();
+		assertEquals(Set.of(River.North), Set.copyOf(map.getRivers(point)),
+			"Undo removes only the river that was added");
+	}
+
+	/**
+	 * Test that undoing making a tile mountainous when it already was
+	 * leaves it mountainous.
+	 */
+	@Test
+	public void testUndoExistingMountain() throws IOException {
+		final IMutableMapNG map = createMap();
+		final Point point = new Point(2, 1);
+		map.setMountainous(point, true);
+		final ChangesetHistory history = new ChangesetHistory(map);
+		history.apply(new MountainChangeset(3, point, false, true));
+		history.undo();
+		assertTrue(map.isMountainous(point), "Undo leaves the existing mountain in place");
+		history.apply(new MountainChangeset(3, point, false, false));
+		history.undo();
+		assertTrue(map.isMountainous(point), "Undo restores the mountain that was removed");
+	}
+
+	/**
+	 * Test that undoing adding a bookmark that was already present leaves
+	 * it in place, and undoing removing one that was not present doesn't
+	 * add it.
+	 */
+	@Test
+	public void testUndoExistingBookmark() throws IOException {
+		final IMutableMapNG map = createMap();
+		final Point point = new Point(2, 1);
+		final Player player = map.getPlayers().getPlayer(1);
+		map.addBookmark(point, player);
+		final ChangesetHistory history = new ChangesetHistory(map);
+		history.apply(new BookmarkChangeset(3, point, 1, false, true));
+		history.undo();
+		assertTrue(map.getBookmarksFor(player).contains(point), "Undo leaves the existing bookmark in place");
+		final Point other = new Point(3, 1);
+		history.apply(new BookmarkChangeset(3, other, 1, true, false));
+		history.undo();
+		assertFalse(map.getBookmarksFor(player).contains(other), "Undo doesn't add a bookmark that wasn't there");
+	}
+
+	/**
+	 * Test that undoing a terrain or road change restores what was really
+	 * there, even if the changeset was created with a stale "before" value.
+	 */
+	@Test
+	public void testUndoStaleTerrainAndRoad() throws IOException {
+		final IMutableMapNG map = createMap();
+		final Point point = new Point(2, 1);
+		map.setRoadLevel(point, Direction.North, 2);
+		final ChangesetHistory history = new ChangesetHistory(map);
+		history.apply(new TerrainChangeset(3, point, TileType.Tundra, TileType.Desert));
+		history.apply(new RoadChangeset(3, point, Direction.North, 0, 4));
+		history.undo();
+		history.undo();
+		assertEquals(TileType.Plains, map.getBaseTerrain(point), "Undo restores the terrain really there");
+		assertEquals(2, map.getRoads(point).getOrDefault(Direction.North, 0),
+			"Undo restores the road really there");
+	}
+
+	/**
+	 * Test that undoing every change restores the original map, that redoing
+	 * them reproduces the edited map, and that the journal records both.
+	 */
+	@Test
+	public void testUndoRedo(@TempDir final Path directory)
+			throws IOException, SPFormatException, XMLStreamException {
+		final IMutableMapNG map = createMap();
+		final Path file = directory.resolve("map.xml.journal");
+		try (final ChangesetJournal journal = new ChangesetJournal(file)) {
+			final ChangesetHistory history = new ChangesetHistory(map, journal);
+			makeChanges(map, history);
+			final IMutableMapNG edited = createMap();
+			ChangesetJournal.replay(file, edited);
+			while (history.canUndo()) {
+				history.undo();
+			}
+			assertFalse(history.canUndo(), "Undo stack is exhausted");
+			assertEquals(createMap(), map, "Undoing everything restores the original");
+			final IMutableMapNG undone = createMap();
+			ChangesetJournal.replay(file, undone);
+			assertEquals(map, undone, "Journal records undo");
+			while (history.canRedo()) {
+				history.redo();
+			}
+			assertEquals(edited, map, "Redoing everything reproduces the edits");
+			history.checkpoint();
+			assertTrue(ChangesetJournal.read(file, map.getPlayers()).isEmpty(),
+				"Checkpoint empties the journal");
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package changesets;
+
+import common.map.Direction;
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.IMutablePlayerCollection;
+import common.map.MapDimensionsImpl;
+import common.map.Player;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.terrain.Forest;
+import common.xmlio.SPFormatException;
+import impl.xmlio.MapIOHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link MapDiff} produces patches that reproduce the newer map exactly.
+ */
+public class TestMapDiff {
+	private static final TileType[] TERRAIN = { TileType.Plains, TileType.Steppe, TileType.Desert,
+		TileType.Jungle, TileType.Tundra, TileType.Ocean };
+
+	/**
+	 * Create a map with random terrain and contents, the same each time.
+	 */
+	private static IMutableMapNG createMap() {
+		return createMap("second");
+	}
+
+	/**
+	 * Create a map with random terrain and contents, the same each time,
+	 * whose second player has the given name.
+	 */
+	private static IMutableMapNG createMap(final String secondPlayer) {
+		final Random random = new Random(49);
+		final IMutablePlayerCollection players = new PlayerCollection();
+		players.add(new PlayerImpl(1, "main"));
+		players.add(new PlayerImpl(2, secondPlayer));
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(40, 40, 2), players, 5);
+		final Player owner = players.getPlayer(1);
+		int id = 1;
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TERRAIN[random.nextInt(TERRAIN.length)]);
+			if (random.nextInt(5) == 0) {
+				retval.setMountainous(point, true);
+			}
+			if (random.nextInt(6) == 0) {
+				retval.addRivers(point, River.values()[random.nextInt(River.values().length)]);
+			}
+			if (random.nextInt(10) == 0) {
+				retval.setRoadLevel(point, Direction.values()[random.nextInt(Direction.values().length)],
+					random.nextInt(5) + 1);
+			}
+			if (random.nextInt(3) == 0) {
+				retval.addFixture(point, new Forest("oak", random.nextBoolean(), id++, random.nextInt(40)));
+			}
+			if (random.nextInt(4) == 0) {
+				retval.addFixture(point, new AnimalImpl("deer", false, "wild", id++, -1, random.nextInt(20) + 1));
+			}
+			if (random.nextInt(8) == 0) {
+				final Unit unit = new Unit(owner, "kind", "unit " + id, id++);
+				unit.addMember(new Worker("worker", "human", id++));
+				unit.setOrders(5, "Explore");
+				retval.addFixture(point, unit);
+			}
+		}
+		retval.addBookmark(new Point(3, 3), owner);
+		retval.setModified(false);
+		return retval;
+	}
+
+	/**
+	 * Change a few tiles of the map, in every way a turn might.
+	 */
+	private static void advanceTurn(final IMutableMapNG map) {
+		final Player owner = map.getPlayers().getPlayer(1);
+		final List<Unit> units = new ArrayList<>();
+		final List<Point> unitLocations = new ArrayList<>();
+		for (final Point point : map.getLocations()) {
+			for (final TileFixture fixture : map.getFixtures(point)) {
+				if (fixture instanceof Unit u) {
+					units.add(u);
+					unitLocations.add(point);
+				}
+			}
+		}
+		// Orders changes aren't seen by equals(), but must be in the patch.
+		units.get(0).setOrders(6, "Build a fort");
+		units.get(1).setResults(5, "Explored the area");
+		// A unit moves, and one recruits a worker.
+		map.removeFixture(unitLocations.get(2), units.get(2));
+		map.addFixture(new Point(0, 0), units.get(2));
+		units.get(3).addMember(new Worker("recruit", "elf", 5000));
+		// Fixtures are added and removed, and one tile's are reordered.
+		map.addFixture(new Point(10, 10), new TextFixture("a note", 6));
+		final Point reordered = unitLocations.get(4);
+		final List<TileFixture> fixtures = new ArrayList<>(map.getFixtures(reordered));
+		map.removeFixture(reordered, fixtures.get(0));
+		map.addFixture(reordered, fixtures.get(0));
+		map.removeFixture(new Point(20, 20), map.getFixtures(new Point(20, 20)).iterator().next());
+		map.setBaseTerrain(new Point(5, 5), TileType.Swamp);
+		map.setMountainous(new Point(5, 6), !map.isMountainous(new Point(5, 6)));
+		map.addRivers(new Point(5, 7), River.North, River.Lake);
+		map.setRoadLevel(new Point(5, 8), Direction.East, 3);
+		map.removeBookmark(new Point(3, 3), owner);
+		map.addBookmark(new Point(4, 4), map.getPlayers().getPlayer(2));
+		map.setCurrentTurn(6);
+	}
+
+	private static String xml(final IMapNG map) throws XMLStreamException, IOException {
+		final StringBuilder builder = new StringBuilder();
+		MapIOHelper.WRITER.writeSPObject(builder::append, map);
+		return builder.toString();
+	}
+
+	/**
+	 * Test that there are no differences between identical maps.
+	 */
+	@Test
+	public void testNoChanges() throws XMLStreamException, IOException {
+		assertTrue(MapDiff.diff(createMap(), createMap()).isEmpty(), "No differences between identical maps");
+	}
+
+	/**
+	 * Test that replaying the patch onto the older map reproduces the newer,
+	 * down to the order of fixtures and the orders of units, and that the
+	 * patch is much smaller than the map.
+	 */
+	@Test
+	public void testPatch(@TempDir final Path directory)
+			throws XMLStreamException, IOException, SPFormatException {
+		final IMutableMapNG newer = createMap();
+		advanceTurn(newer);
+		final IMutableMapNG older = createMap();
+		assertNotEquals(xml(older), xml(newer), "Turn made a difference");
+		final Path patch = directory.resolve("turn.patch");
+		final int count = MapDiff.writePatch(older, newer, patch);
+		assertEquals(count, MapDiff.applyPatch(patch, older), "Every change was replayed");
+		assertEquals(newer, older, "Patched map equals the newer one");
+		assertEquals(xml(newer), xml(older), "Patched map is written exactly as the newer one");
+		final Path full = directory.resolve("map.xml");
+		MapIOHelper.writeMap(full, newer);
+		assertTrue(Files.size(patch) * 10 < Files.size(full), "Patch is a small fraction of the map");
+		assertTrue(MapDiff.diff(older, newer).isEmpty(), "Nothing left to patch");
+	}
+
+	/**
+	 * Test that a patch that has lost its trailer, or some of its changes,
+	 * is refused without changing the map, and that one that does not
+	 * reproduce the newer map is detected.
+	 */
+	@Test
+	public void testDamagedPatch(@TempDir final Path directory)
+			throws XMLStreamException, IOException, SPFormatException {
+		final IMutableMapNG newer = createMap();
+		advanceTurn(newer);
+		final Path patch = directory.resolve("turn.patch");
+		MapDiff.writePatch(createMap(), newer, patch);
+		final List<String> lines = Files.readAllLines(patch, StandardCharsets.UTF_8);
+		final String trailer = lines.get(lines.size() - 1);
+
+		final Path truncated = directory.resolve("truncated.patch");
+		Files.write(truncated, lines.subList(0, lines.size() - 1), StandardCharsets.UTF_8);
+		final IMutableMapNG older = createMap();
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.applyPatch(truncated, older),
+			"Patch without a trailer is refused");
+		assertEquals(xml(createMap()), xml(older), "Refused patch left the map unchanged");
+
+		final List<String> shortened = new ArrayList<>(lines);
+		shortened.remove(0);
+		final Path missing = directory.resolve("missing.patch");
+		Files.write(missing, shortened, StandardCharsets.UTF_8);
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.applyPatch(missing, older),
+			"Patch missing a change is refused");
+		assertEquals(xml(createMap()), xml(older), "Refused patch left the map unchanged");
+
+		final List<String> tampered = new ArrayList<>(lines.subList(0, lines.size() - 1));
+		tampered.add(trailer.substring(0, trailer.lastIndexOf('\t') + 1) + "0");
+		final Path wrong = directory.resolve("wrong.patch");
+		Files.write(wrong, tampered, StandardCharsets.UTF_8);
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.applyPatch(wrong, createMap()),
+			"Patch whose result does not match its checksum is detected");
+	}
+
+	/**
+	 * Test that maps that differ in what changesets cannot change are rejected.
+	 */
+	@Test
+	public void testIncompatibleMaps() {
+		final IMapNG smaller = new SPMapNG(new MapDimensionsImpl(20, 40, 2), new PlayerCollection(), 5);
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.diff(createMap(), smaller),
+			"Different dimensions are rejected");
+		final IMutableMapNG fewerPlayers = new SPMapNG(new MapDimensionsImpl(40, 40, 2),
+			new PlayerCollection(), 5);
+		fewerPlayers.addPlayer(new PlayerImpl(1, "main"));
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.diff(createMap(), fewerPlayers),
+			"Different sets of players are rejected");
+		assertThrows(IllegalArgumentException.class,
+			() -> MapDiff.diff(createMap(), createMap("renamed")), "Renamed player is rejected");
+		final IMutableMapNG portrait = createMap();
+		portrait.getPlayers().getPlayer(2).setPortrait("portrait.png");
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.diff(createMap(), portrait),
+			"Player with a new portrait is rejected");
+		final IMutableMapNG current = createMap();
+		current.setCurrentPlayer(current.getPlayers().getPlayer(2));
+		assertThrows(IllegalArgumentException.class, () -> MapDiff.diff(createMap(), current),
+			"Different current player is rejected");
+	}
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package changesets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -0,0 +1,50 @@
+package drivers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import drivers.common.DriverFailedException;
+import drivers.common.SPOptionsImpl;
+import drivers.common.cli.CLIHelper;
+
+/**
+ * A program for {@link TestDriverIndex} to run in a fresh JVM: it starts
+ * the "count" CLI driver on a tiny map through {@link
+ * AppStarter#startDriverOnArguments}, as the launcher does, either with
+ * the driver index ("index") or without it, so that every driver is loaded
+ * ("all"), and prints the driver's output and how long, in nanoseconds,
+ * starting and running it took.
+ */
+public final class DriverLookupProbe {
+	private DriverLookupProbe() {
+	}
+
+	private static final String MAP = """
+			<view xmlns="https://github.com/kingjon3377/strategicprimer-viewer" current_player="-1" current_turn="-1">
+				<map version="2" rows="1" columns="1">
+					<row index="0">
+						<tile row="0" column="0" kind="plains" />
+					</row>
+				</map>
+			</view>
+			""";
+
+	public static void main(final String... args) throws IOException, DriverFailedException {
+		final AppStarter starter = "index".equals(args[0]) ? new AppStarter() :
+			new AppStarter(Collections.emptyMap());
+		final Path map = Files.createTempFile("probe", ".xml");
+		try {
+			Files.writeString(map, MAP, StandardCharsets.UTF_8);
+			final long start = System.nanoTime();
+			starter.startDriverOnArguments(new CLIHelper(() -> null, System.out::print), new SPOptionsImpl(),
+				"--cli", "count", map.toString());
+			final long nanos = System.nanoTime() - start;
+			System.out.println("Took " + nanos);
+		} finally {
+			Files.delete(map);
+		}
+	}
+}
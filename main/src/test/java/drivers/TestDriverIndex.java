@@ -0,0 +1,134 @@
+package drivers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import lovelace.util.LovelaceLogger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the driver index is up to date, and that starting a CLI driver
+ * through it initializes no other driver.
+ */
+public final class TestDriverIndex {
+	/**
+	 * Run {@link DriverLookupProbe} in a fresh JVM with the same classpath
+	 * as this test, passing the given JVM logging option, and return its output.
+	 */
+	private static List<String> probe(final String mode, final String logOption)
+			throws IOException, InterruptedException {
+		final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		final Process process = new ProcessBuilder(java, logOption, "-cp", System.getProperty("java.class.path"),
+				DriverLookupProbe.class.getName(), mode).redirectErrorStream(true).start();
+		final List<String> output;
+		try (final InputStream stream = process.getInputStream()) {
+			output = new String(stream.readAllBytes(), StandardCharsets.UTF_8).lines()
+				.collect(Collectors.toList());
+		}
+		assertEquals(0, process.waitFor(), "Probe exited normally");
+		assertTrue(output.contains("There are 1 tiles in all."), "Probe ran the driver");
+		return output;
+	}
+
+	/**
+	 * The names of the classes the probe initialized.
+	 */
+	private static Set<String> initializedClasses(final String mode, final Path log)
+			throws IOException, InterruptedException {
+		probe(mode, "-Xlog:class+init=info:file=" + log);
+		final Pattern pattern = Pattern.compile("Initializing '([^']*)'");
+		return Files.readAllLines(log).stream().map(pattern::matcher).filter(Matcher::find)
+			.map(m -> m.group(1).replace('/', '.')).collect(Collectors.toSet());
+	}
+
+	/**
+	 * The driver factories, of those in the index, that the probe initialized.
+	 */
+	private static Set<String> initializedFactories(final Set<String> initialized) {
+		final Set<String> factories = DriverIndex.load().values().stream().flatMap(List::stream)
+			.map(DriverIndex.Entry::factoryClass).collect(Collectors.toSet());
+		return initialized.stream().filter(factories::contains).collect(Collectors.toSet());
+	}
+
+	/**
+	 * The shortest time, in nanoseconds, the probe took to start and run
+	 * the driver in several runs.
+	 */
+	private static long fastest(final String mode) throws IOException, InterruptedException {
+		long retval = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			retval = Math.min(retval, probe(mode, "-Xlog:disable").stream().filter(line -> line.startsWith("Took "))
+				.mapToLong(line -> Long.parseLong(line.substring(5))).findFirst().orElseThrow());
+		}
+		return retval;
+	}
+
+	/**
+	 * Test that the index lists exactly the drivers that are registered.
+	 * If this fails, regenerate it by running {@link DriverIndex#main} with
+	 * the path to main/src/main/resources/drivers/driver-index.tsv.
+	 */
+	@Test
+	public void testIndexUpToDate() throws IOException {
+		final StringWriter expected = new StringWriter();
+		DriverIndex.write(expected);
+		final String actual;
+		try (final InputStream stream = Objects.requireNonNull(
+				TestDriverIndex.class.getResourceAsStream(DriverIndex.RESOURCE))) {
+			actual = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		assertEquals(expected.toString(), actual, "Driver index is up to date");
+		assertEquals(Stream.of(expected.toString().split("\n")).count(),
+			DriverIndex.load().values().stream().mapToLong(List::size).sum(), "Every line is parsed");
+	}
+
+	/**
+	 * Test that starting a CLI driver through the index initializes that
+	 * driver's factory and no other, and no Swing classes, while starting
+	 * it without the index initializes every factory.
+	 */
+	@Test
+	public void testIndexedLookupInitializesOneDriver(@TempDir final Path tempDir)
+			throws IOException, InterruptedException {
+		final Set<String> indexed = initializedClasses("index", tempDir.resolve("index.log"));
+		assertEquals(Collections.singleton("utility.CountingCLIFactory"), initializedFactories(indexed),
+			"Indexed lookup initializes only the chosen driver's factory");
+		assertTrue(indexed.stream().noneMatch(c -> c.startsWith("javax.swing.")),
+			"Indexed lookup initializes no Swing classes");
+		assertEquals(DriverIndex.load().values().stream().mapToLong(List::size).sum(),
+			initializedFactories(initializedClasses("all", tempDir.resolve("all.log"))).size(),
+			"Lookup without the index initializes every factory");
+	}
+
+	/**
+	 * Report how long starting a CLI driver takes with and without the
+	 * index. Because wall-clock time in child JVMs varies too much from
+	 * machine to machine to assert on, this only runs when the
+	 * "driverIndex.timing" system property is "true".
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "driverIndex.timing", matches = "true")
+	public void reportLookupTiming() throws IOException, InterruptedException {
+		LovelaceLogger.info("Fastest CLI driver start: %d ms through index, %d ms loading every driver",
+			fastest("index") / 1_000_000, fastest("all") / 1_000_000);
+	}
+}
@@ -0,0 +1,125 @@
+package drivers;
+
+import lovelace.util.EnumCounter;
+import org.javatuples.Pair;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Tests that the {@link ImporterDriver importer} picks the same terrain for
+ * each cell of an image as it did before it tallied colors in parallel.
+ */
+public class TestImporterDriver {
+	/**
+	 * Count the colors in one cell as the importer used to, calling {@link
+	 * BufferedImage#getRGB(int, int)} for every pixel. (The old code
+	 * crashed on a cell one pixel past the edge; here the cell is clipped,
+	 * as the importer now does.)
+	 */
+	private static EnumCounter<Integer> oldCounts(final BufferedImage image, final int baseRow,
+	                                              final int baseColumn, final int size) {
+		final EnumCounter<Integer> counter = new EnumCounter<>();
+		for (int row = baseRow; row < Math.min(baseRow + size, image.getWidth()); row++) {
+			for (int column = baseColumn; column < Math.min(baseColumn + size, image.getHeight());
+					column++) {
+				counter.countMany(image.getRGB(row, column));
+			}
+		}
+		return counter;
+	}
+
+	/**
+	 * The color of the first pixel, scanning the cell by row and then
+	 * column, whose color has the given count.
+	 */
+	private static int firstWithCount(final BufferedImage image, final int baseRow, final int baseColumn,
+	                                  final int size, final EnumCounter<Integer> counter, final int count) {
+		for (int row = baseRow; row < Math.min(baseRow + size, image.getWidth()); row++) {
+			for (int column = baseColumn; column < Math.min(baseColumn + size, image.getHeight());
+					column++) {
+				if (counter.getCount(image.getRGB(row, column)) == count) {
+					return image.getRGB(row, column);
+				}
+			}
+		}
+		throw new IllegalStateException("No color with the given count");
+	}
+
+	/**
+	 * A square image of the given type drawn at random from a small
+	 * palette, so that many cells have ties.
+	 */
+	private static BufferedImage randomImage(final int side, final int type) {
+		final Random random = new Random(34);
+		final int[] palette = { 0xFF00FF00, 0xFF0000FF, 0xFF808000, 0xFFFFFFFF };
+		final BufferedImage retval = new BufferedImage(side, side, type);
+		for (int x = 0; x < side; x++) {
+			for (int y = 0; y < side; y++) {
+				retval.setRGB(x, y, palette[random.nextInt(palette.length)]);
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * The largest square in the top left corner of a bundled image.
+	 */
+	private static BufferedImage bundledImage(final String name) throws IOException {
+		try (final InputStream stream = TestImporterDriver.class.getResourceAsStream("/images/" + name)) {
+			assertNotNull(stream, "Bundled image exists");
+			final BufferedImage image = ImageIO.read(stream);
+			final int side = Math.min(image.getWidth(), image.getHeight());
+			return image.getSubimage(0, 0, side, side);
+		}
+	}
+
+	private static Stream<Arguments> images() throws IOException {
+		return Stream.of(
+			Arguments.of("trees.png", bundledImage("trees.png"), 3),
+			Arguments.of("battlefield.png", bundledImage("battlefield.png"), 5),
+			Arguments.of("random INT_RGB", randomImage(97, BufferedImage.TYPE_INT_RGB), 4),
+			Arguments.of("random INT_ARGB", randomImage(97, BufferedImage.TYPE_INT_ARGB), 6),
+			Arguments.of("random 3BYTE_BGR", randomImage(64, BufferedImage.TYPE_3BYTE_BGR), 2));
+	}
+
+	/**
+	 * Test that each cell gets the color the old algorithm chose wherever
+	 * one color is more common than all others, and otherwise the first of
+	 * the most common colors seen.
+	 */
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("images")
+	public void testDominantColors(final String name, final BufferedImage image, final int size) {
+		final int[][] dominant = ImporterDriver.dominantColors(image, size);
+		final int cells = (image.getWidth() + size - 1) / size;
+		assertEquals(cells, dominant.length, "Expected number of map rows");
+		for (int mapRow = 0; mapRow < cells; mapRow++) {
+			assertEquals(cells, dominant[mapRow].length, "Expected number of map columns");
+			for (int mapColumn = 0; mapColumn < cells; mapColumn++) {
+				final String message = String.format("Dominant color of (%d, %d) in %s", mapRow, mapColumn,
+					name);
+				final EnumCounter<Integer> counter = oldCounts(image, mapRow * size, mapColumn * size, size);
+				final Pair<Integer, Integer> old = counter.streamAllCounts()
+					.max(Comparator.comparing(Pair::getValue1)).orElseThrow();
+				if (counter.streamAllCounts().filter(p -> p.getValue1().equals(old.getValue1())).count() == 1) {
+					assertEquals(old.getValue0().intValue(), dominant[mapRow][mapColumn], message);
+				} else {
+					assertEquals(firstWithCount(image, mapRow * size, mapColumn * size, size, counter,
+						old.getValue1()), dominant[mapRow][mapColumn], message);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package drivers.map_viewer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+
+import common.map.IMutableMapNG;
+import common.map.MapDimensions;
+import common.map.MapDimensionsImpl;
+import common.map.Player;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.PointIterable;
+import common.map.SPMapNG;
+import common.map.TileType;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.towns.FortressImpl;
+
+/**
+ * Tests of {@link FixtureSearchIndex}, and of the parts of {@link
+ * FindDialog} that use it.
+ */
+public final class TestFixtureSearchIndex {
+	private static final Point SCOUTS = new Point(0, 1);
+	private static final Point KEEP = new Point(2, 3);
+	private static final Point TEAM = new Point(3, 4);
+	private static final Point EMPTY = new Point(1, 1);
+
+	private final Player alice = new PlayerImpl(1, "Alice Smith");
+
+	/**
+	 * A map with a unit containing a worker, an independent fortress, and
+	 * a second unit whose name shares a word with the first.
+	 */
+	private IMutableMapNG createMap() {
+		final PlayerCollection players = new PlayerCollection();
+		final Player independent = new PlayerImpl(2, "Independent");
+		players.add(alice);
+		players.add(independent);
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(4, 5, 2), players, 0);
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TileType.Plains);
+		}
+		final Unit scouts = new Unit(alice, "Explorer", "Northern Scouts", 10);
+		scouts.addMember(new Worker("Gerald", "human", 11));
+		retval.addFixture(SCOUTS, scouts);
+		retval.addFixture(KEEP, new FortressImpl(independent, "Stone-keep", 20));
+		retval.addFixture(TEAM, new Unit(alice, "explorer", "scout team", 30));
+		return retval;
+	}
+
+	private static Unit unit(final IMutableMapNG map, final Point location) {
+		return map.getFixtures(location).stream().filter(Unit.class::isInstance).map(Unit.class::cast)
+			.findFirst().orElseThrow();
+	}
+
+	/**
+	 * Test that words in names, kinds, and owners' names, including those
+	 * of unit members, match anywhere in a word, ignoring case.
+	 */
+	@Test
+	public void testWordSubstrings() {
+		final FixtureSearchIndex index = new FixtureSearchIndex(createMap());
+		assertEquals(Set.of(SCOUTS, TEAM), index.withWordsContaining("scout"), "Prefix of a name");
+		assertEquals(Set.of(SCOUTS, TEAM), index.withWordsContaining("SCOUT"), "Lookups ignore case");
+		assertEquals(Set.of(SCOUTS, TEAM), index.withWordsContaining("expl"), "Prefix of a kind");
+		assertEquals(Set.of(SCOUTS, TEAM), index.withWordsContaining("smith"), "Owner's name");
+		assertEquals(Set.of(SCOUTS), index.withWordsContaining("northern sc"), "Every word must match");
+		assertEquals(Set.of(SCOUTS), index.withWordsContaining("ger"), "Unit member at its unit's location");
+		assertEquals(Set.of(KEEP), index.withWordsContaining("keep"), "Word after punctuation");
+		assertEquals(Set.of(SCOUTS), index.withWordsContaining("outs"), "Middle of a word");
+		assertEquals(Set.of(SCOUTS), index.withWordsContaining("n sc"), "Pattern spanning words");
+		assertEquals(Set.of(), index.withWordsContaining("scouts team"), "Words found at different locations");
+		assertEquals(Set.of(), index.withWordsContaining("--"), "Pattern with no words");
+		assertEquals(Set.of(SCOUTS), index.withId(11), "Unit member's ID");
+		assertEquals(Set.of(SCOUTS, TEAM), index.ownedBy(1), "Owner's ID");
+		assertEquals(Set.of(KEEP), index.independentlyOwned(), "Independent fortress");
+	}
+
+	/**
+	 * Test that the dialog's matching, which it applies to the candidates
+	 * the index returns, finds the pattern anywhere in the text, and
+	 * respects case when asked to.
+	 */
+	@Test
+	public void testCaseSensitiveMatching() {
+		assertTrue(FindDialog.matchesText("Scout", "Northern Scouts", true), "Same case matches");
+		assertFalse(FindDialog.matchesText("scout", "Northern Scouts", true), "Different case doesn't");
+		assertTrue(FindDialog.matchesText("scout", "Northern Scouts", false), "Case-insensitive match");
+		assertTrue(FindDialog.matchesText("outs", "Northern Scouts", false), "Middle of a word matches");
+		assertTrue(FindDialog.matchesText("n sc", "Northern Scouts", false), "Pattern spanning words matches");
+		assertFalse(FindDialog.matchesText("scouts team", "Northern Scouts", false), "Missing text doesn't");
+		assertTrue(FindDialog.matchesText("-keep", "Stone-keep", false), "Pattern beginning with punctuation");
+		assertTrue(new FixtureSearchIndex(createMap()).withWordsContaining("Scout").contains(TEAM),
+			"Index returns candidates regardless of case");
+		assertFalse(FindDialog.matchesText("Scout", "scout team", true),
+			"... which a case-sensitive search then rejects");
+	}
+
+	/**
+	 * Test that the index is kept up to date as the viewer model adds,
+	 * removes, moves, and renames fixtures, and when refreshed directly
+	 * after the map is changed behind its back.
+	 */
+	@Test
+	public void testRefresh() {
+		final IMutableMapNG map = createMap();
+		final ViewerModel model = new ViewerModel(map);
+		final FixtureSearchIndex index = model.getSearchIndex();
+		model.addFixture(EMPTY, new Unit(alice, "bard", "Wandering Minstrels", 40));
+		assertEquals(Set.of(EMPTY), index.withWordsContaining("minstrel"), "Added fixture is found");
+		assertEquals(Set.of(EMPTY), index.withId(40), "Added fixture's ID is found");
+		model.removeMatchingFixtures(EMPTY, f -> f.getId() == 40);
+		assertEquals(Set.of(), index.withWordsContaining("minstrel"), "Removed fixture is gone");
+		assertEquals(Set.of(), index.withId(40), "Removed fixture's ID is gone");
+		final Unit scouts = unit(map, SCOUTS);
+		final Unit team = unit(map, TEAM);
+		model.moveMember(scouts.stream().findFirst().orElseThrow(), scouts, team);
+		assertEquals(Set.of(TEAM), index.withWordsContaining("gerald"), "Moved member is found at its new unit");
+		assertEquals(Set.of(TEAM), index.withId(11), "Moved member's ID is at its new unit");
+		assertTrue(model.renameItem(team, "Southern Rangers"), "Rename succeeded");
+		assertEquals(Set.of(SCOUTS), index.withWordsContaining("scout"), "Old name is gone");
+		assertEquals(Set.of(TEAM), index.withWordsContaining("rangers"), "New name is found");
+
+		map.removeFixture(KEEP, map.getFixtures(KEEP).stream().findFirst().orElseThrow());
+		map.addFixture(KEEP, new Unit(alice, "miner", "Deep Delvers", 50));
+		assertEquals(Set.of(KEEP), index.withWordsContaining("keep"), "Not yet refreshed");
+		index.refresh(KEEP);
+		assertEquals(Set.of(), index.withWordsContaining("keep"), "Refreshed location dropped old fixture");
+		assertEquals(Set.of(), index.independentlyOwned(), "... and its owner");
+		assertEquals(Set.of(KEEP), index.withWordsContaining("delvers"), "... and indexed the new one");
+		unit(map, SCOUTS).setName("Eastern Watch");
+		index.refreshFixture(10);
+		assertEquals(Set.of(), index.withWordsContaining("northern"), "Refreshed fixture's old name is gone");
+		assertEquals(Set.of(SCOUTS), index.withWordsContaining("eastern"), "Refreshed fixture's new name is found");
+	}
+
+	/**
+	 * Test that the model discards its index when the map is replaced, and
+	 * builds the index only once otherwise.
+	 */
+	@Test
+	public void testIndexDiscardedWithMap() {
+		final ViewerModel model = new ViewerModel(createMap());
+		final FixtureSearchIndex index = model.getSearchIndex();
+		assertSame(index, model.getSearchIndex(), "Index is reused");
+		final IMutableMapNG replacement = new SPMapNG(new MapDimensionsImpl(4, 5, 2), new PlayerCollection(), 0);
+		replacement.addFixture(EMPTY, new Unit(alice, "bard", "Wandering Minstrels", 40));
+		model.setMap(replacement);
+		final FixtureSearchIndex newIndex = model.getSearchIndex();
+		assertNotSame(index, newIndex, "Index is rebuilt for the new map");
+		assertEquals(Set.of(), newIndex.withWordsContaining("scout"), "Old map's fixtures are gone");
+		assertEquals(Set.of(EMPTY), newIndex.withWordsContaining("minstrel"), "New map's fixtures are found");
+	}
+
+	private static List<Point> iterationOrder(final MapDimensions dimensions, final Point selection,
+	                                          final boolean forwards, final boolean horizontal) {
+		return StreamSupport.stream(new PointIterable(dimensions, forwards, horizontal, selection).spliterator(),
+			false).collect(Collectors.toList());
+	}
+
+	/**
+	 * Test that ordering every point by the dialog's search distance gives
+	 * the order in which {@link PointIterable} visits them, from every
+	 * selection (including none) and in every direction.
+	 */
+	@Test
+	public void testSearchDistanceMatchesIteration() {
+		final MapDimensions dimensions = new MapDimensionsImpl(4, 5, 2);
+		final List<Point> selections = StreamSupport.stream(new PointIterable(dimensions, true, true)
+			.spliterator(), false).collect(Collectors.toCollection(ArrayList::new));
+		selections.add(Point.INVALID_POINT);
+		for (final Point selection : selections) {
+			for (final boolean forwards : new boolean[] { true, false }) {
+				for (final boolean horizontal : new boolean[] { true, false }) {
+					final List<Point> expected = iterationOrder(dimensions, selection, forwards, horizontal);
+					assertEquals(expected, expected.stream().sorted(Comparator.comparingInt(
+							FindDialog.searchDistance(dimensions, selection, forwards, horizontal)))
+						.collect(Collectors.toList()), String.format(
+						"Order from %s, %s, %s", selection, forwards ? "forwards" : "backwards",
+						horizontal ? "horizontally" : "vertically"));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test that repeatedly choosing the nearest candidate and selecting it,
+	 * as "find next" does, visits every hit in iteration order and then
+	 * wraps around.
+	 */
+	@Test
+	public void testFindNextCycles() {
+		final IMutableMapNG map = createMap();
+		final MapDimensions dimensions = map.getDimensions();
+		final Set<Point> hits = new FixtureSearchIndex(map).withWordsContaining("alice");
+		assertEquals(Set.of(SCOUTS, TEAM), hits, "Expected hits");
+		for (final boolean forwards : new boolean[] { true, false }) {
+			for (final boolean horizontal : new boolean[] { true, false }) {
+				final List<Point> expected = iterationOrder(dimensions, Point.INVALID_POINT, forwards, horizontal)
+					.stream().filter(hits::contains).collect(Collectors.toList());
+				Point selection = Point.INVALID_POINT;
+				final List<Point> visited = new ArrayList<>();
+				for (int i = 0; i < hits.size() * 2; i++) {
+					final ToIntFunction<Point> distance = FindDialog.searchDistance(dimensions, selection,
+						forwards, horizontal);
+					selection = hits.stream().min(Comparator.comparingInt(distance)).orElseThrow();
+					visited.add(selection);
+				}
+				assertEquals(Stream.concat(expected.stream(), expected.stream()).collect(Collectors.toList()),
+					visited, String.format("Find-next order %s, %s", forwards ? "forwards" : "backwards",
+						horizontal ? "horizontally" : "vertically"));
+			}
+		}
+	}
+}
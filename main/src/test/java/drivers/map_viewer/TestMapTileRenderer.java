@@ -0,0 +1,151 @@
+package drivers.map_viewer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import common.map.Direction;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileType;
+import common.map.fixtures.terrain.Forest;
+
+/**
+ * Tests of {@link MapTileRenderer}.
+ */
+public final class TestMapTileRenderer {
+	private static final int ROWS = 30;
+	private static final int COLUMNS = 45;
+	private static final int ZOOM = 2;
+	private static final int TILE_PIXELS = 64;
+
+	private static IMutableMapNG createMap() {
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(ROWS, COLUMNS, 2),
+			new PlayerCollection(), 0);
+		final Random random = new Random(37);
+		final TileType[] types = TileType.values();
+		int id = 1;
+		for (int row = 0; row < ROWS; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				final Point point = new Point(row, column);
+				retval.setBaseTerrain(point, types[random.nextInt(types.length)]);
+				switch (random.nextInt(6)) {
+					case 0 -> retval.setMountainous(point, true);
+					case 1 -> retval.addRivers(point, River.values()[random.nextInt(River.values().length)]);
+					case 2 -> retval.addFixture(point, new Forest("oak", false, id++));
+					case 3 -> retval.setRoadLevel(point, Direction.East, 1);
+					default -> {
+					}
+				}
+			}
+		}
+		return retval;
+	}
+
+	private static List<Path> listFiles(final Path directory) throws IOException {
+		try (final Stream<Path> stream = Files.walk(directory)) {
+			return stream.filter(Files::isRegularFile).map(directory::relativize).sorted()
+				.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Test that averaging pixels weights their colors by their opacity, so
+	 * that the transparent area past the edge of the map does not darken
+	 * the pixels along the edge at lower zoom levels.
+	 */
+	@Test
+	public void testAverageWeightsByAlpha() {
+		final int red = 0xFFC83214;
+		assertEquals(0x40C83214, MapTileRenderer.average(red, 0, 0, 0),
+			"Transparent black does not darken an opaque pixel");
+		assertEquals(0x80C83214, MapTileRenderer.average(red, red, 0, 0),
+			"Half-covered square keeps its color");
+		assertEquals(red, MapTileRenderer.average(red, red, red, red), "Opaque square unchanged");
+		assertEquals(0xFF808080, MapTileRenderer.average(0xFF000000, 0xFFFFFFFF, 0xFF000000, 0xFFFFFFFF),
+			"Opaque pixels averaged evenly");
+		assertEquals(0, MapTileRenderer.average(0, 0, 0, 0), "Fully transparent square stays so");
+		assertEquals(0x80FF0000, MapTileRenderer.average(0xFFFF0000, 0x0000FF00, 0x0000FF00, 0xFFFF0000),
+			"Color of a transparent pixel is ignored");
+	}
+
+	/**
+	 * Test that rendering the same map twice produces identical files, and
+	 * that the full-size tiles are pieces of the map drawn all at once.
+	 */
+	@Test
+	public void testDeterministicPyramid(@TempDir final Path temp) throws IOException {
+		final IMutableMapNG map = createMap();
+		final FixtureFilterTableModel matchers = new FixtureFilterTableModel();
+		final MapTileRenderer renderer = new MapTileRenderer(map, ZOOM, matchers::shouldDisplay, matchers,
+			TILE_PIXELS);
+		final Path first = temp.resolve("first");
+		final Path second = temp.resolve("second");
+		renderer.writePyramid(first, temp.resolve("first.png"), 100);
+		new MapTileRenderer(map, ZOOM, matchers::shouldDisplay, matchers, TILE_PIXELS)
+			.writePyramid(second, temp.resolve("second.png"), 100);
+		final List<Path> files = listFiles(first);
+		assertEquals(files, listFiles(second), "Same tiles written both times");
+		for (final Path file : files) {
+			assertArrayEquals(Files.readAllBytes(first.resolve(file)), Files.readAllBytes(second.resolve(file)),
+				"Tile " + file + " identical");
+		}
+		assertArrayEquals(Files.readAllBytes(temp.resolve("first.png")),
+			Files.readAllBytes(temp.resolve("second.png")), "Overview identical");
+		final int tileSize = TileViewSize.scaleZoom(ZOOM, 2);
+		final int width = COLUMNS * tileSize;
+		final int height = ROWS * tileSize;
+		assertEquals(3, renderer.getMaxZoom(), "Expected number of levels");
+		assertTrue(files.contains(Path.of("0", "0", "0.png")), "Single tile at lowest zoom");
+		assertEquals(((width + TILE_PIXELS - 1) / TILE_PIXELS) * ((height + TILE_PIXELS - 1) / TILE_PIXELS),
+			files.stream().filter(p -> p.startsWith("3")).count(), "Full-size tiles cover the map");
+		final BufferedImage overview = ImageIO.read(temp.resolve("first.png").toFile());
+		assertEquals((width + 3) / 4, overview.getWidth(), "Overview downscaled to fit");
+		assertEquals((height + 3) / 4, overview.getHeight(), "Overview downscaled to fit");
+
+		final BufferedImage whole = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D pen = whole.createGraphics();
+		pen.setColor(Color.white);
+		pen.fillRect(0, 0, width, height);
+		final TileDrawHelper helper = new Ver2TileDrawHelper((img, flags, x, y, w, h) -> false,
+			matchers::shouldDisplay, matchers);
+		for (int row = 0; row < ROWS; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				helper.drawTile(pen, map, new Point(row, column),
+					new Coordinate(column * tileSize, row * tileSize), new Coordinate(tileSize, tileSize));
+			}
+		}
+		pen.dispose();
+		for (int tileRow = 0; tileRow * TILE_PIXELS < height; tileRow++) {
+			for (int tileColumn = 0; tileColumn * TILE_PIXELS < width; tileColumn++) {
+				final BufferedImage tile = renderer.renderFullSize(tileColumn, tileRow);
+				final int tileWidth = Math.min(TILE_PIXELS, width - tileColumn * TILE_PIXELS);
+				final int tileHeight = Math.min(TILE_PIXELS, height - tileRow * TILE_PIXELS);
+				assertArrayEquals(whole.getRGB(tileColumn * TILE_PIXELS, tileRow * TILE_PIXELS, tileWidth,
+						tileHeight, null, 0, tileWidth),
+					tile.getRGB(0, 0, tileWidth, tileHeight, null, 0, tileWidth),
+					String.format("Tile (%d, %d) matches the whole map", tileColumn, tileRow));
+			}
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package drivers.map_viewer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.TileType;
+
+import static drivers.map_viewer.ImageLoader.ColorHelper;
+
+/**
+ * Tests of {@link TerrainPyramid}.
+ */
+public final class TestTerrainPyramid {
+	private static final int ROWS = 37;
+	private static final int COLUMNS = 53;
+
+	private static void randomize(final IMutableMapNG map, final Random random, final Point point) {
+		final TileType[] types = TileType.values();
+		final int choice = random.nextInt(types.length + 1);
+		map.setBaseTerrain(point, (choice == types.length) ? null : types[choice]);
+		map.setMountainous(point, random.nextInt(5) == 0);
+	}
+
+	private static IMutableMapNG createMap(final Random random) {
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(ROWS, COLUMNS, 2),
+			new PlayerCollection(), 0);
+		for (int row = 0; row < ROWS; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				randomize(retval, random, new Point(row, column));
+			}
+		}
+		return retval;
+	}
+
+	private static int[] pixels(final BufferedImage image) {
+		return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+	}
+
+	private static int expectedColor(final IMutableMapNG map, final Point point) {
+		if (map.isMountainous(point)) {
+			return ColorHelper.MOUNTAIN_COLOR.getRGB();
+		}
+		final TileType terrain = map.getBaseTerrain(point);
+		final Color color = (terrain != null && ColorHelper.supportsType(2, terrain)) ?
+			ColorHelper.get(2, terrain) : null;
+		return (color == null) ? Color.white.getRGB() : color.getRGB();
+	}
+
+	/**
+	 * Test that the pyramid has the expected levels, and that updating it a
+	 * tile at a time gives the same images as building it again.
+	 */
+	@Test
+	public void testUpdateCell() {
+		final Random random = new Random(38);
+		final IMutableMapNG map = createMap(random);
+		final TerrainPyramid pyramid = new TerrainPyramid(map);
+		// 53 -> 27 -> 14 -> 7 -> 4 -> 2 -> 1
+		assertEquals(7, pyramid.getLevelCount(), "Expected number of levels");
+		assertEquals(COLUMNS, pyramid.getLevel(0).getWidth(), "One pixel per tile");
+		assertEquals(ROWS, pyramid.getLevel(0).getHeight(), "One pixel per tile");
+		assertEquals(1, pyramid.getLevel(6).getWidth(), "Single pixel at the top");
+		assertEquals(1, pyramid.getLevel(6).getHeight(), "Single pixel at the top");
+		for (int row = 0; row < ROWS; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				final Point point = new Point(row, column);
+				assertEquals(expectedColor(map, point), pyramid.getLevel(0).getRGB(column, row),
+					"Terrain color of " + point);
+			}
+		}
+		for (int i = 0; i < 500; i++) {
+			final Point point = new Point(random.nextInt(ROWS), random.nextInt(COLUMNS));
+			randomize(map, random, point);
+			pyramid.updateCell(map, point);
+		}
+		final TerrainPyramid rebuilt = new TerrainPyramid(map);
+		for (int level = 0; level < pyramid.getLevelCount(); level++) {
+			assertArrayEquals(pixels(rebuilt.getLevel(level)), pixels(pyramid.getLevel(level)),
+				"Level " + level + " after updates matches a rebuilt pyramid");
+		}
+	}
+
+	/**
+	 * Test that a pyramid built from a snapshot shows the terrain as it was
+	 * when the snapshot was taken, and that applying the changes made since
+	 * then brings it up to date.
+	 */
+	@Test
+	public void testSnapshot() {
+		final Random random = new Random(3883);
+		final IMutableMapNG map = createMap(random);
+		final TerrainPyramid original = new TerrainPyramid(map);
+		final TerrainPyramid.Snapshot snapshot = new TerrainPyramid.Snapshot(map);
+		final Set<Point> changed = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			final Point point = new Point(random.nextInt(ROWS), random.nextInt(COLUMNS));
+			randomize(map, random, point);
+			changed.add(point);
+		}
+		final TerrainPyramid pyramid = new TerrainPyramid(snapshot);
+		for (int level = 0; level < pyramid.getLevelCount(); level++) {
+			assertArrayEquals(pixels(original.getLevel(level)), pixels(pyramid.getLevel(level)),
+				"Level " + level + " shows the map as it was when the snapshot was taken");
+		}
+		for (final Point point : changed) {
+			pyramid.updateCell(map, point);
+		}
+		final TerrainPyramid rebuilt = new TerrainPyramid(map);
+		for (int level = 0; level < pyramid.getLevelCount(); level++) {
+			assertArrayEquals(pixels(rebuilt.getLevel(level)), pixels(pyramid.getLevel(level)),
+				"Level " + level + " is up to date once later changes are applied");
+		}
+	}
+
+	/**
+	 * Test that drawing tiles from the pyramid fills each with its terrain color.
+	 */
+	@Test
+	public void testDrawTiles() {
+		final IMutableMapNG map = createMap(new Random(3838));
+		final TerrainPyramid pyramid = new TerrainPyramid(map);
+		final int tileSize = 3;
+		final BufferedImage image = new BufferedImage(20 * tileSize, 20 * tileSize,
+			BufferedImage.TYPE_INT_RGB);
+		final Graphics2D pen = image.createGraphics();
+		pyramid.drawTiles(pen, 25, 40, 44, 59, tileSize);
+		pen.dispose();
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				final Point point = new Point(25 + y / tileSize, 40 + x / tileSize);
+				final int expected = (point.row() < ROWS && point.column() < COLUMNS) ?
+					expectedColor(map, point) : Color.black.getRGB();
+				assertEquals(expected, image.getRGB(x, y), "Pixel for " + point);
+			}
+		}
+	}
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package drivers.map_viewer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -0,0 +1,251 @@
+package drivers.turnrunning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.Player;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.TileType;
+import common.map.fixtures.IResourcePile;
+import common.map.fixtures.Quantity;
+import common.map.fixtures.ResourcePileImpl;
+import common.map.fixtures.mobile.IWorker;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.mobile.worker.Job;
+import common.map.fixtures.mobile.worker.Skill;
+import common.map.fixtures.towns.FortressImpl;
+import drivers.common.IAdvancementModel.SkillHours;
+import impl.xmlio.MapIOHelper;
+
+/**
+ * Tests that the batch worker-advancement methods of {@link
+ * TurnRunningModel} have the same results as making the changes one by one,
+ * and of its arithmetic on resource quantities.
+ */
+public final class TestTurnRunningModel {
+	private static final String[] JOBS = { "smith", "farmer" };
+	private static final String[] SKILLS = { "forge", "plow", "miscellaneous" };
+
+	private static Worker worker(final int id, final String name, final String race) {
+		return new Worker(name, race, id);
+	}
+
+	/**
+	 * Create a map with workers in units on the map and in a fortress, and
+	 * a worker that has the same ID as another but a different name. In
+	 * the subordinate map one worker is in a different unit and another is
+	 * missing.
+	 */
+	private static IMutableMapNG createMap(final boolean subordinate) {
+		final PlayerCollection players = new PlayerCollection();
+		final Player owner = new PlayerImpl(1, "player");
+		players.add(owner);
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(4, 4, 2), players, 0);
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TileType.Plains);
+		}
+		final Unit first = new Unit(owner, "kind", "first", 10);
+		first.addMember(worker(1, "one", "human"));
+		final Unit second = new Unit(owner, "kind", "second", 11);
+		if (subordinate) {
+			second.addMember(worker(2, "two", "elf"));
+		} else {
+			first.addMember(worker(2, "two", "elf"));
+			final Worker smith = worker(3, "three", "dwarf");
+			smith.addJob(new Job("smith", 2, new Skill("forge", 2, 5)));
+			second.addMember(smith);
+		}
+		retval.addFixture(new Point(0, 0), first);
+		final FortressImpl fortress = new FortressImpl(owner, "fortress", 20);
+		fortress.addMember(second);
+		retval.addFixture(new Point(1, 1), fortress);
+		final Unit third = new Unit(owner, "kind", "third", 12);
+		third.addMember(worker(1, "impostor", "human"));
+		retval.addFixture(new Point(2, 2), third);
+		return retval;
+	}
+
+	private static TurnRunningModel createModel() {
+		final TurnRunningModel retval = new TurnRunningModel(createMap(false));
+		retval.addSubordinateMap(createMap(true));
+		return retval;
+	}
+
+	private static String xml(final IMapNG map) throws XMLStreamException, IOException {
+		final StringBuilder builder = new StringBuilder();
+		MapIOHelper.WRITER.writeSPObject(builder::append, map);
+		return builder.toString();
+	}
+
+	private static void assertSameMaps(final TurnRunningModel expected, final TurnRunningModel actual)
+			throws XMLStreamException, IOException {
+		final Iterator<IMapNG> actualMaps = actual.getAllMaps().iterator();
+		for (final IMapNG map : expected.getAllMaps()) {
+			final IMapNG other = actualMaps.next();
+			assertEquals(map, other, "Maps have the same contents");
+			assertEquals(xml(map), xml(other), "Maps are written the same");
+		}
+	}
+
+	/**
+	 * Test that adding hours in a batch has the same results as adding them one by one.
+	 */
+	@Test
+	public void testAddHoursToSkills() throws XMLStreamException, IOException {
+		final List<IWorker> workers = List.of(worker(1, "one", "human"), worker(2, "two", "elf"),
+			worker(3, "three", "dwarf"), worker(4, "absent", "human"));
+		final Random random = new Random(50);
+		final List<SkillHours> updates = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			updates.add(new SkillHours(workers.get(random.nextInt(workers.size())),
+				JOBS[random.nextInt(JOBS.length)], SKILLS[random.nextInt(SKILLS.length)],
+				random.nextInt(20) + 1, random.nextInt(100)));
+		}
+		final TurnRunningModel expected = createModel();
+		boolean any = false;
+		for (final SkillHours update : updates) {
+			if (expected.addHoursToSkill(update.worker(), update.jobName(), update.skillName(),
+					update.hours(), update.contextValue())) {
+				any = true;
+			}
+		}
+		final TurnRunningModel actual = createModel();
+		assertEquals(any, actual.addHoursToSkills(updates), "Same result as one by one");
+		assertSameMaps(expected, actual);
+		assertTrue(actual.isMapModified(), "Map is marked modified");
+		assertFalse(createModel().addHoursToSkills(List.of(new SkillHours(workers.get(3), "smith",
+			"forge", 1, 0))), "No match for a worker in no map");
+	}
+
+	/**
+	 * Test that adding hours to, and skills to, all workers in a unit has
+	 * the same results as adding them to each worker in turn.
+	 */
+	@Test
+	public void testWholeUnit() throws XMLStreamException, IOException {
+		final Unit unit = new Unit(new PlayerImpl(1, "player"), "kind", "first", 10);
+		unit.addMember(worker(1, "one", "human"));
+		unit.addMember(worker(2, "two", "elf"));
+		unit.addMember(worker(3, "three", "dwarf"));
+		final TurnRunningModel expected = createModel();
+		final Random random = new Random(7);
+		for (final IWorker member : List.of(worker(1, "one", "human"), worker(2, "two", "elf"),
+				worker(3, "three", "dwarf"))) {
+			expected.addSkillToWorker(member, "farmer", "plow");
+			expected.addHoursToSkill(member, "smith", "forge", 15, random.nextInt(100));
+		}
+		final TurnRunningModel actual = createModel();
+		for (final IWorker member : List.of(worker(1, "one", "human"), worker(2, "two", "elf"),
+				worker(3, "three", "dwarf"))) {
+			actual.addSkillToWorker(member, "farmer", "plow");
+		}
+		final TurnRunningModel whole = createModel();
+		assertTrue(whole.addSkillToAllWorkers(unit, "farmer", "plow"), "Workers were found");
+		assertSameMaps(actual, whole);
+		assertTrue(whole.addHoursToSkillInAll(unit, "smith", "forge", 15, 7), "Workers were found");
+		assertSameMaps(expected, whole);
+	}
+
+	/**
+	 * Create a model whose main and subordinate maps each have a fortress
+	 * holding a resource pile of the given quantity, and a unit elsewhere.
+	 */
+	private static TurnRunningModel createResourceModel(final String quantity) {
+		final Player owner = new PlayerImpl(1, "player");
+		final List<IMutableMapNG> maps = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			final PlayerCollection players = new PlayerCollection();
+			players.add(owner);
+			final IMutableMapNG map = new SPMapNG(new MapDimensionsImpl(4, 4, 2), players, 0);
+			final FortressImpl fortress = new FortressImpl(owner, "fortress", 20);
+			fortress.addMember(new ResourcePileImpl(40, "food", "grain",
+				new Quantity(new BigDecimal(quantity), "pounds")));
+			map.addFixture(new Point(1, 1), fortress);
+			map.addFixture(new Point(0, 0), new Unit(owner, "kind", "unit", 10));
+			maps.add(map);
+		}
+		final TurnRunningModel retval = new TurnRunningModel(maps.get(0));
+		retval.addSubordinateMap(maps.get(1));
+		return retval;
+	}
+
+	private static ResourcePileImpl pile(final String quantity) {
+		return new ResourcePileImpl(40, "food", "grain", new Quantity(new BigDecimal(quantity), "pounds"));
+	}
+
+	/**
+	 * The quantity of the resource pile left in the fortress in each map,
+	 * or null where none is left.
+	 */
+	private static List<Number> remaining(final TurnRunningModel model) {
+		final List<Number> retval = new ArrayList<>();
+		for (final IMapNG map : model.getAllMaps()) {
+			retval.add(map.getFixtures(new Point(1, 1)).stream().filter(FortressImpl.class::isInstance)
+				.map(FortressImpl.class::cast).flatMap(FortressImpl::stream)
+				.filter(IResourcePile.class::isInstance).map(IResourcePile.class::cast)
+				.map(r -> r.getQuantity().number()).findAny().orElse(null));
+		}
+		return retval;
+	}
+
+	/**
+	 * Test that reducing a resource pile by a non-whole amount leaves
+	 * exactly the difference, with the scale {@link BigDecimal} arithmetic
+	 * would give it, and that reducing it by all that remains removes it.
+	 */
+	@Test
+	public void testReduceFractionalResource() {
+		final TurnRunningModel model = createResourceModel("2.5");
+		final Player owner = new PlayerImpl(1, "player");
+		assertTrue(model.reduceResourceBy(pile("2.5"), new BigDecimal("0.75"), owner), "Pile was found");
+		assertEquals(List.of(new BigDecimal("1.75"), new BigDecimal("1.75")), remaining(model),
+			"Exact difference left in every map");
+		assertTrue(model.isMapModified(), "Map is marked modified");
+		assertTrue(model.reduceResourceBy(pile("1.75"), new BigDecimal("1.750"), owner), "Pile was found");
+		assertEquals(Arrays.asList(null, null), remaining(model), "Reducing by all that is left removes the pile");
+	}
+
+	/**
+	 * Test that transferring part of a pile compares and subtracts
+	 * exactly, even where the amounts are too close to tell apart as
+	 * doubles, and that transferring all of it moves the pile.
+	 */
+	@Test
+	public void testTransferFractionalResource() {
+		final TurnRunningModel model = createResourceModel("0.30000000000000001");
+		final Unit unit = new Unit(new PlayerImpl(1, "player"), "kind", "unit", 10);
+		assertTrue(model.transferResource(pile("0.30000000000000001"), unit, new BigDecimal("0.3"), () -> 50),
+			"Pile and unit were found");
+		assertEquals(List.of(new BigDecimal("0.00000000000000001"), new BigDecimal("0.00000000000000001")),
+			remaining(model), "Exact remainder left in every map");
+		final TurnRunningModel whole = createResourceModel("0.3");
+		assertTrue(whole.transferResource(pile("0.3"), unit, new BigDecimal("0.30"), () -> 50),
+			"Pile and unit were found");
+		assertEquals(Arrays.asList(null, null), remaining(whole), "Transferring all of it moves the pile");
+		for (final IMapNG map : whole.getAllMaps()) {
+			assertTrue(map.getFixtures(new Point(0, 0)).stream().filter(Unit.class::isInstance)
+				.map(Unit.class::cast).flatMap(Unit::stream).anyMatch(IResourcePile.class::isInstance),
+				"Pile is now in the unit");
+		}
+	}
+}
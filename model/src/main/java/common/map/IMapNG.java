@@ -141,6 +141,14 @@ public interface IMapNG extends Subsettable<IMapNG> {
 	 */
 	boolean isModified();
 
+	/**
+	 * How many changes have been made through this map's mutators, so that
+	 * callers caching values computed from the map can tell when they are
+	 * stale. Changes made to fixtures themselves, rather than by adding,
+	 * removing, or replacing them, are not counted.
+	 */
+	int getRevision();
+
 	/**
 	 * A location is empty if it has no terrain, no Ground, no Forest, no
 	 * rivers, no roads, no bookmarks, and no other fixtures
@@ -36,7 +36,8 @@ public interface IMutableMapNG extends IMapNG {
 	void removeRivers(Point location, River... removedRivers);
 
 	/**
-	 * Set the road level at a location for a direction.
+	 * Set the road level at a location for a direction. A level of zero
+	 * removes the road.
 	 */
 	void setRoadLevel(Point location, Direction direction, int quality);
 
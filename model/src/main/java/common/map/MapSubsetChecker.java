@@ -0,0 +1,141 @@
+package common.map;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A class to check whether maps are "strict subsets" of a main map, giving
+ * the same verdicts and reporting the same messages in the same order as
+ * {@link SPMapNG#isSubset}, whose per-tile checks it shares. The main
+ * map's fixtures are indexed by ID once, when this is constructed, and
+ * reused for every map checked; each map's tiles are checked in parallel,
+ * in contiguous ranges whose reports are then put back in order, and
+ * {@link #checkAll} checks several maps at once.
+ *
+ * The main map must not be modified while this is in use.
+ */
+public final class MapSubsetChecker {
+	/**
+	 * The result of checking one map: whether it is a subset, and the
+	 * messages explaining why not, in the order {@link SPMapNG#isSubset}
+	 * would have reported them.
+	 */
+	public record Result(boolean subset, List<String> messages) {
+		/**
+		 * Pass the messages to the given consumer and return the verdict.
+		 */
+		public boolean report(final Consumer<String> report) {
+			messages.forEach(report);
+			return subset;
+		}
+	}
+
+	/**
+	 * The result of checking a range of tiles.
+	 *
+	 * @param subset Whether no problems were found in the range
+	 * @param messages The messages reported
+	 * @param stopped Whether checking stopped early, as {@link
+	 * SPMapNG#isSubset} does on the first tile with extra rivers, so later
+	 * ranges' results should be ignored
+	 */
+	private record RangeResult(boolean subset, List<String> messages, boolean stopped) {}
+
+	/**
+	 * The fewest tiles we bother to hand to another thread.
+	 */
+	private static final int MINIMUM_RANGE = 1024;
+
+	/**
+	 * The main map.
+	 */
+	private final IMapNG master;
+
+	/**
+	 * The main map's locations, in the order they are checked.
+	 */
+	private final List<Point> locations;
+
+	/**
+	 * The main map's fixtures, indexed by ID, and the per-tile checks that
+	 * use them.
+	 */
+	private final TileSubsetChecker tileChecker;
+
+	public MapSubsetChecker(final IMapNG master) {
+		this.master = master;
+		locations = StreamSupport.stream(master.getLocations().spliterator(), false)
+			.collect(Collectors.toList());
+		tileChecker = new TileSubsetChecker(master);
+	}
+
+	/**
+	 * Returns true if the other map is a "strict subset" of the main map,
+	 * except for those cases we deliberately ignore, reporting why not to
+	 * the given consumer.
+	 */
+	public boolean isSubset(final IMapNG obj, final Consumer<String> report) {
+		return check(obj).report(report);
+	}
+
+	/**
+	 * Check several maps against the main map at once, returning the
+	 * results in the same order as the maps.
+	 */
+	public List<Result> checkAll(final Collection<? extends IMapNG> maps) {
+		return maps.parallelStream().map(this::check).collect(Collectors.toList());
+	}
+
+	/**
+	 * Check whether the other map is a "strict subset" of the main map.
+	 */
+	public Result check(final IMapNG obj) {
+		final List<String> messages = new ArrayList<>();
+		if (!master.getDimensions().equals(obj.getDimensions())) {
+			messages.add("Dimension mismatch");
+			return new Result(false, Collections.unmodifiableList(messages));
+		}
+		boolean retval = master.getPlayers().isSubset(obj.getPlayers(), messages::add);
+		final int count = locations.size();
+		final int ranges = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4,
+			count / MINIMUM_RANGE));
+		final List<RangeResult> results = IntStream.range(0, ranges).parallel()
+			.mapToObj(i -> checkRange(obj, (int) ((long) count * i / ranges),
+				(int) ((long) count * (i + 1) / ranges)))
+			.collect(Collectors.toList());
+		for (final RangeResult result : results) {
+			messages.addAll(result.messages());
+			retval = result.subset() && retval;
+			if (result.stopped()) {
+				break;
+			}
+		}
+		return new Result(retval, Collections.unmodifiableList(messages));
+	}
+
+	/**
+	 * Check the tiles in the given range of {@link #locations}.
+	 */
+	private RangeResult checkRange(final IMapNG obj, final int start, final int end) {
+		final List<String> messages = new ArrayList<>();
+		boolean retval = true;
+		// Declared here to avoid object allocations in the loop.
+		final List<TileFixture> ourFixtures = new ArrayList<>();
+		for (final Point point : locations.subList(start, end)) {
+			final TileSubsetChecker.Verdict verdict = tileChecker.checkTile(obj, point, messages::add, ourFixtures);
+			if (verdict == TileSubsetChecker.Verdict.Stop) {
+				return new RangeResult(false, messages, true);
+			} else if (verdict == TileSubsetChecker.Verdict.NotSubset) {
+				retval = false;
+			}
+		}
+		return new RangeResult(retval, messages, false);
+	}
+}
@@ -27,8 +27,6 @@ import java.util.stream.Stream;
 import java.util.function.Consumer;
 import java.util.function.BiPredicate;
 
-import common.map.fixtures.towns.AbstractTown;
-
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -100,6 +98,19 @@ public class SPMapNG implements IMutableMapNG {
 		this.modified = modified;
 	}
 
+	/**
+	 * How many changes have been made through this map's mutators.
+	 */
+	private int revision = 0;
+
+	/**
+	 * How many changes have been made through this map's mutators.
+	 */
+	@Override
+	public int getRevision() {
+		return revision;
+	}
+
 	/**
 	 * The set of mountainous places.
 	 */
@@ -257,6 +268,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public @Nullable TileType setBaseTerrain(final Point key, final @Nullable TileType item) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final @Nullable TileType retval = getBaseTerrain(key);
 		if (item == null) {
 			terrain.remove(key);
@@ -277,6 +289,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public boolean setMountainous(final Point key, final boolean item) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final boolean retval = isMountainous(key);
 		if (item) {
 			mountains.add(key);
@@ -320,7 +333,17 @@ public class SPMapNG implements IMutableMapNG {
 			throw new IllegalArgumentException("Road quality must be nonnegative");
 		}
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final Map<Direction, Integer> temp = roadsMap.get(point);
+		if (quality == 0) {
+			if (temp != null) {
+				temp.remove(direction);
+				if (temp.isEmpty()) {
+					roadsMap.remove(point);
+				}
+			}
+			return;
+		}
 		final Map<Direction, Integer> roadsAtPoint;
 		if (temp == null) {
 			roadsAtPoint = new EnumMap<>(Direction.class);
@@ -382,6 +405,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void addBookmark(final Point point, final Player player) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final Set<Player> temp = bookmarksImpl.get(point);
 		final Set<Player> marks;
 		if (temp == null) {
@@ -396,6 +420,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void removeBookmark(final Point point, final Player player) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final Set<Player> marks = bookmarksImpl.get(point);
 		if (marks != null) {
 			marks.remove(player);
@@ -413,6 +438,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void addPlayer(final Player player) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		playerCollection.add(player);
 	}
 
@@ -422,6 +448,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void addRivers(final Point location, final River... addedRivers) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final Set<River> set = riversMap.get(location);
 		if (set == null) {
 			if (addedRivers.length > 0) {
@@ -439,6 +466,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void removeRivers(final Point location, final River... removedRivers) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final Set<River> set = riversMap.get(location);
 		if (set != null) {
 			for (final River river : removedRivers) {
@@ -464,6 +492,7 @@ public class SPMapNG implements IMutableMapNG {
 			return false;
 		}
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final List<TileFixture> local;
 		final List<TileFixture> temp = fixturesMap.get(location);
 		if (temp == null) {
@@ -506,6 +535,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void removeFixture(final Point location, final TileFixture fixture) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		final List<TileFixture> local = fixturesMap.get(location);
 		if (local != null) {
 			local.remove(fixture);
@@ -599,7 +629,7 @@ public class SPMapNG implements IMutableMapNG {
 
 	// FIXME: Inline this into all callers, or figure out what's missing
 	// FIXME: Remove 'movedFrom' once that's converted to a member function
-	private static <Target extends IFixture, SubsetType extends Subsettable<Target>>
+	/* package */ static <Target extends IFixture, SubsetType extends Subsettable<Target>>
 		boolean testAgainstList(final Target desideratum, final Point location,
 		                        final Collection<Pair<SubsetType, Point>> list, final Consumer<String> ostream,
 		                        final BiPredicate<Point, TileFixture> movedFrom) {
@@ -648,6 +678,17 @@ public class SPMapNG implements IMutableMapNG {
 		return retval;
 	}
 
+	/**
+	 * A mapping from every fixture in the map to its location. {@link
+	 * MapSubsetChecker} builds its index from this too, so that it sees
+	 * fixtures in the same order as {@link #isSubset} does.
+	 */
+	/* package */ Map<TileFixture, Point> fixtureLocations() {
+		return fixturesMap.entrySet().stream()
+			.flatMap(e -> e.getValue().stream().map(f -> Pair.with(f, e.getKey())))
+			.collect(Collectors.toMap(Pair::getValue0, Pair::getValue1));
+	}
+
 	/**
 	 * Returns true if the other map is a "strict subset" of this one,
 	 * except for those cases we deliberately ignore.
@@ -656,154 +697,16 @@ public class SPMapNG implements IMutableMapNG {
 	public boolean isSubset(final IMapNG obj, final Consumer<String> report) {
 		if (getDimensions().equals(obj.getDimensions())) {
 			boolean retval = playerCollection.isSubset(obj.getPlayers(), report);
+			final TileSubsetChecker checker = new TileSubsetChecker(this);
 			// Declared here to avoid object allocations in the loop.
 			final List<TileFixture> ourFixtures = new ArrayList<>();
-			// TODO: Use Guava Multimap for this
-			final Map<Integer, List<Pair<Subsettable<IFixture>, Point>>> ourSubsettables =
-					new HashMap<>(50, 0.4f);
-			final Map<TileFixture, Point> ourLocations = fixturesMap.entrySet().stream()
-				.flatMap(e -> e.getValue().stream().map(f -> Pair.with(f, e.getKey())))
-				.collect(Collectors.toMap(Pair::getValue0, Pair::getValue1));
-			// IUnit is Subsettable<IUnit> and thus incompatible with SubsettableFixture // FIXME: No longer true
-			final Map<Integer, List<Pair<IUnit, Point>>> ourUnits = new HashMap<>(50, 0.4f);
-			// AbstractTown is Subsettable<AbstractTown>
-			final Map<Integer, List<Pair<AbstractTown, Point>>> ourTowns = new HashMap<>(50, 0.4f);
-
-			for (final Map.Entry<TileFixture, Point> entry : ourLocations.entrySet()) {
-				final Point point = entry.getValue();
-				final TileFixture fixture = entry.getKey();
-				if (fixture instanceof IUnit unit) {
-					final List<Pair<IUnit, Point>> list;
-					final List<Pair<IUnit, Point>> temp =
-						ourUnits.get(fixture.getId());
-					if (temp == null) {
-						list = new ArrayList<>();
-					} else {
-						list = temp;
-					}
-					list.add(Pair.with(unit, point));
-					ourUnits.put(fixture.getId(), list);
-				} else if (fixture instanceof AbstractTown town) {
-					final List<Pair<AbstractTown, Point>> list;
-					final List<Pair<AbstractTown, Point>> temp =
-						ourTowns.get(fixture.getId());
-					if (temp == null) {
-						list = new ArrayList<>();
-					} else {
-						list = temp;
-					}
-					list.add(Pair.with(town, point));
-					ourTowns.put(fixture.getId(), list);
-				} else if (fixture instanceof Subsettable) {
-					final List<Pair<Subsettable<IFixture>, Point>> list;
-					final List<Pair<Subsettable<IFixture>, Point>> temp =
-						ourSubsettables.get(fixture.getId());
-					if (temp == null) {
-						list = new ArrayList<>();
-					} else {
-						list = temp;
-					}
-					list.add(Pair.with((Subsettable<IFixture>) fixture, point));
-					ourSubsettables.put(fixture.getId(), list);
-				}
-			}
-
-			// TODO: Convert to member function
-			final BiPredicate<Point, TileFixture> movedFrom = (point, fixture) -> {
-				final Point tPoint = ourLocations.get(fixture);
-				if (tPoint != null && !tPoint.equals(point)) {
-					report.accept(String.format("%s moved from our %s to %s",
-							fixture, tPoint,
-							point));
-					return true;
-				} else {
-					return false;
-				}
-			};
-
 			for (final Point point : getLocations()) {
-				final Consumer<String> localReport =
-					str -> report.accept(String.format(
-						"At %s:\t%s", point.toString(), str));
-				final TileType theirTerrain = obj.getBaseTerrain(point);
-				final TileType ourTerrain = terrain.get(point);
-				if (theirTerrain != null) {
-					if (ourTerrain != null) {
-						if (ourTerrain != theirTerrain) {
-							localReport.accept("Base terrain differs");
-							retval = false;
-							continue;
-						} else if (!getRivers(point).isEmpty() &&
-								obj.getRivers(point).isEmpty()) {
-							localReport.accept("Has terrain but not our rivers");
-						}
-					} else {
-						localReport.accept("Has terrain information we don't");
-						retval = false;
-						continue;
-					}
-				}
-				if (obj.isMountainous(point) && !isMountainous(point)) {
-					localReport.accept("Has mountains we don't");
-					retval = false; // return false;
-				}
-				ourFixtures.clear();
-				for (final TileFixture fixture : getFixtures(point)) {
-					final int idNum = fixture.getId();
-					// FIXME: Should add to ourUnits, ourTowns, etc, if of the right type and not in those, right?
-					if (fixture instanceof IUnit && ourUnits.containsKey(idNum)) {
-						continue;
-					} else if (fixture instanceof AbstractTown &&
-							ourTowns.containsKey(idNum)) {
-						continue;
-					} else { // FIXME: Also check ourSubsettables, right?
-						ourFixtures.add(fixture);
-					}
-				}
-				final Collection<TileFixture> theirFixtures = obj.getFixtures(point);
-				for (final TileFixture fixture : theirFixtures) {
-					final List<Pair<IUnit, Point>> unitLocs = ourUnits.get(fixture.getId());
-					final List<Pair<AbstractTown, Point>> townLocs = ourTowns.get(fixture.getId());
-					final List<Pair<Subsettable<IFixture>, Point>> subsetLocs = ourSubsettables.get(fixture.getId());
-					if (ourFixtures.contains(fixture) || fixture.subsetShouldSkip()) {
-						continue;
-					} else if (fixture instanceof IUnit &&
-							unitLocs != null) {
-						retval = testAgainstList(fixture, point,
-							unitLocs, localReport, movedFrom) && retval;
-					} else if (fixture instanceof AbstractTown town &&
-							townLocs != null) {
-						retval = testAgainstList(town, point,
-								townLocs, localReport, movedFrom)
-							&& retval;
-					} else if (fixture instanceof Subsettable &&
-							subsetLocs != null) {
-						retval = testAgainstList(fixture, point,
-							subsetLocs,
-							localReport, movedFrom) && retval;
-					} else if (movedFrom.test(point, fixture)) {
-						retval = false; // return false;
-					} else {
-						localReport.accept("Extra fixture:\t" + fixture);
-						retval = false; // return false;
-					}
-				}
-				if (!getRivers(point).containsAll(obj.getRivers(point))) {
-					localReport.accept("Extra river(s)");
+				final TileSubsetChecker.Verdict verdict = checker.checkTile(obj, point, report, ourFixtures);
+				if (verdict == TileSubsetChecker.Verdict.Stop) {
 					retval = false; // return false;
 					break;
-				}
-				final Map<Direction, Integer> theirRoads = obj.getRoads(point);
-				final Map<Direction, Integer> ourRoads = getRoads(point);
-				// TODO: Extract road-subset method
-				for (final Map.Entry<Direction, Integer> entry : theirRoads.entrySet()) {
-					if (ourRoads.getOrDefault(entry.getKey(), 0) >= entry.getValue()) {
-						continue;
-					} else {
-						localReport.accept("Has road information we don't");
-						retval = false;
-						break;
-					}
+				} else if (verdict == TileSubsetChecker.Verdict.NotSubset) {
+					retval = false;
 				}
 			}
 			return retval;
@@ -851,6 +754,7 @@ public class SPMapNG implements IMutableMapNG {
 	@Override
 	public void replace(final Point location, final TileFixture original, final TileFixture replacement) {
 		modified = true; // TODO: Only if this is a change
+		revision++;
 		if (getFixtures(location).contains(replacement) && !original.equals(replacement)) {
 			removeFixture(location, original);
 		} else {
@@ -0,0 +1,203 @@
+package common.map;
+
+import common.map.fixtures.mobile.IUnit;
+import common.map.fixtures.towns.AbstractTown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.javatuples.Pair;
+
+/**
+ * The per-tile part of checking whether a map is a "strict subset" of a
+ * main map, shared by {@link SPMapNG#isSubset} and {@link
+ * MapSubsetChecker}. The main map's fixtures are indexed by ID when this is
+ * constructed; after that, tiles may be checked from several threads at
+ * once, so long as the main map is not modified.
+ */
+/* package */ final class TileSubsetChecker {
+	/**
+	 * The outcome of checking one tile.
+	 */
+	/* package */ enum Verdict {
+		/**
+		 * No problems were found on the tile.
+		 */
+		Subset,
+		/**
+		 * Problems were found on the tile, but later tiles should still be
+		 * checked.
+		 */
+		NotSubset,
+		/**
+		 * The tile has rivers the main map doesn't, after which checking
+		 * stops.
+		 */
+		Stop
+	}
+
+	/**
+	 * The main map.
+	 */
+	private final IMapNG master;
+
+	/**
+	 * Every fixture in the main map, mapped to its location.
+	 */
+	private final Map<TileFixture, Point> ourLocations;
+
+	/**
+	 * The main map's units, by ID.
+	 *
+	 * IUnit is Subsettable<IUnit> and thus incompatible with SubsettableFixture // FIXME: No longer true
+	 */
+	private final Map<Integer, List<Pair<IUnit, Point>>> ourUnits = new HashMap<>(50, 0.4f);
+
+	/**
+	 * The main map's towns, by ID. AbstractTown is Subsettable<AbstractTown>.
+	 */
+	private final Map<Integer, List<Pair<AbstractTown, Point>>> ourTowns = new HashMap<>(50, 0.4f);
+
+	/**
+	 * The main map's other subsettable fixtures, by ID.
+	 *
+	 * TODO: Use Guava Multimap for this
+	 */
+	private final Map<Integer, List<Pair<Subsettable<IFixture>, Point>>> ourSubsettables =
+		new HashMap<>(50, 0.4f);
+
+	public TileSubsetChecker(final IMapNG master) {
+		this.master = master;
+		if (master instanceof SPMapNG map) {
+			ourLocations = map.fixtureLocations();
+		} else {
+			ourLocations = master.streamLocations()
+				.flatMap(l -> master.getFixtures(l).stream().map(f -> Pair.with(f, l)))
+				.collect(Collectors.toMap(Pair::getValue0, Pair::getValue1));
+		}
+		for (final Map.Entry<TileFixture, Point> entry : ourLocations.entrySet()) {
+			final Point point = entry.getValue();
+			final TileFixture fixture = entry.getKey();
+			if (fixture instanceof IUnit unit) {
+				ourUnits.computeIfAbsent(fixture.getId(), k -> new ArrayList<>()).add(Pair.with(unit, point));
+			} else if (fixture instanceof AbstractTown town) {
+				ourTowns.computeIfAbsent(fixture.getId(), k -> new ArrayList<>()).add(Pair.with(town, point));
+			} else if (fixture instanceof Subsettable) {
+				ourSubsettables.computeIfAbsent(fixture.getId(), k -> new ArrayList<>())
+					.add(Pair.with((Subsettable<IFixture>) fixture, point));
+			}
+		}
+	}
+
+	/**
+	 * If the given fixture is somewhere else in the main map, report that
+	 * it moved and return true.
+	 */
+	private boolean movedFrom(final Point point, final TileFixture fixture, final Consumer<String> report) {
+		final Point tPoint = ourLocations.get(fixture);
+		if (tPoint != null && !tPoint.equals(point)) {
+			report.accept(String.format("%s moved from our %s to %s",
+					fixture, tPoint,
+					point));
+			return true;
+		} else {
+			return false;
+		}
+	}
+
+	/**
+	 * Check whether the given tile in the other map is a "strict subset"
+	 * of the same tile in the main map, reporting why not to the given
+	 * consumer.
+	 *
+	 * @param obj The map being checked
+	 * @param point The tile to check
+	 * @param report Where to report problems
+	 * @param ourFixtures A list for this method's own use, passed in to
+	 * avoid allocating one for every tile; its contents are replaced
+	 */
+	public Verdict checkTile(final IMapNG obj, final Point point, final Consumer<String> report,
+	                         final List<TileFixture> ourFixtures) {
+		final Consumer<String> localReport =
+			str -> report.accept(String.format(
+				"At %s:\t%s", point.toString(), str));
+		final BiPredicate<Point, TileFixture> movedFrom = (location, fixture) ->
+			movedFrom(location, fixture, report);
+		boolean retval = true;
+		final TileType theirTerrain = obj.getBaseTerrain(point);
+		final TileType ourTerrain = master.getBaseTerrain(point);
+		if (theirTerrain != null) {
+			if (ourTerrain != null) {
+				if (ourTerrain != theirTerrain) {
+					localReport.accept("Base terrain differs");
+					return Verdict.NotSubset;
+				} else if (!master.getRivers(point).isEmpty() &&
+						obj.getRivers(point).isEmpty()) {
+					localReport.accept("Has terrain but not our rivers");
+				}
+			} else {
+				localReport.accept("Has terrain information we don't");
+				return Verdict.NotSubset;
+			}
+		}
+		if (obj.isMountainous(point) && !master.isMountainous(point)) {
+			localReport.accept("Has mountains we don't");
+			retval = false; // return false;
+		}
+		ourFixtures.clear();
+		for (final TileFixture fixture : master.getFixtures(point)) {
+			final int idNum = fixture.getId();
+			// FIXME: Should add to ourUnits, ourTowns, etc, if of the right type and not in those, right?
+			if (fixture instanceof IUnit && ourUnits.containsKey(idNum)) {
+				continue;
+			} else if (fixture instanceof AbstractTown &&
+					ourTowns.containsKey(idNum)) {
+				continue;
+			} else { // FIXME: Also check ourSubsettables, right?
+				ourFixtures.add(fixture);
+			}
+		}
+		for (final TileFixture fixture : obj.getFixtures(point)) {
+			final List<Pair<IUnit, Point>> unitLocs = ourUnits.get(fixture.getId());
+			final List<Pair<AbstractTown, Point>> townLocs = ourTowns.get(fixture.getId());
+			final List<Pair<Subsettable<IFixture>, Point>> subsetLocs = ourSubsettables.get(fixture.getId());
+			if (ourFixtures.contains(fixture) || fixture.subsetShouldSkip()) {
+				continue;
+			} else if (fixture instanceof IUnit && unitLocs != null) {
+				retval = SPMapNG.testAgainstList(fixture, point, unitLocs, localReport, movedFrom)
+					&& retval;
+			} else if (fixture instanceof AbstractTown town && townLocs != null) {
+				retval = SPMapNG.testAgainstList(town, point, townLocs, localReport, movedFrom)
+					&& retval;
+			} else if (fixture instanceof Subsettable && subsetLocs != null) {
+				retval = SPMapNG.testAgainstList(fixture, point, subsetLocs, localReport, movedFrom)
+					&& retval;
+			} else if (movedFrom.test(point, fixture)) {
+				retval = false; // return false;
+			} else {
+				localReport.accept("Extra fixture:\t" + fixture);
+				retval = false; // return false;
+			}
+		}
+		if (!master.getRivers(point).containsAll(obj.getRivers(point))) {
+			localReport.accept("Extra river(s)");
+			return Verdict.Stop;
+		}
+		final Map<Direction, Integer> theirRoads = obj.getRoads(point);
+		final Map<Direction, Integer> ourRoads = master.getRoads(point);
+		// TODO: Extract road-subset method
+		for (final Map.Entry<Direction, Integer> entry : theirRoads.entrySet()) {
+			if (ourRoads.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+				localReport.accept("Has road information we don't");
+				retval = false;
+				break;
+			}
+		}
+		return retval ? Verdict.Subset : Verdict.NotSubset;
+	}
+}
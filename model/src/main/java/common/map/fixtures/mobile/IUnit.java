@@ -43,6 +43,13 @@ public interface IUnit extends MobileFixture, HasImage, HasKind, HasName,
 	 */
 	NavigableMap<Integer, String> getAllResults();
 
+	/**
+	 * Register a listener to be told whenever the unit's orders, results,
+	 * or membership change, so views derived from them can tell when they
+	 * are out of date. Listeners are held weakly; see {@link MutationListeners}.
+	 */
+	void addMutationListener(MutationListener listener);
+
 	/**
 	 * The unit's latest orders as of the given turn.
 	 */
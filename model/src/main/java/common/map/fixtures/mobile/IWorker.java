@@ -59,6 +59,14 @@ public interface IWorker extends UnitMember, Iterable<IJob>, HasName, HasKind, H
 	 */
 	@Nullable Animal getMount();
 
+	/**
+	 * Register a listener to be told whenever the worker's notes, jobs,
+	 * equipment, stats, mount, or images change, so views derived from
+	 * them can tell when they are out of date. Listeners are held weakly;
+	 * see {@link MutationListeners}.
+	 */
+	void addMutationListener(MutationListener listener);
+
 	/**
 	 * Any equipment associated with this worker personally. (Generally not much more than clothing.)
 	 */
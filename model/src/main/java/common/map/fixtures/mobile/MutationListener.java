@@ -0,0 +1,13 @@
+package common.map.fixtures.mobile;
+
+/**
+ * Something that must be told when a {@link IUnit unit} or {@link IWorker
+ * worker} changes, such as a proxy whose cached views are derived from it.
+ */
+@FunctionalInterface
+public interface MutationListener {
+	/**
+	 * Called after the unit or worker has changed.
+	 */
+	void mutated();
+}
@@ -0,0 +1,53 @@
+package common.map.fixtures.mobile;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The {@link MutationListener listeners} registered with a unit or worker.
+ * Listeners are held weakly, so that a short-lived proxy that listens to a
+ * long-lived unit in the map is not kept alive by it; the caller must keep
+ * a strong reference to its listener for as long as it wants to be told of
+ * changes.
+ */
+public final class MutationListeners {
+	private final List<WeakReference<MutationListener>> listeners = new ArrayList<>();
+
+	/**
+	 * Register a listener, first forgetting any that are no longer alive,
+	 * so that a unit that is often listened to but seldom changed does not
+	 * accumulate dead references. (There are seldom more than a few
+	 * listeners, one for each proxy showing the unit or worker, so checking
+	 * them all each time is cheap.)
+	 */
+	public void add(final MutationListener listener) {
+		listeners.removeIf(reference -> reference.get() == null);
+		listeners.add(new WeakReference<>(listener));
+	}
+
+	/**
+	 * Tell every listener still alive that there has been a change, and
+	 * forget those that are not.
+	 */
+	public void fire() {
+		final Iterator<WeakReference<MutationListener>> iterator = listeners.iterator();
+		while (iterator.hasNext()) {
+			final MutationListener listener = iterator.next().get();
+			if (listener == null) {
+				iterator.remove();
+			} else {
+				listener.mutated();
+			}
+		}
+	}
+
+	/**
+	 * How many listeners are registered, including any that have died but
+	 * not yet been forgotten. For tests.
+	 */
+	/* package */ int size() {
+		return listeners.size();
+	}
+}
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -57,7 +59,59 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 	 */
 	private final List<IUnit> proxiedList = new ArrayList<>();
 
-	private Iterable<UnitMember> cachedIterable = Collections.emptyList();
+	/**
+	 * Told by the proxied units when they change, so we discard the cached
+	 * views below. They hold it weakly, so we must hold it here.
+	 */
+	private final MutationListener invalidator = this::invalidate;
+
+	/**
+	 * Listeners to be told when any of the proxied units changes.
+	 */
+	private final MutationListeners listeners = new MutationListeners();
+
+	/**
+	 * Proxies for the members of the proxied units, or null if not yet computed.
+	 */
+	private @Nullable Iterable<UnitMember> cachedIterable = null;
+
+	/**
+	 * The merged orders of the proxied units, or null if not yet computed.
+	 */
+	private @Nullable NavigableMap<Integer, String> cachedOrders = null;
+
+	/**
+	 * The merged results of the proxied units, or null if not yet computed.
+	 */
+	private @Nullable NavigableMap<Integer, String> cachedResults = null;
+
+	/**
+	 * The orders the proxied units agree on, by turn.
+	 */
+	private final Map<Integer, String> cachedTurnOrders = new HashMap<>();
+
+	/**
+	 * The results the proxied units agree on, by turn.
+	 */
+	private final Map<Integer, String> cachedTurnResults = new HashMap<>();
+
+	@Override
+	public void addMutationListener(final MutationListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Discard the cached views, as the proxied units have changed, and pass
+	 * the news on to anything derived from this proxy.
+	 */
+	private void invalidate() {
+		cachedIterable = null;
+		cachedOrders = null;
+		cachedResults = null;
+		cachedTurnOrders.clear();
+		cachedTurnResults.clear();
+		listeners.fire();
+	}
 
 	private static String mergeHelper(final String earlier, final String later) {
 		return Objects.equals(earlier, later) ? earlier : "";
@@ -103,7 +157,12 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 	 */
 	@Override
 	public NavigableMap<Integer, String> getAllOrders() {
-		return mergeMaps(IUnit::getAllOrders);
+		NavigableMap<Integer, String> retval = cachedOrders;
+		if (retval == null) {
+			retval = Collections.unmodifiableNavigableMap(mergeMaps(IUnit::getAllOrders));
+			cachedOrders = retval;
+		}
+		return retval;
 	}
 
 	/**
@@ -111,7 +170,12 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 	 */
 	@Override
 	public NavigableMap<Integer, String> getAllResults() {
-		return mergeMaps(IUnit::getAllResults);
+		NavigableMap<Integer, String> retval = cachedResults;
+		if (retval == null) {
+			retval = Collections.unmodifiableNavigableMap(mergeMaps(IUnit::getAllResults));
+			cachedResults = retval;
+		}
+		return retval;
 	}
 
 	@Override
@@ -171,7 +235,8 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 	public boolean equalsIgnoringID(final IFixture fixture) {
 		LovelaceLogger.error("ProxyUnit.equalsIgnoringID called");
 		if (fixture instanceof ProxyUnit pu) {
-			return proxiedList.stream().allMatch(m -> (pu.proxiedList.stream().anyMatch(m::equals))); // TODO: Should check the converse as well
+			final Set<IUnit> theirs = new HashSet<>(pu.proxiedList);
+			return proxiedList.stream().allMatch(theirs::contains); // TODO: Should check the converse as well
 		} else {
 			return false;
 		}
@@ -202,8 +267,10 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 	public Iterator<UnitMember> iterator() {
 		if (!parallel || proxiedList.isEmpty()) {
 			return Collections.emptyIterator();
-		} else if (cachedIterable.iterator().hasNext()) {
-			return cachedIterable.iterator();
+		}
+		final Iterable<UnitMember> cached = cachedIterable;
+		if (cached != null) {
+			return cached.iterator();
 		} else {
 			final Map<Integer, UnitMemberProxy<? extends UnitMember>> map =
 				new LinkedHashMap<>();
@@ -241,8 +308,10 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 				}
 			}
 			// FIXME: Make sure this doesn't result in ClassCastExceptions
-			cachedIterable = ((Map<Integer, UnitMember>) ((Map<Integer, ? extends UnitMember>) map)).values();
-			return cachedIterable.iterator();
+			final Iterable<UnitMember> retval =
+				((Map<Integer, UnitMember>) ((Map<Integer, ? extends UnitMember>) map)).values();
+			cachedIterable = retval;
+			return retval.iterator();
 		}
 	}
 
@@ -277,14 +346,18 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 
 	@Override
 	public String getOrders(final int turn) {
-		final String retval = getConsensus(u -> u.getOrders(turn));
-		return retval == null ? "" : retval;
+		return cachedTurnOrders.computeIfAbsent(turn, t -> {
+			final String retval = getConsensus(u -> u.getOrders(t));
+			return retval == null ? "" : retval;
+		});
 	}
 
 	@Override
 	public String getResults(final int turn) {
-		final String retval = getConsensus(u -> u.getResults(turn));
-		return retval == null ? "" : retval;
+		return cachedTurnResults.computeIfAbsent(turn, t -> {
+			final String retval = getConsensus(u -> u.getResults(t));
+			return retval == null ? "" : retval;
+		});
 	}
 
 	@Override
@@ -349,8 +422,9 @@ public class ProxyUnit implements IUnit, ProxyFor<IUnit> {
 		} else if (!parallel && !Objects.equals(commonKind, item.getKind())) {
 			throw new IllegalArgumentException("Unit must have kind " + commonKind);
 		}
-		cachedIterable = Collections.emptyList();
 		proxiedList.add(item);
+		item.addMutationListener(invalidator);
+		invalidate();
 	}
 
 	@Override
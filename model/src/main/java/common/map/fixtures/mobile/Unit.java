@@ -50,6 +50,16 @@ public final class Unit implements IMutableUnit {
 	 */
 	private final ArraySet<UnitMember> members = new ArraySet<>();
 
+	/**
+	 * Listeners to be told whenever orders, results, or members change.
+	 */
+	private final MutationListeners listeners = new MutationListeners();
+
+	@Override
+	public void addMutationListener(final MutationListener listener) {
+		listeners.add(listener);
+	}
+
 	/**
 	 * The ID number.
 	 */
@@ -220,6 +230,7 @@ public final class Unit implements IMutableUnit {
 			LovelaceLogger.error(new IllegalStateException("Proxy member added to Unit"), "Proxy member added to Unit");
 		}
 		members.add(member);
+		listeners.fire();
 	}
 
 	/**
@@ -228,6 +239,7 @@ public final class Unit implements IMutableUnit {
 	@Override
 	public void removeMember(final UnitMember member) {
 		members.remove(member);
+		listeners.fire();
 	}
 
 	/**
@@ -326,6 +338,7 @@ public final class Unit implements IMutableUnit {
 	@Override
 	public void setOrders(final int turn, final String newOrders) {
 		orders.put(turn, newOrders);
+		listeners.fire();
 	}
 
 	/**
@@ -348,6 +361,7 @@ public final class Unit implements IMutableUnit {
 	@Override
 	public void setResults(final int turn, final String newResults) {
 		results.put(turn, newResults);
+		listeners.fire();
 	}
 
 	/**
@@ -448,6 +462,7 @@ public final class Unit implements IMutableUnit {
 	@Override
 	public void sortMembers() {
 		members.sort(Unit::memberComparison);
+		listeners.fire();
 	}
 
 	@Override
@@ -98,6 +98,16 @@ public class Worker implements IMutableWorker {
 		return race;
 	}
 
+	/**
+	 * Listeners to be told whenever notes, jobs, equipment, stats, mount, or images change.
+	 */
+	private final MutationListeners listeners = new MutationListeners();
+
+	@Override
+	public void addMutationListener(final MutationListener listener) {
+		listeners.add(listener);
+	}
+
 	public Worker(final String name, final String race, final int id, final IJob... jobs) {
 		this.name = name;
 		this.race = race;
@@ -123,6 +133,7 @@ public class Worker implements IMutableWorker {
 	 */
 	public void setStats(final @Nullable WorkerStats stats) {
 		this.stats = stats;
+		listeners.fire();
 	}
 
 	/**
@@ -144,6 +155,7 @@ public class Worker implements IMutableWorker {
 	@Override
 	public void setImage(final String image) {
 		this.image = image;
+		listeners.fire();
 	}
 
 	/**
@@ -165,6 +177,7 @@ public class Worker implements IMutableWorker {
 	@Override
 	public void setPortrait(final String portrait) {
 		this.portrait = portrait;
+		listeners.fire();
 	}
 
 	/**
@@ -174,6 +187,7 @@ public class Worker implements IMutableWorker {
 	public boolean addJob(final IJob job) {
 		final int size = jobSet.size();
 		jobSet.add(job);
+		listeners.fire();
 		return size != jobSet.size();
 	}
 
@@ -195,6 +209,7 @@ public class Worker implements IMutableWorker {
 	@Override
 	public void setMount(final @Nullable Animal mount) {
 		this.mount = mount;
+		listeners.fire();
 	}
 
 	@Override
@@ -348,6 +363,7 @@ public class Worker implements IMutableWorker {
 		} else {
 			final IJob retval = new Job(name, 0);
 			jobSet.add(retval);
+			listeners.fire();
 			return retval;
 		}
 	}
@@ -371,6 +387,7 @@ public class Worker implements IMutableWorker {
 		} else {
 			notesImpl.put(player.getPlayerId(), note);
 		}
+		listeners.fire();
 	}
 
 	@Override
@@ -386,10 +403,12 @@ public class Worker implements IMutableWorker {
 	@Override
 	public void addEquipment(final Implement item) {
 		equipmentImpl.add(item);
+		listeners.fire();
 	}
 
 	@Override
 	public void removeEquipment(final Implement item) {
 		equipmentImpl.remove(item);
+		listeners.fire();
 	}
 }
@@ -5,9 +5,11 @@ import common.map.fixtures.mobile.Animal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -22,6 +24,8 @@ import common.map.IFixture;
 import common.map.fixtures.UnitMember;
 import common.map.fixtures.mobile.IUnit;
 import common.map.fixtures.mobile.IWorker;
+import common.map.fixtures.mobile.MutationListener;
+import common.map.fixtures.mobile.MutationListeners;
 import common.map.fixtures.mobile.WorkerProxy;
 
 import org.jetbrains.annotations.Nullable;
@@ -61,6 +65,53 @@ public class ProxyWorker implements WorkerProxy {
 	 */
 	private final Set<String> jobNames = new HashSet<>();
 
+	/**
+	 * The proxy Jobs, by name.
+	 */
+	private final Map<String, ProxyJob> jobsByName = new HashMap<>();
+
+	/**
+	 * Told by the proxied workers when they change, so we discard the
+	 * cached views below. They hold it weakly, so we must hold it here.
+	 */
+	private final MutationListener invalidator = this::invalidate;
+
+	/**
+	 * Listeners to be told when any of the proxied workers changes.
+	 */
+	private final MutationListeners listeners = new MutationListeners();
+
+	/**
+	 * The notes the proxied workers agree on, by player ID.
+	 */
+	private final Map<Integer, String> cachedNotes = new HashMap<>();
+
+	/**
+	 * The players who have notes on any of the proxied workers, or null if
+	 * not yet computed.
+	 */
+	private @Nullable Collection<Integer> cachedNotesPlayers = null;
+
+	/**
+	 * The name the proxied workers agree on, or null if not yet computed.
+	 */
+	private @Nullable String cachedName = null;
+
+	/**
+	 * The race the proxied workers agree on, or null if not yet computed.
+	 */
+	private @Nullable String cachedRace = null;
+
+	/**
+	 * The image the proxied workers agree on, or null if not yet computed.
+	 */
+	private @Nullable String cachedImage = null;
+
+	/**
+	 * The portrait the proxied workers agree on, or null if not yet computed.
+	 */
+	private @Nullable String cachedPortrait = null;
+
 	/**
 	 * The workers being proxied.
 	 */
@@ -79,6 +130,30 @@ public class ProxyWorker implements WorkerProxy {
 	 */
 	private @Nullable WorkerStats statsCache;
 
+	@Override
+	public void addMutationListener(final MutationListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Discard the cached views, as the proxied workers have changed, and
+	 * pass the news on to anything derived from this proxy.
+	 */
+	private void invalidate() {
+		cachedNotes.clear();
+		cachedNotesPlayers = null;
+		cachedName = null;
+		cachedRace = null;
+		cachedImage = null;
+		cachedPortrait = null;
+		listeners.fire();
+	}
+
+	private void addProxyJob(final ProxyJob job) {
+		proxyJobs.add(job);
+		jobsByName.put(job.getName(), job);
+	}
+
 	private ProxyWorker(final boolean parallelProxy) {
 		parallel = parallelProxy;
 		statsCache = null;
@@ -96,13 +171,14 @@ public class ProxyWorker implements WorkerProxy {
 					statsCache = null;
 				}
 				workers.add(w);
+				w.addMutationListener(invalidator);
 				StreamSupport.stream(w.spliterator(), true)
 					.map(IJob::getName).forEach(jobNames::add);
 			}
 		}
 		for (final String job : jobNames) {
 			final IWorker[] array = new IWorker[workers.size()];
-			proxyJobs.add(new ProxyJob(job, false, workers.toArray(array)));
+			addProxyJob(new ProxyJob(job, false, workers.toArray(array)));
 		}
 		for (final Implement item : workers.stream().flatMap(w -> w.getEquipment().stream()).toList()) {
 			if (workers.stream().map(IWorker::getEquipment).allMatch(l -> l.contains(item))) {
@@ -124,11 +200,12 @@ public class ProxyWorker implements WorkerProxy {
 					equipmentImpl.retainAll(worker.getEquipment());
 				}
 				workers.add(worker);
+				worker.addMutationListener(invalidator);
 				StreamSupport.stream(worker.spliterator(), true)
 					.map(IJob::getName).forEach(jobNames::add);
 		}
 		for (final String job : jobNames) {
-			proxyJobs.add(new ProxyJob(job, false, proxiedWorkers));
+			addProxyJob(new ProxyJob(job, false, proxiedWorkers));
 		}
 	}
 
@@ -196,18 +273,17 @@ public class ProxyWorker implements WorkerProxy {
 			equipmentImpl.retainAll(item.getEquipment());
 		}
 		workers.add(item);
+		item.addMutationListener(invalidator);
+		invalidate();
 		for (final IJob job : item) {
 			final String name = job.getName();
-			if (jobNames.contains(name)) {
-				for (final ProxyJob proxyJob : proxyJobs) {
-					if (proxyJob.getName().equals(name)) {
-						proxyJob.addProxied(job);
-					}
-				}
+			final ProxyJob proxyJob = jobsByName.get(name);
+			if (proxyJob != null) {
+				proxyJob.addProxied(job);
 			} else {
 				jobNames.add(name);
 				final IWorker[] array = new IWorker[workers.size()];
-				proxyJobs.add(new ProxyJob(name, parallel, workers.toArray(array)));
+				addProxyJob(new ProxyJob(name, parallel, workers.toArray(array)));
 			}
 		}
 	}
@@ -232,43 +308,54 @@ public class ProxyWorker implements WorkerProxy {
 
 	@Override
 	public String getImage() {
-		final String retval = getConsensus(IWorker::getImage);
+		String retval = cachedImage;
 		if (retval == null) {
-			return "";
-		} else {
-			return retval;
+			retval = Optional.ofNullable(getConsensus(IWorker::getImage)).orElse("");
+			cachedImage = retval;
 		}
+		return retval;
 	}
 
 	@Override
 	public String getRace() {
-		final String retval = getConsensus(IWorker::getRace);
-		return (retval == null) ? "proxied" : retval;
+		String retval = cachedRace;
+		if (retval == null) {
+			retval = Optional.ofNullable(getConsensus(IWorker::getRace)).orElse("proxied");
+			cachedRace = retval;
+		}
+		return retval;
 	}
 
 	@Override
 	public String getName() {
-		final String retval = getConsensus(IWorker::getName);
-		return (retval == null) ? "proxied" : retval;
+		String retval = cachedName;
+		if (retval == null) {
+			retval = Optional.ofNullable(getConsensus(IWorker::getName)).orElse("proxied");
+			cachedName = retval;
+		}
+		return retval;
 	}
 
 	@Override
 	public String getPortrait() {
-		final String retval = getConsensus(IWorker::getPortrait);
-		return (retval == null) ? "" : retval;
+		String retval = cachedPortrait;
+		if (retval == null) {
+			retval = Optional.ofNullable(getConsensus(IWorker::getPortrait)).orElse("");
+			cachedPortrait = retval;
+		}
+		return retval;
 	}
 
 	@Override
 	public IJob getJob(final String jobName) {
-		final Optional<ProxyJob> temp =
-			proxyJobs.stream().filter(j -> jobName.equals(j.getName())).findAny();
-		if (temp.isPresent()) {
-			return temp.get();
+		final ProxyJob temp = jobsByName.get(jobName);
+		if (temp != null) {
+			return temp;
 		}
 		final IWorker[] array = new IWorker[workers.size()];
 		final ProxyJob retval = new ProxyJob(jobName, parallel, workers.toArray(array));
 		jobNames.add(jobName);
-		proxyJobs.add(retval);
+		addProxyJob(retval);
 		return retval;
 	}
 
@@ -279,14 +366,15 @@ public class ProxyWorker implements WorkerProxy {
 
 	@Override
 	public String getNote(final Player player) {
-		final String retval = getConsensus(worker -> worker.getNote(player));
-		return (retval == null) ? "" : retval;
+		return getNote(player.getPlayerId());
 	}
 
 	@Override
 	public String getNote(final int player) {
-		final String retval = getConsensus(worker -> worker.getNote(player));
-		return (retval == null) ? "" : retval;
+		return cachedNotes.computeIfAbsent(player, p -> {
+			final String retval = getConsensus(worker -> worker.getNote(p));
+			return (retval == null) ? "" : retval;
+		});
 	}
 
 	@Override
@@ -298,8 +386,14 @@ public class ProxyWorker implements WorkerProxy {
 
 	@Override
 	public Collection<Integer> getNotesPlayers() {
-		return workers.stream().flatMap(w -> StreamSupport.stream(w.getNotesPlayers().spliterator(),
-			true)).collect(Collectors.toSet());
+		Collection<Integer> retval = cachedNotesPlayers;
+		if (retval == null) {
+			retval = Collections.unmodifiableSet(workers.stream()
+				.flatMap(w -> StreamSupport.stream(w.getNotesPlayers().spliterator(), true))
+				.collect(Collectors.toSet()));
+			cachedNotesPlayers = retval;
+		}
+		return retval;
 	}
 
 	@Override
@@ -0,0 +1,35 @@
+package common.perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recording the writing of one object to one table (or set of
+ * related tables) of an SQLite database. The size of the map being written,
+ * if any, is carried by the enclosing {@link MapWriteEvent}.
+ */
+@Name("strategicprimer.DatabaseWrite")
+@Label("Database Write")
+@Description("Writing an object to an SQLite database table")
+public final class DatabaseWriteEvent extends SPEvent {
+	@Label("Table")
+	private String table = "";
+
+	@Label("Fixture ID")
+	private int fixtureId;
+
+	/**
+	 * End the event and, if it is to be recorded, fill in the name of the
+	 * table writer and the ID of the object, and commit it.
+	 */
+	public void commitFor(final Class<?> writer, final int id) {
+		end();
+		if (shouldCommit()) {
+			fillDriver();
+			table = writer.getSimpleName();
+			fixtureId = id;
+			commit();
+		}
+	}
+}
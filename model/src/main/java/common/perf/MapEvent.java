@@ -0,0 +1,76 @@
+package common.perf;
+
+import common.map.IMapNG;
+import jdk.jfr.Label;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The base class for events concerning an operation on a whole map, carrying
+ * the map's size and how many fixtures it has.
+ */
+public abstract class MapEvent extends SPEvent {
+	@Label("Rows")
+	protected int rows;
+
+	@Label("Columns")
+	protected int columns;
+
+	@Label("Fixtures")
+	protected long fixtures;
+
+	/**
+	 * End the event and, if it is to be recorded, fill in the size of the
+	 * given map, counting its top-level fixtures, and commit it.
+	 */
+	public final void commitFor(final IMapNG map) {
+		end();
+		if (shouldCommit()) {
+			fill(map, map.streamAllFixtures().count());
+			commit();
+		}
+	}
+
+	/**
+	 * End the event and, if it is to be recorded, fill in the size of the
+	 * given map and the given fixture count, and commit it.
+	 */
+	public final void commitFor(final IMapNG map, final long fixtureCount) {
+		end();
+		if (shouldCommit()) {
+			fill(map, fixtureCount);
+			commit();
+		}
+	}
+
+	/**
+	 * End the event and, if it is to be recorded, fill in the size of the
+	 * given map and get its fixture count from the given supplier, and
+	 * commit it. For callers that can count the fixtures more cheaply than
+	 * by streaming them all, such as by remembering the count until the
+	 * map changes.
+	 */
+	public final void commitFor(final IMapNG map, final LongSupplier fixtureCount) {
+		end();
+		if (shouldCommit()) {
+			fill(map, fixtureCount.getAsLong());
+			commit();
+		}
+	}
+
+	/**
+	 * Fill in any fields specific to the subclass. To be called only when
+	 * the event will be committed, so subclasses can defer formatting them
+	 * until then. By default, does nothing.
+	 */
+	protected void fillDetails() {
+	}
+
+	private void fill(final IMapNG map, final long fixtureCount) {
+		fillDriver();
+		fillDetails();
+		rows = map.getDimensions().rows();
+		columns = map.getDimensions().columns();
+		fixtures = fixtureCount;
+	}
+}
@@ -0,0 +1,24 @@
+package common.perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recording one paint of the map viewer's map. Its fixture count
+ * is the number of fixtures on the tiles painted.
+ */
+@Name("strategicprimer.MapPaint")
+@Label("Map Paint")
+@Description("Painting the visible portion of the map")
+public final class MapPaintEvent extends MapEvent {
+	@Label("Tiles")
+	private int tiles;
+
+	/**
+	 * Note that the given number of tiles were painted.
+	 */
+	public void countTiles(final int count) {
+		tiles += count;
+	}
+}
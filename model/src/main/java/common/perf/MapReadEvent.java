@@ -0,0 +1,22 @@
+package common.perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.file.Path;
+
+/**
+ * An event recording the reading of a map from file.
+ */
+@Name("strategicprimer.MapRead")
+@Label("Map Read")
+@Description("Reading a map from file")
+public final class MapReadEvent extends MapEvent {
+	@Label("File")
+	private String file;
+
+	public MapReadEvent(final Path file) {
+		this.file = file.toString();
+	}
+}
@@ -0,0 +1,22 @@
+package common.perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.nio.file.Path;
+
+/**
+ * An event recording the writing of a map to file.
+ */
+@Name("strategicprimer.MapWrite")
+@Label("Map Write")
+@Description("Writing a map to file")
+public final class MapWriteEvent extends MapEvent {
+	@Label("File")
+	private String file;
+
+	public MapWriteEvent(final Path file) {
+		this.file = file.toString();
+	}
+}
@@ -0,0 +1,53 @@
+package common.perf;
+
+import common.map.Point;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An event recording a shortest-path query.
+ */
+@Name("strategicprimer.PathfinderQuery")
+@Label("Pathfinder Query")
+@Description("Finding the shortest path between two points")
+public final class PathfinderEvent extends MapEvent {
+	@Label("Start")
+	private String start = "";
+
+	@Label("End")
+	private String destination = "";
+
+	/**
+	 * The starting point, formatted into {@link #start} only if the event
+	 * is recorded.
+	 */
+	private final transient Point startPoint;
+
+	/**
+	 * The destination, formatted into {@link #destination} only if the
+	 * event is recorded, or null if the query was for every point on the
+	 * map.
+	 */
+	private final transient @Nullable Point destinationPoint;
+
+	public PathfinderEvent(final Point start, final Point destination) {
+		startPoint = start;
+		destinationPoint = destination;
+	}
+
+	/**
+	 * An event for finding the distances from a point to every point on the map.
+	 */
+	public PathfinderEvent(final Point start) {
+		startPoint = start;
+		destinationPoint = null;
+	}
+
+	@Override
+	protected void fillDetails() {
+		start = startPoint.toString();
+		destination = (destinationPoint == null) ? "everywhere" : destinationPoint.toString();
+	}
+}
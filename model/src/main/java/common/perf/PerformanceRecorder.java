@@ -0,0 +1,160 @@
+package common.perf;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * A Flight Recorder recording of our events, written to a file when it is
+ * stopped (or, if it is still running then, by Flight Recorder itself when
+ * the JVM exits), and a summary of the time spent in each phase such a
+ * recording covers.
+ */
+public final class PerformanceRecorder {
+	/**
+	 * The event types we record.
+	 */
+	private static final List<Class<? extends SPEvent>> EVENT_TYPES = List.of(MapReadEvent.class,
+		MapWriteEvent.class, DatabaseWriteEvent.class, PathfinderEvent.class,
+		ReportGeneratorEvent.class, MapPaintEvent.class);
+
+	/**
+	 * Fields whose values distinguish phases within an event type.
+	 */
+	private static final List<String> PHASE_FIELDS = List.of("table", "generator");
+
+	/**
+	 * Statistics about one phase.
+	 */
+	private static final class PhaseStatistics {
+		private long count = 0L;
+		private Duration total = Duration.ZERO;
+		private Duration longest = Duration.ZERO;
+
+		public void add(final Duration duration) {
+			count++;
+			total = total.plus(duration);
+			if (duration.compareTo(longest) > 0) {
+				longest = duration;
+			}
+		}
+	}
+
+	/**
+	 * How long, in milliseconds, to wait for Flight Recorder to write the
+	 * recording when the JVM exits.
+	 */
+	private static final long EXIT_WRITE_TIMEOUT = 30_000L;
+
+	private final Recording recording;
+	private final Path destination;
+
+	private PerformanceRecorder(final Path destination) throws IOException {
+		this.destination = destination;
+		recording = new Recording();
+		recording.setName("Strategic Primer");
+		for (final Class<? extends SPEvent> type : EVENT_TYPES) {
+			recording.enable(type);
+		}
+		recording.setDestination(destination);
+		recording.setDumpOnExit(true);
+	}
+
+	/**
+	 * Start recording our events, to be written to the given file.
+	 */
+	public static PerformanceRecorder start(final Path destination) throws IOException {
+		final PerformanceRecorder retval = new PerformanceRecorder(destination);
+		retval.recording.start();
+		return retval;
+	}
+
+	/**
+	 * The file the recording is written to.
+	 */
+	public Path getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Stop recording, write the recording to its file, and return a summary of it.
+	 */
+	public List<String> stop() throws IOException {
+		recording.stop();
+		recording.close();
+		return summarize(destination);
+	}
+
+	/**
+	 * Wait for the recording to be written to its file as the JVM exits,
+	 * and return a summary of it. This is for a shutdown hook in programs
+	 * that record until they exit: Flight Recorder's own shutdown hook
+	 * stops the recording, writes it, and closes it, and stopping it here
+	 * as well would race with that.
+	 */
+	public List<String> summarizeAtExit() throws IOException {
+		final long deadline = System.currentTimeMillis() + EXIT_WRITE_TIMEOUT;
+		while (recording.getState() != RecordingState.CLOSED) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new IOException("Timed out waiting for the recording to be written");
+			}
+			try {
+				Thread.sleep(50);
+			} catch (final InterruptedException except) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted waiting for the recording to be written", except);
+			}
+		}
+		return summarize(destination);
+	}
+
+	private static String phaseName(final RecordedEvent event) {
+		final String label = event.getEventType().getLabel();
+		for (final String field : PHASE_FIELDS) {
+			if (event.hasField(field)) {
+				return String.format("%s: %s", label, event.getString(field));
+			}
+		}
+		return label;
+	}
+
+	private static double millis(final Duration duration) {
+		return duration.toNanos() / 1_000_000.0;
+	}
+
+	/**
+	 * Summarize the recording in the given file: for each phase, the number
+	 * of events and their total, mean, and longest durations, the phase with
+	 * the most time spent in it first.
+	 */
+	public static List<String> summarize(final Path file) throws IOException {
+		final Map<String, PhaseStatistics> phases = new LinkedHashMap<>();
+		for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+			if (event.getEventType().getName().startsWith("strategicprimer.")) {
+				phases.computeIfAbsent(phaseName(event), k -> new PhaseStatistics())
+					.add(event.getDuration());
+			}
+		}
+		final List<Map.Entry<String, PhaseStatistics>> sorted = new ArrayList<>(phases.entrySet());
+		sorted.sort(Comparator.comparing((Map.Entry<String, PhaseStatistics> entry) -> entry.getValue().total)
+			.reversed());
+		final List<String> retval = new ArrayList<>();
+		for (final Map.Entry<String, PhaseStatistics> entry : sorted) {
+			final PhaseStatistics stats = entry.getValue();
+			retval.add(String.format("%s: %d events, %.1f ms total, %.2f ms mean, %.2f ms longest",
+				entry.getKey(), stats.count, millis(stats.total), millis(stats.total) / stats.count,
+				millis(stats.longest)));
+		}
+		return retval;
+	}
+}
@@ -0,0 +1,21 @@
+package common.perf;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An event recording one report generator's run. Its fixture count is the
+ * number of fixtures not yet covered by earlier generators.
+ */
+@Name("strategicprimer.ReportGenerator")
+@Label("Report Generator")
+@Description("Running one generator of a report")
+public final class ReportGeneratorEvent extends MapEvent {
+	@Label("Generator")
+	private String generator;
+
+	public ReportGeneratorEvent(final Class<?> generator) {
+		this.generator = generator.getSimpleName();
+	}
+}
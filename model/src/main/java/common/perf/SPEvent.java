@@ -0,0 +1,45 @@
+package common.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The base class for our Flight Recorder events, carrying the name of the
+ * driver that was running when the event happened.
+ *
+ * Events should be created, {@link #begin begun}, and then committed through
+ * one of the subclasses' methods that fill in their fields only if {@link
+ * #shouldCommit} says the event will be recorded, so that when no recording
+ * is running the cost is no more than allocating an object the JIT can
+ * usually eliminate.
+ *
+ * Fields that subclasses inherit are protected, not private, because
+ * Flight Recorder leaves private fields of superclasses out of the events
+ * it records.
+ */
+@Category("Strategic Primer")
+@StackTrace(false)
+public abstract class SPEvent extends jdk.jfr.Event {
+	/**
+	 * The invocation name of the driver that is currently running.
+	 */
+	private static volatile String currentDriver = "";
+
+	/**
+	 * Note the invocation name of the driver that is now running.
+	 */
+	public static void setCurrentDriver(final String driver) {
+		currentDriver = driver;
+	}
+
+	@Label("Driver")
+	protected String driver = "";
+
+	/**
+	 * Fill in the driver name. To be called only when the event will be committed.
+	 */
+	protected final void fillDriver() {
+		driver = currentDriver;
+	}
+}
@@ -0,0 +1,305 @@
+package impl.binio;
+
+import static impl.binio.SnapshotFormat.*;
+
+import common.map.Direction;
+import common.map.HasMutableImage;
+import common.map.HasMutableOwner;
+import common.map.IFixture;
+import common.map.IMutableMapNG;
+import common.map.IMutablePlayerCollection;
+import common.map.IPlayerCollection;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.FixtureIterable;
+import common.map.fixtures.Ground;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.explorable.Battlefield;
+import common.map.fixtures.explorable.Cave;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.AnimalTracks;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.FieldStatus;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.resources.StoneDeposit;
+import common.map.fixtures.resources.StoneKind;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
+import common.xmlio.SPFormatException;
+import common.xmlio.Warning;
+import impl.xmlio.IMapReader;
+import impl.xmlio.ISPReader;
+import impl.xmlio.LoadInterner;
+import impl.xmlio.fluidxml.SPFluidReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+import javax.xml.stream.XMLStreamException;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A reader for the binary map snapshot format described in {@link
+ * SnapshotFormat}. The file is memory-mapped and read in a single pass
+ * (after the string table), without any parsing beyond that of the fixtures
+ * that were written as XML.
+ *
+ * Snapshots can only be read from files, not streams.
+ */
+public final class SPSnapshotReader implements IMapReader {
+	/**
+	 * The reader used for fixtures that were written as XML.
+	 */
+	private final ISPReader xmlReader = new SPFluidReader();
+
+	@Override
+	public IMutableMapNG readMap(final Path file, final Warning warner)
+			throws SPFormatException, NoSuchFileException, XMLStreamException, IOException {
+		return readMap(file, warner, count -> {});
+	}
+
+	/**
+	 * Read a map snapshot, reporting the number of bytes read so far to
+	 * the given listener. The listener may throw an unchecked exception to
+	 * abort reading.
+	 */
+	public IMutableMapNG readMap(final Path file, final Warning warner, final LongConsumer progress)
+			throws SPFormatException, NoSuchFileException, XMLStreamException, IOException {
+		final MappedByteBuffer buffer;
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too large to be a map snapshot");
+			}
+			// The mapping remains valid after the channel is closed.
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+		}
+		try {
+			return read(file, buffer, warner, progress);
+		} catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException except) {
+			throw new IOException(file + " is a truncated or corrupt map snapshot", except);
+		}
+	}
+
+	private static String[] readStrings(final ByteBuffer buffer, final long offset) {
+		final ByteBuffer table = buffer.duplicate().position(Math.toIntExact(offset));
+		final String[] retval = new String[table.getInt()];
+		for (int i = 0; i < retval.length; i++) {
+			final byte[] bytes = new byte[table.getInt()];
+			table.get(bytes);
+			// The table already holds each string once; interning shares them with other maps.
+			retval[i] = LoadInterner.intern(new String(bytes, StandardCharsets.UTF_8));
+		}
+		return retval;
+	}
+
+	private IMutableMapNG read(final Path file, final ByteBuffer buffer, final Warning warner,
+	                           final LongConsumer progress)
+			throws SPFormatException, XMLStreamException, IOException {
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException(file + " is not a map snapshot");
+		}
+		final int formatVersion = buffer.getInt();
+		if (formatVersion != FORMAT_VERSION) {
+			throw new IOException(String.format("Unsupported map snapshot format version %d in %s",
+				formatVersion, file));
+		}
+		final String[] strings = readStrings(buffer, buffer.getLong());
+		final int mapVersion = buffer.getInt();
+		final int rows = buffer.getInt();
+		final int columns = buffer.getInt();
+		final int turn = buffer.getInt();
+
+		final IMutablePlayerCollection players = new PlayerCollection();
+		final int playerCount = buffer.getInt();
+		for (int i = 0; i < playerCount; i++) {
+			final int id = buffer.getInt();
+			final String name = strings[buffer.getInt()];
+			final @Nullable String country = nullableString(strings, buffer.getInt());
+			final String portrait = strings[buffer.getInt()];
+			final PlayerImpl player = (country == null) ? new PlayerImpl(id, name) :
+				new PlayerImpl(id, name, country);
+			player.setPortrait(portrait);
+			player.setCurrent(buffer.get() != 0);
+			players.add(player);
+		}
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(rows, columns, mapVersion),
+			players, turn);
+
+		final List<Point> locations = new ArrayList<>(rows * columns);
+		final List<Integer> counts = new ArrayList<>(rows * columns);
+		for (int row = 0; row < rows; row++) {
+			for (int column = 0; column < columns; column++) {
+				final Point point = new Point(row, column);
+				locations.add(point);
+				counts.add(readTile(buffer, retval, point));
+			}
+			progress.accept(buffer.position());
+		}
+		final int extraCount = buffer.getInt();
+		for (int i = 0; i < extraCount; i++) {
+			final Point point = new Point(buffer.getInt(), buffer.getInt());
+			locations.add(point);
+			counts.add(readTile(buffer, retval, point));
+		}
+
+		final int bookmarkCount = buffer.getInt();
+		for (int i = 0; i < bookmarkCount; i++) {
+			final Point point = new Point(buffer.getInt(), buffer.getInt());
+			retval.addBookmark(point, players.getPlayer(buffer.getInt()));
+		}
+
+		for (int i = 0; i < locations.size(); i++) {
+			final Point point = locations.get(i);
+			final int count = counts.get(i);
+			for (int j = 0; j < count; j++) {
+				retval.addFixture(point, readFixture(file, buffer, strings, players, warner));
+			}
+			progress.accept(buffer.position());
+		}
+		progress.accept(buffer.limit());
+		retval.setModified(false);
+		return retval;
+	}
+
+	private static @Nullable String nullableString(final String[] strings, final int index) {
+		return (index == NO_STRING) ? null : strings[index];
+	}
+
+	/**
+	 * Read the fixed-width record for the given tile, returning the number
+	 * of fixtures on it.
+	 */
+	private static int readTile(final ByteBuffer buffer, final IMutableMapNG map, final Point point)
+			throws IOException {
+		final int terrain = buffer.get();
+		if (terrain != 0) {
+			map.setBaseTerrain(point, TileType.values()[terrain - 1]);
+		}
+		if ((buffer.get() & MOUNTAIN_FLAG) != 0) {
+			map.setMountainous(point, true);
+		}
+		final int riverMask = buffer.getShort();
+		if (riverMask != 0) {
+			final List<River> rivers = new ArrayList<>();
+			for (final River river : River.values()) {
+				if ((riverMask & (1 << river.ordinal())) != 0) {
+					rivers.add(river);
+				}
+			}
+			map.addRivers(point, rivers.toArray(River[]::new));
+		}
+		for (final Direction direction : Direction.values()) {
+			final int quality = buffer.getShort();
+			if (quality != 0) {
+				map.setRoadLevel(point, direction, quality);
+			}
+		}
+		final int count = buffer.getInt();
+		if (count < 0) {
+			throw new IOException("Negative fixture count in map snapshot");
+		}
+		return count;
+	}
+
+	private static Number readExtent(final ByteBuffer buffer, final String[] strings) throws IOException {
+		final byte kind = buffer.get();
+		if (kind == INTEGER_EXTENT) {
+			return buffer.getInt();
+		} else if (kind == DECIMAL_EXTENT) {
+			return new BigDecimal(strings[buffer.getInt()]);
+		} else {
+			throw new IOException("Unknown extent encoding in map snapshot");
+		}
+	}
+
+	/**
+	 * Replace the owners the XML reader gave a fixture, and anything it
+	 * contains, with the matching players from the map.
+	 */
+	private static void fixOwners(final IFixture fixture, final IPlayerCollection players) {
+		if (fixture instanceof HasMutableOwner owned) {
+			owned.setOwner(players.getPlayer(owned.owner().getPlayerId()));
+		}
+		if (fixture instanceof FixtureIterable<?> iter) {
+			for (final IFixture member : iter) {
+				fixOwners(member, players);
+			}
+		}
+	}
+
+	private TileFixture readFixture(final Path file, final ByteBuffer buffer, final String[] strings,
+	                                final IPlayerCollection players, final Warning warner)
+			throws SPFormatException, XMLStreamException, IOException {
+		final byte tag = buffer.get();
+		final int length = buffer.getInt();
+		final int end = buffer.position() + length;
+		if (tag == XML_TAG) {
+			final byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			final TileFixture retval = xmlReader.readXML(file,
+				new StringReader(new String(bytes, StandardCharsets.UTF_8)), warner);
+			fixOwners(retval, players);
+			return retval;
+		}
+		final String image = strings[buffer.getInt()];
+		final HasMutableImage retval = switch (tag) {
+			case GROUND_TAG -> new Ground(buffer.getInt(), strings[buffer.getInt()], buffer.get() != 0);
+			case FOREST_TAG -> new Forest(strings[buffer.getInt()], buffer.get() != 0, buffer.getInt(),
+				readExtent(buffer, strings));
+			case HILL_TAG -> new Hill(buffer.getInt());
+			case OASIS_TAG -> new Oasis(buffer.getInt());
+			case SHRUB_TAG -> new Shrub(strings[buffer.getInt()], buffer.getInt(), buffer.getInt());
+			case GROVE_TAG -> new Grove(buffer.get() != 0, buffer.get() != 0, strings[buffer.getInt()],
+				buffer.getInt(), buffer.getInt());
+			case MEADOW_TAG -> new Meadow(strings[buffer.getInt()], buffer.get() != 0, buffer.get() != 0,
+				buffer.getInt(), FieldStatus.valueOf(strings[buffer.getInt()]), readExtent(buffer, strings));
+			case MINERAL_TAG -> new MineralVein(strings[buffer.getInt()], buffer.get() != 0, buffer.getInt(),
+				buffer.getInt());
+			case STONE_TAG -> new StoneDeposit(StoneKind.valueOf(strings[buffer.getInt()]), buffer.getInt(),
+				buffer.getInt());
+			case ANIMAL_TAG -> new AnimalImpl(strings[buffer.getInt()], buffer.get() != 0,
+				strings[buffer.getInt()], buffer.getInt(), buffer.getInt(), buffer.getInt());
+			case TRACKS_TAG -> new AnimalTracks(strings[buffer.getInt()]);
+			case TEXT_TAG -> new TextFixture(strings[buffer.getInt()], buffer.getInt());
+			case CACHE_TAG -> new CacheFixture(strings[buffer.getInt()], strings[buffer.getInt()],
+				buffer.getInt());
+			case CAVE_TAG -> new Cave(buffer.getInt(), buffer.getInt());
+			case BATTLEFIELD_TAG -> new Battlefield(buffer.getInt(), buffer.getInt());
+			default -> throw new IOException(String.format("Unknown fixture tag %d in map snapshot", tag));
+		};
+		if (buffer.position() != end) {
+			throw new IOException("Fixture record length mismatch in map snapshot");
+		}
+		retval.setImage(image);
+		return (TileFixture) retval;
+	}
+
+	@Override
+	public IMutableMapNG readMapFromStream(final Path file, final Reader istream, final Warning warner)
+			throws SPFormatException, XMLStreamException, IOException {
+		throw new UnsupportedOperationException("Can't read a map snapshot from a stream");
+	}
+}
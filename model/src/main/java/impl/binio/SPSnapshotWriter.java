@@ -0,0 +1,399 @@
+package impl.binio;
+
+import static impl.binio.SnapshotFormat.*;
+
+import common.map.Direction;
+import common.map.HasImage;
+import common.map.IMapNG;
+import common.map.MapDimensions;
+import common.map.Player;
+import common.map.Point;
+import common.map.River;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.Ground;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.explorable.Battlefield;
+import common.map.fixtures.explorable.Cave;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.AnimalTracks;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.resources.StoneDeposit;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
+import impl.xmlio.SPWriter;
+import impl.xmlio.yaxml.YAXMLWriter;
+import lovelace.util.ThrowingConsumer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import javax.xml.stream.XMLStreamException;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A writer for the binary map snapshot format described in {@link
+ * SnapshotFormat}. The whole map is written through a single buffered
+ * channel, with only the string table's offset patched in afterwards.
+ * Fixtures of the common, simple types are written field by field; anything
+ * else is written as its XML serialization.
+ *
+ * Snapshots can only be written to files, not streams.
+ */
+public final class SPSnapshotWriter implements SPWriter {
+	/**
+	 * The size of the output buffer.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The writer used for fixtures without a native encoding.
+	 */
+	private final SPWriter xmlWriter = new YAXMLWriter();
+
+	/**
+	 * The strings to be written in the string table, and their indexes.
+	 */
+	private static final class StringTable {
+		private final Map<String, Integer> indexes = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+
+		public int index(final @Nullable String string) {
+			if (string == null) {
+				return NO_STRING;
+			}
+			final Integer existing = indexes.get(string);
+			if (existing == null) {
+				final int retval = strings.size();
+				strings.add(string);
+				indexes.put(string, retval);
+				return retval;
+			} else {
+				return existing;
+			}
+		}
+
+		public void write(final DataOutputStream out) throws IOException {
+			out.writeInt(strings.size());
+			for (final String string : strings) {
+				final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	@Override
+	public void write(final Path file, final IMapNG map) throws XMLStreamException, IOException {
+		write(file, map, count -> {});
+	}
+
+	/**
+	 * Write a map to file, reporting the number of bytes written so far to
+	 * the given listener. The listener may throw an unchecked exception to
+	 * abort writing.
+	 */
+	public void write(final Path file, final IMapNG map, final LongConsumer progress)
+			throws XMLStreamException, IOException {
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			// Not closed, since that would close the channel before we patch the header.
+			final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				Channels.newOutputStream(channel), BUFFER_SIZE));
+			final StringTable strings = new StringTable();
+			final MapDimensions dimensions = map.getDimensions();
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(0L); // Patched once we know where the string table starts
+			out.writeInt(dimensions.version());
+			out.writeInt(dimensions.rows());
+			out.writeInt(dimensions.columns());
+			out.writeInt(map.getCurrentTurn());
+
+			final List<Player> players = new ArrayList<>();
+			map.getPlayers().forEach(players::add);
+			out.writeInt(players.size());
+			for (final Player player : players) {
+				out.writeInt(player.getPlayerId());
+				out.writeInt(strings.index(player.getName()));
+				out.writeInt(strings.index(player.getCountry()));
+				out.writeInt(strings.index(player.getPortrait()));
+				out.writeBoolean(player.isCurrent());
+			}
+
+			final List<Point> locations = new ArrayList<>();
+			for (int row = 0; row < dimensions.rows(); row++) {
+				for (int column = 0; column < dimensions.columns(); column++) {
+					final Point point = new Point(row, column);
+					locations.add(point);
+					writeTile(out, map, point);
+				}
+			}
+			final List<Point> extras = new ArrayList<>();
+			for (final Point point : map.getLocations()) {
+				if (!dimensions.contains(point)) {
+					extras.add(point);
+				}
+			}
+			out.writeInt(extras.size());
+			for (final Point point : extras) {
+				out.writeInt(point.row());
+				out.writeInt(point.column());
+				writeTile(out, map, point);
+			}
+			locations.addAll(extras);
+
+			int bookmarks = 0;
+			for (final Point point : map.getLocations()) {
+				bookmarks += map.getAllBookmarks(point).size();
+			}
+			out.writeInt(bookmarks);
+			for (final Point point : map.getLocations()) {
+				for (final Player player : map.getAllBookmarks(point)) {
+					out.writeInt(point.row());
+					out.writeInt(point.column());
+					out.writeInt(player.getPlayerId());
+				}
+			}
+			progress.accept(out.size());
+
+			final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			final DataOutputStream payload = new DataOutputStream(buffer);
+			for (final Point point : locations) {
+				for (final TileFixture fixture : map.getFixtures(point)) {
+					buffer.reset();
+					final byte tag = writeFixture(payload, fixture, strings);
+					out.writeByte(tag);
+					out.writeInt(buffer.size());
+					buffer.writeTo(out);
+				}
+				progress.accept(out.size());
+			}
+
+			final long tableOffset = out.size();
+			strings.write(out);
+			out.flush();
+			progress.accept(out.size());
+			channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, tableOffset),
+				STRING_TABLE_OFFSET_POSITION);
+		}
+	}
+
+	/**
+	 * Write the fixed-width record for the given tile.
+	 */
+	private static void writeTile(final DataOutputStream out, final IMapNG map, final Point point)
+			throws IOException {
+		final TileType terrain = map.getBaseTerrain(point);
+		out.writeByte(terrain == null ? 0 : terrain.ordinal() + 1);
+		out.writeByte(map.isMountainous(point) ? MOUNTAIN_FLAG : 0);
+		int rivers = 0;
+		for (final River river : map.getRivers(point)) {
+			rivers |= 1 << river.ordinal();
+		}
+		out.writeShort(rivers);
+		final Map<Direction, Integer> roads = map.getRoads(point);
+		for (final Direction direction : Direction.values()) {
+			final int quality = roads.getOrDefault(direction, 0);
+			if (quality < 0 || quality > Short.MAX_VALUE) {
+				throw new IOException(String.format("Road quality %d at %s out of range for a snapshot",
+					quality, point));
+			}
+			out.writeShort(quality);
+		}
+		out.writeInt(map.getFixtures(point).size());
+	}
+
+	/**
+	 * Whether the given extent can be written natively.
+	 */
+	private static boolean isNativeExtent(final Number acres) {
+		return acres instanceof Integer || acres instanceof BigDecimal;
+	}
+
+	private static void writeExtent(final DataOutputStream out, final Number acres, final StringTable strings)
+			throws IOException {
+		if (acres instanceof BigDecimal) {
+			out.writeByte(DECIMAL_EXTENT);
+			out.writeInt(strings.index(acres.toString()));
+		} else {
+			out.writeByte(INTEGER_EXTENT);
+			out.writeInt(acres.intValue());
+		}
+	}
+
+	/**
+	 * The tag to use for the given fixture. Classes are compared exactly,
+	 * so that subclasses with more state are written as XML.
+	 */
+	private static byte tagFor(final TileFixture fixture) {
+		final Class<?> cls = fixture.getClass();
+		if (cls == Ground.class) {
+			return GROUND_TAG;
+		} else if (cls == Forest.class) {
+			return isNativeExtent(((Forest) fixture).getAcres()) ? FOREST_TAG : XML_TAG;
+		} else if (cls == Hill.class) {
+			return HILL_TAG;
+		} else if (cls == Oasis.class) {
+			return OASIS_TAG;
+		} else if (cls == Shrub.class) {
+			return SHRUB_TAG;
+		} else if (cls == Grove.class) {
+			return GROVE_TAG;
+		} else if (cls == Meadow.class) {
+			return isNativeExtent(((Meadow) fixture).getAcres()) ? MEADOW_TAG : XML_TAG;
+		} else if (cls == MineralVein.class) {
+			return MINERAL_TAG;
+		} else if (cls == StoneDeposit.class) {
+			return STONE_TAG;
+		} else if (cls == AnimalImpl.class) {
+			return ANIMAL_TAG;
+		} else if (cls == AnimalTracks.class) {
+			return TRACKS_TAG;
+		} else if (cls == TextFixture.class) {
+			return TEXT_TAG;
+		} else if (cls == CacheFixture.class) {
+			return CACHE_TAG;
+		} else if (cls == Cave.class) {
+			return CAVE_TAG;
+		} else if (cls == Battlefield.class) {
+			return BATTLEFIELD_TAG;
+		} else {
+			return XML_TAG;
+		}
+	}
+
+	/**
+	 * Write the payload for the given fixture, returning its tag.
+	 */
+	private byte writeFixture(final DataOutputStream out, final TileFixture fixture, final StringTable strings)
+			throws IOException, XMLStreamException {
+		final byte tag = tagFor(fixture);
+		if (tag == XML_TAG) {
+			final StringBuilder builder = new StringBuilder();
+			xmlWriter.writeSPObject(builder::append, fixture);
+			out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+			return tag;
+		}
+		out.writeInt(strings.index(((HasImage) fixture).getImage()));
+		switch (tag) {
+			case GROUND_TAG -> {
+				final Ground ground = (Ground) fixture;
+				out.writeInt(ground.getId());
+				out.writeInt(strings.index(ground.getKind()));
+				out.writeBoolean(ground.isExposed());
+			}
+			case FOREST_TAG -> {
+				final Forest forest = (Forest) fixture;
+				out.writeInt(strings.index(forest.getKind()));
+				out.writeBoolean(forest.isRows());
+				out.writeInt(forest.getId());
+				writeExtent(out, forest.getAcres(), strings);
+			}
+			case HILL_TAG, OASIS_TAG -> out.writeInt(fixture.getId());
+			case SHRUB_TAG -> {
+				final Shrub shrub = (Shrub) fixture;
+				out.writeInt(strings.index(shrub.getKind()));
+				out.writeInt(shrub.getId());
+				out.writeInt(shrub.getPopulation());
+			}
+			case GROVE_TAG -> {
+				final Grove grove = (Grove) fixture;
+				out.writeBoolean(grove.isOrchard());
+				out.writeBoolean(grove.isCultivated());
+				out.writeInt(strings.index(grove.getKind()));
+				out.writeInt(grove.getId());
+				out.writeInt(grove.getPopulation());
+			}
+			case MEADOW_TAG -> {
+				final Meadow meadow = (Meadow) fixture;
+				out.writeInt(strings.index(meadow.getKind()));
+				out.writeBoolean(meadow.isField());
+				out.writeBoolean(meadow.isCultivated());
+				out.writeInt(meadow.getId());
+				out.writeInt(strings.index(meadow.getStatus().name()));
+				writeExtent(out, meadow.getAcres(), strings);
+			}
+			case MINERAL_TAG -> {
+				final MineralVein vein = (MineralVein) fixture;
+				out.writeInt(strings.index(vein.getKind()));
+				out.writeBoolean(vein.isExposed());
+				out.writeInt(vein.getDC());
+				out.writeInt(vein.getId());
+			}
+			case STONE_TAG -> {
+				final StoneDeposit stone = (StoneDeposit) fixture;
+				out.writeInt(strings.index(stone.getStone().name()));
+				out.writeInt(stone.getDC());
+				out.writeInt(stone.getId());
+			}
+			case ANIMAL_TAG -> {
+				final AnimalImpl animal = (AnimalImpl) fixture;
+				out.writeInt(strings.index(animal.getKind()));
+				out.writeBoolean(animal.isTalking());
+				out.writeInt(strings.index(animal.getStatus()));
+				out.writeInt(animal.getId());
+				out.writeInt(animal.getBorn());
+				out.writeInt(animal.getPopulation());
+			}
+			case TRACKS_TAG -> out.writeInt(strings.index(((AnimalTracks) fixture).getKind()));
+			case TEXT_TAG -> {
+				final TextFixture text = (TextFixture) fixture;
+				out.writeInt(strings.index(text.getText()));
+				out.writeInt(text.getTurn());
+			}
+			case CACHE_TAG -> {
+				final CacheFixture cache = (CacheFixture) fixture;
+				out.writeInt(strings.index(cache.getKind()));
+				out.writeInt(strings.index(cache.getContents()));
+				out.writeInt(cache.getId());
+			}
+			case CAVE_TAG, BATTLEFIELD_TAG -> {
+				out.writeInt(fixture.getDC());
+				out.writeInt(fixture.getId());
+			}
+			default -> throw new IllegalStateException("Unhandled snapshot tag " + tag);
+		}
+		return tag;
+	}
+
+	@Override
+	public void write(final ThrowingConsumer<String, IOException> stream, final IMapNG map)
+			throws XMLStreamException, IOException {
+		throw new UnsupportedOperationException("Can't write a map snapshot to a stream");
+	}
+
+	@Override
+	public void writeSPObject(final Path file, final Object obj) throws XMLStreamException, IOException {
+		if (obj instanceof IMapNG map) {
+			write(file, map);
+		} else {
+			throw new UnsupportedOperationException("Only whole maps can be written as snapshots");
+		}
+	}
+
+	@Override
+	public void writeSPObject(final ThrowingConsumer<String, IOException> stream, final Object obj)
+			throws XMLStreamException, IOException {
+		throw new UnsupportedOperationException("Can't write a map snapshot to a stream");
+	}
+}
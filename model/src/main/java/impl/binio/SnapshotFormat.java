@@ -0,0 +1,94 @@
+package impl.binio;
+
+import common.map.Direction;
+
+/**
+ * Constants describing the binary map snapshot format shared by {@link
+ * SPSnapshotWriter} and {@link SPSnapshotReader}.
+ *
+ * A snapshot consists of, in order:
+ *
+ * <ol>
+ * <li>A header: the magic number, the format version, the offset of the
+ * string table, the map version, the number of rows and columns, and the
+ * current turn.</li>
+ * <li>The players: a count, then for each its ID, the string-table indexes of
+ * its name, country (-1 if none), and portrait, and whether it is current.</li>
+ * <li>The tiles: one fixed-width record (see {@link #TILE_RECORD_SIZE}) for
+ * each point in the map's dimensions, in row-major order, then a count of
+ * points outside the dimensions and, for each, its row, column, and a
+ * record.</li>
+ * <li>The bookmarks: a count, then for each its row, column, and player
+ * ID.</li>
+ * <li>The fixtures, in the same order as the tiles: for each, a tag byte,
+ * the length of the payload, and the payload.</li>
+ * <li>The string table: a count, then for each string its length in bytes
+ * and its UTF-8 encoding.</li>
+ * </ol>
+ *
+ * All numbers are big-endian, as written by {@link java.io.DataOutputStream}.
+ */
+/* package */ final class SnapshotFormat {
+	private SnapshotFormat() {
+	}
+
+	/**
+	 * The magic number at the start of every snapshot, "SPMS" in ASCII.
+	 */
+	public static final int MAGIC = 0x53504D53;
+
+	/**
+	 * The version of the snapshot format.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The offset in the file of the string table's offset.
+	 */
+	public static final long STRING_TABLE_OFFSET_POSITION = 8L;
+
+	/**
+	 * The size in bytes of a tile record: terrain, flags, rivers, the road
+	 * quality in each direction, and the number of fixtures.
+	 */
+	public static final int TILE_RECORD_SIZE = 1 + 1 + 2 + 2 * Direction.values().length + 4;
+
+	/**
+	 * The tile flag marking a mountainous tile.
+	 */
+	public static final int MOUNTAIN_FLAG = 1;
+
+	/**
+	 * The string-table index standing for a null string.
+	 */
+	public static final int NO_STRING = -1;
+
+	/**
+	 * Fixture tags. {@link #XML_TAG} marks a fixture whose payload is its
+	 * UTF-8 XML serialization, used for fixture types without a native
+	 * encoding.
+	 */
+	public static final byte XML_TAG = 0;
+	public static final byte GROUND_TAG = 1;
+	public static final byte FOREST_TAG = 2;
+	public static final byte HILL_TAG = 3;
+	public static final byte OASIS_TAG = 4;
+	public static final byte SHRUB_TAG = 5;
+	public static final byte GROVE_TAG = 6;
+	public static final byte MEADOW_TAG = 7;
+	public static final byte MINERAL_TAG = 8;
+	public static final byte STONE_TAG = 9;
+	public static final byte ANIMAL_TAG = 10;
+	public static final byte TRACKS_TAG = 11;
+	public static final byte TEXT_TAG = 12;
+	public static final byte CACHE_TAG = 13;
+	public static final byte CAVE_TAG = 14;
+	public static final byte BATTLEFIELD_TAG = 15;
+
+	/**
+	 * Markers for how an extent (acres) is encoded: as an int, or as the
+	 * string representation of a {@link java.math.BigDecimal}.
+	 */
+	public static final byte INTEGER_EXTENT = 0;
+	public static final byte DECIMAL_EXTENT = 1;
+}
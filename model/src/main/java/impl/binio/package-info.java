@@ -0,0 +1,4 @@
+@NonNullByDefault
+package impl.binio;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
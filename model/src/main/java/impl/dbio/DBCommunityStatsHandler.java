@@ -13,10 +13,10 @@ import common.map.IMutableMapNG;
 import common.map.fixtures.ResourcePileImpl;
 import common.map.fixtures.IResourcePile;
 import common.map.fixtures.IMutableResourcePile;
-import common.map.fixtures.Quantity;
 import common.map.fixtures.towns.CommunityStats;
 import common.map.fixtures.towns.ITownFixture;
 import common.xmlio.Warning;
+import impl.xmlio.LoadInterner;
 
 import static io.jenetics.facilejdbc.Param.value;
 
@@ -160,7 +160,7 @@ final class DBCommunityStatsHandler extends AbstractDatabaseWriter<CommunityStat
 				quantity = new BigDecimal(qtyString);
 			}
 			final IMutableResourcePile pile =
-				new ResourcePileImpl(id, kind, contents, new Quantity(quantity, units));
+				new ResourcePileImpl(id, kind, contents, LoadInterner.quantity(quantity, units));
 			if (created != null) {
 				pile.setCreated(created);
 			}
@@ -189,7 +189,7 @@ final class DBCommunityStatsHandler extends AbstractDatabaseWriter<CommunityStat
 				quantity = new BigDecimal(qtyString);
 			}
 			final IMutableResourcePile pile =
-				new ResourcePileImpl(id, kind, contents, new Quantity(quantity, units));
+				new ResourcePileImpl(id, kind, contents, LoadInterner.quantity(quantity, units));
 			if (created != null) {
 				pile.setCreated(created);
 			}
@@ -24,6 +24,7 @@ import common.map.fixtures.towns.CommunityStats;
 import common.map.fixtures.towns.IMutableFortress;
 import common.map.fixtures.towns.Village;
 import common.xmlio.Warning;
+import impl.xmlio.LoadInterner;
 import impl.xmlio.exceptions.MapVersionException;
 
 import io.jenetics.facilejdbc.Query;
@@ -36,6 +37,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.LongConsumer;
 import java.text.ParseException;
 
 import java.util.stream.Stream;
@@ -58,7 +60,8 @@ final class DBMapReader {
 	private static final Query PLAYER_SELECT = Query.of("SELECT id, codename, current FROM players");
 
 	private static Player parsePlayer(final Row row, final Connection sql) throws SQLException {
-		final MutablePlayer retval = new PlayerImpl(row.getInt("id"), row.getString("codename"));
+		final MutablePlayer retval = new PlayerImpl(row.getInt("id"),
+			LoadInterner.intern(row.getString("codename")));
 		if (row.getBoolean("current")) {
 			retval.setCurrent(true);
 		}
@@ -102,6 +105,27 @@ final class DBMapReader {
 		return Pair.with(new Point(row.getInt("row"), row.getInt("column")), row.getInt("player"));
 	}
 	public IMutableMapNG readMap(final Transactional db, final Warning warner) throws SQLException {
+		return readMap(db, warner, count -> {});
+	}
+
+	/**
+	 * Read a map from the database, reporting the running total of rows
+	 * read to the given listener. The listener may throw an unchecked
+	 * exception to abort reading.
+	 */
+	public IMutableMapNG readMap(final Transactional db, final Warning warner, final LongConsumer rowsRead)
+			throws SQLException {
+		RowCounter.start(rowsRead);
+		LoadInterner.start();
+		try {
+			return readMapImpl(db, warner);
+		} finally {
+			LoadInterner.stop();
+			RowCounter.stop();
+		}
+	}
+
+	private IMutableMapNG readMapImpl(final Transactional db, final Warning warner) throws SQLException {
 		final Connection conn = db.connection();
 		final @Nullable Quartet<Integer, Integer, Integer, Integer> metadata = METADATA_SELECT.as(((RowParser<Quartet<Integer, Integer, Integer, Integer>>) DBMapReader::parseMetadata).singleNull(), conn);
 		if (metadata == null) {
@@ -157,6 +181,7 @@ final class DBMapReader {
 					retval.addRivers(location, River.Lake);
 				}
 				count.add(1);
+				RowCounter.increment();
 				if (count.getSum() % 50 == 0) {
 					LovelaceLogger.debug("Read terrain for %d tiles",
 							count.getSum());
@@ -164,11 +189,17 @@ final class DBMapReader {
 			});
 		}
 		try (final Stream<Triplet<Point, Direction, Integer>> rStream = ROAD_SELECT.as(((RowParser<Triplet<Point, Direction, Integer>>) DBMapReader::parseRoads).stream(), conn)) {
-			rStream.forEach(t -> retval.setRoadLevel(t.getValue0(), t.getValue1(), t.getValue2()));
+			rStream.forEach(t -> {
+				retval.setRoadLevel(t.getValue0(), t.getValue1(), t.getValue2());
+				RowCounter.increment();
+			});
 		}
 		LovelaceLogger.debug("Finished reading terrain");
 		try (final Stream<Pair<Point, Integer>> bStream = BOOKMARK_SELECT.as(((RowParser<Pair<Point, Integer>>) DBMapReader::parseBookmark).stream(), conn)) {
-			bStream.forEach(p -> retval.addBookmark(p.getValue0(), players.getPlayer(p.getValue1())));
+			bStream.forEach(p -> {
+				retval.addBookmark(p.getValue0(), players.getPlayer(p.getValue1()));
+				RowCounter.increment();
+			});
 		}
 		for (final MapContentsReader reader : readers) {
 			try {
@@ -16,10 +16,10 @@ import common.map.TileFixture;
 import common.map.fixtures.IResourcePile;
 import common.map.fixtures.IMutableResourcePile;
 import common.map.fixtures.ResourcePileImpl;
-import common.map.fixtures.Quantity;
 import common.map.fixtures.mobile.IUnit;
 import common.map.fixtures.towns.IFortress;
 import common.xmlio.Warning;
+import impl.xmlio.LoadInterner;
 
 import static io.jenetics.facilejdbc.Param.value;
 
@@ -84,7 +84,7 @@ final class DBResourcePileHandler
 				quantity = new BigDecimal(qtyString);
 			}
 			final IMutableResourcePile pile = new ResourcePileImpl(id, kind, contents,
-				new Quantity(quantity, units));
+				LoadInterner.quantity(quantity, units));
 			if (image != null) {
 				pile.setImage(image);
 			}
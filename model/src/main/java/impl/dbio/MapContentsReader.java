@@ -4,6 +4,7 @@ import lovelace.util.LovelaceLogger;
 import common.map.IFixture;
 import common.map.IMutableMapNG;
 import common.xmlio.Warning;
+import impl.xmlio.LoadInterner;
 
 import io.jenetics.facilejdbc.Query;
 import io.jenetics.facilejdbc.Row;
@@ -42,7 +43,13 @@ interface MapContentsReader {
 		final ResultSetMetaData rsm = rs.getMetaData();
 		final Map<String, Object> retval = new HashMap<>(rsm.getColumnCount());
 		for (int i = 1; i <= rsm.getColumnCount(); i++) {
-			retval.put(rsm.getColumnLabel(i), rs.getObject(i));
+			final String label = rsm.getColumnLabel(i);
+			final Object value = rs.getObject(i);
+			if (value instanceof String s) {
+				retval.put(label, LoadInterner.internField(label, s));
+			} else {
+				retval.put(label, value);
+			}
 		}
 		return retval;
 	}
@@ -59,6 +66,7 @@ interface MapContentsReader {
 		try (final Stream<Map<String, Object>> stream = query.as(((RowParser<Map<String, Object>>) MapContentsReader::parseToMap).stream(), db)) {
 			stream.forEach(handler.andThen((m, w) -> {
 				count.add(1);
+				RowCounter.increment();
 				if (count.getSum() % 50 == 0) {
 					LovelaceLogger.debug("Finished reading %d %s", count.getSum(), description);
 				}
@@ -0,0 +1,44 @@
+package impl.dbio;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A per-thread counter of database rows read, so that a caller reading a
+ * map can be told of progress without every {@link MapContentsReader} having
+ * to pass the listener along.
+ */
+/* package */ final class RowCounter {
+	private RowCounter() {
+	}
+
+	private static final LongConsumer NOOP = count -> {};
+
+	private static final ThreadLocal<LongConsumer> LISTENER = ThreadLocal.withInitial(() -> NOOP);
+
+	private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+	/**
+	 * Start counting rows read on the current thread, reporting the running total to the given listener.
+	 */
+	public static void start(final LongConsumer listener) {
+		COUNT.get()[0] = 0L;
+		LISTENER.set(listener);
+	}
+
+	/**
+	 * Stop counting rows read on the current thread.
+	 */
+	public static void stop() {
+		LISTENER.remove();
+		COUNT.remove();
+	}
+
+	/**
+	 * Note that a row has been read on the current thread.
+	 */
+	public static void increment() {
+		final long[] count = COUNT.get();
+		count[0]++;
+		LISTENER.get().accept(count[0]);
+	}
+}
@@ -14,6 +14,7 @@ import lovelace.util.LovelaceLogger;
 import org.sqlite.SQLiteDataSource;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.LongConsumer;
 import javax.sql.DataSource;
 import java.nio.file.Path;
 
@@ -56,6 +57,21 @@ public class SPDatabaseReader implements IMapReader {
 		}
 	}
 
+	/**
+	 * Read a map from the database at the given path, reporting the
+	 * running total of rows read to the given listener. The listener may
+	 * throw an unchecked exception to abort reading.
+	 */
+	public IMutableMapNG readMap(final Path file, final Warning warner, final LongConsumer rowsRead)
+			throws IOException {
+		final Transactional db = getSQL(file);
+		try {
+			return dbMapReader.readMap(db, warner, rowsRead);
+		} catch (final SQLException except) {
+			throw new IOException(except);
+		}
+	}
+
 	@Override
 	public IMutableMapNG readMapFromStream(final Path file, final Reader istream, final Warning warner) throws SPFormatException, XMLStreamException, IOException {
 		throw new UnsupportedOperationException("Can't read a database from a stream");
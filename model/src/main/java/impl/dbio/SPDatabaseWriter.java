@@ -14,6 +14,8 @@ import lovelace.util.LovelaceLogger;
 import org.sqlite.SQLiteDataSource;
 import javax.sql.DataSource;
 import common.map.HasNotes;
+import common.map.IFixture;
+import common.perf.DatabaseWriteEvent;
 import common.map.IMapNG;
 import java.nio.file.Path;
 import lovelace.util.ThrowingConsumer;
@@ -87,8 +89,11 @@ public final class SPDatabaseWriter implements SPWriter {
 		}
 		for (final DatabaseWriter<?, ?> writer : writers) {
 			if (writer.canWrite(obj, context)) {
+				final DatabaseWriteEvent event = new DatabaseWriteEvent();
+				event.begin();
 				writer.initialize(sql);
 				writer.writeRaw(sql, obj, context);
+				event.commitFor(writer.getClass(), obj instanceof IFixture fixture ? fixture.getId() : -1);
 				return;
 			}
 		}
@@ -0,0 +1,131 @@
+package impl.xmlio;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import lovelace.util.Interner;
+import lovelace.util.ScopedInterner;
+import lovelace.util.WeakInterner;
+
+import common.map.fixtures.Quantity;
+
+/**
+ * Deduplication of the strings and other immutable values that map readers
+ * create, so that the many fixtures (in one map, and in all the maps loaded
+ * together, such as each player's map) that share a kind, a race, an image
+ * filename, a player's name, a resource's units or quantity, and the like
+ * share one instance of it.
+ *
+ * Canonical instances are kept in pools shared by all readers on all threads,
+ * which hold them only weakly. While a reader is reading a map it should
+ * bracket its work with {@link #start} and {@link #stop}, which on that thread
+ * puts a pool for that load in front of the shared ones, so that each distinct
+ * value costs only one trip to the (synchronized) shared pool per map. As with
+ * {@link impl.dbio.DBMapReader}'s row counting, this is per-thread so that we
+ * needn't pass an interner to every method involved in reading.
+ */
+public final class LoadInterner {
+	private LoadInterner() {
+	}
+
+	/**
+	 * The names of XML attributes and database columns whose values are
+	 * stored in the objects read and are frequently repeated, and so are
+	 * worth interning. Others, such as IDs and coordinates, are parsed into
+	 * numbers and discarded, so interning them would only waste time.
+	 */
+	private static final Set<String> INTERNED_FIELDS = Set.of("kind", "image", "portrait", "race",
+		"unit", "units", "contents", "name", "code_name", "codename", "country", "skill", "job",
+		"associated_job");
+
+	private static final Interner<String> SHARED_STRINGS = new WeakInterner<>();
+
+	private static final Interner<Number> SHARED_NUMBERS = new WeakInterner<>();
+
+	/**
+	 * The pools for the load in progress on a thread.
+	 */
+	private record Scope(Interner<String> strings, Interner<Number> numbers) {
+		public Scope() {
+			this(new ScopedInterner<>(SHARED_STRINGS), new ScopedInterner<>(SHARED_NUMBERS));
+		}
+	}
+
+	private static final ThreadLocal<@Nullable Scope> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * How deeply nested calls to {@link #start} are on the current thread,
+	 * so a reader that calls another reader doesn't end the load early.
+	 */
+	private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+	/**
+	 * Start a load on the current thread, if one is not already in progress.
+	 */
+	public static void start() {
+		final int[] depth = DEPTH.get();
+		if (depth[0] == 0) {
+			CURRENT.set(new Scope());
+		}
+		depth[0]++;
+	}
+
+	/**
+	 * Finish a load on the current thread, discarding its pools (but not
+	 * the shared ones) when the outermost load finishes.
+	 */
+	public static void stop() {
+		final int[] depth = DEPTH.get();
+		depth[0]--;
+		if (depth[0] <= 0) {
+			CURRENT.remove();
+			DEPTH.remove();
+		}
+	}
+
+	private static <Type> Interner<Type> pool(final Interner<Type> shared,
+	                                          final Function<Scope, Interner<Type>> scoped) {
+		final Scope scope = CURRENT.get();
+		return (scope == null) ? shared : scoped.apply(scope);
+	}
+
+	/**
+	 * The canonical instance of the given string.
+	 */
+	public static String intern(final String value) {
+		return pool(SHARED_STRINGS, Scope::strings).intern(value);
+	}
+
+	/**
+	 * The canonical instance of the given value of the given XML attribute
+	 * or database column, or the value itself if values of that field
+	 * aren't worth interning.
+	 */
+	public static String internField(final String field, final String value) {
+		if (INTERNED_FIELDS.contains(field)) {
+			return intern(value);
+		} else {
+			return value;
+		}
+	}
+
+	/**
+	 * The canonical instance of the given number. Numbers are only treated
+	 * as equal if of the same type and (for decimals) scale.
+	 */
+	public static Number intern(final Number value) {
+		return pool(SHARED_NUMBERS, Scope::numbers).intern(value);
+	}
+
+	/**
+	 * A quantity of the given number in the given units, sharing its number
+	 * and units with quantities read before. (We don't share the quantities
+	 * themselves: {@link Quantity#equals} compares numbers by value, so a
+	 * pool of them would turn "1.0" into "1".)
+	 */
+	public static Quantity quantity(final Number number, final String units) {
+		return new Quantity(intern(number), intern(units));
+	}
+}
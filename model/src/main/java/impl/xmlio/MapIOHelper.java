@@ -8,19 +8,32 @@ import java.nio.file.Path;
 import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.function.LongConsumer;
 import javax.xml.stream.XMLStreamException;
 
+import impl.binio.SPSnapshotReader;
+import impl.binio.SPSnapshotWriter;
 import impl.dbio.SPDatabaseWriter;
 import impl.dbio.SPDatabaseReader;
 import common.xmlio.SPFormatException;
 import common.map.IMutableMapNG;
 import common.map.IMapNG;
+import common.perf.MapReadEvent;
+import common.perf.MapWriteEvent;
 import impl.xmlio.fluidxml.SPFluidReader;
 import impl.xmlio.yaxml.YAXMLWriter;
 import common.xmlio.Warning;
 import lovelace.util.LovelaceLogger;
+import lovelace.util.ProgressInputStream;
 
 /**
  * A helper to abstract the details of specific I/O implementations to shield
@@ -51,7 +64,22 @@ public final class MapIOHelper {
 	/**
 	 * The reader to use to read from SQLite databases.
 	 */
-	public static final IMapReader DB_READER = new SPDatabaseReader();
+	public static final SPDatabaseReader DB_READER = new SPDatabaseReader();
+
+	/**
+	 * The filename suffix marking binary map snapshots.
+	 */
+	public static final String SNAPSHOT_SUFFIX = ".spsnap";
+
+	/**
+	 * The writer to use to write binary map snapshots.
+	 */
+	public static final SPSnapshotWriter SNAPSHOT_WRITER = new SPSnapshotWriter();
+
+	/**
+	 * The reader to use to read binary map snapshots.
+	 */
+	public static final SPSnapshotReader SNAPSHOT_READER = new SPSnapshotReader();
 
 	/**
 	 * Turn a series of Strings into a series of equvalent Paths.
@@ -73,17 +101,39 @@ public final class MapIOHelper {
 	 */
 	public static IMutableMapNG readMap(final Path file, final Warning warner)
 			throws SPFormatException, IOException, NoSuchFileException, XMLStreamException {
+		return readMap(file, warner, ignored -> {});
+	}
+
+	/**
+	 * Read a map from a file, reporting progress to the given listener:
+	 * for XML and snapshots the number of bytes read so far, and for SQLite
+	 * databases the number of rows read so far. The listener may throw an
+	 * unchecked exception (such as {@link
+	 * java.util.concurrent.CancellationException}) to abort reading.
+	 */
+	public static IMutableMapNG readMap(final Path file, final Warning warner, final LongConsumer progress)
+			throws SPFormatException, IOException, NoSuchFileException, XMLStreamException {
 		LovelaceLogger.debug("In mapIOHelper.readMap");
+		final MapReadEvent event = new MapReadEvent(file);
+		event.begin();
 		final IMutableMapNG retval;
 		if (file.toString().endsWith(".db")) {
 			LovelaceLogger.debug("Reading from %s as an SQLite database",
 				file.toString());
-			retval = DB_READER.readMap(file, warner);
+			retval = DB_READER.readMap(file, warner, progress);
+		} else if (file.toString().endsWith(SNAPSHOT_SUFFIX)) {
+			LovelaceLogger.debug("Reading from %s as a map snapshot", file);
+			retval = SNAPSHOT_READER.readMap(file, warner, progress);
 		} else {
 			LovelaceLogger.debug("Reading from %s", file);
-			retval = READER.readMap(file, warner);
+			try (final Reader reader = new BufferedReader(new InputStreamReader(
+					new ProgressInputStream(Files.newInputStream(file), progress),
+					StandardCharsets.UTF_8))) {
+				retval = READER.readMapFromStream(file, reader, warner);
+			}
 		}
 		retval.setFilename(file);
+		event.commitFor(retval);
 		LovelaceLogger.debug("Finished reading from %s", file);
 		return retval;
 	}
@@ -110,12 +160,81 @@ public final class MapIOHelper {
 	 * Write a map to file.
 	 */
 	public static void writeMap(final Path file, final IMapNG map) throws IOException, XMLStreamException {
+		final MapWriteEvent event = new MapWriteEvent(file);
+		event.begin();
 		if (file.toString().endsWith(".db") || file.toString().isEmpty()) {
 			LovelaceLogger.debug("Writing to %s as an SQLite database", file);
 			DB_WRITER.write(file, map);
+		} else if (file.toString().endsWith(SNAPSHOT_SUFFIX)) {
+			LovelaceLogger.debug("Writing to %s as a map snapshot", file);
+			SNAPSHOT_WRITER.write(file, map);
 		} else {
 			LovelaceLogger.debug("Writing to %s", file);
 			WRITER.write(file, map);
 		}
+		event.commitFor(map);
+	}
+
+	/**
+	 * Write a map to file, reporting progress to the given listener: for
+	 * XML the number of characters, and for snapshots the number of bytes,
+	 * written so far. (The SQLite writer does not report progress while
+	 * writing.) The map is written to a temporary file in the same
+	 * directory, which replaces the target only once writing has finished,
+	 * so if the listener throws an exception (such as {@link
+	 * java.util.concurrent.CancellationException}) to abort writing, or
+	 * writing otherwise fails, the target file is left untouched. The
+	 * listener is always called once more, with the final count (for
+	 * SQLite, the size of the database), immediately before the target is
+	 * replaced, so a cancellation requested at any point before then is
+	 * honored.
+	 */
+	public static void writeMap(final Path file, final IMapNG map, final LongConsumer progress)
+			throws IOException, XMLStreamException {
+		final Path target = file.toAbsolutePath();
+		final String name = target.getFileName().toString();
+		final int dot = name.lastIndexOf('.');
+		final String suffix = dot < 0 ? ".tmp" : name.substring(dot);
+		final Path temp = target.resolveSibling("." + name + ".saving" + suffix);
+		Files.deleteIfExists(temp);
+		final MapWriteEvent event = new MapWriteEvent(file);
+		event.begin();
+		try {
+			final long total;
+			if (name.endsWith(".db")) {
+				LovelaceLogger.debug("Writing to %s as an SQLite database", temp);
+				// A fresh writer, since the shared one remembers which
+				// databases it has created tables in, and the temporary
+				// file is a new, empty database every time.
+				new SPDatabaseWriter().write(temp, map);
+				total = Files.size(temp);
+			} else if (name.endsWith(SNAPSHOT_SUFFIX)) {
+				LovelaceLogger.debug("Writing to %s as a map snapshot", temp);
+				SNAPSHOT_WRITER.write(temp, map, progress);
+				total = Files.size(temp);
+			} else {
+				LovelaceLogger.debug("Writing to %s", temp);
+				final long[] count = {0L};
+				try (final BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+					WRITER.write(string -> {
+						writer.write(string);
+						count[0] += string.length();
+						progress.accept(count[0]);
+					}, map);
+				}
+				total = count[0];
+			}
+			// The last chance to cancel before the target is replaced.
+			progress.accept(total);
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException except) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			event.commitFor(map);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
 	}
 }
@@ -25,6 +25,7 @@ import common.map.IPlayerCollection;
 import common.xmlio.SPFormatException;
 import common.xmlio.Warning;
 import static impl.xmlio.ISPReader.SP_NAMESPACE;
+import impl.xmlio.LoadInterner;
 import impl.xmlio.exceptions.UnwantedChildException;
 import impl.xmlio.exceptions.MissingPropertyException;
 import impl.xmlio.exceptions.DeprecatedPropertyException;
@@ -93,7 +94,7 @@ import org.jetbrains.annotations.Nullable;
 		if (retval == null) {
 			return defaultValue;
 		} else {
-			return retval;
+			return LoadInterner.internField(param, retval);
 		}
 	}
 
@@ -113,7 +114,7 @@ import org.jetbrains.annotations.Nullable;
 		if (retval == null) {
 			throw new MissingPropertyException(element, param);
 		} else {
-			return retval;
+			return LoadInterner.internField(param, retval);
 		}
 	}
 
@@ -13,7 +13,6 @@ import common.idreg.IDRegistrar;
 import common.map.IPlayerCollection;
 import common.map.fixtures.IMutableResourcePile;
 import common.map.fixtures.IResourcePile;
-import common.map.fixtures.Quantity;
 import common.map.fixtures.ResourcePileImpl;
 import common.map.fixtures.Implement;
 import common.map.fixtures.resources.FieldStatus;
@@ -27,6 +26,7 @@ import common.map.fixtures.resources.Shrub;
 import common.map.fixtures.resources.MineralVein;
 import common.map.fixtures.towns.TownStatus;
 import common.xmlio.Warning;
+import impl.xmlio.LoadInterner;
 import impl.xmlio.exceptions.MissingPropertyException;
 import impl.xmlio.exceptions.DeprecatedPropertyException;
 import impl.xmlio.exceptions.UnwantedChildException;
@@ -45,7 +45,7 @@ import common.map.HasExtent;
 			getOrGenerateID(element, warner, idFactory),
 			getAttribute(element, "kind"),
 			getAttribute(element, "contents"),
-			new Quantity(getNumericAttribute(element, "quantity"), getAttribute(element,
+			LoadInterner.quantity(getNumericAttribute(element, "quantity"), getAttribute(element,
 				"unit", "")));
 		if (hasAttribute(element, "created")) {
 			retval.setCreated(getIntegerAttribute(element, "created"));
@@ -81,6 +81,7 @@ import common.map.fixtures.towns.IMutableFortress;
 import common.map.fixtures.towns.TownSize;
 import impl.xmlio.IMapReader;
 import impl.xmlio.ISPReader;
+import impl.xmlio.LoadInterner;
 import common.xmlio.Warning;
 import impl.xmlio.exceptions.UnsupportedTagException;
 import impl.xmlio.exceptions.MissingChildException;
@@ -597,6 +598,7 @@ public class SPFluidReader implements IMapReader, ISPReader {
 	@Override
 	public <Type> Type readXML(final Path file, final Reader istream, final Warning warner)
 			throws SPFormatException, XMLStreamException, IOException {
+		LoadInterner.start();
 		try (final TypesafeXMLEventReader reader = new TypesafeXMLEventReader(istream)) {
 			final Iterable<XMLEvent> eventReader = new IteratorWrapper<>(reader);
 			final IMutablePlayerCollection players = new PlayerCollection();
@@ -609,6 +611,8 @@ public class SPFluidReader implements IMapReader, ISPReader {
 			}
 		} catch (final IOException except) {
 			throw new XMLStreamException(except);
+		} finally {
+			LoadInterner.stop();
 		}
 		throw new XMLStreamException("XML stream didn't contain a start element");
 	}
@@ -0,0 +1,144 @@
+package common.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.towns.Town;
+import common.map.fixtures.towns.TownSize;
+import common.map.fixtures.towns.TownStatus;
+
+/**
+ * Tests that {@link MapSubsetChecker} gives the same verdicts and messages as
+ * {@link SPMapNG#isSubset} over a corpus of generated maps.
+ */
+public final class TestMapSubsetChecker {
+	private static final int ROWS = 80;
+	private static final int COLUMNS = 80;
+
+	private static Point randomPoint(final Random random) {
+		return new Point(random.nextInt(ROWS), random.nextInt(COLUMNS));
+	}
+
+	/**
+	 * Create a main map with a bit of everything on most tiles.
+	 */
+	private static IMutableMapNG createMainMap(final Random random) {
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(ROWS, COLUMNS, 2),
+			new PlayerCollection(), 5);
+		final Player one = new PlayerImpl(1, "one");
+		final Player two = new PlayerImpl(2, "two");
+		retval.addPlayer(one);
+		retval.addPlayer(two);
+		final TileType[] types = TileType.values();
+		final River[] rivers = River.values();
+		final Direction[] directions = Direction.values();
+		int id = 1;
+		for (int row = 0; row < ROWS; row++) {
+			for (int column = 0; column < COLUMNS; column++) {
+				final Point point = new Point(row, column);
+				if (random.nextInt(10) > 0) {
+					retval.setBaseTerrain(point, types[random.nextInt(types.length)]);
+				}
+				if (random.nextInt(5) == 0) {
+					retval.setMountainous(point, true);
+				}
+				if (random.nextInt(10) == 0) {
+					retval.addRivers(point, rivers[random.nextInt(rivers.length)]);
+				}
+				if (random.nextInt(10) == 0) {
+					retval.setRoadLevel(point, directions[random.nextInt(directions.length)],
+						1 + random.nextInt(3));
+				}
+				if (random.nextInt(5) == 0) {
+					retval.addFixture(point, new Forest("oak", random.nextBoolean(), id++));
+				}
+				if (random.nextInt(20) == 0) {
+					retval.addFixture(point, new Unit(random.nextBoolean() ? one : two, "kind",
+						"unit" + id, id++));
+				}
+				if (random.nextInt(50) == 0) {
+					retval.addFixture(point, new Town(TownStatus.Active, TownSize.Small, 10,
+						"town" + id, id++, two));
+				}
+				if (random.nextInt(20) == 0) {
+					retval.addFixture(point, new AnimalImpl("deer", false, "wild", id++));
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Create a map derived from the main map, with the given number of
+	 * random changes of the given kind.
+	 */
+	private static IMapNG createPlayerMap(final IMapNG main, final Random random, final int kind,
+	                                      final int changes) {
+		final IMutableMapNG retval = (IMutableMapNG) main.copy(IFixture.CopyBehavior.ZERO, null);
+		for (int i = 0; i < changes; i++) {
+			final Point point = randomPoint(random);
+			switch (kind) {
+				case 1 -> retval.getFixtures(point).stream().findFirst()
+					.ifPresent(f -> retval.removeFixture(point, f));
+				case 2 -> retval.addFixture(point, new Forest("birch", false, 100000 + i));
+				case 3 -> retval.getFixtures(point).stream().filter(Unit.class::isInstance).findFirst()
+					.ifPresent(f -> {
+						retval.removeFixture(point, f);
+						retval.addFixture(randomPoint(random), f);
+					});
+				case 4 -> retval.setBaseTerrain(point, TileType.values()[random.nextInt(
+					TileType.values().length)]);
+				case 5 -> retval.addRivers(point, River.Lake);
+				case 6 -> retval.setRoadLevel(point, Direction.North, 5);
+				case 7 -> retval.addPlayer(new PlayerImpl(10 + i, "extra" + i));
+				case 8 -> retval.setMountainous(point, true);
+				default -> {
+				}
+			}
+		}
+		return retval;
+	}
+
+	/**
+	 * Test that the checker agrees with {@link SPMapNG#isSubset} on each map
+	 * in the corpus, whether checked singly or all at once.
+	 */
+	@Test
+	public void testAgreesWithSequentialCheck() {
+		final Random random = new Random(20240611L);
+		final IMutableMapNG main = createMainMap(random);
+		final List<IMapNG> corpus = new ArrayList<>();
+		for (int kind = 0; kind <= 8; kind++) {
+			corpus.add(createPlayerMap(main, random, kind, 1));
+			corpus.add(createPlayerMap(main, random, kind, 25));
+		}
+		corpus.add(new SPMapNG(new MapDimensionsImpl(ROWS, COLUMNS + 1, 2), new PlayerCollection(), 5));
+		final MapSubsetChecker checker = new MapSubsetChecker(main);
+		final List<MapSubsetChecker.Result> all = checker.checkAll(corpus);
+		assertEquals(corpus.size(), all.size(), "One result per map");
+		int failures = 0;
+		for (int i = 0; i < corpus.size(); i++) {
+			final List<String> expected = new ArrayList<>();
+			final boolean verdict = main.isSubset(corpus.get(i), expected::add);
+			final MapSubsetChecker.Result result = checker.check(corpus.get(i));
+			assertEquals(verdict, result.subset(), "Same verdict for map #" + i);
+			assertEquals(expected, result.messages(), "Same messages for map #" + i);
+			assertEquals(result, all.get(i), "Checking all at once agrees for map #" + i);
+			if (!verdict) {
+				failures++;
+			}
+		}
+		assertTrue(checker.check(corpus.get(0)).subset(), "Unchanged copy is a subset");
+		assertFalse(failures < corpus.size() / 2, "Corpus exercises failure reports");
+	}
+}
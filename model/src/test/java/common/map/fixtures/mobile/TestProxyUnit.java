@@ -2,9 +2,19 @@ package common.map.fixtures.mobile;
 
 import common.map.Player;
 import common.map.PlayerImpl;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Tests that proxy-units work properly, initially to aid in debugging an issue with (the port to Java of) the advancement feature.
@@ -35,4 +45,116 @@ public class TestProxyUnit {
 		assertEquals(2, (int) proxy.stream()
 				.filter(IWorker.class::isInstance).map(IWorker.class::cast).count(), "Proxy unit contains two workers");
 	}
+
+	/**
+	 * Wrap the given unit so that every call to it, other than registering
+	 * a listener, is counted.
+	 */
+	private static IUnit counting(final IUnit unit, final AtomicInteger counter) {
+		return (IUnit) Proxy.newProxyInstance(IUnit.class.getClassLoader(), new Class<?>[] { IUnit.class },
+			(proxy, method, args) -> {
+				if (!"addMutationListener".equals(method.getName())) {
+					counter.incrementAndGet();
+				}
+				try {
+					return method.invoke(unit, args);
+				} catch (final InvocationTargetException except) {
+					throw except.getCause();
+				}
+			});
+	}
+
+	/**
+	 * Test that repeatedly asking a proxy for its orders, as the orders
+	 * panel and worker tree do while rendering, only consults each proxied
+	 * unit a bounded number of times in all until one of them changes,
+	 * rather than on every call.
+	 */
+	@Test
+	public void testOrdersAreMemoized() {
+		final Player owner = new PlayerImpl(1, "playerOne");
+		final int count = 500;
+		final AtomicInteger reads = new AtomicInteger(0);
+		final List<IMutableUnit> units = new ArrayList<>();
+		final ProxyUnit proxy = new ProxyUnit("unitKind");
+		for (int i = 0; i < count; i++) {
+			final IMutableUnit unit = new Unit(owner, "unitKind", "unit" + i, i);
+			unit.setOrders(3, "gather wood");
+			units.add(unit);
+			proxy.addProxied(counting(unit, reads));
+		}
+		for (int i = 0; i < count; i++) {
+			assertEquals("gather wood", proxy.getOrders(3), "Proxy reports shared orders");
+			assertEquals("gather wood", proxy.getLatestOrders(5), "Proxy reports shared latest orders");
+		}
+		assertTrue(reads.get() <= 4 * count,
+			"Rendering %d times consults each unit a bounded number of times, not %d".formatted(count,
+				reads.get()));
+		units.get(17).setOrders(3, "hunt");
+		assertEquals("", proxy.getOrders(3), "Change in a proxied unit invalidates the cached consensus");
+		assertEquals("", proxy.getAllOrders().get(3), "Change in a proxied unit invalidates the cached merge");
+	}
+
+	/**
+	 * Test that a change to a worker reaches the cached views of a proxy
+	 * for it, including one that only the proxy unit's members refer to.
+	 */
+	@Test
+	public void testWorkerChangeInvalidatesProxy() {
+		final Player owner = new PlayerImpl(1, "playerOne");
+		final Worker worker = new Worker("one", "human", 2);
+		worker.setNote(owner, "first note");
+		final IMutableUnit unit = new Unit(owner, "unitKind", "unit", 1);
+		unit.addMember(worker);
+		final ProxyUnit proxy = new ProxyUnit(1);
+		proxy.addProxied(unit);
+		final IWorker proxyWorker = proxy.stream().filter(IWorker.class::isInstance).map(IWorker.class::cast)
+			.findFirst().orElseThrow();
+		assertEquals("first note", proxyWorker.getNote(owner), "Proxy reports worker's note");
+		worker.setNote(owner, "second note");
+		assertEquals("second note", proxyWorker.getNote(owner), "Change in worker invalidates cached note");
+	}
+
+	/**
+	 * Register a listener that nothing else refers to, returning a weak
+	 * reference to it, enqueued on the given queue when it is collected.
+	 */
+	private static WeakReference<MutationListener> addUnreferenced(final MutationListeners listeners,
+	                                                                final ReferenceQueue<MutationListener> queue) {
+		// Not a lambda, as the JVM may reuse a single instance of one that captures nothing.
+		final MutationListener listener = new MutationListener() {
+			@Override
+			public void mutated() {}
+		};
+		listeners.add(listener);
+		return new WeakReference<>(listener, queue);
+	}
+
+	/**
+	 * Test that listeners are held weakly, and that dead ones are forgotten
+	 * when another is added, not only when a change is fired. Whether the
+	 * garbage collector clears the dead listener is up to it, so we wait a
+	 * bounded time for that and skip the test if it doesn't.
+	 */
+	@Test
+	public void testDeadListenersForgotten() throws InterruptedException {
+		final MutationListeners listeners = new MutationListeners();
+		final AtomicInteger fired = new AtomicInteger();
+		final MutationListener live = fired::incrementAndGet;
+		listeners.add(live);
+		final ReferenceQueue<MutationListener> queue = new ReferenceQueue<>();
+		final WeakReference<MutationListener> dead = addUnreferenced(listeners, queue);
+		assertEquals(2, listeners.size(), "Both listeners registered");
+		boolean collected = false;
+		for (int i = 0; i < 20 && !collected; i++) {
+			System.gc();
+			collected = queue.remove(100) != null;
+		}
+		assumeTrue(collected, "Unreferenced listener was collected");
+		listeners.add(() -> {});
+		assertEquals(2, listeners.size(), "Dead listener forgotten when another is added");
+		listeners.fire();
+		assertEquals(1, fired.get(), "Live listener is still told of changes");
+		Reference.reachabilityFence(live);
+	}
 }
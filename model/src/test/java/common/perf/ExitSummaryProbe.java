@@ -0,0 +1,35 @@
+package common.perf;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.SPMapNG;
+
+/**
+ * A program for {@link TestPerformanceRecorder} to run in a fresh JVM: it
+ * starts recording to the file named by its argument, records one event,
+ * and exits without stopping the recording, as a GUI app does, leaving a
+ * shutdown hook to print its summary once it has been written.
+ */
+public final class ExitSummaryProbe {
+	private ExitSummaryProbe() {
+	}
+
+	public static void main(final String... args) throws IOException {
+		final PerformanceRecorder recorder = PerformanceRecorder.start(Paths.get(args[0]));
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				recorder.summarizeAtExit().forEach(System.out::println);
+			} catch (final IOException except) {
+				except.printStackTrace(System.out);
+			}
+		}));
+		final IMutableMapNG map = new SPMapNG(new MapDimensionsImpl(2, 2, 2), new PlayerCollection(), 0);
+		final MapReadEvent event = new MapReadEvent(Paths.get("map.xml"));
+		event.begin();
+		event.commitFor(map);
+	}
+}
@@ -0,0 +1,113 @@
+package common.perf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.fixtures.terrain.Hill;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that {@link PerformanceRecorder} records our events and summarizes them by phase.
+ */
+public final class TestPerformanceRecorder {
+	@Test
+	public void testSummary(@TempDir final Path directory) throws IOException {
+		final IMutableMapNG map = new SPMapNG(new MapDimensionsImpl(3, 4, 2), new PlayerCollection(), 0);
+		map.addFixture(new Point(1, 1), new Hill(1));
+		final Path file = directory.resolve("test.jfr");
+		final PerformanceRecorder recorder = PerformanceRecorder.start(file);
+		SPEvent.setCurrentDriver("test");
+		for (int i = 0; i < 2; i++) {
+			final MapReadEvent event = new MapReadEvent(Paths.get("map.xml"));
+			event.begin();
+			event.commitFor(map);
+		}
+		final DatabaseWriteEvent write = new DatabaseWriteEvent();
+		write.begin();
+		write.commitFor(Hill.class, 1);
+		final List<String> summary = recorder.stop();
+		assertTrue(Files.size(file) > 0, "Recording was written");
+		assertEquals(2, summary.size(), "One line per phase");
+		assertTrue(summary.stream().anyMatch(line -> line.startsWith("Map Read: 2 events")),
+			"Map reads are summarized together");
+		assertTrue(summary.stream().anyMatch(line -> line.startsWith("Database Write: Hill: 1 events")),
+			"Database writes are summarized by table");
+	}
+
+	/**
+	 * Test that a pathfinder event fills in its points, and asks for the
+	 * map's fixture count, only if it is recorded.
+	 */
+	@Test
+	public void testPathfinderEvent(@TempDir final Path directory) throws IOException {
+		final IMutableMapNG map = new SPMapNG(new MapDimensionsImpl(3, 4, 2), new PlayerCollection(), 0);
+		final AtomicInteger counted = new AtomicInteger();
+		final PathfinderEvent unrecorded = new PathfinderEvent(new Point(0, 0));
+		unrecorded.begin();
+		unrecorded.commitFor(map, () -> counted.incrementAndGet());
+		assertEquals(0, counted.get(), "Fixtures not counted when not recording");
+		final Path file = directory.resolve("test.jfr");
+		final PerformanceRecorder recorder = PerformanceRecorder.start(file);
+		SPEvent.setCurrentDriver("test");
+		final PathfinderEvent event = new PathfinderEvent(new Point(1, 2), new Point(2, 3));
+		event.begin();
+		event.commitFor(map, () -> counted.incrementAndGet() * 7L);
+		final PathfinderEvent everywhere = new PathfinderEvent(new Point(0, 1));
+		everywhere.begin();
+		everywhere.commitFor(map, () -> 5L);
+		recorder.stop();
+		assertEquals(1, counted.get(), "Fixtures counted once when recording");
+		final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+			.filter(e -> "strategicprimer.PathfinderQuery".equals(e.getEventType().getName()))
+			.collect(Collectors.toList());
+		assertEquals(2, events.size(), "Both recorded events were written");
+		assertEquals(new Point(1, 2).toString(), events.get(0).getString("start"), "Start point");
+		assertEquals(new Point(2, 3).toString(), events.get(0).getString("destination"), "Destination");
+		assertEquals(7L, events.get(0).getLong("fixtures"), "Fixture count from supplier");
+		assertEquals(3, events.get(0).getInt("rows"), "Map size is recorded");
+		assertEquals("test", events.get(0).getString("driver"), "Driver is recorded");
+		assertEquals("everywhere", events.get(1).getString("destination"), "Query for every point");
+		assertFalse(events.get(0).hasField("startPoint"), "Points themselves are not recorded");
+	}
+
+	/**
+	 * Test that a recording left running until the JVM exits, as by a GUI
+	 * app, is written then and can be summarized in a shutdown hook.
+	 */
+	@Test
+	public void testSummaryAtExit(@TempDir final Path directory) throws IOException, InterruptedException {
+		final Path file = directory.resolve("exit.jfr");
+		final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				ExitSummaryProbe.class.getName(), file.toString()).redirectErrorStream(true).start();
+		final String output;
+		try (final InputStream stream = process.getInputStream()) {
+			output = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		assertEquals(0, process.waitFor(), "Probe exited normally");
+		assertTrue(output.lines().anyMatch(line -> line.startsWith("Map Read: 1 events")),
+			"Summary printed at exit: " + output);
+		assertTrue(Files.size(file) > 0, "Recording was written");
+	}
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package common.perf;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -0,0 +1,168 @@
+package impl.xmlio;
+
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.SPMapNG;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.IResourcePile;
+import common.map.fixtures.Quantity;
+import common.map.fixtures.ResourcePileImpl;
+import common.map.fixtures.mobile.IUnit;
+import common.map.fixtures.mobile.IWorker;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.mobile.worker.IJob;
+import common.map.fixtures.mobile.worker.ISkill;
+import common.map.fixtures.mobile.worker.Job;
+import common.map.fixtures.mobile.worker.Skill;
+import common.map.fixtures.towns.FortressImpl;
+import common.map.fixtures.towns.IFortress;
+import common.xmlio.SPFormatException;
+import common.xmlio.Warning;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the map readers share strings and numbers among the fixtures
+ * of one map and among maps read separately, as {@link LoadInterner} should
+ * make them.
+ */
+public class TestLoadInterner {
+	private static final String[] KINDS = { "food", "equipment", "wood" };
+	private static final String[] RACES = { "human", "dwarf", "elf" };
+
+	private static IMutableMapNG createMap() {
+		final PlayerCollection players = new PlayerCollection();
+		final PlayerImpl player = new PlayerImpl(1, "player", "country");
+		players.add(player);
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(6, 6, 2), players, 0);
+		int id = 1;
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TileType.Plains);
+			final String kind = KINDS[(point.row() + point.column()) % KINDS.length];
+			// "new String" so the map we write doesn't itself share instances.
+			final FortressImpl fortress = new FortressImpl(player, "fortress " + point, id++);
+			fortress.addMember(new ResourcePileImpl(id++, new String(kind), new String("contents"),
+				new Quantity((point.row() % 2 == 0) ? 3 : new BigDecimal("1.5"), new String("pounds"))));
+			retval.addFixture(point, fortress);
+			final Unit unit = new Unit(player, new String("scouts"), "unit " + point, id++);
+			unit.addMember(new Worker("worker " + point, new String(RACES[point.column() % RACES.length]),
+				id++, new Job(new String("hunter"), 2, new Skill(new String("tracking"), 1, 3))));
+			retval.addFixture(point, unit);
+		}
+		return retval;
+	}
+
+	/**
+	 * Collect the strings and numbers in the map that we expect to be shared.
+	 */
+	private static List<Object> sharedValues(final IMapNG map) {
+		final List<Object> retval = new ArrayList<>();
+		retval.add(map.getPlayers().getPlayer(1).getName());
+		for (final Point point : map.getLocations()) {
+			for (final TileFixture fixture : map.getFixtures(point)) {
+				if (fixture instanceof IFortress fortress) {
+					for (final IResourcePile pile : fortress.stream().filter(IResourcePile.class::isInstance)
+							.map(IResourcePile.class::cast).toList()) {
+						retval.add(pile.getKind());
+						retval.add(pile.getContents());
+						retval.add(pile.getQuantity().number());
+						retval.add(pile.getQuantity().units());
+					}
+				} else if (fixture instanceof IUnit unit) {
+					retval.add(unit.getKind());
+					for (final IWorker worker : unit.stream().filter(IWorker.class::isInstance)
+							.map(IWorker.class::cast).toList()) {
+						retval.add(worker.getRace());
+						for (final IJob job : worker) {
+							retval.add(job.getName());
+							for (final ISkill skill : job) {
+								retval.add(skill.getName());
+							}
+						}
+					}
+				}
+			}
+		}
+		return retval;
+	}
+
+	private static IMutableMapNG read(final Path file) throws SPFormatException, IOException, XMLStreamException {
+		try {
+			return MapIOHelper.readMap(file, Warning.DIE);
+		} finally {
+			MapIOHelper.DB_READER.clearCache();
+		}
+	}
+
+	/**
+	 * Test that reading two maps with the same contents, as each player's
+	 * map of a game does, leaves one instance of each distinct string and
+	 * number where otherwise there would be one per fixture per map.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { ".xml", ".db", MapIOHelper.SNAPSHOT_SUFFIX })
+	public void testSharedAcrossMaps(final String suffix, @TempDir final Path directory)
+			throws SPFormatException, IOException, XMLStreamException {
+		final IMapNG map = createMap();
+		final Path first = directory.resolve("first" + suffix);
+		final Path second = directory.resolve("second" + suffix);
+		MapIOHelper.writeMap(first, map);
+		MapIOHelper.writeMap(second, map);
+		final List<Object> one = sharedValues(read(first));
+		final List<Object> two = sharedValues(read(second));
+		assertEquals(sharedValues(map), one, "Map read correctly");
+		assertEquals(one, two, "Same values in both maps");
+		for (int i = 0; i < one.size(); i++) {
+			assertSame(one.get(i), two.get(i), "Value shared between maps: " + one.get(i));
+		}
+		final Set<Object> distinct = new HashSet<>(one);
+		final Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+		instances.addAll(one);
+		instances.addAll(two);
+		assertTrue(one.size() + two.size() > 10 * distinct.size(), "Test map has many repeated values");
+		assertEquals(distinct.size(), instances.size(), "One instance of each distinct value");
+	}
+
+	private static Number parse(final String number) {
+		return number.contains(".") ? new BigDecimal(number) : Integer.valueOf(number);
+	}
+
+	/**
+	 * Test that quantities share numbers only if they are written the same
+	 * way, so numerically-equal quantities keep their representations.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "300", "3.0", "3.00" })
+	public void testQuantityRepresentation(final String number) {
+		final Quantity quantity = LoadInterner.quantity(parse(number), "pounds");
+		final Quantity other = LoadInterner.quantity(parse(number), new String("pounds"));
+		assertEquals(number, quantity.number().toString(), "Quantity keeps its representation");
+		assertSame(quantity.number(), other.number(), "Equal numbers shared");
+		assertSame(quantity.units(), other.units(), "Units shared");
+		assertNotSame(quantity.number(), LoadInterner.quantity(parse(number.contains(".") ? "3" : "300.0"),
+			"pounds").number(), "Differently-written number not shared");
+	}
+}
@@ -0,0 +1,198 @@
+package impl.xmlio;
+
+import common.map.Direction;
+import common.map.HasImage;
+import common.map.IMapNG;
+import common.map.IMutableMapNG;
+import common.map.MapDimensionsImpl;
+import common.map.Player;
+import common.map.PlayerCollection;
+import common.map.PlayerImpl;
+import common.map.Point;
+import common.map.River;
+import common.map.SPMapNG;
+import common.map.TileFixture;
+import common.map.TileType;
+import common.map.fixtures.Ground;
+import common.map.fixtures.TextFixture;
+import common.map.fixtures.explorable.Battlefield;
+import common.map.fixtures.explorable.Cave;
+import common.map.fixtures.mobile.AnimalImpl;
+import common.map.fixtures.mobile.AnimalTracks;
+import common.map.fixtures.mobile.IUnit;
+import common.map.fixtures.mobile.Unit;
+import common.map.fixtures.mobile.Worker;
+import common.map.fixtures.mobile.worker.Job;
+import common.map.fixtures.mobile.worker.Skill;
+import common.map.fixtures.resources.CacheFixture;
+import common.map.fixtures.resources.FieldStatus;
+import common.map.fixtures.resources.Grove;
+import common.map.fixtures.resources.Meadow;
+import common.map.fixtures.resources.MineralVein;
+import common.map.fixtures.resources.Shrub;
+import common.map.fixtures.resources.StoneDeposit;
+import common.map.fixtures.resources.StoneKind;
+import common.map.fixtures.terrain.Forest;
+import common.map.fixtures.terrain.Hill;
+import common.map.fixtures.terrain.Oasis;
+import common.map.fixtures.towns.FortressImpl;
+import common.map.fixtures.towns.Town;
+import common.map.fixtures.towns.TownSize;
+import common.map.fixtures.towns.TownStatus;
+import common.xmlio.SPFormatException;
+import common.xmlio.Warning;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the progress-reporting, cancellable methods in {@link MapIOHelper},
+ * and of the binary snapshot format.
+ */
+public class TestMapIOHelper {
+	private static IMutableMapNG createMap(final String note) {
+		final PlayerCollection players = new PlayerCollection();
+		players.add(new PlayerImpl(1, "player"));
+		final IMutableMapNG retval = new SPMapNG(new MapDimensionsImpl(8, 8, 2), players, 0);
+		for (final Point point : retval.getLocations()) {
+			retval.setBaseTerrain(point, TileType.Steppe);
+			retval.addFixture(point, new TextFixture(note, 1));
+		}
+		return retval;
+	}
+
+	/**
+	 * Test that a map written and read with progress reporting round-trips, and that progress is reported.
+	 */
+	@Test
+	public void testProgressRoundTrip(@TempDir final Path directory)
+			throws IOException, XMLStreamException, SPFormatException {
+		final Path file = directory.resolve("map.xml");
+		final IMapNG map = createMap("original");
+		final long[] written = {0L};
+		MapIOHelper.writeMap(file, map, count -> written[0] = count);
+		assertTrue(written[0] > 0, "Progress was reported while writing");
+		final long[] read = {0L};
+		final IMapNG deserialized = MapIOHelper.readMap(file, Warning.DIE, count -> read[0] = count);
+		assertEquals(Files.size(file), read[0], "Progress reports every byte read");
+		assertEquals(map, deserialized, "Map round-trips");
+	}
+
+	/**
+	 * Test that a map can be saved over itself, with progress reporting,
+	 * more than once in a row, in any format, and read back each time.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { ".xml", ".db", MapIOHelper.SNAPSHOT_SUFFIX })
+	public void testRepeatedSave(final String suffix, @TempDir final Path directory)
+			throws IOException, XMLStreamException, SPFormatException {
+		final Path file = directory.resolve("map" + suffix);
+		for (final String note : new String[] { "first", "second", "third" }) {
+			final IMapNG map = createMap(note);
+			MapIOHelper.writeMap(file, map, count -> {});
+			assertEquals(map, MapIOHelper.readMap(file, Warning.DIE), "Map read back after saving " + note);
+		}
+	}
+
+	/**
+	 * Test that cancelling a write, in any format, leaves the existing file
+	 * untouched and no temporary file behind.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { ".xml", ".db", MapIOHelper.SNAPSHOT_SUFFIX })
+	public void testCancelledWrite(final String suffix, @TempDir final Path directory)
+			throws IOException, XMLStreamException {
+		final Path file = directory.resolve("map" + suffix);
+		MapIOHelper.writeMap(file, createMap("original"));
+		final byte[] before = Files.readAllBytes(file);
+		assertThrows(CancellationException.class, () -> MapIOHelper.writeMap(file, createMap("changed"),
+			count -> {
+				throw new CancellationException("cancelled");
+			}));
+		assertArrayEquals(before, Files.readAllBytes(file), "Cancelled write leaves file untouched");
+		try (final Stream<Path> contents = Files.list(directory)) {
+			assertEquals(1L, contents.count(), "Cancelled write leaves no temporary file");
+		}
+	}
+
+	/**
+	 * Test that a map with every natively-encoded kind of fixture, and some
+	 * that fall back to XML, round-trips through the snapshot format.
+	 */
+	@Test
+	public void testSnapshotRoundTrip(@TempDir final Path directory)
+			throws IOException, XMLStreamException, SPFormatException {
+		final PlayerCollection players = new PlayerCollection();
+		final PlayerImpl one = new PlayerImpl(1, "one", "country");
+		one.setPortrait("portrait.png");
+		one.setCurrent(true);
+		players.add(one);
+		players.add(new PlayerImpl(2, "two"));
+		final IMutableMapNG map = new SPMapNG(new MapDimensionsImpl(6, 7, 2), players, 12);
+		for (final Point point : map.getLocations()) {
+			map.setBaseTerrain(point, TileType.values()[(point.row() + point.column()) %
+				TileType.values().length]);
+		}
+		final Point first = new Point(0, 0);
+		final Point second = new Point(5, 6);
+		map.setBaseTerrain(new Point(2, 3), null);
+		map.setMountainous(first, true);
+		map.addRivers(first, River.North, River.Lake);
+		map.setRoadLevel(second, Direction.Southwest, 3);
+		map.addBookmark(second, one);
+		final Forest forest = new Forest("oak", true, 2, new BigDecimal("1.5"));
+		forest.setImage("forest.png");
+		final List<TileFixture> natives = List.of(new Ground(1, "granite", true), forest,
+			new Hill(3), new Oasis(4), new Shrub("shrub", 5, 6), new Grove(true, false, "apple", 7, 8),
+			new Meadow("wheat", true, true, 9, FieldStatus.Growing, 10),
+			new MineralVein("iron", false, 11, 12), new StoneDeposit(StoneKind.Marble, 13, 14),
+			new AnimalImpl("deer", false, "wild", 15, -1, 16), new AnimalTracks("wolf"),
+			new TextFixture("note", 17), new CacheFixture("chest", "gold", 18), new Cave(19, 20),
+			new Battlefield(21, 22));
+		natives.forEach(fixture -> map.addFixture(first, fixture));
+		final Unit unit = new Unit(one, "kind", "unit", 23);
+		unit.addMember(new Worker("worker", "human", 24, new Job("job", 2, new Skill("skill", 1, 3))));
+		map.addFixture(second, unit);
+		final FortressImpl fortress = new FortressImpl(one, "fortress", 25);
+		fortress.addMember(new Unit(players.getPlayer(2), "other", "inner", 26));
+		map.addFixture(second, fortress);
+		map.addFixture(second, new Town(TownStatus.Active, TownSize.Small, 27, "town", 28,
+			players.getPlayer(2)));
+		final Path file = directory.resolve("map" + MapIOHelper.SNAPSHOT_SUFFIX);
+		final long[] written = {0L};
+		MapIOHelper.writeMap(file, map, count -> written[0] = count);
+		assertEquals(Files.size(file), written[0], "Progress reports every byte written");
+		final long[] read = {0L};
+		final IMapNG deserialized = MapIOHelper.readMap(file, Warning.DIE, count -> read[0] = count);
+		assertEquals(Files.size(file), read[0], "Progress reports every byte read");
+		assertEquals(map, deserialized, "Map round-trips through a snapshot");
+		assertEquals(Set.of(second), deserialized.getBookmarksFor(one), "Bookmarks round-trip");
+		assertEquals("forest.png", deserialized.getFixtures(first).stream()
+			.filter(Forest.class::isInstance).map(Forest.class::cast).map(HasImage::getImage).findAny().orElse(""),
+			"Images round-trip");
+		final Player current = deserialized.getCurrentPlayer();
+		assertEquals("portrait.png", current.getPortrait(), "Player portrait round-trips");
+		assertEquals("country", current.getCountry(), "Player country round-trips");
+		assertSame(deserialized.getPlayers().getPlayer(1), deserialized.getFixtures(second).stream()
+			.filter(IUnit.class::isInstance).map(IUnit.class::cast).findAny().orElseThrow().owner(),
+			"Owners of fixtures written as XML are the map's players");
+		assertEquals(deserialized, MapIOHelper.readMap(file), "Reading without progress gives the same map");
+	}
+}
@@ -14,6 +14,7 @@ import common.map.IMapNG;
 
 import common.map.fixtures.TerrainFixture;
 import common.map.fixtures.Ground;
+import common.perf.ReportGeneratorEvent;
 
 import report.generators.AnimalReportGenerator;
 import report.generators.VillageReportGenerator;
@@ -45,8 +46,12 @@ public final class ReportGenerator {
 	                                     final DelayedRemovalMap<Integer, Pair<Point, IFixture>> fixtures, final IMapNG map,
 	                                     final Player player, final IReportGenerator<?>... generators) throws IOException {
 		for (final IReportGenerator<?> generator : generators) {
+			final ReportGeneratorEvent event = new ReportGeneratorEvent(generator.getClass());
+			final int remaining = fixtures.size();
+			event.begin();
 			generator.produce(fixtures, map, builder::append);
 			fixtures.coalesce();
+			event.commitFor(map, remaining);
 		}
 	}
 
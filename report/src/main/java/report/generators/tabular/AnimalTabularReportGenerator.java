@@ -23,7 +23,7 @@ import java.util.Collections;
  * A report generator for {@link Animal animal populations} and {@link
  * AnimalTracks sightings of animals}.
  */
-public class AnimalTabularReportGenerator implements ITableGenerator<AnimalOrTracks> {
+public class AnimalTabularReportGenerator implements DistanceSortedTableGenerator<AnimalOrTracks> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof AnimalOrTracks;
@@ -109,6 +109,16 @@ public class AnimalTabularReportGenerator implements ITableGenerator<AnimalOrTra
 			locationString(loc), population, kind, age));
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two pairs of Animals and locations.
 	 */
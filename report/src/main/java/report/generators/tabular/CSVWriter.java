@@ -0,0 +1,133 @@
+package report.generators.tabular;
+
+import java.io.IOException;
+import java.util.List;
+
+import lovelace.util.ThrowingConsumer;
+
+/**
+ * A writer for comma-separated-value rows. Each field that contains the field
+ * delimiter, the row delimiter, or a space is wrapped in quotes, and any
+ * quote characters in a field are doubled. Rows are accumulated in a buffer
+ * that is passed to the underlying stream in large chunks, rather than
+ * handing it each field and delimiter separately; callers must call {@link
+ * #flush} when they are done.
+ */
+public final class CSVWriter {
+	/**
+	 * How many characters we accumulate before passing them on.
+	 */
+	private static final int FLUSH_THRESHOLD = 8192;
+
+	/**
+	 * The stream to write to.
+	 */
+	private final ThrowingConsumer<String, IOException> ostream;
+
+	/**
+	 * The field delimiter.
+	 */
+	private final char fieldDelimiter;
+
+	/**
+	 * The row delimiter.
+	 */
+	private final String rowDelimiter;
+
+	/**
+	 * Characters written but not yet passed to the stream.
+	 */
+	private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+
+	public CSVWriter(final ThrowingConsumer<String, IOException> ostream, final char fieldDelimiter,
+	                 final String rowDelimiter) {
+		this.ostream = ostream;
+		this.fieldDelimiter = fieldDelimiter;
+		this.rowDelimiter = rowDelimiter;
+	}
+
+	/**
+	 * Whether the given field has to be quoted.
+	 */
+	private boolean needsQuotes(final String field) {
+		for (int i = 0; i < field.length(); i++) {
+			final char ch = field.charAt(i);
+			if (ch == fieldDelimiter || ch == ' ') {
+				return true;
+			}
+		}
+		return field.contains(rowDelimiter);
+	}
+
+	/**
+	 * Append one field to the buffer, quoting it if necessary.
+	 */
+	private void appendField(final String field) {
+		final boolean quoted = needsQuotes(field);
+		if (quoted) {
+			buffer.append('"');
+		}
+		int start = 0;
+		for (int i = 0; i < field.length(); i++) {
+			if (field.charAt(i) == '"') {
+				buffer.append(field, start, i + 1).append('"');
+				start = i + 1;
+			}
+		}
+		buffer.append(field, start, field.length());
+		if (quoted) {
+			buffer.append('"');
+		}
+	}
+
+	/**
+	 * Pass on the buffer if it has grown large enough.
+	 */
+	private void endRow() throws IOException {
+		buffer.append(rowDelimiter);
+		if (buffer.length() >= FLUSH_THRESHOLD) {
+			flush();
+		}
+	}
+
+	/**
+	 * Write multiple fields to a row, quoting as necessary, separated by the
+	 * field delimiter, with the last field followed by the row delimiter.
+	 */
+	public void writeRow(final String... fields) throws IOException {
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				buffer.append(fieldDelimiter);
+			}
+			appendField(fields[i]);
+		}
+		endRow();
+	}
+
+	/**
+	 * Write multiple fields to a row, quoting as necessary, separated by the
+	 * field delimiter, with the last field followed by the row delimiter.
+	 */
+	public void writeRow(final List<String> fields) throws IOException {
+		boolean firstField = true;
+		for (final String field : fields) {
+			if (firstField) {
+				firstField = false;
+			} else {
+				buffer.append(fieldDelimiter);
+			}
+			appendField(field);
+		}
+		endRow();
+	}
+
+	/**
+	 * Pass everything written so far to the underlying stream.
+	 */
+	public void flush() throws IOException {
+		if (!buffer.isEmpty()) {
+			ostream.accept(buffer.toString());
+			buffer.setLength(0);
+		}
+	}
+}
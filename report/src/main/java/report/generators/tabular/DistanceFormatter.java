@@ -0,0 +1,73 @@
+package report.generators.tabular;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Formats the square roots of squared distances to one decimal place,
+ * producing the same text as <code>String.format("%1.1f", Math.sqrt(distance))</code>
+ * in the default locale without parsing a format string or allocating a
+ * {@link java.util.Formatter} each time.
+ *
+ * The square root of an integer that is not a perfect square is never within
+ * rounding error of a half-tenth, so rounding it to the nearest tenth gives
+ * the same digits as the formatter's half-up rounding of its decimal expansion.
+ */
+/* package */ final class DistanceFormatter {
+	private DistanceFormatter() {
+	}
+
+	/**
+	 * The digits and separator of a locale.
+	 */
+	private record Symbols(Locale locale, char zeroDigit, char decimalSeparator) {
+		public static Symbols forLocale(final Locale locale) {
+			final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+			return new Symbols(locale, symbols.getZeroDigit(), symbols.getDecimalSeparator());
+		}
+	}
+
+	/**
+	 * The symbols of the most recently used locale.
+	 */
+	private static volatile @Nullable Symbols cachedSymbols = null;
+
+	private static Symbols symbols() {
+		final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		final Symbols cached = cachedSymbols;
+		if (cached != null && cached.locale().equals(locale)) {
+			return cached;
+		}
+		final Symbols retval = Symbols.forLocale(locale);
+		cachedSymbols = retval;
+		return retval;
+	}
+
+	/**
+	 * Append the decimal digits of a non-negative number, in the given locale's digits.
+	 */
+	private static void appendDigits(final StringBuilder builder, final long number, final char zeroDigit) {
+		final int start = builder.length();
+		builder.append(number);
+		if (zeroDigit != '0') {
+			for (int i = start; i < builder.length(); i++) {
+				builder.setCharAt(i, (char) (builder.charAt(i) - '0' + zeroDigit));
+			}
+		}
+	}
+
+	/**
+	 * The square root of the given (non-negative) squared distance, to one decimal place.
+	 */
+	public static String format(final int squaredDistance) {
+		final Symbols symbols = symbols();
+		final long tenths = Math.round(Math.sqrt(squaredDistance) * 10);
+		final StringBuilder builder = new StringBuilder(12);
+		appendDigits(builder, tenths / 10, symbols.zeroDigit());
+		builder.append(symbols.decimalSeparator());
+		appendDigits(builder, tenths % 10, symbols.zeroDigit());
+		return builder.toString();
+	}
+}
@@ -0,0 +1,33 @@
+package report.generators.tabular;
+
+import org.jetbrains.annotations.Nullable;
+
+import common.map.IFixture;
+import common.map.MapDimensions;
+import common.map.Point;
+
+/**
+ * A tabular-report generator whose rows are ordered first by distance from
+ * the player's HQ, so that distance can serve as their primitive {@link
+ * #sortKey}.
+ */
+public interface DistanceSortedTableGenerator<T extends IFixture> extends ITableGenerator<T> {
+	/**
+	 * The location of the player's HQ, if known.
+	 */
+	@Nullable Point getHq();
+
+	/**
+	 * The dimensions of the map.
+	 */
+	MapDimensions getMapDimensions();
+
+	/**
+	 * The (squared) distance from HQ, by which rows are ordered first.
+	 */
+	@Override
+	default int sortKey(final Point loc, final T item) {
+		final Point hq = getHq();
+		return (hq == null) ? 0 : distance(loc, hq, getMapDimensions());
+	}
+}
@@ -29,7 +29,7 @@ import java.util.Collections;
  * covered elsewhere: caves, battlefields, adventure hooks, and portals.
  */
 public class ExplorableTabularReportGenerator
-		implements ITableGenerator</*ExplorableFixture|TextFixture*/TileFixture> {
+		implements DistanceSortedTableGenerator</*ExplorableFixture|TextFixture*/TileFixture> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof ExplorableFixture || fixture instanceof TextFixture;
@@ -123,6 +123,16 @@ public class ExplorableTabularReportGenerator
 			locationString(loc), brief, owner, longDesc));
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two Point-fixture pairs.
 	 */
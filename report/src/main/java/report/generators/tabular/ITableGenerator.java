@@ -15,11 +15,11 @@ import common.map.Point;
 import javax.swing.table.TableModel;
 import javax.swing.table.DefaultTableModel;
 
-import java.util.regex.Pattern;
-
 import org.javatuples.Pair;
 import org.javatuples.Triplet;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Comparator;
 import java.util.stream.Collectors;
@@ -30,11 +30,6 @@ import java.util.stream.Collectors;
  * constructor parameters.
  */
 public interface ITableGenerator<T extends IFixture> {
-	/**
-	 * A regular expression to match quote characters.
-	 */
-	Pattern QUOTE_PATTERN = Pattern.compile("\"");
-
 	/**
 	 * Whether this generator can include the given fixture. If this returns false for an object, that object may
 	 * cause a {@link ClassCastException} if passed to other methods.
@@ -48,22 +43,91 @@ public interface ITableGenerator<T extends IFixture> {
 	default void produceTable(final ThrowingConsumer<String, IOException> ostream, final DelayedRemovalMap<Integer,
 			Pair<Point, IFixture>> fixtures, final Map<Integer, Integer> parentMap)
 			throws IOException {
-		final Iterable<Triplet<Integer, Point, T>> values = fixtures.entrySet().stream()
-			.filter(e -> canHandle(e.getValue().getValue1()))
-			.map(e -> Triplet.with(e.getKey(), e.getValue().getValue0(),
-				(T) e.getValue().getValue1()))
-			.sorted(Comparator.comparing(Triplet::removeFrom0, comparePairs()))
-			.collect(Collectors.toList());
-		writeRow(ostream, getHeaderRow().toArray(String[]::new));
+		final CSVWriter writer = new CSVWriter(ostream, getFieldDelimiter(), getRowDelimiter());
+		produceTable(writer, fixtures, parentMap);
+		writer.flush();
+	}
+
+	/**
+	 * Produce a tabular report on a particular category of fixtures in the
+	 * map, and remove all fixtures covered in the table from the collection.
+	 * The caller is responsible for flushing the writer.
+	 */
+	default void produceTable(final CSVWriter writer, final DelayedRemovalMap<Integer,
+			Pair<Point, IFixture>> fixtures, final Map<Integer, Integer> parentMap)
+			throws IOException {
+		final List<Triplet<Integer, Point, T>> values = sortedValues(fixtures);
+		writer.writeRow(getHeaderRow());
 		for (final Triplet<Integer, Point, T> triplet : values) {
 			for (final List<String> row : produce(fixtures, triplet.getValue2(),
 					triplet.getValue0(), triplet.getValue1(), parentMap)) {
-				writeRow(ostream, row.toArray(String[]::new));
+				writer.writeRow(row);
 			}
 		}
 		fixtures.coalesce();
 	}
 
+	/**
+	 * The fixtures in the collection that this generator can handle, with
+	 * their keys and locations, in the order given by {@link #comparePairs}.
+	 */
+	default List<Triplet<Integer, Point, T>> sortedValues(
+			final DelayedRemovalMap<Integer, Pair<Point, IFixture>> fixtures) {
+		final List<Triplet<Integer, Point, T>> values = fixtures.entrySet().stream()
+			.filter(e -> canHandle(e.getValue().getValue1()))
+			.map(e -> Triplet.with(e.getKey(), e.getValue().getValue0(),
+				(T) e.getValue().getValue1()))
+			.collect(Collectors.toCollection(ArrayList::new));
+		sortValues(values);
+		return values;
+	}
+
+	/**
+	 * Sort the given key-location-fixture triplets, in place, in the order
+	 * given by {@link #comparePairs}. The rows are first sorted by their
+	 * {@link #sortKey} as primitives, and then {@link #comparePairs} is only
+	 * used to order rows with equal keys. Like {@link List#sort}, this is
+	 * stable.
+	 */
+	default void sortValues(final List<Triplet<Integer, Point, T>> values) {
+		final int size = values.size();
+		final long[] keys = new long[size];
+		for (int i = 0; i < size; i++) {
+			final Triplet<Integer, Point, T> triplet = values.get(i);
+			keys[i] = ((long) sortKey(triplet.getValue1(), triplet.getValue2()) << 32) | i;
+		}
+		Arrays.sort(keys);
+		final List<Triplet<Integer, Point, T>> original = new ArrayList<>(values);
+		final Comparator<Triplet<Integer, Point, T>> comparator =
+			Comparator.comparing(Triplet::removeFrom0, comparePairs());
+		int start = 0;
+		while (start < size) {
+			int end = start + 1;
+			while (end < size && (keys[end] >> 32) == (keys[start] >> 32)) {
+				end++;
+			}
+			for (int i = start; i < end; i++) {
+				values.set(i, original.get((int) keys[i]));
+			}
+			if (end - start > 1) {
+				values.subList(start, end).sort(comparator);
+			}
+			start = end;
+		}
+	}
+
+	/**
+	 * A primitive key for sorting the given fixture at the given location,
+	 * consistent with {@link #comparePairs}: if two rows' keys differ, they
+	 * must compare in the same order as their keys. Generators whose
+	 * ordering starts with the distance from HQ get that distance from
+	 * {@link DistanceSortedTableGenerator}; the default, the same for every
+	 * row, leaves the ordering entirely to {@link #comparePairs}.
+	 */
+	default int sortKey(final Point loc, final T item) {
+		return 0;
+	}
+
 	/**
 	 * Produce a tabular report on a particular category of fixtures in the
 	 * map, in the format of a model for a Swing JTable, and remove all
@@ -71,12 +135,7 @@ public interface ITableGenerator<T extends IFixture> {
 	 */
 	default TableModel produceTableModel(final DelayedRemovalMap<Integer, Pair<Point, IFixture>> fixtures,
 	                                     final Map<Integer, Integer> parentMap) {
-		final Iterable<Triplet<Integer, Point, T>> values = fixtures.entrySet().stream()
-			.filter(e -> canHandle(e.getValue().getValue1()))
-			.map(e -> Triplet.with(e.getKey(), e.getValue().getValue0(),
-				(T) e.getValue().getValue1()))
-			.sorted(Comparator.comparing(Triplet::removeFrom0, comparePairs()))
-			.collect(Collectors.toList());
+		final List<Triplet<Integer, Point, T>> values = sortedValues(fixtures);
 		final DefaultTableModel retval = new DefaultTableModel(getHeaderRow().toArray(), 0);
 		int count = 0;
 		for (final Triplet<Integer, Point, T> triplet : values) {
@@ -135,13 +194,14 @@ public interface ITableGenerator<T extends IFixture> {
 	/**
 	 * A String showing the distance between two points, suitable to be
 	 * displayed, rounded to a tenth of a tile. This default implementation
-	 * just takes the square root of {@link #distance} and formats it,
+	 * just takes the square root of {@link #distance} and formats it as
+	 * <code>String.format("%1.1f", ...)</code> would,
 	 * unless one or both of the points is null or invalid, in which case it prints "unknown" instead.
 	 */
 	default String distanceString(final @Nullable Point first, final @Nullable Point second,
 	                              final MapDimensions dimensions) {
 		if (first != null && second != null && first.isValid() && second.isValid()) {
-			return String.format("%1.1f", Math.sqrt(distance(first, second, dimensions)));
+			return DistanceFormatter.format(distance(first, second, dimensions));
 		} else {
 			return "unknown";
 		}
@@ -202,23 +262,9 @@ public interface ITableGenerator<T extends IFixture> {
 	 * delimiter.
 	 */
 	default void writeRow(final ThrowingConsumer<String, IOException> ostream, final String... fields) throws IOException {
-		boolean firstField = true;
-		for (final String field : fields) {
-			if (firstField) {
-				firstField = false;
-			} else {
-				ostream.accept(Character.toString(getFieldDelimiter()));
-			}
-			final String quotesQuoted = QUOTE_PATTERN.matcher(field).replaceAll("\"\"");
-			if (quotesQuoted.contains(Character.toString(getFieldDelimiter())) ||
-					quotesQuoted.contains(getRowDelimiter()) ||
-					quotesQuoted.contains(" ")) {
-				ostream.accept(String.format("\"%s\"", quotesQuoted));
-			} else {
-				ostream.accept(quotesQuoted);
-			}
-		}
-		ostream.accept(getRowDelimiter());
+		final CSVWriter writer = new CSVWriter(ostream, getFieldDelimiter(), getRowDelimiter());
+		writer.writeRow(fields);
+		writer.flush();
 	}
 
 	/**
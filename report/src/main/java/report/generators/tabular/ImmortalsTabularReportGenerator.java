@@ -19,7 +19,7 @@ import common.map.fixtures.mobile.Immortal;
 /**
  * A tabular report generator for {@link Immortal "immortals."}
  */
-public class ImmortalsTabularReportGenerator implements ITableGenerator<Immortal> {
+public class ImmortalsTabularReportGenerator implements DistanceSortedTableGenerator<Immortal> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof Immortal;
@@ -67,6 +67,16 @@ public class ImmortalsTabularReportGenerator implements ITableGenerator<Immortal
 			locationString(loc), item.toString()));
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two Point-fixture pairs.
 	 * @return
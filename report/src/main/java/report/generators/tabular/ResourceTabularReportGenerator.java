@@ -6,12 +6,12 @@ import org.javatuples.Pair;
 import org.javatuples.Triplet;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Comparator;
 
 import lovelace.util.DelayedRemovalMap;
-import lovelace.util.ThrowingConsumer;
 
 import common.DistanceComparator;
 
@@ -30,7 +30,7 @@ import java.util.stream.Collectors;
  * caches}, {@link IResourcePile resource piles}, and {@link Implement equipment}.
  */
 public class ResourceTabularReportGenerator
-		implements ITableGenerator</*Implement|CacheFixture|IResourcePile*/IFixture> {
+		implements DistanceSortedTableGenerator</*Implement|CacheFixture|IResourcePile*/IFixture> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof Implement || fixture instanceof CacheFixture || fixture instanceof  IResourcePile;
@@ -133,6 +133,16 @@ public class ResourceTabularReportGenerator
 		}
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two Point-fixture pairs.
 	 * @return
@@ -148,17 +158,17 @@ public class ResourceTabularReportGenerator
 	 * Write rows for equipment, counting multiple identical Implements in one line.
 	 */
 	@Override
-	public void produceTable(final ThrowingConsumer<String, IOException> ostream,
+	public void produceTable(final CSVWriter writer,
 	                         final DelayedRemovalMap<Integer, Pair<Point, IFixture>> fixtures,
 	                         final Map<Integer, Integer> parentMap) throws IOException {
-		final Iterable<Triplet<Integer, Point, IFixture>> values = fixtures.entrySet().stream()
+		final List<Triplet<Integer, Point, IFixture>> values = fixtures.entrySet().stream()
 			.filter(e -> e instanceof CacheFixture || e instanceof Implement ||
 				e instanceof IResourcePile)
 			.map(e -> Triplet.with(e.getKey(), e.getValue().getValue0(),
 					e.getValue().getValue1()))
-			.sorted(Comparator.comparing(Triplet::removeFrom0, comparePairs()))
-			.collect(Collectors.toList());
-		writeRow(ostream, getHeaderRow().toArray(String[]::new));
+			.collect(Collectors.toCollection(ArrayList::new));
+		sortValues(values);
+		writer.writeRow(getHeaderRow());
 		final Map<Pair<Point, String>, Integer> implementCounts = new HashMap<>();
 		for (final Triplet<Integer, Point, IFixture> triplet : values) {
 			final int key = triplet.getValue0();
@@ -171,7 +181,7 @@ public class ResourceTabularReportGenerator
 				fixtures.remove(key);
 			} else {
 				for (final List<String> row : produce(fixtures, fixture, key, loc, parentMap)) {
-					writeRow(ostream, row.toArray(String[]::new));
+					writer.writeRow(row);
 					fixtures.remove(key);
 				}
 			}
@@ -180,7 +190,7 @@ public class ResourceTabularReportGenerator
 			final Point loc = entry.getKey().getValue0();
 			final String key = entry.getKey().getValue1();
 			final int count = entry.getValue();
-			writeRow(ostream, distanceString(loc, hq, dimensions), locationString(loc),
+			writer.writeRow(distanceString(loc, hq, dimensions), locationString(loc),
 				"equipment", Integer.toString(count), key);
 		}
 		fixtures.coalesce();
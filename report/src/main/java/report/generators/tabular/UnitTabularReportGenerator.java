@@ -24,7 +24,7 @@ import java.util.Collections;
 /**
  * A tabular report generator for units.
  */
-public class UnitTabularReportGenerator implements ITableGenerator<IUnit> {
+public class UnitTabularReportGenerator implements DistanceSortedTableGenerator<IUnit> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof IUnit;
@@ -90,6 +90,16 @@ public class UnitTabularReportGenerator implements ITableGenerator<IUnit> {
 		return Collections.singletonList(retval);
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two location-unit pairs.
 	 * @return
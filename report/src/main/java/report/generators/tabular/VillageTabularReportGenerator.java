@@ -20,7 +20,7 @@ import java.util.Comparator;
 /**
  * A tabular report generator for villages.
  */
-public class VillageTabularReportGenerator implements ITableGenerator<Village> {
+public class VillageTabularReportGenerator implements DistanceSortedTableGenerator<Village> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof Village;
@@ -71,6 +71,16 @@ public class VillageTabularReportGenerator implements ITableGenerator<Village> {
 			locationString(loc), ownerString(player, item.owner()), item.getName()));
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two location-and-village pairs.
 	 * @return
@@ -27,7 +27,7 @@ import java.util.stream.Collectors;
  *
  * TODO: Should probably include something about mount and/or equipment
  */
-public class WorkerTabularReportGenerator implements ITableGenerator<IWorker> {
+public class WorkerTabularReportGenerator implements DistanceSortedTableGenerator<IWorker> {
 	@Override
 	public boolean canHandle(final IFixture fixture) {
 		return fixture instanceof IWorker;
@@ -89,6 +89,16 @@ public class WorkerTabularReportGenerator implements ITableGenerator<IWorker> {
 		}
 	}
 
+	@Override
+	public @Nullable Point getHq() {
+		return hq;
+	}
+
+	@Override
+	public MapDimensions getMapDimensions() {
+		return dimensions;
+	}
+
 	/**
 	 * Compare two worker-location pairs.
 	 * @return
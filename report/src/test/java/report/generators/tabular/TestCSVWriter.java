@@ -0,0 +1,135 @@
+package report.generators.tabular;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.javatuples.Pair;
+import org.javatuples.Triplet;
+import org.junit.jupiter.api.Test;
+
+import lovelace.util.DelayedRemovalMap;
+import lovelace.util.IntMap;
+
+import common.map.IFixture;
+import common.map.MapDimensionsImpl;
+import common.map.Point;
+import common.map.fixtures.mobile.IWorker;
+import common.map.fixtures.mobile.Worker;
+
+/**
+ * Tests that {@link CSVWriter}, {@link DistanceFormatter}, and the sorting of
+ * table rows produce exactly what the previous, regex- and format-string-based
+ * implementations did.
+ */
+public final class TestCSVWriter {
+	private static final Pattern QUOTE_PATTERN = Pattern.compile("\"");
+
+	/**
+	 * The previous implementation of {@link ITableGenerator#writeRow}.
+	 */
+	private static void referenceRow(final StringBuilder ostream, final String... fields) {
+		boolean firstField = true;
+		for (final String field : fields) {
+			if (firstField) {
+				firstField = false;
+			} else {
+				ostream.append(',');
+			}
+			final String quotesQuoted = QUOTE_PATTERN.matcher(field).replaceAll("\"\"");
+			if (quotesQuoted.contains(",") || quotesQuoted.contains(System.lineSeparator()) ||
+					quotesQuoted.contains(" ")) {
+				ostream.append(String.format("\"%s\"", quotesQuoted));
+			} else {
+				ostream.append(quotesQuoted);
+			}
+		}
+		ostream.append(System.lineSeparator());
+	}
+
+	/**
+	 * Test that rows with awkward fields are written as they used to be.
+	 */
+	@Test
+	public void testQuoting() throws IOException {
+		final String[] pieces = { "a", "bc", ",", " ", "\"", "\n", "\r", System.lineSeparator(), "" };
+		final Random random = new Random(35);
+		final StringBuilder expected = new StringBuilder();
+		final StringBuilder actual = new StringBuilder();
+		final CSVWriter writer = new CSVWriter(actual::append, ',', System.lineSeparator());
+		for (int row = 0; row < 5000; row++) {
+			final String[] fields = new String[random.nextInt(5)];
+			for (int i = 0; i < fields.length; i++) {
+				final StringBuilder field = new StringBuilder();
+				final int length = random.nextInt(6);
+				for (int j = 0; j < length; j++) {
+					field.append(pieces[random.nextInt(pieces.length)]);
+				}
+				fields[i] = field.toString();
+			}
+			referenceRow(expected, fields);
+			if (row % 2 == 0) {
+				writer.writeRow(fields);
+			} else {
+				writer.writeRow(List.of(fields));
+			}
+		}
+		writer.flush();
+		assertEquals(expected.toString(), actual.toString(), "CSV output is unchanged");
+	}
+
+	/**
+	 * Test that distances are formatted as <code>String.format("%1.1f", ...)</code> would.
+	 */
+	@Test
+	public void testDistanceFormat() {
+		final Locale original = Locale.getDefault(Locale.Category.FORMAT);
+		try {
+			for (final Locale locale : List.of(Locale.US, Locale.GERMANY,
+					Locale.forLanguageTag("ar-EG"), Locale.forLanguageTag("hi-IN-u-nu-deva"))) {
+				Locale.setDefault(Locale.Category.FORMAT, locale);
+				for (int distance = 0; distance < 100_000; distance++) {
+					assertEquals(String.format("%1.1f", Math.sqrt(distance)),
+						DistanceFormatter.format(distance), "Formatting distance in " + locale);
+				}
+				assertEquals(String.format("%1.1f", Math.sqrt(Integer.MAX_VALUE)),
+					DistanceFormatter.format(Integer.MAX_VALUE), "Formatting a huge distance");
+			}
+		} finally {
+			Locale.setDefault(Locale.Category.FORMAT, original);
+		}
+	}
+
+	/**
+	 * Test that sorting rows by their primitive keys gives the same order as
+	 * sorting them with only the generator's comparator.
+	 */
+	@Test
+	public void testSortOrder() {
+		final Random random = new Random(1035);
+		final WorkerTabularReportGenerator generator =
+			new WorkerTabularReportGenerator(new Point(20, 30), new MapDimensionsImpl(60, 70, 2));
+		final DelayedRemovalMap<Integer, Pair<Point, IFixture>> fixtures = new IntMap<>();
+		for (int id = 0; id < 3000; id++) {
+			fixtures.put(id, Pair.with(new Point(random.nextInt(60), random.nextInt(70)),
+				new Worker("worker" + random.nextInt(50), "human", id)));
+		}
+		final List<Triplet<Integer, Point, IWorker>> expected = fixtures.entrySet().stream()
+			.map(e -> Triplet.with(e.getKey(), e.getValue().getValue0(),
+				(IWorker) e.getValue().getValue1()))
+			.sorted(Comparator.comparing(Triplet::removeFrom0, generator.comparePairs()))
+			.collect(Collectors.toList());
+		assertEquals(expected, generator.sortedValues(fixtures), "Rows are in the same order");
+		final List<Triplet<Integer, Point, IWorker>> unkeyed = new ArrayList<>(expected);
+		new WorkerTabularReportGenerator(null, new MapDimensionsImpl(60, 70, 2)).sortValues(unkeyed);
+		assertEquals(expected.stream().sorted(Comparator.comparing(t -> t.getValue2().getName()))
+				.collect(Collectors.toList()), unkeyed, "Without HQ, only the comparator is used");
+	}
+}